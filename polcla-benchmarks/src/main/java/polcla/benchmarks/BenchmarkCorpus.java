@@ -0,0 +1,224 @@
+package polcla.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.logging.FileHandler;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import polcla.CorpusGenerator;
+import polcla.SentenceList;
+import polcla.SentimentLex;
+import polcla.ShifterLex;
+
+/**
+ * The inputs of the benchmarks: the corpus in src/main/resources/Input of
+ * polcla, repeated <code>scale</code> times, or a corpus of
+ * <code>scale</code> * 1000 sentences written by polcla's
+ * {@link CorpusGenerator}, and the bundled lexicons.
+ *
+ * The polcla directory is taken from the system property polcla.dir and
+ * defaults to ../polcla.
+ */
+public class BenchmarkCorpus {
+
+  private static final Pattern ID = Pattern.compile("\\b(id|idref|root)=\"");
+  private static final int LOG_FILES = 3;
+
+  private static File logDir;
+  private static Handler logHandler;
+
+  final File textInput;
+  final File dependencyInput;
+  final File constituencyInput;
+  final int sentences;
+
+  private BenchmarkCorpus(File dir, int sentences) {
+    this.textInput = new File(dir, "raw_text.txt");
+    this.dependencyInput = new File(dir, "dependency_parse.txt");
+    this.constituencyInput = new File(dir, "constituency_parse.xml");
+    this.sentences = sentences;
+  }
+
+  static Path polclaDir() {
+    return Paths.get(System.getProperty("polcla.dir", "../polcla"));
+  }
+
+  static Path inputDir() {
+    return polclaDir().resolve("src/main/resources/Input");
+  }
+
+  /**
+   * Creates the corpus of a benchmark.
+   *
+   * @param source "bundled" for the corpus in src/main/resources/Input,
+   * "synthetic" for a generated corpus.
+   * @param scale The number of copies of the bundled corpus, or the number of
+   * generated sentences in thousands.
+   * @return The corpus.
+   * @throws IOException If the corpus could not be read or written.
+   */
+  static BenchmarkCorpus create(String source, int scale) throws IOException {
+    switch (source) {
+      case "bundled":
+        return create(scale);
+      case "synthetic":
+        return synthetic(scale * 1000);
+      default:
+        throw new IllegalArgumentException("Unknown corpus source " + source);
+    }
+  }
+
+  /**
+   * Writes the bundled corpus, repeated scale times, to a temporary directory.
+   * The ids of the XML copies are prefixed with the number of the copy, so
+   * they stay unique.
+   *
+   * @param scale The number of copies.
+   * @return The corpus.
+   * @throws IOException If the corpus could not be read or written.
+   */
+  static BenchmarkCorpus create(int scale) throws IOException {
+    String text = read(inputDir().resolve("raw_text.txt"));
+    String dependencies = read(inputDir().resolve("dependency_parse.txt"));
+    String xml = read(inputDir().resolve("constituency_parse.xml"));
+
+    text = text.endsWith("\n") ? text : text + "\n";
+    dependencies = dependencies.replaceAll("\\s+$", "") + "\n\n";
+    int bodyStart = xml.indexOf("<body>") + "<body>".length();
+    int bodyEnd = xml.lastIndexOf("</body>");
+    String body = xml.substring(bodyStart, bodyEnd);
+
+    StringBuilder scaledText = new StringBuilder();
+    StringBuilder scaledDependencies = new StringBuilder();
+    StringBuilder scaledXml = new StringBuilder(xml.substring(0, bodyStart));
+    for (int copy = 0; copy < scale; copy++) {
+      scaledText.append(text);
+      scaledDependencies.append(dependencies);
+      if (copy == 0) {
+        scaledXml.append(body);
+      } else {
+        Matcher m = ID.matcher(body);
+        scaledXml.append(m.replaceAll("$1=\"c" + copy + "_"));
+      }
+    }
+    scaledXml.append(xml.substring(bodyEnd));
+
+    File dir = Files.createTempDirectory("polcla-benchmark").toFile();
+    dir.deleteOnExit();
+    BenchmarkCorpus corpus = new BenchmarkCorpus(dir, scale * text.split("\n").length);
+    write(corpus.textInput, scaledText.toString());
+    write(corpus.dependencyInput, scaledDependencies.toString());
+    write(corpus.constituencyInput, scaledXml.toString());
+    return corpus;
+  }
+
+  /**
+   * Writes a generated corpus with the default settings of
+   * {@link CorpusGenerator} and a fixed seed to a temporary directory.
+   *
+   * @param sentences The number of sentences.
+   * @return The corpus.
+   * @throws IOException If the corpus could not be written.
+   */
+  static BenchmarkCorpus synthetic(int sentences) throws IOException {
+    File dir = Files.createTempDirectory("polcla-benchmark").toFile();
+    dir.deleteOnExit();
+    BenchmarkCorpus corpus = new BenchmarkCorpus(dir, sentences);
+    new CorpusGenerator(sentimentLex(), shifterLex(), 1).generate(sentences, dir, false);
+    corpus.textInput.deleteOnExit();
+    corpus.dependencyInput.deleteOnExit();
+    corpus.constituencyInput.deleteOnExit();
+    return corpus;
+  }
+
+  /**
+   * Reads the raw text and the dependency parse of the corpus.
+   *
+   * @return The sentences with their dependency graphs.
+   */
+  SentenceList readSentences() {
+    SentenceList list = new SentenceList();
+    list.rawToSentenceList(textInput.getPath());
+    list.readDependencyParse(dependencyInput.getPath());
+    return list;
+  }
+
+  static SentimentLex sentimentLex() {
+    SentimentLex lex = new SentimentLex(true, false);
+    lex.fileToLex(polclaDir().resolve("src/main/resources/dictionaries/germanlex.txt").toString());
+    return lex;
+  }
+
+  static ShifterLex shifterLex() {
+    ShifterLex lex = new ShifterLex(true);
+    lex.fileToLex(polclaDir().resolve("src/main/resources/dictionaries/shifter_lex.txt").toString());
+    return lex;
+  }
+
+  /**
+   * Logs to rotating files in a temporary directory, like the FileHandler of
+   * polcla's logging.properties, so that the benchmarks include the cost of
+   * logging without writing to the console. The benchmarks remove the
+   * directory again with {@link #closeLogging()} in their tear down.
+   *
+   * @throws IOException If the log files could not be created.
+   */
+  static synchronized void configureLogging() throws IOException {
+    closeLogging();
+    LogManager.getLogManager().reset();
+    logDir = Files.createTempDirectory("polcla-benchmark-logs").toFile();
+    logDir.deleteOnExit();
+    // Files marked later are deleted first, so the directory is empty by then
+    // even if the fork ends without a tear down.
+    for (int i = 0; i < LOG_FILES; i++) {
+      new File(logDir, "log" + i + ".log").deleteOnExit();
+    }
+    new File(logDir, "log0.log.lck").deleteOnExit();
+    logHandler = new FileHandler(new File(logDir, "log%g.log").getPath(), 1000000, LOG_FILES);
+    logHandler.setLevel(Level.ALL);
+    logHandler.setEncoding("utf-8");
+    logHandler.setFormatter(new SimpleFormatter());
+    Logger.getLogger("").addHandler(logHandler);
+  }
+
+  /**
+   * Closes the log files of {@link #configureLogging()} and deletes them with
+   * their directory.
+   */
+  static synchronized void closeLogging() {
+    if (logHandler != null) {
+      Logger.getLogger("").removeHandler(logHandler);
+      logHandler.close();
+      logHandler = null;
+    }
+    if (logDir != null) {
+      File[] files = logDir.listFiles();
+      if (files != null) {
+        for (File file : files) {
+          file.delete();
+        }
+      }
+      logDir.delete();
+      logDir = null;
+    }
+  }
+
+  private static String read(Path path) throws IOException {
+    return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+  }
+
+  private static void write(File file, String content) throws IOException {
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    file.deleteOnExit();
+  }
+}
@@ -0,0 +1,95 @@
+package polcla.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.xml.sax.SAXException;
+
+import polcla.ConstituencyTree;
+import salsa.corpora.elements.Graph;
+import salsa.corpora.elements.Nonterminal;
+import salsa.corpora.elements.Sentence;
+import salsa.corpora.elements.Terminal;
+import salsa.corpora.xmlparser.CorpusParser;
+
+/**
+ * Builds the constituency trees of a corpus and asks every nonterminal whether
+ * it dominates every terminal of its sentence. One operation covers all
+ * sentences of the corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConstituencyTreeBenchmark {
+
+  @Param({"bundled"})
+  public String source;
+
+  @Param({"1", "10"})
+  public int scale;
+
+  private List<Graph> graphs;
+  private List<ConstituencyTree> trees;
+
+  @Setup
+  public void setup() throws IOException, ParserConfigurationException, SAXException {
+    BenchmarkCorpus.configureLogging();
+    BenchmarkCorpus corpus = BenchmarkCorpus.create(source, scale);
+    graphs = new ArrayList<Graph>();
+    trees = new ArrayList<ConstituencyTree>();
+    for (Sentence sentence : new CorpusParser(false).parseCorpusFromFile(corpus.constituencyInput.getPath())
+            .getBody().getSentences()) {
+      graphs.add(sentence.getGraph());
+      trees.add(new ConstituencyTree(sentence.getGraph()));
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    BenchmarkCorpus.closeLogging();
+  }
+
+  @Benchmark
+  public void construct(SentenceCounter counter, Blackhole bh) {
+    for (Graph graph : graphs) {
+      bh.consume(new ConstituencyTree(graph));
+    }
+    counter.sentences += graphs.size();
+  }
+
+  @Benchmark
+  public int dominates(SentenceCounter counter) {
+    int dominated = 0;
+    for (ConstituencyTree tree : trees) {
+      for (Nonterminal nonterminal : tree.getNonterminals()) {
+        for (Terminal terminal : tree.getTerminals()) {
+          if (tree.dominates(nonterminal, terminal)) {
+            dominated++;
+          }
+        }
+      }
+    }
+    counter.sentences += trees.size();
+    return dominated;
+  }
+}
@@ -0,0 +1,74 @@
+package polcla.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.SAXException;
+
+import salsa.corpora.elements.Corpus;
+import salsa.corpora.xmlparser.CorpusParser;
+
+/**
+ * Reads and renders a SalsaXML corpus. One operation reads or renders the
+ * whole corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CorpusBenchmark {
+
+  @Param({"bundled"})
+  public String source;
+
+  @Param({"1", "10"})
+  public int scale;
+
+  @Param({"false", "true"})
+  public boolean validating;
+
+  private BenchmarkCorpus corpus;
+  private CorpusParser parser;
+  private Corpus parsed;
+
+  @Setup
+  public void setup() throws IOException, ParserConfigurationException, SAXException {
+    BenchmarkCorpus.configureLogging();
+    corpus = BenchmarkCorpus.create(source, scale);
+    parser = new CorpusParser(validating);
+    parsed = parser.parseCorpusFromFile(corpus.constituencyInput.getPath());
+  }
+
+  @TearDown
+  public void tearDown() {
+    BenchmarkCorpus.closeLogging();
+  }
+
+  @Benchmark
+  public Corpus parseCorpusFromFile(SentenceCounter counter) throws IOException, SAXException {
+    counter.sentences += corpus.sentences;
+    return parser.parseCorpusFromFile(corpus.constituencyInput.getPath());
+  }
+
+  @Benchmark
+  public String corpusToString(SentenceCounter counter) {
+    counter.sentences += corpus.sentences;
+    return parsed.toString();
+  }
+}
@@ -0,0 +1,80 @@
+package polcla.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import polcla.DependencyGraph;
+import polcla.SentenceObj;
+
+/**
+ * Normalizes the dependency graphs of a corpus. Normalization changes the
+ * words of a sentence, so the sentences are read again before every
+ * operation; one operation normalizes all graphs of the corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DependencyGraphBenchmark {
+
+  @Param({"bundled"})
+  public String source;
+
+  @Param({"1", "10"})
+  public int scale;
+
+  private BenchmarkCorpus corpus;
+  private List<SentenceObj> sentences;
+
+  @Setup(Level.Trial)
+  public void setupCorpus() throws IOException {
+    BenchmarkCorpus.configureLogging();
+    corpus = BenchmarkCorpus.create(source, scale);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    BenchmarkCorpus.closeLogging();
+  }
+
+  @Setup(Level.Invocation)
+  public void readSentences() {
+    sentences = corpus.readSentences().getSentenceList();
+  }
+
+  @Benchmark
+  public void normalize(SentenceCounter counter, Blackhole bh) {
+    for (SentenceObj sentence : sentences) {
+      DependencyGraph graph = new DependencyGraph(sentence.getGraph());
+      bh.consume(graph.normalize(graph));
+    }
+    counter.sentences += sentences.size();
+  }
+
+  @Benchmark
+  public void normalizeConjunctions(SentenceCounter counter, Blackhole bh) {
+    for (SentenceObj sentence : sentences) {
+      DependencyGraph graph = new DependencyGraph(sentence.getGraph());
+      bh.consume(graph.normalizeConjunctions(graph));
+    }
+    counter.sentences += sentences.size();
+  }
+}
@@ -0,0 +1,90 @@
+package polcla.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import polcla.SentenceObj;
+import polcla.SentimentLex;
+import polcla.SentimentUnit;
+import polcla.ShifterLex;
+import polcla.ShifterUnit;
+import polcla.WordObj;
+
+/**
+ * Looks up the lemma of every word of the bundled corpus in the sentiment and
+ * the shifter lexicon. One operation looks up all words of the corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LexiconBenchmark {
+
+  private SentimentLex sentimentLex;
+  private ShifterLex shifterLex;
+  private String[] lemmas;
+  private int sentences;
+
+  @Setup
+  public void setup() throws IOException {
+    BenchmarkCorpus.configureLogging();
+    BenchmarkCorpus corpus = BenchmarkCorpus.create(1);
+    List<String> words = new ArrayList<String>();
+    for (SentenceObj sentence : corpus.readSentences().getSentenceList()) {
+      for (WordObj word : sentence.getWordList()) {
+        words.add(word.getLemma());
+      }
+    }
+    lemmas = words.toArray(new String[words.size()]);
+    sentences = corpus.sentences;
+    sentimentLex = BenchmarkCorpus.sentimentLex();
+    shifterLex = BenchmarkCorpus.shifterLex();
+  }
+
+  @TearDown
+  public void tearDown() {
+    BenchmarkCorpus.closeLogging();
+  }
+
+  @Benchmark
+  public int getAllSentiments(SentenceCounter counter) {
+    int hits = 0;
+    for (String lemma : lemmas) {
+      List<SentimentUnit> units = sentimentLex.getAllSentiments(lemma);
+      if (units != null) {
+        hits += units.size();
+      }
+    }
+    counter.sentences += sentences;
+    return hits;
+  }
+
+  @Benchmark
+  public int getAllShifters(SentenceCounter counter) {
+    int hits = 0;
+    for (String lemma : lemmas) {
+      List<ShifterUnit> units = shifterLex.getAllShifters(lemma);
+      if (units != null) {
+        hits += units.size();
+      }
+    }
+    counter.sentences += sentences;
+    return hits;
+  }
+}
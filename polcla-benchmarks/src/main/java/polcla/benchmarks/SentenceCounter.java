@@ -0,0 +1,23 @@
+package polcla.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Counts the sentences processed by a benchmark, so that JMH reports
+ * sentences per second next to the operations per second.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class SentenceCounter {
+
+  public long sentences;
+
+  @Setup(Level.Iteration)
+  public void reset() {
+    sentences = 0;
+  }
+}
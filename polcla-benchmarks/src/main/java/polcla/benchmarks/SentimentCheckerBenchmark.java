@@ -0,0 +1,99 @@
+package polcla.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import polcla.Module;
+import polcla.SalsaAPIConnective;
+import polcla.SentenceList;
+import polcla.SentimentChecker;
+import polcla.SentimentLex;
+import polcla.ShifterLex;
+import polcla.SubjectiveExpressionModule;
+
+/**
+ * The whole pipeline as run by Main with the default configuration and
+ * without preset SEs: reading the raw text, the dependency parse and the XML
+ * file, normalizing, analysing all sentences and writing the output file. The
+ * lexicons are read once. One operation processes the whole corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SentimentCheckerBenchmark {
+
+  @Param({"bundled"})
+  public String source;
+
+  @Param({"1", "10"})
+  public int scale;
+
+  @Param({"1"})
+  public int threads;
+
+  private BenchmarkCorpus corpus;
+  private SentimentLex sentimentLex;
+  private ShifterLex shifterLex;
+  private File output;
+  private PrintStream stdout;
+
+  @Setup
+  public void setup() throws IOException {
+    BenchmarkCorpus.configureLogging();
+    corpus = BenchmarkCorpus.create(source, scale);
+    sentimentLex = BenchmarkCorpus.sentimentLex();
+    shifterLex = BenchmarkCorpus.shifterLex();
+    output = File.createTempFile("polcla-benchmark", ".xml");
+    output.deleteOnExit();
+
+    // The progress messages of the SentimentChecker are not of interest here.
+    stdout = System.out;
+    System.setOut(new PrintStream(new OutputStream() {
+      @Override
+      public void write(int b) {
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) {
+      }
+    }));
+  }
+
+  @TearDown
+  public void tearDown() {
+    System.setOut(stdout);
+    BenchmarkCorpus.closeLogging();
+  }
+
+  @Benchmark
+  public void findSentiments(SentenceCounter counter) {
+    SentenceList sentences = corpus.readSentences();
+    sentences.normalizeDependencyGraphs();
+    SalsaAPIConnective salsa = new SalsaAPIConnective(corpus.constituencyInput.getPath(), sentences, false);
+    Set<Module> modules = new LinkedHashSet<Module>();
+    modules.add(new SubjectiveExpressionModule(sentimentLex, shifterLex, true, true, false));
+    new SentimentChecker(salsa, sentences, modules, threads).findSentiments(output.getPath());
+    counter.sentences += corpus.sentences;
+  }
+}
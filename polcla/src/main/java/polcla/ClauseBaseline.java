@@ -1,36 +1,24 @@
 package polcla;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.logging.Level;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Logger;
 import salsa.corpora.elements.Fenode;
 import salsa.corpora.elements.Flag;
 import salsa.corpora.elements.Frame;
 import salsa.corpora.elements.FrameElement;
 import salsa.corpora.elements.Global;
-import salsa.corpora.elements.Nonterminal;
 import salsa.corpora.elements.Target;
-import salsa.corpora.elements.Terminal;
 
 public class ClauseBaseline extends ModuleBasics implements Module {
 
   private final static Logger log = Logger.getLogger(ClauseBaseline.class.getName());
-
-  private final Collection<Global> globalsSentencePolaritiesB;
-
-  /**
-   * Globals are sentence flags. Stores each sentence's polarity.
-   *
-   * @return ArrayList<Global> globalsSentencePolaritiesB
-   */
-  @Override
-  public Collection<Global> getGlobalsSentencePolarities() {
-    return globalsSentencePolaritiesB;
-  }
+  private final LongAdder walkNanos = counters.counter("scope.walk.nanos");
 
   /**
    * Constructs a new BaselineModule. Looks for shifter targets within the same
@@ -47,8 +35,6 @@ public class ClauseBaseline extends ModuleBasics implements Module {
    */
   public ClauseBaseline(SentimentLex sentimentLex, ShifterLex shifterLex, Boolean pos_lookup_sentiment,
           Boolean pos_lookup_shifter, Boolean shifter_orientation_check) {
-    this.globalsSentencePolaritiesB = new ArrayList<Global>();
-    log.setLevel(Level.ALL);
     this.sentimentLex = sentimentLex;
     this.shifterLex = shifterLex;
     this.posLookupSentiment = pos_lookup_sentiment;
@@ -72,8 +58,6 @@ public class ClauseBaseline extends ModuleBasics implements Module {
    */
   public ClauseBaseline(SalsaAPIConnective salsa, SentimentLex sentimentLex, ShifterLex shifterLex,
           Boolean pos_lookup_sentiment, Boolean pos_lookup_shifter, Boolean shifter_orientation_check) {
-    this.globalsSentencePolaritiesB = new ArrayList<Global>();
-    log.setLevel(Level.ALL);
     this.salsa = salsa;
     this.sentimentLex = sentimentLex;
     this.shifterLex = shifterLex;
@@ -99,60 +83,41 @@ public class ClauseBaseline extends ModuleBasics implements Module {
      */
     final Collection<Frame> frames = new ArrayList<Frame>();
     final FrameIds frameIds = new FrameIds(sentence, "se");
-    globalsSentencePolaritiesB.removeAll(globalsSentencePolaritiesB);
+    final Collection<Global> globalsSentencePolarities = newGlobalsSentencePolarities();
 
     ArrayList<WordObj> sentimentList = new ArrayList<WordObj>();
     ArrayList<WordObj> shifterList = new ArrayList<WordObj>();
+    ArrayList<WordObj> intensifierList = new ArrayList<WordObj>();
+    final LexiconEntries entries = new LexiconEntries(sentimentLex);
+
+    // The shifters, intensifiers and sentiments of the sentence, looked up in
+    // the lexicons once per sentence for all modules. Preset subjective
+    // expressions are aligned afterwards, so they use their tagged entries.
+    lookUpWords(sentence, entries, shifterList, sentimentList, intensifierList);
 
     if (usePresetSELocations) {
-      usePresetSELocations(sentence, sentimentList);
+      usePresetSELocations(sentence, sentimentList, entries);
     }
 
     Double polaritySum = 0.0;
     Double polarityOfWord = 0.0;
 
-    // Look up every word of the sentence in the shifterLex and sentimentLex
-    // lexicons and add them to the shifterList or sentimentList.
-    for (WordObj word : sentence.getWordList()) {
-      ArrayList<ShifterUnit> shifterLexEntries = shifterLex.getAllShifters(word.getLemma());
-      if (shifterLexEntries != null) {
-        for (ShifterUnit shifterLexEntry : shifterLexEntries) {
-          if (shifterLexEntry != null) {
-            if (posLookupShifter) {
-              posLookupShifter(shifterList, word, shifterLexEntry);
-            } else {
-              shifterList.add(word);
-              break;
-            }
-          }
-        }
-      }
-
-      if (!usePresetSELocations) {
-        ArrayList<SentimentUnit> sentLexEntries = sentimentLex.getAllSentiments(word.getLemma());
-        if (sentLexEntries != null) {
-          for (SentimentUnit sentLexEntry : sentLexEntries) {
-            if (sentLexEntry != null) {
-              if (posLookupSentiment) {
-                posLookupSentiment(sentimentList, word, sentLexEntry);
-              } else {
-                sentimentList.add(word);
-                break;
-              }
-            }
-          }
-        }
-      }
-    }
+    // Intensifiers are resolved first: a shifter applies to the intensified
+    // polarity value.
+    final TargetSearch search = newTargetSearch(sentence, entries, shifterList, intensifierList);
+    final Map<WordObj, WordObj> intensified = findIntensifierTargets(search, intensifierList, sentimentList, sentence);
 
     // Iterate over every found shifter and search for targets in their scope.
     // Also set frames.
     for (WordObj shifter : shifterList) {
       // Look for the shifterTarget
-      log.log(Level.FINE, "Shifter: {0}", shifter.toString());
-      WordObj shifterTarget = findShifterTargetClauseBaseline(shifter, sentimentList, sentence);
+      ScopeCounters scope = scopeCounters("clause");
+      long start = System.nanoTime();
+      WordObj shifterTarget = search.findTarget(Trigger.SHIFTER, shifter, sentimentList);
+      scope.nanos.add(System.nanoTime() - start);
 
       if (shifterTarget != null) {
+        scope.hits.increment();
 
         // Create Frame object for Salsa XML output
         final Frame frame = new Frame("SubjectiveExpression", frameIds.next());
@@ -160,7 +125,7 @@ public class ClauseBaseline extends ModuleBasics implements Module {
 
         // Set Frames for the sentiment word
         final Target target = new Target();
-        setFrames(sentence, frames, shifterTarget, frame, target);
+        setFrames(sentence, frames, shifterTarget, entries.collocations(shifterTarget), frame, target);
 
         // Set FrameElement for the shifter
         // EVAL call "Shifter" "Target" for use with the evaluation tool.
@@ -168,13 +133,13 @@ public class ClauseBaseline extends ModuleBasics implements Module {
         shifterElement.addFenode(new Fenode(sentence.getTree().getTerminal(shifter).getId()));
 
         // Set Frame element flag for the shifter
-        String shifterType = shifterLex.getShifter(shifter.getLemma()).shifter_type;
+        String shifterType = entries.shifter(shifter).shifter_type;
         final Flag shifterFlag = new Flag(shifterType, "shifter");
         shifterElement.addFlag(shifterFlag);
 
         // Set Flag for the Frame stating the starting polarity value
-        String polarityValueStr = sentimentLex.getSentiment(shifterTarget.getLemma()).value;
-        String polarityCategory = sentimentLex.getSentiment(shifterTarget.getLemma()).category;
+        String polarityValueStr = entries.sentiment(shifterTarget).value;
+        String polarityCategory = entries.sentiment(shifterTarget).category;
         String valueAndCat = polarityCategory + " " + polarityValueStr;
         final Flag polarityWithoutShift = new Flag("polarity without shift: " + valueAndCat, "subjExpr");
         frame.addFlag(polarityWithoutShift);
@@ -183,6 +148,11 @@ public class ClauseBaseline extends ModuleBasics implements Module {
 
         // Compute the polarity value after a shift and invert the category.
         polarityOfWord = Double.valueOf(polarityValueStr);
+        final WordObj intensifier = intensified.get(shifterTarget);
+        if (intensifier != null) {
+          polarityOfWord = intensify(sentence, frame, feIds, intensifier, entries.intensifier(intensifier),
+                  polarityCategory, polarityOfWord);
+        }
         if (!polarityCategory.equals("UNKNOWN")) {
           switch (shifterType) {
             case ShifterLex.SHIFTER_TYPE_ON_NEGATIVE:
@@ -228,19 +198,24 @@ public class ClauseBaseline extends ModuleBasics implements Module {
 
       // Set Target for the sentiment word
       final Target target = new Target();
-      setFrames(sentence, frames, sentiment, frame, target);
+      setFrames(sentence, frames, sentiment, entries.collocations(sentiment), frame, target);
 
       // Set Flag for the Frame stating the starting polarity value
-      String polarityValueStr = sentimentLex.getSentiment(sentiment.getLemma()).value;
-      String polarityCategory = sentimentLex.getSentiment(sentiment.getLemma()).category;
+      String polarityValueStr = entries.sentiment(sentiment).value;
+      String polarityCategory = entries.sentiment(sentiment).category;
       String valueAndCat = polarityCategory + " " + polarityValueStr;
+      final Flag polarityWithoutShift = new Flag("polarity without shift: " + valueAndCat, "subjExpr");
+      frame.addFlag(polarityWithoutShift);
       polarityOfWord = Double.valueOf(polarityValueStr);
+      final WordObj intensifier = intensified.get(sentiment);
+      if (intensifier != null) {
+        polarityOfWord = intensify(sentence, frame, new FrameElementIds(frame), intensifier,
+                entries.intensifier(intensifier), polarityCategory, polarityOfWord);
+      }
       if (polarityCategory.equals("NEG")) {
         polarityOfWord = polarityOfWord * -1.0;
       }
       polaritySum += polarityOfWord;
-      final Flag polarityWithoutShift = new Flag("polarity without shift: " + valueAndCat, "subjExpr");
-      frame.addFlag(polarityWithoutShift);
     }
     // final Frame sentenceFrame = new Frame("Sentence");
     // final Flag polaritySumFlag = new Flag("Sentence polarity: " +
@@ -255,112 +230,48 @@ public class ClauseBaseline extends ModuleBasics implements Module {
     final Global sentencePolarity = new Global("INTERESTING");
     sentencePolarity.setParam(String.format("%.2f", polaritySum));
     sentencePolarity.setText("The sentence polarity.");
-    globalsSentencePolaritiesB.add(sentencePolarity);
+    globalsSentencePolarities.add(sentencePolarity);
 
     return frames;
   }
 
   /**
-   * This method is used to look for the target of a shifter using dependency
-   * relations. The found shifter target must be contained in the sentimentList
-   * in order to be returned by this method. Ignores scopes.
+   * Lists the words of the clauses of the shifters and intensifiers of a
+   * sentence, each clause once. The search looks for the target of a shifter
+   * or intensifier: the closest subjective expression in the same clause. The
+   * found target must be contained in the sentimentList in order to be
+   * returned. Ignores scopes.
    *
-   * @param shifter The shifter for which a target is searched for.
-   * @param sentimentList A list of found sentiments in the current sentence.
-   * These are the potential shifter target candidates.
-   * @param sentence The sentence the shifter is in.
-   * @return The WordObj corresponding to the found shifter target, or null.
+   * @param sentence The sentence.
+   * @param entries The lexicon entries of the words of the sentence.
+   * @param shifterList The shifters of the sentence.
+   * @param intensifierList The intensifiers of the sentence.
+   * @return The search.
    */
-  private WordObj findShifterTargetClauseBaseline(WordObj shifter, ArrayList<WordObj> sentimentList,
-          SentenceObj sentence) {
-    WordObj shifterTarget = null;
-    ShifterUnit shifterUnit = shifterLex.getShifter(shifter.getLemma());
-
-    HashSet<Edge> edges = sentence.getGraph().getEdges();
-
-    String[] scopeEntry = shifterUnit.shifter_scope;
-    // "Clause" case
-    if (Arrays.asList(scopeEntry).contains("clause") || true) { // || true to use clause case for all instances.
-      final ConstituencyTree tree = sentence.getTree();
-      final Terminal shifterNode = tree.getTerminal(shifter);
-      final Nonterminal containingClause;
-
-      int shifterPos = sentence.getWordPosition(shifter);
-
-      if (tree.hasDominatingNode(shifterNode, "S")) {
-        containingClause = tree.getLowestDominatingNode(shifterNode, "S");
-      } else {
-        // This shouldn't happen except in case of parsing errors
-        containingClause = tree.getTrueRoot();
-      }
-
-      // First collect all terminals in the containing clause (childrenT)
-      ArrayList<Object> children = tree.getChildren(containingClause);
-      ArrayList<Object> childrenT = new ArrayList<>();
-      for (int i = 0; i < children.size(); i++) {
-        Object child = children.get(i);
-        // System.out.println("child: " + child.toString());
-        if (child instanceof Terminal) {
-          childrenT.add(child);
-        } else if (child instanceof Nonterminal) {
-          children.add(tree.getChildren((Nonterminal) child));
-        } else {
-          for (Object part : (ArrayList<Object>) child) {
-            children.add(part);
-          }
-        }
-      }
-			// System.err.println("Children expanded: " + childrenNT);
-
-      // Now consider all SE-terminals to be potential shifterTargets.
-      HashMap<WordObj, Integer> shifterTargets = new HashMap<>();
-      for (Object c : childrenT) {
-        Terminal childT = null;
-        if (c instanceof Terminal) {
-          childT = (Terminal) c;
-          // Compare Id with terminal Ids of the tree terminals to get to the
-          // WordObjs.
-          int wordIndex = 0;
-          for (Terminal terminal : tree.getTerminals()) {
-            wordIndex += 1;
-            String terminalId = terminal.getId().getId();
-            if (terminalId.equals(childT.getId().getId())) {
-              WordObj wordObj = sentence.getWordList().get(wordIndex - 1);
-              // Check if the word is a SE in the current sentence.
-              if (sentimentList.contains(wordObj)) {
-                shifterTargets.put(wordObj, wordIndex - 1);
-              }
+  @Override
+  protected TargetSearch newTargetSearch(SentenceObj sentence, final LexiconEntries entries,
+          List<WordObj> shifterList, List<WordObj> intensifierList) {
+    final long start = System.nanoTime();
+    final Set<WordObj> triggers = new LinkedHashSet<WordObj>(shifterList);
+    triggers.addAll(intensifierList);
+    final Clauses clauses = new Clauses(sentence, triggers);
+    walkNanos.add(System.nanoTime() - start);
+    return new TargetSearch() {
+      @Override
+      public WordObj findTarget(Trigger kind, WordObj trigger, ArrayList<WordObj> sentimentList) {
+        // "Clause" case, used for all instances.
+        final WordObj target = clauses.closest(trigger, sentimentList, true);
+        if (sentimentList.contains(target) && !target.equals(trigger)) {
+          if (shifter_orientation_check) {
+            if (orientationCheck(entries, kind, trigger, target)) {
+              return target;
             }
-          }
-        } else {
-          log.log(Level.SEVERE, "WARNING, Terminal expected for: {0}", c.toString());
-        }
-      }
-      // Find the closest shifterTarget from the list
-      log.log(Level.FINE, "Potential targets in clause case: {0}", shifterTargets.keySet().toString());
-      int bestDistance = Integer.MAX_VALUE;
-      if (!shifterTargets.isEmpty()) {
-        for (WordObj shifterCandidate : shifterTargets.keySet()) {
-          int distance = Math.abs(shifterPos - shifterTargets.get(shifterCandidate));
-          if (distance < bestDistance && distance != 0) {
-            bestDistance = distance;
-            shifterTarget = shifterCandidate;
-            log.log(Level.FINE, "current candidate: {0}", shifterTarget);
+          } else {
+            return target;
           }
         }
+        return null;
       }
-      log.log(Level.FINE, "final candidate: {0}", shifterTarget);
-
-      if (sentimentList.contains(shifterTarget) && !shifterTarget.equals(shifter)) {
-        if (shifter_orientation_check) {
-          if (orientationCheck(shifter, shifterTarget)) {
-            return shifterTarget;
-          }
-        } else {
-          return shifterTarget;
-        }
-      }
-    }
-    return null;
+    };
   }
 }
@@ -1,12 +1,12 @@
 package polcla;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 
 import salsa.corpora.elements.Graph;
 import salsa.corpora.elements.Nonterminal;
@@ -29,6 +29,11 @@ import salsa.corpora.noelement.Id;
  *         the last. An instance of {@link ConstituencyTree} is built from an
  *         instance of the Salsa Java API class {@link Graph}.
  * 
+ *         When the tree is built, every node gets a pointer to its parent and
+ *         an interval of pre-order numbers that covers its descendants, so
+ *         looking up the parent of a node and checking whether a node dominates
+ *         another one take constant time.
+ * 
  *         Uses the Salsa Java API classes listed below
  *         (http://www.coli.uni-saarland.de/projects/salsa/page.php?id=software)
  *         to build the tree:
@@ -45,6 +50,20 @@ public class ConstituencyTree {
 	private ArrayList<Terminal> terminals;
 	private ArrayList<Nonterminal> nonterminals;
 	private HashMap<Nonterminal, ArrayList<Object>> transitions;
+	private final HashMap<Object, NodeInfo> index;
+
+	/**
+	 * The place of a node in the tree.
+	 */
+	private static final class NodeInfo {
+		Nonterminal parent;
+		// the pre-order number of the node and the largest pre-order number of
+		// its descendants; -1 if the node is not reachable from the root
+		int first = -1;
+		int last = -1;
+		// the position of a terminal in the sentence, -1 for nonterminals
+		int position = -1;
+	}
 
 	/**
 	 * Given a {@link Graph} object from the Salsa API representing the
@@ -57,7 +76,8 @@ public class ConstituencyTree {
 	 */
 	public ConstituencyTree(Graph graph) {
 
-		this.transitions = new HashMap<Nonterminal, ArrayList<Object>>();
+		this.transitions = new LinkedHashMap<Nonterminal, ArrayList<Object>>();
+		this.index = new HashMap<Object, NodeInfo>();
 		extractConstituencyTree(graph);
 
 	}
@@ -173,14 +193,7 @@ public class ConstituencyTree {
 	 */
 	public boolean hasParent(Object node) {
 
-		for (Map.Entry<Nonterminal, ArrayList<Object>> me : this.transitions.entrySet()) {
-			for (Object nd : me.getValue()) {
-				if (nd == node) {
-					return true;
-				}
-			}
-		}
-		return false;
+		return getParent(node) != null;
 	}
 
 	/**
@@ -191,17 +204,8 @@ public class ConstituencyTree {
 	 */
 	public Nonterminal getParent(Object node) {
 
-		for (Map.Entry<Nonterminal, ArrayList<Object>> me : this.transitions.entrySet()) {
-			for (Object nd : me.getValue()) {
-				if (nd == node) {
-					Nonterminal parent = me.getKey();
-					return parent;
-				}
-			}
-		}
-
-		return null;
-
+		NodeInfo info = this.index.get(node);
+		return info == null ? null : info.parent;
 	}
 
 	/**
@@ -234,23 +238,35 @@ public class ConstituencyTree {
 	 */
 	public Terminal getTerminal(WordObj word) {
 
-		for (int i = 0; i < this.terminals.size(); i++) {
+		int i = word.getPosition() - 1;
+		if (i >= 0 && i < this.terminals.size()) {
 
 			Terminal terminal = this.terminals.get(i);
 
-			if (terminal.getWord().equals(word.getName()) && (i + 1) == word.getPosition()) {
+			if (terminal.getWord().equals(word.getName())) {
 				return terminal;
 			}
 		}
 		return null;
 	}
 
+	/**
+	 * @param terminal
+	 *          A {@link Terminal} node of the {@link ConstituencyTree}.
+	 * @return The position of the terminal in the sentence, starting with 0, or
+	 *         -1 if it is not a terminal of this tree.
+	 */
+	public int getTerminalPosition(Terminal terminal) {
+
+		NodeInfo info = this.index.get(terminal);
+		return info == null ? -1 : info.position;
+	}
+
 	/**
 	 * Checks whether a given {@link Nonterminal} node dominates a given
-	 * {@link Terminal} node, i.e. whether it is an ancestor of that node.
-	 * Iterates over all nodes that are reachable from the given
-	 * {@link Nonterminal} node and checks whether one of them is the given
-	 * {@link Terminal} node.
+	 * {@link Terminal} node, i.e. whether it is an ancestor of that node. This
+	 * is the case if the pre-order number of the {@link Terminal} node lies
+	 * within the interval of the {@link Nonterminal} node.
 	 * 
 	 * @param nonterminal
 	 *          A {@link Nonterminal} node.
@@ -261,30 +277,17 @@ public class ConstituencyTree {
 	 */
 	public boolean dominates(Nonterminal nonterminal, Terminal terminal) {
 
-		ArrayList<Object> agenda = new ArrayList<Object>();
-
-		agenda.add(nonterminal);
-
-		// search all nodes reachable from the given Nonterminal node in a
-		// breadth-first manner for the given Terminal node.
-		while (!agenda.isEmpty()) {
-
-			Object node = agenda.remove(0);
-			if (node instanceof Terminal) {
-				Terminal terminalNode = (Terminal) node;
-				if (terminalNode == terminal) {
-					return true;
-				}
-			}
+		return dominatesNode(nonterminal, terminal);
+	}
 
-			else {
+	private boolean dominatesNode(Object ancestor, Object node) {
 
-				for (Object nd : this.transitions.get(node)) {
-					agenda.add(nd);
-				}
-			}
+		NodeInfo ancestorInfo = this.index.get(ancestor);
+		NodeInfo nodeInfo = this.index.get(node);
+		if (ancestorInfo == null || nodeInfo == null) {
+			return false;
 		}
-		return false;
+		return ancestorInfo.first < nodeInfo.first && nodeInfo.first <= ancestorInfo.last;
 	}
 
 	/**
@@ -355,7 +358,10 @@ public class ConstituencyTree {
 		this.terminals = graph.getTerminals().getTerminals();
 		this.nonterminals = graph.getNonterminals().getNonterminals();
 
-		ArrayList<Nonterminal> agenda = new ArrayList<Nonterminal>();
+		ArrayDeque<Nonterminal> agenda = new ArrayDeque<Nonterminal>();
+
+		// the nodes by Id, Nonterminal nodes first
+		HashMap<String, List<Object>> nodesById = new HashMap<String, List<Object>>();
 
 		for (Nonterminal nonterminal : this.nonterminals) {
 
@@ -367,7 +373,10 @@ public class ConstituencyTree {
 				agenda.add(nonterminal);
 
 			}
-
+			addById(nodesById, nonterminal.getId().getId(), nonterminal);
+		}
+		for (Terminal terminal : this.terminals) {
+			addById(nodesById, terminal.getId().getId(), terminal);
 		}
 
 		// retrieve Ids of child nodes from outgoing edges of the current
@@ -377,30 +386,86 @@ public class ConstituencyTree {
 
 		while (!agenda.isEmpty()) {
 
-			Nonterminal current = agenda.remove(0);
+			Nonterminal current = agenda.remove();
 
 			for (salsa.corpora.elements.Edge edge : current.getEdges()) {
 
-				String childId = edge.getId().getId();
-
-				for (Nonterminal nt : this.nonterminals) {
+				List<Object> children = nodesById.get(edge.getId().getId());
+				if (children == null) {
+					continue;
+				}
 
-					if (nt.getId().getId().equals(childId)) {
-						agenda.add(nt);
-						addTransition(current, nt);
+				for (Object child : children) {
 
+					if (child instanceof Nonterminal) {
+						agenda.add((Nonterminal) child);
 					}
+					addTransition(current, child);
 				}
+			}
+		}
+
+		indexTree();
+	}
 
-				for (Terminal t : this.terminals) {
+	private static void addById(HashMap<String, List<Object>> nodesById, String id, Object node) {
 
-					if (t.getId().getId().equals(childId)) {
-						addTransition(current, t);
+		List<Object> nodes = nodesById.get(id);
+		if (nodes == null) {
+			nodes = new ArrayList<Object>(1);
+			nodesById.put(id, nodes);
+		}
+		nodes.add(node);
+	}
 
-					}
-				}
+	/**
+	 * Computes the parent, the pre-order interval and, for {@link Terminal}
+	 * nodes, the position in the sentence of every node.
+	 */
+	private void indexTree() {
+
+		this.index.clear();
+		for (int i = 0; i < this.terminals.size(); i++) {
+			nodeInfo(this.terminals.get(i)).position = i;
+		}
+		if (this.root != null) {
+			number(this.root, null, 0);
+		}
+	}
+
+	private NodeInfo nodeInfo(Object node) {
+
+		NodeInfo info = this.index.get(node);
+		if (info == null) {
+			info = new NodeInfo();
+			this.index.put(node, info);
+		}
+		return info;
+	}
+
+	/**
+	 * Numbers a node and its descendants in pre-order, starting with counter.
+	 * 
+	 * @return the next free number
+	 */
+	private int number(Object node, Nonterminal parent, int counter) {
+
+		NodeInfo info = nodeInfo(node);
+		// a node that is reached twice keeps its first place
+		if (info.first >= 0) {
+			return counter;
+		}
+		info.parent = parent;
+		info.first = counter++;
+
+		ArrayList<Object> children = this.transitions.get(node);
+		if (children != null) {
+			for (Object child : children) {
+				counter = number(child, (Nonterminal) node, counter);
 			}
 		}
+		info.last = counter - 1;
+		return counter;
 	}
 
 	/**
@@ -422,69 +487,25 @@ public class ConstituencyTree {
 	 */
 	public Object descendTree(Nonterminal nonterminal, Terminal terminal, int lenPath) {
 
-		ArrayList<Nonterminal> path = new ArrayList<Nonterminal>(); // records the
-																																// nonterminal
-																																// nodes that
-																																// are passed by
-																																// ascending the
-																																// tree from the
-																																// given
-																																// terminal
-																																// node. The
-																																// first item is
-																																// the given
-																																// nonterminal
-																																// node. The
-																																// second item
-																																// is the
-																																// nonterminal
-																																// node that
-																																// dominates the
-																																// terminal node
-																																// and is
-																																// immediately
-																																// dominated by
-																																// the given
-																																// nonterminal
-																																// node.
-		Nonterminal currentNode = null;
-
-		for (Map.Entry<Nonterminal, ArrayList<Object>> me : this.transitions.entrySet()) {
-			for (Object node : me.getValue()) {
-				if (node instanceof Terminal) {
-					Terminal nd = (Terminal) node;
-					if (nd == terminal) {
-						currentNode = me.getKey();
-						path.add(currentNode);
-					}
-				}
-			}
-		}
+		// records the nonterminal nodes that are passed by ascending the tree from
+		// the given terminal node. The first item is the nonterminal node that
+		// dominates the terminal node immediately, the last item is the given
+		// nonterminal node.
+		ArrayList<Nonterminal> path = new ArrayList<Nonterminal>();
+
+		Nonterminal currentNode = getParent(terminal);
+		path.add(currentNode);
 
 		while (currentNode != nonterminal) {
 
 			// if we have reached the root of the tree ascending from the given
 			// Terminal node, but have not encountered the given Nonterminal node, the
 			// Nonterminal node does not dominate the Terminal node
-			if (currentNode == this.root) {
+			if (currentNode == this.root || currentNode == null) {
 				return null;
 			}
-			for (Map.Entry<Nonterminal, ArrayList<Object>> e : this.transitions.entrySet()) {
-				for (Object node : e.getValue()) {
-					if (node instanceof Nonterminal) {
-						Nonterminal nd = (Nonterminal) node;
-						if (nd == currentNode) {
-							currentNode = e.getKey();
-							path.add(0, currentNode);
-
-							if (currentNode == nonterminal) {
-								return path.get(lenPath);
-							}
-						}
-					}
-
-				}
-			}
+			currentNode = getParent(currentNode);
+			path.add(currentNode);
 		}
 
 		// for the case that there is NO Nonterminal node between the given
@@ -497,7 +518,7 @@ public class ConstituencyTree {
 		// for the case that there IS a Nonterminal node between the given Terminal
 		// node and the given Nonterminal node, i.e. that the given Terminal node is
 		// NOT a direct child of the given Nonterminal node
-		return path.get(lenPath);
+		return path.get(path.size() - 1 - lenPath);
 
 	}
 
@@ -543,9 +564,12 @@ public class ConstituencyTree {
 
 		// ascend the tree from the predicate node until a node is found which also
 		// dominates the argument node.
-		while (!(dominates(parentNode, predicateNode) && dominates(parentNode, argumentNode))) {
+		while (parentNode != null && !(dominates(parentNode, predicateNode) && dominates(parentNode, argumentNode))) {
 			parentNode = getParent(parentNode);
 		}
+		if (parentNode == null) {
+			return null;
+		}
 
 		Object phrase = descendTree(parentNode, argumentNode, 1);
 
@@ -632,9 +656,12 @@ public class ConstituencyTree {
 
 		// ascend the tree from the predicate node until a node is found which also
 		// dominates the argument node.
-		while (!(dominates(parentNode, predicateNode) && dominates(parentNode, argumentNode))) {
+		while (parentNode != null && !(dominates(parentNode, predicateNode) && dominates(parentNode, argumentNode))) {
 			parentNode = getParent(parentNode);
 		}
+		if (parentNode == null) {
+			return null;
+		}
 
 		Object phrase = descendTree(parentNode, argumentNode, 1);
 
@@ -683,22 +710,10 @@ public class ConstituencyTree {
 		if (!(phrase instanceof Nonterminal))
 			return false;
 
-		// Gather all child nodes in 'todo' and check whether one of them is a
-		// candidate terminal. If this is the case one of the terminals is
-		// part of the phrase.
-		Queue<Object> todo = new LinkedList<Object>();
-		todo.offer(phrase);
-		while (todo.peek() != null) {
-			Object top = todo.poll();
-			if (candidates.contains(top))
+		// one of the terminals is part of the phrase if the phrase dominates it
+		for (Terminal candidate : candidates) {
+			if (dominatesNode(phrase, candidate))
 				return true;
-
-			List<Object> children = this.transitions.get(top);
-			if (children == null)
-				continue;
-
-			for (Object child : children)
-				todo.offer(child);
 		}
 
 		// default case: no candidate terminal is part of the phrase
@@ -838,6 +853,42 @@ public class ConstituencyTree {
 		}
 	}
 
+	/**
+	 * Collects all {@link Terminal} nodes dominated by a {@link Nonterminal}
+	 * node. The children of the node are visited in breadth-first order, where
+	 * the children of a {@link Nonterminal} node are visited one round after the
+	 * node itself.
+	 * 
+	 * @param nonterminal
+	 *          A {@link Nonterminal} node of the {@link ConstituencyTree}.
+	 * @return The dominated {@link Terminal} nodes.
+	 */
+	List<Terminal> getDominatedTerminals(Nonterminal nonterminal) {
+
+		final List<Terminal> result = new ArrayList<Terminal>();
+		final ArrayDeque<Object> agenda = new ArrayDeque<Object>();
+		final ArrayList<Object> children = getChildren(nonterminal);
+		if (children != null) {
+			agenda.addAll(children);
+		}
+		while (!agenda.isEmpty()) {
+			Object node = agenda.remove();
+			if (node instanceof Terminal) {
+				result.add((Terminal) node);
+			} else if (node instanceof Nonterminal) {
+				ArrayList<Object> grandchildren = getChildren((Nonterminal) node);
+				if (grandchildren != null) {
+					agenda.add(grandchildren);
+				}
+			} else {
+				for (Object part : (List<?>) node) {
+					agenda.add(part);
+				}
+			}
+		}
+		return result;
+	}
+
 	public String toString() {
 
 		ArrayList<Object> agenda = new ArrayList<Object>();
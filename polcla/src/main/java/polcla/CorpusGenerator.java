@@ -0,0 +1,633 @@
+package polcla;
+
+import salsa.corpora.elements.Body;
+import salsa.corpora.elements.Corpus;
+import salsa.corpora.elements.Edge;
+import salsa.corpora.elements.Fenode;
+import salsa.corpora.elements.Frame;
+import salsa.corpora.elements.Frames;
+import salsa.corpora.elements.Graph;
+import salsa.corpora.elements.Head;
+import salsa.corpora.elements.Nonterminal;
+import salsa.corpora.elements.Nonterminals;
+import salsa.corpora.elements.Semantics;
+import salsa.corpora.elements.Sentence;
+import salsa.corpora.elements.Target;
+import salsa.corpora.elements.Terminal;
+import salsa.corpora.elements.Terminals;
+import salsa.corpora.noelement.Id;
+import salsa.corpora.xmlwriter.CorpusWriter;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Generates synthetic corpora of any size for load tests: the raw text, the
+ * ParZu dependency parse and the Salsa / Tiger XML constituency parse of the
+ * same sentences, and optionally a preset SE file.
+ *
+ * The sentences are built from a few German clause templates ("Sie sehen die
+ * Sache in der Stadt ."). Content words are drawn from the sentiment lexicon
+ * with the given density; shifters are drawn from the shifter lexicon and
+ * attached within their scope, and multi word expressions are built so that
+ * their words are connected in the dependency graph. The output only depends
+ * on the lexicons, the settings and the seed.
+ *
+ * Usage: java -cp polcla.jar polcla.CorpusGenerator [options] directory
+ *
+ * <pre>
+ * -sentences N           number of sentences (1000)
+ * -min-length N          minimal number of words of a sentence (5)
+ * -max-length N          maximal number of words of a sentence (25)
+ * -sentiment-density P   probability that a content word is a sentiment (0.2)
+ * -shifter-density P     probability that a sentence has a shifter (0.3)
+ * -mwe-rate P            probability that a sentence has a sentiment MWE (0.05)
+ * -seed N                seed of the random numbers (1)
+ * -preset                also write constituency_parse.preset_ses.xml
+ * -sentiment-lexicon F   (src/main/resources/dictionaries/germanlex.txt)
+ * -shifter-lexicon F     (src/main/resources/dictionaries/shifter_lex.txt)
+ * </pre>
+ */
+public class CorpusGenerator {
+
+  private final static Logger log = Logger.getLogger(CorpusGenerator.class.getName());
+
+  /**
+   * Words that can be written to every output format as they are.
+   */
+  private static final Pattern PLAIN_WORD = Pattern.compile("[\\p{L}][\\p{L}-]*");
+
+  private static final String[] NEUTRAL_VERBS = {"sehen", "finden", "kennen", "nennen", "zeigen", "beschreiben",
+    "erwarten", "melden", "erkennen", "haben"};
+  private static final String[] NEUTRAL_NOUNS = {"Sache", "Stadt", "Regierung", "Woche", "Bericht", "Firma",
+    "Zeitung", "Plan", "Frage", "Mannschaft", "Jahr", "Land", "Haus", "Gruppe", "Ergebnis"};
+  private static final String[] NEUTRAL_ADJECTIVES = {"neu", "alt", "groß", "klein", "lang", "deutsch", "weit",
+    "hoch", "früh", "eigen"};
+  private static final String[] PREPOSITIONS = {"in", "mit", "nach", "bei", "aus", "vor", "seit", "von"};
+
+  private final List<SentimentUnit> sentimentVerbs = new ArrayList<SentimentUnit>();
+  private final List<SentimentUnit> sentimentNouns = new ArrayList<SentimentUnit>();
+  private final List<SentimentUnit> sentimentAdjectives = new ArrayList<SentimentUnit>();
+  private final List<SentimentUnit> sentimentMWEs = new ArrayList<SentimentUnit>();
+  private final List<ShifterUnit> shifterVerbs = new ArrayList<ShifterUnit>();
+  private final List<ShifterUnit> shifterNouns = new ArrayList<ShifterUnit>();
+  private final List<ShifterUnit> shifterAdverbs = new ArrayList<ShifterUnit>();
+  private final List<ShifterUnit> shifterAdjectives = new ArrayList<ShifterUnit>();
+  private final Random random;
+
+  private int minLength = 5;
+  private int maxLength = 25;
+  private double sentimentDensity = 0.2;
+  private double shifterDensity = 0.3;
+  private double mweRate = 0.05;
+
+  /**
+   * A word of a generated sentence.
+   */
+  private static class Token {
+
+    final String word;
+    final String lemma;
+    final String pos;
+    final String rel;
+    /**
+     * The head, null for words attached to the root.
+     */
+    Token head;
+    /**
+     * The position in the sentence, starting with 1.
+     */
+    int position;
+    boolean sentiment;
+
+    Token(String word, String lemma, String pos, String rel, Token head) {
+      this.word = word;
+      this.lemma = lemma;
+      this.pos = pos;
+      this.rel = rel;
+      this.head = head;
+    }
+  }
+
+  /**
+   * A constituent: a phrase category and its children, which are
+   * {@link Token}s or constituents.
+   */
+  private static class Phrase {
+
+    final String cat;
+    final List<Object> children = new ArrayList<Object>();
+
+    Phrase(String cat) {
+      this.cat = cat;
+    }
+  }
+
+  /**
+   * A sentence that is being generated.
+   */
+  private static class Draft {
+
+    final List<Token> tokens = new ArrayList<Token>();
+    final Phrase clause = new Phrase("S");
+
+    Token add(Phrase phrase, String word, String lemma, String pos, String rel, Token head) {
+      Token token = new Token(word, lemma, pos, rel, head);
+      tokens.add(token);
+      phrase.children.add(token);
+      return token;
+    }
+  }
+
+  /**
+   * @param sentimentLex The lexicon the sentiments are drawn from.
+   * @param shifterLex The lexicon the shifters are drawn from.
+   * @param seed The seed of the random numbers.
+   */
+  public CorpusGenerator(SentimentLex sentimentLex, ShifterLex shifterLex, long seed) {
+    this.random = new Random(seed);
+    for (SentimentUnit unit : sentimentLex.sentimentList) {
+      if (!PLAIN_WORD.matcher(unit.name).matches() || !plain(unit.collocations)) {
+        continue;
+      }
+      if (unit.mwe) {
+        if (unit.pos.equals("verben") || unit.pos.equals("nomen") || unit.pos.equals("adj")) {
+          sentimentMWEs.add(unit);
+        }
+      } else if (unit.pos.equals("verben")) {
+        sentimentVerbs.add(unit);
+      } else if (unit.pos.equals("nomen")) {
+        sentimentNouns.add(unit);
+      } else if (unit.pos.equals("adj")) {
+        sentimentAdjectives.add(unit);
+      }
+    }
+    for (ShifterUnit unit : shifterLex.shifterList) {
+      if (unit.mwe || !PLAIN_WORD.matcher(unit.name).matches()) {
+        continue;
+      }
+      if (unit.shifter_pos.equals("verb") && inScope(unit, "obja")) {
+        shifterVerbs.add(unit);
+      } else if (unit.shifter_pos.equals("nomen") && inScope(unit, "gmod")) {
+        shifterNouns.add(unit);
+      } else if (unit.shifter_pos.equals("adv")) {
+        shifterAdverbs.add(unit);
+      } else if (unit.shifter_pos.equals("adj") && inScope(unit, "attr-rev")) {
+        shifterAdjectives.add(unit);
+      }
+    }
+  }
+
+  private static boolean plain(String[] words) {
+    for (String word : words) {
+      if (!PLAIN_WORD.matcher(word).matches()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean inScope(ShifterUnit unit, String relation) {
+    for (String scope : unit.shifter_scope) {
+      if (scope.equals(relation)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param minLength The minimal number of words of a sentence, at least 5.
+   * @param maxLength The maximal number of words of a sentence. Sentences may
+   * exceed it by up to two words.
+   */
+  public void setLength(int minLength, int maxLength) {
+    this.minLength = Math.max(5, minLength);
+    this.maxLength = Math.max(this.minLength, maxLength);
+  }
+
+  /**
+   * @param sentimentDensity The probability that a content word is taken from
+   * the sentiment lexicon.
+   */
+  public void setSentimentDensity(double sentimentDensity) {
+    this.sentimentDensity = sentimentDensity;
+  }
+
+  /**
+   * @param shifterDensity The probability that a sentence has a shifter with
+   * a sentiment in its scope.
+   */
+  public void setShifterDensity(double shifterDensity) {
+    this.shifterDensity = shifterDensity;
+  }
+
+  /**
+   * @param mweRate The probability that a sentence has a sentiment multi word
+   * expression.
+   */
+  public void setMweRate(double mweRate) {
+    this.mweRate = mweRate;
+  }
+
+  /**
+   * Writes raw_text.txt, dependency_parse.txt, constituency_parse.xml and, if
+   * preset is true, constituency_parse.preset_ses.xml to a directory. The
+   * files are written one sentence at a time.
+   *
+   * @param sentences The number of sentences.
+   * @param dir The output directory. It is created if necessary.
+   * @param preset If true, the preset SE file is written too. Its SEs are the
+   * words drawn from the sentiment lexicon.
+   * @throws IOException If a file could not be written.
+   */
+  public void generate(int sentences, File dir, boolean preset) throws IOException {
+    if (!dir.isDirectory() && !dir.mkdirs()) {
+      throw new IOException("Could not create " + dir);
+    }
+    Corpus corpus = new Corpus("synthetic", "");
+    corpus.setHead(new Head());
+    corpus.setBody(new Body());
+
+    try (Writer text = open(new File(dir, "raw_text.txt"));
+            Writer dependencies = open(new File(dir, "dependency_parse.txt"));
+            CorpusWriter constituencies = new CorpusWriter(new File(dir, "constituency_parse.xml").getPath(), false);
+            CorpusWriter presetSEs = preset
+                    ? new CorpusWriter(new File(dir, "constituency_parse.preset_ses.xml").getPath(), false) : null) {
+      constituencies.writeStart(corpus);
+      if (presetSEs != null) {
+        presetSEs.writeStart(corpus);
+      }
+
+      for (int i = 1; i <= sentences; i++) {
+        Draft draft = draft();
+        writeText(text, draft);
+        writeDependencies(dependencies, draft);
+        Sentence sentence = toSentence(draft, String.valueOf(i));
+        constituencies.writeSentence(sentence);
+        if (presetSEs != null) {
+          sentence.setSem(presetSEs(draft, String.valueOf(i)));
+          presetSEs.writeSentence(sentence);
+        }
+      }
+
+      constituencies.writeEnd();
+      if (presetSEs != null) {
+        presetSEs.writeEnd();
+      }
+    }
+  }
+
+  private static Writer open(File file) throws IOException {
+    return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+  }
+
+  /**
+   * Builds the words and phrases of a sentence: a subject, the verb, an
+   * optional shifting adverb, the object and prepositional phrases up to the
+   * chosen length.
+   */
+  private Draft draft() {
+    Draft draft = new Draft();
+    int length = minLength + random.nextInt(maxLength - minLength + 1);
+
+    // the shifter: 0 verb, 1 noun, 2 adverb, 3 adjective or -1
+    int shifter = -1;
+    if (random.nextDouble() < shifterDensity) {
+      shifter = random.nextInt(4);
+      List<ShifterUnit> candidates = shifter == 0 ? shifterVerbs : shifter == 1 ? shifterNouns
+              : shifter == 2 ? shifterAdverbs : shifterAdjectives;
+      if (candidates.isEmpty() || sentimentNouns.isEmpty()) {
+        shifter = -1;
+      }
+    }
+    SentimentUnit mwe = null;
+    if (!sentimentMWEs.isEmpty() && random.nextDouble() < mweRate) {
+      mwe = pick(sentimentMWEs);
+    }
+
+    Token subject = draft.add(draft.clause, "Sie", "sie", "PPER", "subj", null);
+    Token verb;
+    if (shifter == 0) {
+      String lemma = pick(shifterVerbs).name;
+      verb = draft.add(draft.clause, lemma, lemma, "VVFIN", "root", null);
+    } else if (mwe != null && mwe.pos.equals("verben")) {
+      verb = addMwe(draft, draft.clause, mwe, "VVFIN", "root", null);
+      mwe = null;
+    } else {
+      verb = addContent(draft, draft.clause, sentimentVerbs, NEUTRAL_VERBS, "VVFIN", "root", null);
+    }
+    subject.head = verb;
+
+    if (shifter == 2) {
+      String lemma = pick(shifterAdverbs).name;
+      draft.add(draft.clause, lemma, lemma, "ADV", "adv", verb);
+    }
+
+    Phrase object = new Phrase("NP");
+    draft.clause.children.add(object);
+    Token article = draft.add(object, "die", "die", "ART", "det", null);
+    if (shifter == 1) {
+      String lemma = pick(shifterNouns).name;
+      Token noun = draft.add(object, lemma, lemma, "NN", "obja", verb);
+      article.head = noun;
+      Phrase genitive = new Phrase("NP");
+      object.children.add(genitive);
+      Token genitiveArticle = draft.add(genitive, "der", "die", "ART", "det", null);
+      genitiveArticle.head = addSentiment(draft, genitive, sentimentNouns, "NN", "gmod", noun);
+    } else {
+      List<Token> adjectives = new ArrayList<Token>();
+      if (shifter == 3) {
+        String lemma = pick(shifterAdjectives).name;
+        adjectives.add(draft.add(object, lemma, lemma, "ADJA", "attr", null));
+      }
+      if (mwe != null && mwe.pos.equals("adj")) {
+        adjectives.add(addMwe(draft, object, mwe, "ADJA", "attr", null));
+        mwe = null;
+      }
+      int adjectiveCount = random.nextInt(3);
+      for (int i = 0; i < adjectiveCount && draft.tokens.size() + 3 < length; i++) {
+        adjectives.add(addContent(draft, object, sentimentAdjectives, NEUTRAL_ADJECTIVES, "ADJA", "attr", null));
+      }
+      Token noun;
+      if (shifter == 0 || shifter == 3) {
+        // the sentiment in the scope of the shifter
+        noun = addSentiment(draft, object, sentimentNouns, "NN", "obja", verb);
+      } else if (mwe != null && mwe.pos.equals("nomen")) {
+        noun = addMwe(draft, object, mwe, "NN", "obja", verb);
+        mwe = null;
+      } else {
+        noun = addContent(draft, object, sentimentNouns, NEUTRAL_NOUNS, "NN", "obja", verb);
+      }
+      article.head = noun;
+      for (Token adjective : adjectives) {
+        adjective.head = noun;
+      }
+    }
+
+    // an MWE that is still left is a noun, it needs a prepositional phrase
+    while (draft.tokens.size() + 1 < length || mwe != null) {
+      Phrase pp = new Phrase("PP");
+      draft.clause.children.add(pp);
+      String preposition = PREPOSITIONS[random.nextInt(PREPOSITIONS.length)];
+      Token appr = draft.add(pp, preposition, preposition, "APPR", "pp", verb);
+      Token ppArticle = draft.add(pp, "der", "die", "ART", "det", null);
+      if (mwe != null) {
+        ppArticle.head = addMwe(draft, pp, mwe, "NN", "pn", appr);
+        mwe = null;
+      } else {
+        ppArticle.head = addContent(draft, pp, sentimentNouns, NEUTRAL_NOUNS, "NN", "pn", appr);
+      }
+    }
+
+    draft.tokens.add(new Token(".", ".", "$.", "root", null));
+    for (int i = 0; i < draft.tokens.size(); i++) {
+      draft.tokens.get(i).position = i + 1;
+    }
+    return draft;
+  }
+
+  private <T> T pick(List<T> list) {
+    return list.get(random.nextInt(list.size()));
+  }
+
+  /**
+   * Adds a content word, a sentiment with the sentiment density and a neutral
+   * word otherwise.
+   */
+  private Token addContent(Draft draft, Phrase phrase, List<SentimentUnit> sentiments, String[] neutral,
+          String pos, String rel, Token head) {
+    if (!sentiments.isEmpty() && random.nextDouble() < sentimentDensity) {
+      return addSentiment(draft, phrase, sentiments, pos, rel, head);
+    }
+    String lemma = neutral[random.nextInt(neutral.length)];
+    return draft.add(phrase, lemma, lemma, pos, rel, head);
+  }
+
+  private Token addSentiment(Draft draft, Phrase phrase, List<SentimentUnit> sentiments, String pos, String rel,
+          Token head) {
+    String lemma = pick(sentiments).name;
+    Token token = draft.add(phrase, lemma, lemma, pos, rel, head);
+    token.sentiment = true;
+    return token;
+  }
+
+  /**
+   * Adds a sentiment MWE: its collocations followed by its last word, which
+   * is attached to head. The collocations are attached to the last word, so
+   * that the MWE is connected in the dependency graph.
+   *
+   * @return The last word of the MWE.
+   */
+  private Token addMwe(Draft draft, Phrase phrase, SentimentUnit mwe, String pos, String rel, Token head) {
+    List<Token> collocations = new ArrayList<Token>();
+    for (String collocation : mwe.collocations) {
+      if (Character.isUpperCase(collocation.charAt(0))) {
+        collocations.add(draft.add(phrase, collocation, collocation, "NN", "obja", null));
+      } else {
+        collocations.add(draft.add(phrase, collocation, collocation, "ADV", "adv", null));
+      }
+    }
+    Token last = draft.add(phrase, mwe.name, mwe.name, pos, rel, head);
+    last.sentiment = true;
+    for (Token collocation : collocations) {
+      collocation.head = last;
+    }
+    return last;
+  }
+
+  private static void writeText(Writer out, Draft draft) throws IOException {
+    for (int i = 0; i < draft.tokens.size(); i++) {
+      if (i > 0) {
+        out.write(' ');
+      }
+      out.write(draft.tokens.get(i).word);
+    }
+    out.write('\n');
+  }
+
+  private static void writeDependencies(Writer out, Draft draft) throws IOException {
+    for (int i = 0; i < draft.tokens.size(); i++) {
+      Token token = draft.tokens.get(i);
+      int head = token.head == null ? 0 : token.head.position;
+      out.write((i + 1) + "\t" + token.word + "\t" + token.lemma + "\t" + coarsePos(token.pos) + "\t" + token.pos
+              + "\t_\t" + head + "\t" + token.rel + "\t_\t_\n");
+    }
+    out.write('\n');
+  }
+
+  private static String coarsePos(String pos) {
+    if (pos.startsWith("NN")) {
+      return "N";
+    } else if (pos.startsWith("V")) {
+      return "V";
+    } else if (pos.equals("APPR")) {
+      return "PREP";
+    } else if (pos.equals("PPER")) {
+      return "PRO";
+    }
+    return pos;
+  }
+
+  /**
+   * Builds the Tiger graph of a sentence: a PSEUDO root with the clause and
+   * the final punctuation.
+   */
+  private static Sentence toSentence(Draft draft, String id) {
+    Terminals terminals = new Terminals();
+    for (int i = 0; i < draft.tokens.size(); i++) {
+      Token token = draft.tokens.get(i);
+      terminals.addTerminal(new Terminal(new Id(terminalId(id, token)), "", null, token.pos, token.word));
+    }
+    Nonterminals nonterminals = new Nonterminals();
+    Nonterminal root = new Nonterminal("PSEUDO", new Id(id + "_501"));
+    nonterminals.addNonterminal(root);
+    int[] next = {502};
+    root.addEdge(new Edge(new Id(addPhrase(draft.clause, id, nonterminals, next)), "--"));
+    root.addEdge(new Edge(new Id(terminalId(id, draft.tokens.get(draft.tokens.size() - 1))), "--"));
+
+    Graph graph = new Graph(new Id(id + "_501"));
+    graph.setTerminals(terminals);
+    graph.setNonterminals(nonterminals);
+    Sentence sentence = new Sentence(new Id(id));
+    sentence.setGraph(graph);
+    return sentence;
+  }
+
+  private static String addPhrase(Phrase phrase, String id, Nonterminals nonterminals, int[] next) {
+    Nonterminal nonterminal = new Nonterminal(phrase.cat, new Id(id + "_" + next[0]++));
+    nonterminals.addNonterminal(nonterminal);
+    for (Object child : phrase.children) {
+      String childId;
+      if (child instanceof Token) {
+        childId = terminalId(id, (Token) child);
+      } else {
+        childId = addPhrase((Phrase) child, id, nonterminals, next);
+      }
+      nonterminal.addEdge(new Edge(new Id(childId), "--"));
+    }
+    return nonterminal.getId().getId();
+  }
+
+  private static String terminalId(String id, Token token) {
+    return id + "_" + token.position;
+  }
+
+  /**
+   * The preset SEs of a sentence: one frame for every word drawn from the
+   * sentiment lexicon.
+   */
+  private static Semantics presetSEs(Draft draft, String id) {
+    Frames frames = new Frames();
+    int frameCount = 0;
+    for (Token token : draft.tokens) {
+      if (token.sentiment) {
+        Frame frame = new Frame("SubjectiveExpression", new Id(id + "_f" + ++frameCount));
+        Target target = new Target();
+        target.addFenode(new Fenode(new Id(terminalId(id, token))));
+        frame.setTarget(target);
+        frames.addFrame(frame);
+      }
+    }
+    Semantics sem = new Semantics();
+    sem.addFrames(frames);
+    return sem;
+  }
+
+  public static void main(String[] args) {
+    int sentences = 1000;
+    int minLength = 5;
+    int maxLength = 25;
+    double sentimentDensity = 0.2;
+    double shifterDensity = 0.3;
+    double mweRate = 0.05;
+    long seed = 1;
+    boolean preset = false;
+    String sentimentLexicon = "src/main/resources/dictionaries/germanlex.txt";
+    String shifterLexicon = "src/main/resources/dictionaries/shifter_lex.txt";
+    String dir = null;
+
+    try {
+      for (int i = 0; i < args.length; i++) {
+        String arg = args[i];
+        if (arg.equals("-preset")) {
+          preset = true;
+        } else if (arg.startsWith("-") && i + 1 < args.length) {
+          String value = args[++i];
+          switch (arg) {
+            case "-sentences":
+              sentences = Integer.parseInt(value);
+              break;
+            case "-min-length":
+              minLength = Integer.parseInt(value);
+              break;
+            case "-max-length":
+              maxLength = Integer.parseInt(value);
+              break;
+            case "-sentiment-density":
+              sentimentDensity = Double.parseDouble(value);
+              break;
+            case "-shifter-density":
+              shifterDensity = Double.parseDouble(value);
+              break;
+            case "-mwe-rate":
+              mweRate = Double.parseDouble(value);
+              break;
+            case "-seed":
+              seed = Long.parseLong(value);
+              break;
+            case "-sentiment-lexicon":
+              sentimentLexicon = value;
+              break;
+            case "-shifter-lexicon":
+              shifterLexicon = value;
+              break;
+            default:
+              throw new IllegalArgumentException("Unknown option " + arg);
+          }
+        } else if (dir == null && !arg.startsWith("-")) {
+          dir = arg;
+        } else {
+          throw new IllegalArgumentException("Unexpected argument " + arg);
+        }
+      }
+      if (dir == null) {
+        throw new IllegalArgumentException("No output directory given.");
+      }
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println("Usage: java -cp polcla.jar polcla.CorpusGenerator [options] directory, see the javadoc.");
+      System.exit(1);
+      return;
+    }
+
+    SentimentLex sentimentLex = new SentimentLex(false, false);
+    sentimentLex.fileToLex(sentimentLexicon);
+    ShifterLex shifterLex = new ShifterLex(false);
+    shifterLex.fileToLex(shifterLexicon);
+
+    CorpusGenerator generator = new CorpusGenerator(sentimentLex, shifterLex, seed);
+    generator.setLength(minLength, maxLength);
+    generator.setSentimentDensity(sentimentDensity);
+    generator.setShifterDensity(shifterDensity);
+    generator.setMweRate(mweRate);
+    try {
+      generator.generate(sentences, new File(dir), preset);
+      System.out.println(sentences + " sentences written to " + dir);
+    } catch (IOException e) {
+      System.err.println("Could not write the corpus to " + dir + ": " + e.getMessage());
+      log.log(Level.SEVERE, "Could not write the corpus to " + dir, e);
+      System.exit(1);
+    }
+  }
+}
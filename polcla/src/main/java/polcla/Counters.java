@@ -0,0 +1,151 @@
+package polcla;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Named event counters of a {@link Module}, e.g. how often a scope rule found
+ * a shifter target and how much time it took.
+ *
+ * The counters are {@link LongAdder}s, so threads that analyse sentences
+ * concurrently do not contend for them. Hot paths should look a counter up
+ * once with {@link #counter(String)} and keep it.
+ *
+ * Counter names are dot separated, e.g. "scope.obja.hits". The names used by
+ * the modules are:
+ *
+ * <pre>
+ * scope.&lt;rule&gt;.hits        shifter targets found by a scope rule
+ * scope.&lt;rule&gt;.nanos       time spent in a scope rule
+ * scope.walk.nanos            time spent collecting the scope candidates of
+ *                             the shifters and intensifiers of a sentence
+ * scope.intensifier.&lt;rule&gt;.hits  intensifier targets found by a scope rule
+ * intensifier.targets         intensifiers with a target
+ * shifter.pos_mismatch        shifter lexicon hits dropped by the POS lookup
+ * sentiment.pos_mismatch      sentiment lexicon hits dropped by the POS lookup
+ * sentiment.mwe_matches       multi word sentiments found in a sentence
+ * preset.missing_lexicon_entry  preset SEs without a sentiment lexicon entry
+ * </pre>
+ */
+public final class Counters {
+
+  private final static Logger log = Logger.getLogger(Counters.class.getName());
+  private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<String, LongAdder>();
+
+  /**
+   * Returns a counter, creating it if necessary.
+   *
+   * @param name The name of the counter.
+   * @return The counter.
+   */
+  public LongAdder counter(String name) {
+    LongAdder counter = counters.get(name);
+    if (counter == null) {
+      LongAdder created = new LongAdder();
+      counter = counters.putIfAbsent(name, created);
+      if (counter == null) {
+        counter = created;
+      }
+    }
+    return counter;
+  }
+
+  /**
+   * Adds one to a counter.
+   *
+   * @param name The name of the counter.
+   */
+  public void increment(String name) {
+    counter(name).increment();
+  }
+
+  /**
+   * @param name The name of a counter.
+   * @return The value of the counter, 0 if it does not exist.
+   */
+  public long get(String name) {
+    LongAdder counter = counters.get(name);
+    return counter == null ? 0 : counter.sum();
+  }
+
+  /**
+   * @return The current values of all counters, sorted by name.
+   */
+  public Map<String, Long> snapshot() {
+    Map<String, Long> values = new TreeMap<String, Long>();
+    for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+      values.put(entry.getKey(), entry.getValue().sum());
+    }
+    return values;
+  }
+
+  /**
+   * @return The counters as a JSON object, sorted by name.
+   */
+  public String toJson() {
+    return appendJson(new StringBuilder(), "").toString();
+  }
+
+  private StringBuilder appendJson(StringBuilder json, String indent) {
+    json.append('{');
+    boolean first = true;
+    for (Map.Entry<String, Long> entry : snapshot().entrySet()) {
+      json.append(first ? "\n" : ",\n").append(indent).append("  ");
+      first = false;
+      Json.quote(json, entry.getKey()).append(": ").append(entry.getValue());
+    }
+    return json.append(first ? "}" : "\n" + indent + "}");
+  }
+
+  /**
+   * The counters of several modules as one JSON object, with the class name
+   * of each module as key. Modules of the same class are numbered.
+   *
+   * @param modules The modules.
+   * @return The JSON object.
+   */
+  public static String toJson(Collection<Module> modules) {
+    StringBuilder json = new StringBuilder("{");
+    Map<String, Integer> names = new TreeMap<String, Integer>();
+    boolean first = true;
+    for (Module module : modules) {
+      String name = module.getClass().getSimpleName();
+      Integer n = names.get(name);
+      names.put(name, n == null ? 1 : n + 1);
+      if (n != null) {
+        name = name + "#" + (n + 1);
+      }
+      json.append(first ? "\n  " : ",\n  ");
+      first = false;
+      Json.quote(json, name).append(": ");
+      module.getCounters().appendJson(json, "  ");
+    }
+    return json.append(first ? "}\n" : "\n}\n").toString();
+  }
+
+  /**
+   * Writes {@link #toJson(Collection)} to a file.
+   *
+   * @param modules The modules.
+   * @param filename The path of the file.
+   */
+  public static void writeJson(Collection<Module> modules, String filename) {
+    try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(filename), "UTF-8"))) {
+      out.write(toJson(modules));
+    } catch (IOException e) {
+      System.err.println("Could not write the counters to " + filename);
+      log.log(Level.SEVERE, "Could not write the counters to " + filename, e);
+    }
+  }
+}
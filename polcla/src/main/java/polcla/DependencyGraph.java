@@ -1,9 +1,17 @@
 package polcla;
 
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * @author Lennart Schmeling (initial version)
@@ -15,31 +23,73 @@ import java.util.List;
  * all the graph's edges are stored (existing dependency relations between
  * WordObj). Also, all the nodes of the graph are stored in a separate HashSet.
  *
+ * Besides the set of edges, the graph keeps the incoming and outgoing edges of
+ * every node and the edges of every dependency label, so that looking up the
+ * parent, children or relations of a node costs O(degree) instead of a scan
+ * over all edges. Edges must therefore only be added and removed with
+ * {@link #addEdge(WordObj, WordObj, String)} and {@link #removeEdge(Edge)}.
+ * All lookups see the edges in the order of the graph, which is the order in
+ * which they were added, except that edges created by the normalization of
+ * predicates, auxiliaries and prepositional phrases come first.
+ *
+ * The normalization methods change a graph in place. To keep the graph read
+ * from the parser, normalize a copy made with
+ * {@link #DependencyGraph(DependencyGraph)}; edges and nodes are immutable or
+ * shared, so the copy only duplicates the indices.
+ *
  */
 public class DependencyGraph {
 
   private final WordObj root;
-  private final HashSet<Edge> edges;
-  private HashSet<WordObj> nodes;
+  // the edges of the graph and their place in the edge order
+  private final Map<Edge, Link> edges;
+  private Link first;
+  private Link last;
+  private final Set<Edge> edgeView = new EdgeView();
+  private final HashSet<WordObj> nodes;
   private final List<WordObj> wordList;
 
+  // incoming and outgoing edges of each node, in the order of edges
+  private final Map<WordObj, List<Edge>> incoming;
+  private final Map<WordObj, List<Edge>> outgoing;
+  // edges by dependency label, in the order of edges
+  private final Map<String, List<Edge>> labelled;
+
+  // while normalizing, collects the end points of added and removed edges
+  private List<WordObj> touched;
+
 	// true if the graph is the result of the normalization for active and passive
   // voice
   private boolean ap;
 
   public DependencyGraph(List<WordObj> wl) {
     this.root = new WordObj("root");
-    this.edges = new HashSet<Edge>();
-    this.nodes = new HashSet<WordObj>();
+    this.edges = new HashMap<Edge, Link>();
+    this.nodes = new LinkedHashSet<WordObj>();
     wordList = wl;
+    this.incoming = new HashMap<WordObj, List<Edge>>();
+    this.outgoing = new HashMap<WordObj, List<Edge>>();
+    this.labelled = new HashMap<String, List<Edge>>();
   }
 
+  /**
+   * Copies a graph. The copy has the same root, nodes and edges as old, in the
+   * same order, but can be changed without changing old.
+   *
+   * @param old The graph to copy
+   */
   public DependencyGraph(DependencyGraph old) {
-    this.root = new WordObj("root");
-    this.edges = new HashSet<Edge>(old.edges);
-    this.nodes = new HashSet<WordObj>(old.nodes);
+    this.root = old.root;
+    this.edges = new HashMap<Edge, Link>();
+    this.nodes = new LinkedHashSet<WordObj>(old.nodes);
     this.wordList = old.wordList;
     this.ap = old.ap;
+    this.incoming = new HashMap<WordObj, List<Edge>>();
+    this.outgoing = new HashMap<WordObj, List<Edge>>();
+    this.labelled = new HashMap<String, List<Edge>>();
+    for (Edge edge : old.edgeView) {
+      append(edge);
+    }
   }
 
   /**
@@ -52,10 +102,198 @@ public class DependencyGraph {
 
   /**
    *
-   * @return the HashSet in which all edges of a graph are stored
+   * @return an unmodifiable view of the set in which all edges of a graph are
+   * stored
+   */
+  public Set<Edge> getEdges() {
+    return edgeView;
+  }
+
+  /**
+   *
+   * @param node A node of the graph
+   * @return the edges that point to node, in the order in which they were
+   * added. The list must not be modified.
+   */
+  public List<Edge> getIncoming(WordObj node) {
+    return edgesOf(incoming, node);
+  }
+
+  /**
+   *
+   * @param node A node of the graph
+   * @return the edges that start at node, in the order in which they were
+   * added. The list must not be modified.
    */
-  public HashSet<Edge> getEdges() {
-    return edges;
+  public List<Edge> getOutgoing(WordObj node) {
+    return edgesOf(outgoing, node);
+  }
+
+  /**
+   *
+   * @param depRel A dependency label
+   * @return the edges with this label, in the order in which they were added.
+   * The list must not be modified.
+   */
+  public List<Edge> getEdges(String depRel) {
+    return edgesOf(labelled, depRel);
+  }
+
+  private static <K> List<Edge> edgesOf(Map<K, List<Edge>> index, K key) {
+    List<Edge> list = index.get(key);
+    return list == null ? Collections.<Edge>emptyList() : list;
+  }
+
+  /**
+   * Adds edge behind all edges of the graph, unless the graph has it already.
+   */
+  private boolean append(Edge edge) {
+    if (edges.containsKey(edge)) {
+      return false;
+    }
+    Link link = new Link(edge);
+    link.previous = last;
+    if (last == null) {
+      first = link;
+    } else {
+      last.next = link;
+    }
+    last = link;
+    edges.put(edge, link);
+    addTo(incoming, edge.target, edge, false);
+    addTo(outgoing, edge.source, edge, false);
+    addTo(labelled, edge.depRel, edge, false);
+    touch(edge);
+    return true;
+  }
+
+  /**
+   * Adds edge in front of all edges of the graph. If the graph has it already,
+   * it is moved to the front.
+   */
+  private void prepend(Edge edge) {
+    unlink(edge);
+    Link link = new Link(edge);
+    link.next = first;
+    if (first == null) {
+      last = link;
+    } else {
+      first.previous = link;
+    }
+    first = link;
+    edges.put(edge, link);
+    addTo(incoming, edge.target, edge, true);
+    addTo(outgoing, edge.source, edge, true);
+    addTo(labelled, edge.depRel, edge, true);
+    touch(edge);
+  }
+
+  private boolean unlink(Edge edge) {
+    Link link = edges.remove(edge);
+    if (link == null) {
+      return false;
+    }
+    // the link keeps its own pointers, so that iterators can move on
+    if (link.previous == null) {
+      first = link.next;
+    } else {
+      link.previous.next = link.next;
+    }
+    if (link.next == null) {
+      last = link.previous;
+    } else {
+      link.next.previous = link.previous;
+    }
+    removeFrom(incoming, edge.target, edge);
+    removeFrom(outgoing, edge.source, edge);
+    removeFrom(labelled, edge.depRel, edge);
+    touch(edge);
+    return true;
+  }
+
+  private void touch(Edge edge) {
+    if (touched != null) {
+      touched.add(edge.source);
+      touched.add(edge.target);
+    }
+  }
+
+  private static <K> void addTo(Map<K, List<Edge>> index, K key, Edge edge, boolean front) {
+    List<Edge> list = index.get(key);
+    if (list == null) {
+      list = new ArrayList<Edge>(2);
+      index.put(key, list);
+    }
+    if (front) {
+      list.add(0, edge);
+    } else {
+      list.add(edge);
+    }
+  }
+
+  private static <K> void removeFrom(Map<K, List<Edge>> index, K key, Edge edge) {
+    List<Edge> list = index.get(key);
+    if (list != null) {
+      list.remove(edge);
+    }
+  }
+
+  /**
+   * Entry of the doubly linked list that holds the order of the edges.
+   */
+  private static final class Link {
+
+    final Edge edge;
+    Link previous;
+    Link next;
+
+    Link(Edge edge) {
+      this.edge = edge;
+    }
+  }
+
+  /**
+   * Unmodifiable view of the edges in the order of the graph.
+   */
+  private final class EdgeView extends AbstractSet<Edge> {
+
+    @Override
+    public Iterator<Edge> iterator() {
+      return new Iterator<Edge>() {
+
+        private Link next = first;
+
+        @Override
+        public boolean hasNext() {
+          return next != null;
+        }
+
+        @Override
+        public Edge next() {
+          if (next == null) {
+            throw new NoSuchElementException();
+          }
+          Edge edge = next.edge;
+          next = next.next;
+          return edge;
+        }
+
+        @Override
+        public void remove() {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return edges.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return edges.containsKey(o);
+    }
   }
 
   /**
@@ -96,14 +334,25 @@ public class DependencyGraph {
    * @param source the node where the edge starts
    * @param target the node where the edge terminates
    * @param depRel the dependency label which should be annotated for this edge
-   * @return the newly added edge
+   * @return the new edge. If the graph already has an equal edge, the graph is
+   * not changed.
    */
   public Edge addEdge(WordObj source, WordObj target, String depRel) {
     Edge edge = new Edge(source, target, depRel);
-    this.edges.add(edge);
+    append(edge);
     return edge;
   }
 
+  /**
+   * remove an edge from the HashSet edges of a graph object
+   *
+   * @param edge the edge which should be removed
+   * @return True if the edge was in the graph, False otherwise
+   */
+  public boolean removeEdge(Edge edge) {
+    return unlink(edge);
+  }
+
   /**
    *
    * @param target A node in the graph which is supposed to have an incoming
@@ -112,12 +361,7 @@ public class DependencyGraph {
    * @return True if edge exists, False otherwise
    */
   public boolean hasParent(WordObj target, String depRel) {
-    for (Edge edge : this.edges) {
-      if (target.equals(edge.target) && depRel.equals(edge.depRel)) {
-        return true;
-      }
-    }
-    return false;
+    return getParent(target, depRel) != null;
   }
 
   /**
@@ -131,8 +375,8 @@ public class DependencyGraph {
    * the dependency relation
    */
   public WordObj getParent(WordObj target, String depRel) {
-    for (Edge edge : this.edges) {
-      if (target.equals(edge.target) && depRel.equals(edge.depRel)) {
+    for (Edge edge : getIncoming(target)) {
+      if (depRel.equals(edge.depRel)) {
         return edge.source;
       }
     }
@@ -149,8 +393,8 @@ public class DependencyGraph {
    * the depRel indicated
    */
   public WordObj getChild(WordObj source, String depRel) {
-    for (Edge edge : this.edges) {
-      if (source.equals(edge.source) && depRel.equals(edge.depRel)) {
+    for (Edge edge : getOutgoing(source)) {
+      if (depRel.equals(edge.depRel)) {
         return edge.target;
       }
     }
@@ -167,11 +411,10 @@ public class DependencyGraph {
    * the depRel indicated
    */
   public List<WordObj> getChildren(WordObj source) {
-    List<WordObj> children = new ArrayList<>();
-    for (Edge edge : this.edges) {
-      if (source.equals(edge.source)) {
-        children.add(edge.target);
-      }
+    List<Edge> out = getOutgoing(source);
+    List<WordObj> children = new ArrayList<>(out.size());
+    for (Edge edge : out) {
+      children.add(edge.target);
     }
     return children;
   }
@@ -201,12 +444,11 @@ public class DependencyGraph {
    */
   public ArrayList<WordObj> getSources(WordObj node) {
 
-    ArrayList<WordObj> list = new ArrayList<WordObj>();
+    List<Edge> in = getIncoming(node);
+    ArrayList<WordObj> list = new ArrayList<WordObj>(in.size());
 
-    for (Edge edge : this.edges) {
-      if (edge.target == node) {
-        list.add(edge.source);
-      }
+    for (Edge edge : in) {
+      list.add(edge.source);
     }
 
     return list;
@@ -220,12 +462,11 @@ public class DependencyGraph {
    */
   public ArrayList<WordObj> getTargets(WordObj node) {
 
-    ArrayList<WordObj> list = new ArrayList<WordObj>();
+    List<Edge> out = getOutgoing(node);
+    ArrayList<WordObj> list = new ArrayList<WordObj>(out.size());
 
-    for (Edge edge : this.edges) {
-      if (edge.source == node) {
-        list.add(edge.target);
-      }
+    for (Edge edge : out) {
+      list.add(edge.target);
     }
 
     return list;
@@ -241,13 +482,7 @@ public class DependencyGraph {
    * @return true if relation exists, false otherwise
    */
   public boolean hasTargetRelation(WordObj target, String depRel) {
-    for (Edge edge : this.edges) {
-      if (target.equals(edge.target) && depRel.equals(edge.depRel)) {
-        return true;
-      }
-
-    }
-    return false;
+    return getParent(target, depRel) != null;
   }
 
   /**
@@ -263,18 +498,7 @@ public class DependencyGraph {
    * @return true if prepositional phrase exists, no otherwise
    */
   public boolean hasObjpPpToPnRelation(WordObj source, String depRel) {
-    for (Edge edge : this.edges) {
-      if (source.equals(edge.source) && depRel.equals(edge.depRel)) {
-        WordObj tar = edge.target;
-        for (Edge e : this.edges) {
-          if (tar.equals(e.source) && "pn".equals(e.depRel)) {
-            return true;
-          }
-        }
-
-      }
-    }
-    return false;
+    return getPnFromObjpPpToPnRelation(source, depRel) != null;
   }
 
   /**
@@ -290,15 +514,12 @@ public class DependencyGraph {
    * @return the node in the graph to which the objp/pp + pn- Relation points
    */
   public WordObj getPnFromObjpPpToPnRelation(WordObj source, String depRel) {
-    for (Edge edge : this.edges) {
-      if (source.equals(edge.source) && depRel.equals(edge.depRel)) {
-        WordObj tar = edge.target;
-        for (Edge e : this.edges) {
-          if (tar.equals(e.source) && "pn".equals(e.depRel)) {
-            return e.target;
-          }
+    for (Edge edge : getOutgoing(source)) {
+      if (depRel.equals(edge.depRel)) {
+        WordObj pn = getChild(edge.target, "pn");
+        if (pn != null) {
+          return pn;
         }
-
       }
     }
     return null;
@@ -329,47 +550,10 @@ public class DependencyGraph {
     if (!(containsDeleted.getName().equals(""))) {
       sentiment = containsDeleted;
     }
-    ArrayList<WordObj> list = new ArrayList<WordObj>();
-    if ("objp-*".equals(label)) {
-      for (Edge edge : this.edges) {
-        if (!list.isEmpty()) {
-          break;
-        }
-        if (edge.source.equals(sentiment) && edge.depRel.contains("objp")) {
-          list.add(edge.target);
-        }
-      }
-      return list;
-    } else if ("attr-rev".equals(label)) {
-      for (Edge edge : this.edges) {
-        if (edge.target.equals(sentiment) && edge.depRel.equals("attr")) {
-          list.add(edge.source);
-        }
-      }
-      return list;
-    } else if ("det".equals(label)) {
-      for (Edge edge : this.edges) {
-        if (edge.source.equals(sentiment) && edge.depRel.equals(label)) {
-          if (edge.target.getPos().equals("PPOSAT")) {
-            list.add(edge.target);
-          }
-
-        }
-      }
-      return list;
-    } else {
-      for (Edge edge : this.edges) {
-        if (!list.isEmpty()) {
-          break;
-        }
-        if (edge.source.equals(sentiment) && edge.depRel.equals(label)) {
-          list.add(edge.target);
-        }
-      }
-    }
-    return list;
+    return getSentimentSourceTarget(sentiment, label);
   }
 
+
   /**
    * This method returns either the corresponding source or the target
    * (depending if it has been called to identify source or target in
@@ -384,50 +568,36 @@ public class DependencyGraph {
    * if no fitting source/target exists for given label and sent expr
    */
   public ArrayList<WordObj> getSentimentSourceTarget(WordObj sentiment, String label) {
-		// if sentiment expression in deletedNodes, find the parentNode in which
-    // the information about DeletedWord Obj is stored
-    // and take this node as sentiment expr (to find graph relations)
     ArrayList<WordObj> list = new ArrayList<WordObj>();
     if ("objp-*".equals(label)) {
-      for (Edge edge : this.edges) {
-        if (!list.isEmpty()) {
-          break;
-        }
-        if (edge.source.equals(sentiment) && edge.depRel.contains("objp")) {
+      for (Edge edge : getOutgoing(sentiment)) {
+        if (edge.depRel.contains("objp")) {
           list.add(edge.target);
+          break;
         }
       }
-      return list;
     } else if ("attr-rev".equals(label)) {
-      for (Edge edge : this.edges) {
-        if (edge.target.equals(sentiment) && edge.depRel.equals("attr")) {
+      for (Edge edge : getIncoming(sentiment)) {
+        if (edge.depRel.equals("attr")) {
           list.add(edge.source);
         }
       }
-      return list;
     } else if ("det".equals(label)) {
-      for (Edge edge : this.edges) {
-        if (edge.source.equals(sentiment) && edge.depRel.equals(label)) {
-          if (edge.target.getPos().equals("PPOSAT")) {
-            list.add(edge.target);
-          }
-
+      for (Edge edge : getOutgoing(sentiment)) {
+        if (edge.depRel.equals(label) && edge.target.getPos().equals("PPOSAT")) {
+          list.add(edge.target);
         }
       }
-      return list;
     } else {
-      for (Edge edge : this.edges) {
-        if (!list.isEmpty()) {
-          break;
-        }
-        if (edge.source.equals(sentiment) && edge.depRel.equals(label)) {
-          list.add(edge.target);
-        }
+      WordObj child = getChild(sentiment, label);
+      if (child != null) {
+        list.add(child);
       }
     }
     return list;
   }
 
+
   /**
    * if participle contains the lemma "werden" in deletedWords (after
    * aux-Normalization), we encountered a passive sentence in which
@@ -465,15 +635,13 @@ public class DependencyGraph {
    * @param graph dependency graph as input
    */
   public void correctPhrasalVerbs(DependencyGraph graph) {
-    for (Edge edge : graph.edges) {
-      if ("avz".equals(edge.depRel)) {
-        String particle = edge.target.getLemma();
-        String verb = edge.source.getLemma();
-        String newVerbLemma = particle + verb;
-        edge.source.setLemma(newVerbLemma);
-        edge.source.setIsParticleVerb(true);
-        edge.source.setParticle(edge.target);
-      }
+    for (Edge edge : graph.getEdges("avz")) {
+      String particle = edge.target.getLemma();
+      String verb = edge.source.getLemma();
+      String newVerbLemma = particle + verb;
+      edge.source.setLemma(newVerbLemma);
+      edge.source.setIsParticleVerb(true);
+      edge.source.setParticle(edge.target);
     }
   }
 
@@ -496,35 +664,58 @@ public class DependencyGraph {
 
   /**
    * check if graph has edges which call for one of the normalization methods
-   * (for preposition phrases / predicative adjectives / auxillary verbs)
-   * while-loop forces the method to run until all the normalizations have taken
-   * place (often more than one per sentence)
+   * (for preposition phrases / predicative adjectives / auxillary verbs) and
+   * apply them until all the normalizations have taken place (often more than
+   * one per sentence). The normalizations are applied to the first word (in
+   * sentence order) that needs one. Since a normalization only changes the
+   * edges around one word, only the words at the changed edges and their
+   * parents are checked again afterwards.
    *
-   * @param graph the sentence's graph as input
-   * @return the normalized graph, or if no normalization needed, the same graph
-   * as the input
+   * @param graph the sentence's graph as input; it is changed in place
+   * @return the normalized graph, i.e. graph
    */
   public DependencyGraph normalize(DependencyGraph graph) {
 
-    while (!graph.isNormalized()) {
+    Map<WordObj, Integer> positions = new HashMap<WordObj, Integer>();
+    TreeSet<Integer> worklist = new TreeSet<Integer>();
+    for (int i = 0; i < this.wordList.size(); i++) {
+      positions.put(this.wordList.get(i), i);
+      worklist.add(i);
+    }
 
-      for (WordObj word : this.wordList) {
+    graph.touched = new ArrayList<WordObj>();
+    try {
+      while (!worklist.isEmpty()) {
+        int position = worklist.pollFirst();
+        WordObj word = this.wordList.get(position);
 
 				// pred and aux can be normalized in the same way (rising one
         // level higher in the dependency parse)
         if (graph.hasTargetRelation(word, "pred") || graph.hasTargetRelation(word, "aux")) {
-          graph = normalizePredVerb(word, graph);
-          break;
+          normalizePredVerb(word, graph);
         } // objp and pp can be normalized in the same way (join two
         // edges, adding a new objp-* relation)
         else if (graph.hasObjpPpToPnRelation(word, "objp")) {
-          graph = normalizeObjpPP(word, graph, "objp");
-          break;
+          normalizeObjpPP(word, graph, "objp");
         } else if (graph.hasObjpPpToPnRelation(word, "pp")) {
-          graph = normalizeObjpPP(word, graph, "pp");
-          break;
+          normalizeObjpPP(word, graph, "pp");
+        } else {
+          continue;
         }
+
+        // a word needs a normalization if its incoming edges, its outgoing
+        // edges or the outgoing edges of its children change
+        worklist.add(position);
+        for (WordObj node : graph.touched) {
+          requeue(positions, worklist, node);
+          for (Edge edge : graph.getIncoming(node)) {
+            requeue(positions, worklist, edge.source);
+          }
+        }
+        graph.touched.clear();
       }
+    } finally {
+      graph.touched = null;
     }
 
     graph.correctPhrasalVerbs(graph);
@@ -532,19 +723,24 @@ public class DependencyGraph {
     return graph;
   }
 
+  private static void requeue(Map<WordObj, Integer> positions, TreeSet<Integer> worklist, WordObj node) {
+    Integer position = positions.get(node);
+    if (position != null) {
+      worklist.add(position);
+    }
+  }
+
   /**
-   * normalize auxillary verbs and predicative expressions and return an updated
-   * graph object
+   * normalize auxillary verbs and predicative expressions: the parent node is
+   * removed from the graph and its edges are moved to the word.
    *
    * @param word The WordObj of the auxillary verb or predicative expression
    * respectively
-   * @param graph The graph object of the sentence
-   * @return an updated graph object in with adjusted nodes and edges
+   * @param graph The graph object of the sentence; it is changed in place
+   * @return the updated graph object, i.e. graph
    */
   public DependencyGraph normalizePredVerb(WordObj word, DependencyGraph graph) {
 
-    DependencyGraph normalized = new DependencyGraph(this.wordList);
-
     WordObj parentNode = graph.getParent(word, word.getRelation());
 
 		// the parent node of pred/aux object will be replaced by pred/aux
@@ -556,10 +752,9 @@ public class DependencyGraph {
     // dependency, which might
     // otherwise result in infinite loop (wrong dependency relations)
     if (parentTargets.isEmpty() && parentSources.isEmpty()) {
-      for (Edge edge : graph.edges) {
-        if ((word.equals(edge.target) && "pred".equals(edge.depRel))
-                || (word.equals(edge.target) && "aux".equals(edge.depRel))) {
-          graph.edges.remove(edge);
+      for (Edge edge : graph.getIncoming(word)) {
+        if ("pred".equals(edge.depRel) || "aux".equals(edge.depRel)) {
+          graph.removeEdge(edge);
           graph.addEdge(edge.source, edge.target, parentNode.getRelation());
           break;
         }
@@ -572,28 +767,22 @@ public class DependencyGraph {
     // node.
     word.setRelation(parentNode.getRelation());
 
-		// save every node in graph (deleted node will be saved in pred's/ aux's
-    // node)
-    for (WordObj w : graph.nodes) {
-      if (w != parentNode && w != word) {
-        normalized.addNode(w);
-      } else if (w == word) {
-        if (parentNode != word) {
-          word.addDeleted(parentNode);
-        }
-        normalized.addNode(word);
+		// remove the parent node from the graph (deleted node will be saved in
+    // pred's/ aux's node)
+    if (parentNode != word) {
+      if (graph.nodes.contains(word)) {
+        word.addDeleted(parentNode);
       }
+      graph.nodes.remove(parentNode);
     }
 
 		// predicative expr. /auxillary one level higher, generate corresponding
     // new edges
+    List<Edge> moved = new ArrayList<Edge>();
     for (WordObj target : parentTargets) {
       if (target != word) {
-        for (Edge edges : graph.edges) {
-          if (target.equals(edges.target)) {
-            normalized.addEdge(word, target, edges.depRel);
-          }
-
+        for (Edge edges : graph.getIncoming(target)) {
+          moved.add(new Edge(word, target, edges.depRel));
         }
 
       }
@@ -602,61 +791,64 @@ public class DependencyGraph {
     // parent node to predicate / aux
     for (WordObj source : parentSources) {
       if (source.equals(graph.root)) {
-        normalized.addEdge(source, word, "root");
+        moved.add(new Edge(source, word, "root"));
       } else {
-        normalized.addEdge(source, word, parentNode.getRelation());
+        moved.add(new Edge(source, word, parentNode.getRelation()));
       }
     }
-    // add all old edges
-    for (Edge edge : graph.edges) {
-      if (edge.source != parentNode && edge.target != parentNode) {
-        normalized.addEdge(edge.source, edge.target, edge.depRel);
-      }
+
+    // remove all edges of the parent node, the new edges come first
+    graph.removeEdges(parentNode);
+    for (int i = moved.size() - 1; i >= 0; i--) {
+      graph.prepend(moved.get(i));
     }
 
-    return normalized;
+    return graph;
   }
 
   /**
-   * normalize prepositional phrases and return an updated graph object
+   * Removes all incoming and outgoing edges of a node.
+   */
+  private void removeEdges(WordObj node) {
+    for (Edge edge : new ArrayList<Edge>(getIncoming(node))) {
+      unlink(edge);
+    }
+    for (Edge edge : new ArrayList<Edge>(getOutgoing(node))) {
+      unlink(edge);
+    }
+  }
+
+  /**
+   * normalize prepositional phrases: the preposition is removed from the graph
+   * and its parent is linked to the head of the noun phrase directly.
    *
    * @param word the WordObj in the graph from which the prepositional phrase's
    * edges leave
-   * @param graph the sentence's graph object
+   * @param graph the sentence's graph object; it is changed in place
    * @param depRel specify if the prepositional phrase is either introduced by a
    * pp- oder an objp-relation
-   * @return the normalized graph object
+   * @return the normalized graph object, i.e. graph
    */
   public DependencyGraph normalizeObjpPP(WordObj word, DependencyGraph graph, String depRel) {
 
-    DependencyGraph normalized = new DependencyGraph(this.wordList);
-
     WordObj parentNode = word;
 
     WordObj childNode = graph.getChild(word, depRel);
     WordObj childNodeObjpPP = graph.getPnFromObjpPpToPnRelation(word, depRel);
 
-    // save every node in graph - save deleted information in pp's/pn's node
-    for (WordObj w : graph.nodes) {
-      if (w == childNode) {
-        parentNode.addDeleted(w);
-      } else {
-        normalized.addNode(w);
-      }
+    // remove the preposition's node - save deleted information in pp's/pn's node
+    if (graph.nodes.remove(childNode)) {
+      parentNode.addDeleted(childNode);
     }
 
-    // add new edge with deprel objp-*+right prep
+    // replace the two edges of the preposition by a new edge with deprel
+    // objp-*+right prep, which comes first
     String prep = childNode.getName().toLowerCase();
     String depRelation = "objp-" + prep;
-    normalized.addEdge(parentNode, childNodeObjpPP, depRelation);
+    graph.removeEdges(childNode);
+    graph.prepend(new Edge(parentNode, childNodeObjpPP, depRelation));
 
-    // add old edges except for those two replaced by new edge
-    for (Edge edge : graph.edges) {
-      if (edge.source != childNode && edge.target != childNode) {
-        normalized.addEdge(edge.source, edge.target, edge.depRel);
-      }
-    }
-    return normalized;
+    return graph;
   }
 
   /**
@@ -666,43 +858,62 @@ public class DependencyGraph {
    * obja-relation (although it is the sentence's subject) "von Jan" is source
    * and its dependency relation must change from objp-von to subj
    *
-   * @param graph the sentence's graph as input
-   * @return the updated dependency graph with new relations (if necessary)
+   * @param graph the sentence's graph as input; it is changed in place
+   * @return the updated dependency graph with new relations (if necessary),
+   * i.e. graph
    */
   public DependencyGraph normalizeActivePassive(DependencyGraph graph) {
 
-    DependencyGraph normalizedActPass = new DependencyGraph(this.wordList);
-
-    normalizedActPass.nodes = graph.nodes;
+    boolean passive = false;
+    for (Edge edge : graph.edgeView) {
+      if (passiveRelation(graph, edge) != null) {
+        passive = true;
+        break;
+      }
+    }
 
-    for (Edge edge : graph.edges) {
-      if ("VVPP".equals(edge.source.getPos())) {
-        if (graph.checkPassive(edge.source)) {
-          if ("subj".equals(edge.depRel)) {
-            normalizedActPass.addEdge(edge.source, edge.target, "obja");
-            // as soon as an edge is added change active-passive flag to true
-            normalizedActPass.ap = true;
-          } else if ("objp-von".equals(edge.depRel) || ("objp-vom".equals(edge.depRel))) {
-            normalizedActPass.addEdge(edge.source, edge.target, "subj");
-            normalizedActPass.ap = true;
+    // rebuild the edges only if a relation changes; relabelled edges keep
+    // their place, an edge that is already in the graph is not added again
+    if (passive) {
+      List<Edge> relabelled = new ArrayList<Edge>(graph.edges.size());
+      for (Edge edge : graph.edgeView) {
+        String depRel = passiveRelation(graph, edge);
+        relabelled.add(depRel == null ? edge : new Edge(edge.source, edge.target, depRel));
+      }
+      graph.clearEdges();
+      for (Edge edge : relabelled) {
+        graph.append(edge);
+      }
+    }
 
-          } else {
-            normalizedActPass.addEdge(edge.source, edge.target, edge.depRel);
-            normalizedActPass.ap = true;
-          }
+    // as soon as the graph has an edge, change active-passive flag to true
+    graph.ap = !graph.edges.isEmpty();
 
-        } else {
-          normalizedActPass.addEdge(edge.source, edge.target, edge.depRel);
-          normalizedActPass.ap = true;
-        }
+    return graph;
+  }
 
-      } else {
-        normalizedActPass.addEdge(edge.source, edge.target, edge.depRel);
-        normalizedActPass.ap = true;
+  /**
+   * @return the relation edge has in active voice if it differs, null
+   * otherwise
+   */
+  private String passiveRelation(DependencyGraph graph, Edge edge) {
+    if ("VVPP".equals(edge.source.getPos()) && graph.checkPassive(edge.source)) {
+      if ("subj".equals(edge.depRel)) {
+        return "obja";
+      } else if ("objp-von".equals(edge.depRel) || ("objp-vom".equals(edge.depRel))) {
+        return "subj";
       }
-
     }
-    return normalizedActPass;
+    return null;
+  }
+
+  private void clearEdges() {
+    edges.clear();
+    first = null;
+    last = null;
+    incoming.clear();
+    outgoing.clear();
+    labelled.clear();
   }
 
   /**
@@ -826,14 +1037,12 @@ public class DependencyGraph {
    * These additional edges enable later steps to find opinion sources or
    * targets more reliably (frame construction).
    *
-   * @param graph The graph to be normalized.
+   * @param graph The graph to be normalized; it is changed in place.
    *
-   * @return the normalized graph.
+   * @return the normalized graph, i.e. graph.
    */
   public DependencyGraph normalizeConjunctions(DependencyGraph graph) {
 
-    graph = new DependencyGraph(graph);
-
     boolean comma = false;
 
     // iterate over all words
@@ -856,280 +1065,10 @@ public class DependencyGraph {
     return graph;
   }
 
-  /**
-   * Returns the list of WordObj nodes from the that are matched with the
-   * mweWordsToBeMatched in lemma or name, and are chained with the startNode
-   * (recursive function).
-   *
-   * @param startNode the node from which the chain search starts.
-   * @param mweWordsToBeMatched is the list of strings/words that are to be
-   * found/matched in the graph/tree.
-   * @param topCall indicates if it is the top call of the recursive function or
-   * not.
-   * @return the list of connected WordObj nodes that are matched with the
-   * mweWordsToBeMatched.
-   */
-  public ArrayList<WordObj> getMweMatches(WordObj startNode, ArrayList<String> mweWordsToBeMatched, boolean topCall) {
-    ArrayList<String> mweWords = new ArrayList<String>(mweWordsToBeMatched);
-    ArrayList<String> matchedMWEWords = new ArrayList<String>();
-		// returns all WordObj nodes (also deleted ones) that match a string
-    // list, and form a catenae (are all connected in the tree)
-    ArrayList<WordObj> list = new ArrayList<WordObj>();
-    list.add(startNode);
-
-    // Base case of recursive function)
-    if (mweWords.size() == 0) {
-      return list;
-    }
-
-		// If the node itself is a deleted word, use the WordObj in which it is
-    // contained instead of the word itself as start for searching.
-    for (WordObj node : this.nodes) {
-      if (node.getDeleted().contains(startNode)) {
-        startNode = node;
-      }
-    }
-
-		// If any of the deleted words are in the mweWords, delete it from the
-    // still to find mweWords, and add the WordObj node to the list
-    Iterator<String> itt = mweWords.iterator();
-    ArrayList<WordObj> currentNodes = new ArrayList<WordObj>(startNode.getDeleted());
-    currentNodes.add(startNode);
-    while (itt.hasNext()) {
-      String mweWord = itt.next();
-      for (WordObj startNodeWord : currentNodes) {
-        if (mweWord.equals(startNodeWord.getLemma()) || mweWord.equals(startNodeWord.getName())) {
-          list.add(startNodeWord);
-          matchedMWEWords.add(startNodeWord.getLemma());
-          matchedMWEWords.add(startNodeWord.getName());
-        }
-      }
-    }
-
-    mweWords.removeAll(matchedMWEWords);
-    ArrayList<String> toMatch = new ArrayList<String>(mweWords);
-
-    // search down in the tree
-    for (WordObj siblingNode : this.getTargets(startNode)) {
-      Iterator<String> it = mweWords.iterator();
-      while (it.hasNext()) {
-        String mweString = it.next();
-        // if one of the mweWords matches a siblingnode
-        if (mweString.equals(siblingNode.getLemma()) || mweString.equals(siblingNode.getName())) {
-          it.remove();
-          toMatch.remove(mweString);
-          list.addAll(this.getMweMatches(siblingNode, toMatch, false));
-        }
-      }
-    }
-
-    // search up in the tree
-    for (WordObj parentNode : this.getSources(startNode)) {
-      Iterator<String> it = mweWords.iterator();
-      while (it.hasNext()) {
-        String mweString = it.next();
-        // if one of the mweWords matches a siblingnode
-        if (mweString.equals(parentNode.getLemma()) || mweString.equals(parentNode.getName())) {
-          it.remove();
-          toMatch.remove(mweString);
-          list.addAll(this.getMweMatches(parentNode, toMatch, false));
-        }
-      }
-    }
-
-    for (WordObj matchedWord : list) {
-      toMatch.remove(matchedWord.getLemma());
-      toMatch.remove(matchedWord.getName());
-    }
-
-    if (toMatch.size() != 0 && topCall && list.size() > (mweWordsToBeMatched.size())) {
-			// in case a not all words are matched, but the size is still the
-      // same
-      list = removeDistantDuplicates(list, mweWordsToBeMatched.size() + 1);
-    }
-    if (list.size() > (mweWordsToBeMatched.size() + 1) && topCall) {
-      // Remove duplicate matches, if there are too many matches.
-      list = removeDistantDuplicates(list, mweWordsToBeMatched.size() + 1);
-    }
-    return list;
-  }
-
-  /**
-   * This method is similar to
-   * {@link #getSentimentSourceTarget(WordObj, String, WordObj)} except that it
-   * deals with multi-word expressions (MWEs). It returns either the
-   * corresponding source or the target (depending if it has been called to
-   * identify source or target in SentimentChecker class) for a given sentiment
-   * expression that is of the 'mwe' type.
-   *
-   * @param wtmp The word from which the MWE sentiment expression is recognized.
-   * @param mwe The sentiment expression (mwe) that is matched.
-   * @param label It should be checked whether the sentiment expression has an
-   * outgoing node to another node (this would then be the source or the target)
-   * with a certain dependency relation specified in this parameter
-   * @param containsDeleted If there is a sentiment expression whose
-   * corresponding node in the graph of the sentence has been deleted due to
-   * normalization, the WordObj parent node (which is still in the graph,
-   * necessary to yield existing graph relations) will be stored in this
-   * parameter (empty otherwise)
-   * @return a list in which the source or the target is stored, empty otherwise
-   * if no fitting source/target exists for given label and sent expr
-   */
-  public ArrayList<WordObj> getSentimentSourceTargetMWE(WordObj wtmp, SentimentUnit mwe, String label,
-          WordObj containsDeleted) {
-    ArrayList<String> mweWords = new ArrayList<String>();
-    for (String word : mwe.collocations) {
-      mweWords.add(word);
-    }
-
-    ArrayList<WordObj> list = new ArrayList<WordObj>();
-    ArrayList<WordObj> matches = getMweMatches(wtmp, mweWords, true);
-    if (!(matches.size() > mwe.collocations.length)) {
-      return new ArrayList<WordObj>();
-    }
-
-    for (WordObj mweNode : matches) {
-      list.addAll(this.getSentimentSourceTarget(mweNode, label, new WordObj("")));
-    }
-
-    // remove doubles
-    HashSet<WordObj> hs = new HashSet<WordObj>();
-    hs.addAll(list);
-    list.clear();
-    list.addAll(hs);
-
-    return list;
-  }
-
-  /**
-   * This method returns if a multi-word expression (MWE) is matched on a
-   * particular word, ie. if the word is member of a connected subgraph of which
-   * the nodes match the words of the MWE.
-   *
-   * @param wtmp The word from which the MWE could be evoked (lexicon entry).
-   * @param mwe The MWE that is checked.
-   * @return Boolean representing if the MWE is matched in the graph
-   */
-  public boolean mweMatch(WordObj wtmp, SentimentUnit mwe) {
-    ArrayList<String> mweWords = new ArrayList<String>();
-    for (String word : mwe.collocations) {
-      mweWords.add(word);
-    }
-    ArrayList<WordObj> matches = getMweMatches(wtmp, mweWords, true);
-
-    boolean match = (matches.size() > (mwe.collocations.length));
-
-    if (match) { // If the length is correct, double check if all words in
-      // the mwe are in the matched objects
-      mweWords.add(mwe.name);
-      ArrayList<String> stringMatches = new ArrayList<String>();
-      for (WordObj m : matches) {
-        stringMatches.add(m.getName().toString());
-        stringMatches.add(m.getLemma().toString());
-      }
-      for (String word : mweWords) {
-        if (!stringMatches.contains(word)) {
-          match = false;
-        }
-      }
-    }
-
-    return match;
-  }
-
-  /**
-   * Removes from an array list of word objects those duplicates that lie
-   * farthest (position in sentence) from the other (non-duplicate) words, as
-   * long as the list does not become smaller than the minLength
-   *
-   * @param matches is the ArrayList from which duplicates are removed
-   * @param minLength is the length that the matches should have at least. (So
-   * if there are still duplicates, but the minLength is reached nothing is
-   * removed)
-   * @return ArrayList
-   */
-  public ArrayList<WordObj> removeDistantDuplicates(ArrayList<WordObj> matches, int minLength) {
-    // First remove REAL duplicates (same position/wordObj):
-    HashSet<WordObj> hs = new HashSet<WordObj>(matches);
-    matches.clear();
-    matches.addAll(hs);
-    // Then remove string or lemma duplicates:
-    ArrayList<WordObj> duplicates = getDuplicates(matches);
-
-    if (duplicates.size() == 0) {
-      return matches;
-    }
-    double avg = 0;
-
-    // get average position of the non-duplicate words
-    for (WordObj word : matches) {
-      if (!(duplicates.contains(word))) {
-        avg += (double) word.getPosition();
-      }
-    }
-    if (avg == 0) { // if the matches only contain duplicates, don't remove
-      // anything
-      return matches;
-    }
-    avg = avg / ((double) (matches.size() - duplicates.size()));
-    if (duplicates.size() > 0) {
-      // get the farthest duplicate
-      double max = Math.abs(duplicates.get(0).getPosition() - avg);
-      WordObj maxDupl = duplicates.get(0);
-      double dist;
-      for (WordObj duplicate : duplicates) {
-        dist = Math.abs(duplicate.getPosition() - avg);
-
-        if (dist > max) {
-          max = dist;
-          maxDupl = duplicate;
-        }
-      }
-      // remove the farthest duplicate
-      matches.remove(maxDupl);
-
-    }
-    ArrayList<WordObj> otherduplicates = getDuplicates(matches);
-    if (otherduplicates.size() == 0) {
-
-      return matches;
-    } else { // if there are other duplicate pairs, remove them
-      if (matches.size() > minLength) {
-        return removeDistantDuplicates(matches, minLength);
-      } else {
-        return matches;
-      }
-    }
-  }
-
-  /**
-   * Returns two duplicate words (WordObj) that are found in matches (not more
-   * than two!), if there are any duplicates.
-   *
-   * @param matches is the ArrayList in which two duplicates are searched for.
-   * @return ArrayList of the duplicates, if they are found.
-   */
-  public ArrayList<WordObj> getDuplicates(ArrayList<WordObj> matches) {
-    // ArrayList<WordObj> duplicates = new ArrayList<WordObj>();
-    HashSet<WordObj> duplicates = new HashSet<WordObj>();
-    for (WordObj word1 : matches) {
-      for (WordObj word2 : matches) {
-        if (word1 != word2) {
-          if (word1.getLemma().equals(word2.getLemma()) || word1.getName().equals(word2.getName())) {
-            duplicates.add(word1);
-            duplicates.add(word2);
-          }
-        }
-      }
-    }
-    // remove WordObj duplicates (same object)
-    return new ArrayList<WordObj>(duplicates);
-  }
-
   public String toString() {
 
     StringBuffer printer = new StringBuffer();
-    for (Edge edge : this.edges) {
+    for (Edge edge : this.edgeView) {
       printer.append("\n");
       printer.append(edge);
       printer.append("\t|\ts-lemma: " + edge.source.getLemma() + ",");
@@ -1150,7 +1089,7 @@ public class DependencyGraph {
   public String stringifyEdges() {
     StringBuilder sb = new StringBuilder();
 
-    for (Edge e : this.edges) {
+    for (Edge e : this.edgeView) {
       sb.append(e.toString());
       sb.append('\n');
     }
@@ -12,9 +12,9 @@ package polcla;
  */
 public class Edge {
 
-	WordObj source;
-	WordObj target;
-	String depRel;
+	final WordObj source;
+	final WordObj target;
+	final String depRel;
 
 	public Edge(WordObj source, WordObj target, String deprel) {
 		this.source = source;
@@ -27,6 +27,31 @@ public class Edge {
 		return target;
 	}
 
+	/**
+	 * Two edges are equal if they connect the same nodes (compared by identity)
+	 * with the same dependency label, so a graph holds every relation only once.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof Edge)) {
+			return false;
+		}
+		Edge other = (Edge) obj;
+		return source == other.source && target == other.target
+				&& (depRel == null ? other.depRel == null : depRel.equals(other.depRel));
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = System.identityHashCode(source);
+		hash = 31 * hash + System.identityHashCode(target);
+		hash = 31 * hash + (depRel == null ? 0 : depRel.hashCode());
+		return hash;
+	}
+
 	public String toString() {
 
 		StringBuffer printer = new StringBuffer();
@@ -1,16 +1,17 @@
 package polcla;
 
-import java.io.File;
+import java.io.BufferedReader;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
-import java.util.Scanner;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
 
 /**
  * IntensifierLex object contains all informations from a given intensifier
@@ -20,6 +21,12 @@ import java.util.logging.Logger;
 public class IntensifierLex {
 
   private final static Logger log = Logger.getLogger(IntensifierLex.class.getName());
+
+  /**
+   * Form of a lexicon line, e.g. "Fehlschlag p [subj,attr-rev] nomen".
+   */
+  private static final Pattern LINE_FORMAT = Pattern.compile("[\\w+[-_äöüÄÖÜß]*\\w*]+\\s\\w\\s\\[[\\w+[-\\*,\"]*\\s*]+\\]\\s\\w+");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
   
   // Constants
   public static final String INTENSIFIER_TYPE_GENERAL = "general";
@@ -28,6 +35,13 @@ public class IntensifierLex {
 
   List<IntensifierUnit> intensifierList = new ArrayList<IntensifierUnit>();
   Map<String, IntensifierUnit> intensifierMap = new HashMap<String, IntensifierUnit>();
+
+  /**
+   * Index of {@link #intensifierList} by lemma (or underscore-joined MWE). Kept
+   * in sync by {@link #addIntensifier(IntensifierUnit)} and
+   * {@link #removeIntensifier(IntensifierUnit)}.
+   */
+  private final LexiconIndex<IntensifierUnit> intensifierIndex = new LexiconIndex<IntensifierUnit>();
   boolean flexibleMWEs = false;
   String[] collectSubjectiveExpressions = {""};
 
@@ -39,7 +53,6 @@ public class IntensifierLex {
    * {@link #mweFlexibility(IntensifierUnit)}).
    */
   public IntensifierLex(boolean flexMWE) {
-    log.setLevel(Level.FINE);
     this.flexibleMWEs = flexMWE;
   }
 
@@ -51,37 +64,20 @@ public class IntensifierLex {
    * the given name exists
    */
   public IntensifierUnit getIntensifier(String name) {
-    for (IntensifierUnit intensifierList1 : intensifierList) {
-      IntensifierUnit tmp = (IntensifierUnit) intensifierList1;
-      if (tmp.name.equals(name)) {
-        return tmp;
-      }
-    }
-    return null;
+    return intensifierIndex.getFirst(name);
   }
 
   /**
    * Returns the IntensifierUnits (more than one if there is more than one
    * lexicon entry) corresponding to the given name or null. Up to 50 entries
-   * possible for one intensifier.
+   * possible for one intensifier. The entries are returned in lexicon order.
    *
    * @param name The name of the intensifier to look for.
-   * @return IntensifierUnit for a given name or null if no IntensifierUnit with
-   * the given name exists
+   * @return Unmodifiable list of IntensifierUnits for a given name or null if
+   * no IntensifierUnit with the given name exists
    */
-  public ArrayList<IntensifierUnit> getAllIntensifiers(String name) {
-    ArrayList<IntensifierUnit> intensifiers = new ArrayList<IntensifierUnit>();
-    for (IntensifierUnit intensifierList1 : intensifierList) {
-      IntensifierUnit tmp = (IntensifierUnit) intensifierList1;
-      if (tmp.name.equals(name)) {
-        intensifiers.add(tmp);
-      }
-    }
-    if (!intensifiers.isEmpty()) {
-      return intensifiers;
-    } else {
-      return null;
-    }
+  public List<IntensifierUnit> getAllIntensifiers(String name) {
+    return intensifierIndex.get(name);
   }
 
   /**
@@ -90,7 +86,9 @@ public class IntensifierLex {
    * @param intensifier is added to Intensifier
    */
   public void addIntensifier(IntensifierUnit intensifier) {
+    intensifier.lookupKey = LexiconIndex.key(intensifier.name, intensifier.collocations, intensifier.mwe);
     intensifierList.add(intensifier);
+    intensifierIndex.add(intensifier.lookupKey, intensifier);
     addToMap(intensifier.name, intensifier);
   }
 
@@ -98,7 +96,9 @@ public class IntensifierLex {
    * @param intensifier is removed from Intensifier
    */
   public void removeIntensifier(IntensifierUnit intensifier) {
-    intensifierList.remove(intensifier);
+    if (intensifierList.remove(intensifier) && intensifier.lookupKey != null) {
+      intensifierIndex.remove(intensifier.lookupKey, intensifier);
+    }
   }
 
   /*
@@ -129,22 +129,18 @@ public class IntensifierLex {
 		String[] intensifier_scope;
 		String intensifier_pos = new String();
 		Boolean mwe = Boolean.FALSE;
-		Scanner scanner;
 
-		try {
-			scanner = new Scanner(new File(filename), "UTF-8");
-			scanner.useLocale(Locale.GERMANY);
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(filename), "UTF-8"))) {
 			String inputLine;
 
-			while (scanner.hasNext()) {
-				inputLine = scanner.nextLine();
+			while ((inputLine = reader.readLine()) != null) {
 
 				// Ignore lines starting with "%%" (comments).
 				if (!(inputLine.startsWith("%%"))) {
 
 					// Ignore lines without the correct form.
 					// Correct form example: Fehlschlag p [subj,attr-rev] nomen
-					if (inputLine.matches("[\\w+[-_äöüÄÖÜß]*\\w*]+\\s\\w\\s\\[[\\w+[-\\*,\"]*\\s*]+\\]\\s\\w+")) {
+					if (LINE_FORMAT.matcher(inputLine).matches()) {
 
 						intensifierStr = inputLine.substring(0, inputLine.indexOf(" "));
 
@@ -165,7 +161,8 @@ public class IntensifierLex {
 							intensifier_type_written_out = intensifier_type;
 						}
 
-						intensifier_scope_str = inputLine.substring(inputLine.lastIndexOf("[") + 1, inputLine.lastIndexOf("]")).replaceAll("\\s+", "");
+						intensifier_scope_str = inputLine.substring(inputLine.lastIndexOf("[") + 1, inputLine.lastIndexOf("]"));
+						intensifier_scope_str = WHITESPACE.matcher(intensifier_scope_str).replaceAll("");
 						intensifier_scope = intensifier_scope_str.split(",");
 
 						intensifier_pos = inputLine.substring(inputLine.lastIndexOf(" ") + 1, inputLine.length());
@@ -2,6 +2,8 @@ package polcla;
 
 import java.util.Arrays;
 
+import salsa.corpora.noelement.SymbolTable;
+
 /**
  * IntensifierUnit object contains the informations of one intensifier
  *
@@ -15,6 +17,11 @@ public class IntensifierUnit {
 	String intensifier_pos;
 	Boolean mwe;
 	String[] collocations;
+	/**
+	 * Key under which the unit is indexed in its {@link IntensifierLex}, e.g.
+	 * "ganz_und_gar". Set when the unit is added to the lexicon.
+	 */
+	String lookupKey;
 
 	/**
 	 * 
@@ -32,16 +39,16 @@ public class IntensifierUnit {
 	 */
 	public IntensifierUnit(String name, String intensifier_type, String[] intensifier_scope, String intensifier_pos, Boolean mwe) {
 		if (mwe) {
-			String[] parts = name.split("_");
+			String[] parts = SymbolTable.intern(name.split("_"));
 			this.name = parts[parts.length - 1];
 			this.collocations = Arrays.copyOfRange(parts, 0, parts.length - 1);
 		} else {
-			this.name = name;
+			this.name = SymbolTable.intern(name);
 			this.collocations = new String[0];
 		}
-		this.intensifier_type = intensifier_type;
-		this.intensifier_scope = intensifier_scope;
-		this.intensifier_pos = intensifier_pos;
+		this.intensifier_type = SymbolTable.intern(intensifier_type);
+		this.intensifier_scope = SymbolTable.intern(intensifier_scope);
+		this.intensifier_pos = SymbolTable.intern(intensifier_pos);
 		this.mwe = mwe;
 	}
 
@@ -0,0 +1,51 @@
+package polcla;
+
+/**
+ * Helpers for writing JSON output without a JSON library.
+ */
+final class Json {
+
+  private Json() {
+  }
+
+  /**
+   * Appends a string as a quoted and escaped JSON string.
+   *
+   * @param out The output.
+   * @param s The string, null is written as null.
+   * @return out
+   */
+  static StringBuilder quote(StringBuilder out, String s) {
+    if (s == null) {
+      return out.append("null");
+    }
+    out.append('"');
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      switch (c) {
+        case '"':
+          out.append("\\\"");
+          break;
+        case '\\':
+          out.append("\\\\");
+          break;
+        case '\n':
+          out.append("\\n");
+          break;
+        case '\r':
+          out.append("\\r");
+          break;
+        case '\t':
+          out.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            out.append(String.format("\\u%04x", (int) c));
+          } else {
+            out.append(c);
+          }
+      }
+    }
+    return out.append('"');
+  }
+}
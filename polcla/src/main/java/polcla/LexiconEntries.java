@@ -0,0 +1,124 @@
+package polcla;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The lexicon entries of the words a module looks at in one sentence.
+ *
+ * The entries are the units found by the {@link LexiconTagger}, i.e. the
+ * entries that passed the POS lookup, not simply the first entry of the lemma.
+ * Preset subjective expressions that were not tagged fall back to the first
+ * sentiment lexicon entry of their lemma. Those without any entry get a
+ * placeholder entry of category UNKNOWN here instead of in the
+ * {@link SentimentLex}, which is shared by the sentences that are analysed
+ * concurrently and is not changed during the analysis.
+ */
+final class LexiconEntries {
+
+  private final SentimentLex sentimentLex;
+  private final Map<WordObj, SentimentUnit> sentiments = new HashMap<WordObj, SentimentUnit>();
+  private final Map<WordObj, ShifterUnit> shifters = new HashMap<WordObj, ShifterUnit>();
+  private final Map<WordObj, IntensifierUnit> intensifiers = new HashMap<WordObj, IntensifierUnit>();
+  private final Map<WordObj, List<WordObj>> collocations = new HashMap<WordObj, List<WordObj>>();
+
+  /**
+   * @param sentimentLex The sentiment lexicon of the module.
+   */
+  LexiconEntries(SentimentLex sentimentLex) {
+    this.sentimentLex = sentimentLex;
+  }
+
+  /**
+   * @param word A subjective expression of the sentence.
+   * @return The entry of the word, or null if it has none.
+   */
+  SentimentUnit sentiment(WordObj word) {
+    SentimentUnit unit = sentiments.get(word);
+    return unit != null ? unit : sentimentLex.getSentiment(word.getLemma());
+  }
+
+  /**
+   * @param word A shifter of the sentence.
+   * @return The tagged entry of the word, or null if it was not tagged.
+   */
+  ShifterUnit shifter(WordObj word) {
+    return shifters.get(word);
+  }
+
+  /**
+   * @param word An intensifier of the sentence.
+   * @return The tagged entry of the word, or null if it was not tagged.
+   */
+  IntensifierUnit intensifier(WordObj word) {
+    return intensifiers.get(word);
+  }
+
+  /**
+   * @param word A subjective expression of the sentence.
+   * @return The other words of the MWE the word evokes, or an empty list if
+   * its entry is a single word.
+   */
+  List<WordObj> collocations(WordObj word) {
+    List<WordObj> words = collocations.get(word);
+    return words != null ? words : Collections.<WordObj>emptyList();
+  }
+
+  /**
+   * Records a tagged sentiment entry. A word keeps its first entry.
+   *
+   * @param word The tagged word.
+   * @param unit Its entry.
+   * @param mweWords The matched words if the entry is an MWE, the evoking word
+   * first, otherwise null.
+   */
+  void addSentiment(WordObj word, SentimentUnit unit, List<WordObj> mweWords) {
+    if (!sentiments.containsKey(word)) {
+      sentiments.put(word, unit);
+      if (mweWords != null) {
+        collocations.put(word, mweWords.subList(1, mweWords.size()));
+      }
+    }
+  }
+
+  /**
+   * Records a tagged shifter entry. A word keeps its first entry.
+   *
+   * @param word The tagged word.
+   * @param unit Its entry.
+   */
+  void addShifter(WordObj word, ShifterUnit unit) {
+    if (!shifters.containsKey(word)) {
+      shifters.put(word, unit);
+    }
+  }
+
+  /**
+   * Records a tagged intensifier entry. A word keeps its first entry.
+   *
+   * @param word The tagged word.
+   * @param unit Its entry.
+   */
+  void addIntensifier(WordObj word, IntensifierUnit unit) {
+    if (!intensifiers.containsKey(word)) {
+      intensifiers.put(word, unit);
+    }
+  }
+
+  /**
+   * Gives a preset subjective expression a placeholder entry if it has no
+   * entry, neither a tagged one nor one in the sentiment lexicon.
+   *
+   * @param word A preset subjective expression.
+   * @return true if the word got a placeholder entry.
+   */
+  boolean addPlaceholder(WordObj word) {
+    if (sentiment(word) != null) {
+      return false;
+    }
+    sentiments.put(word, new SentimentUnit(word.getLemma(), "UNKNOWN", "0.0", word.getPos(), Boolean.FALSE));
+    return true;
+  }
+}
@@ -0,0 +1,146 @@
+package polcla;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash index over the entries of a lexicon. Maps a lookup key (the lemma of a
+ * single word entry, or the underscore-joined form of a multi word expression
+ * such as "sich_enthalten") to the entries registered under that key, in the
+ * order in which they were added.
+ *
+ * The lists handed out by {@link #get(String)} are immutable snapshots, so a
+ * lookup neither allocates nor copies. Adding or removing an entry replaces
+ * the snapshot of the affected key only.
+ *
+ * @param <T> The lexicon unit type, e.g. {@link SentimentUnit}.
+ */
+class LexiconIndex<T> {
+
+  private final Map<String, List<T>> entries = new HashMap<String, List<T>>();
+
+  /**
+   * Builds the lookup key of a lexicon entry.
+   *
+   * @param name The (last) word of the entry.
+   * @param collocations The preceding words of a multi word expression. Empty
+   * for single word entries.
+   * @param mwe True if the entry is a multi word expression.
+   * @return The key under which the entry is found, e.g. "sich_enthalten".
+   */
+  static String key(String name, String[] collocations, boolean mwe) {
+    if (!mwe) {
+      return name;
+    }
+    StringBuilder key = new StringBuilder();
+    for (String collocation : collocations) {
+      key.append(collocation).append('_');
+    }
+    key.append(name);
+    return key.toString();
+  }
+
+  /**
+   * @param key The lookup key.
+   * @return The entries registered under key in insertion order, or null if
+   * there are none. The returned list must not be modified.
+   */
+  List<T> get(String key) {
+    return entries.get(key);
+  }
+
+  /**
+   * @param key The lookup key.
+   * @return The first entry registered under key, or null if there is none.
+   */
+  T getFirst(String key) {
+    List<T> units = entries.get(key);
+    return units == null ? null : units.get(0);
+  }
+
+  /**
+   * @param key The lookup key of unit.
+   * @param unit A lexicon entry.
+   * @return true if this very entry (not an equal one) is registered under key.
+   */
+  boolean contains(String key, T unit) {
+    List<T> units = entries.get(key);
+    if (units != null) {
+      for (T u : units) {
+        if (u == unit) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Registers unit under key, behind all entries already registered under it.
+   *
+   * @param key The lookup key of unit.
+   * @param unit A lexicon entry.
+   */
+  void add(String key, T unit) {
+    List<T> units = entries.get(key);
+    List<T> updated = new ArrayList<T>(units == null ? 1 : units.size() + 1);
+    if (units != null) {
+      updated.addAll(units);
+    }
+    updated.add(unit);
+    entries.put(key, Collections.unmodifiableList(updated));
+  }
+
+  /**
+   * Registers a prebuilt list of entries under key, replacing the entries
+   * registered so far.
+   *
+   * @param key The lookup key of the units.
+   * @param units The lexicon entries in lexicon order.
+   */
+  void put(String key, List<T> units) {
+    entries.put(key, Collections.unmodifiableList(new ArrayList<T>(units)));
+  }
+
+  /**
+   * Removes the given entry (compared by identity) from key.
+   *
+   * @param key The lookup key of unit.
+   * @param unit A lexicon entry.
+   * @return true if the entry was registered.
+   */
+  boolean remove(String key, T unit) {
+    List<T> units = entries.get(key);
+    if (units == null) {
+      return false;
+    }
+    List<T> updated = new ArrayList<T>(units.size());
+    boolean removed = false;
+    for (T u : units) {
+      if (u == unit && !removed) {
+        removed = true;
+      } else {
+        updated.add(u);
+      }
+    }
+    if (!removed) {
+      return false;
+    }
+    if (updated.isEmpty()) {
+      entries.remove(key);
+    } else {
+      entries.put(key, Collections.unmodifiableList(updated));
+    }
+    return true;
+  }
+
+  /**
+   * @return The number of distinct keys.
+   */
+  int size() {
+    return entries.size();
+  }
+}
@@ -0,0 +1,31 @@
+package polcla;
+
+/**
+ * The values of the POS column of the sentiment and shifter lexicons. The
+ * sentiment lexicon writes verbs as "verben", the shifter lexicon as "verb".
+ */
+enum LexiconPos {
+	NOMEN("nomen"), VERBEN("verben"), VERB("verb"), ADJ("adj"), ADV("adv"), APPR("appr");
+
+	private final String name;
+
+	private LexiconPos(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @param pos
+	 *          The POS column of a lexicon entry, may be null.
+	 * @return The value, or null if pos is not one of them.
+	 */
+	static LexiconPos of(String pos) {
+		if (pos != null) {
+			for (LexiconPos value : values()) {
+				if (value.name.equals(pos)) {
+					return value;
+				}
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,329 @@
+package polcla;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import salsa.corpora.noelement.SymbolTable;
+
+/**
+ * Binary snapshot of the sentiment, shifter and intensifier lexicons.
+ *
+ * The snapshot is written by the "compile-lexicon" command (see {@link Main})
+ * and loaded through a memory-mapped file, which saves parsing and validating
+ * the text lexicons on every start. The mapping only speeds up reading: the
+ * string table is decoded when the snapshot is opened and {@link #fill} copies
+ * every unit and the index into the lexicons, so each JVM holds its own copy
+ * of the lexicons on the heap and does not share them with other processes
+ * that map the same file. It records length and modification time of
+ * the text lexicons it was compiled from, so a snapshot that does not belong to
+ * the configured lexicons is detected as stale and the text lexicons are read
+ * instead.
+ *
+ * Layout (big endian): magic, version, include neutral flag, the three source
+ * fingerprints, the string table, then for every lexicon its unit records in
+ * lexicon order followed by its lookup index (key to unit numbers).
+ */
+public class LexiconSnapshot {
+
+  private final static Logger log = Logger.getLogger(LexiconSnapshot.class.getName());
+
+  private static final int MAGIC = 0x504c5853; // "PLXS"
+  /**
+   * Has to be increased whenever the layout or the interpretation of the text
+   * lexicons changes.
+   */
+  static final int VERSION = 1;
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  private final MappedByteBuffer buffer;
+  private final String[] strings;
+
+  private LexiconSnapshot(MappedByteBuffer buffer, String[] strings) {
+    this.buffer = buffer;
+    this.strings = strings;
+  }
+
+  /**
+   * Writes a snapshot of the given lexicons to file.
+   *
+   * @param file The snapshot file.
+   * @param sentimentFile The text file sentimentLex has been read from.
+   * @param sentimentLex The sentiment lexicon.
+   * @param shifterFile The text file shifterLex has been read from.
+   * @param shifterLex The shifter lexicon.
+   * @param intensifierFile The text file intensifierLex has been read from.
+   * Empty if there is no intensifier lexicon.
+   * @param intensifierLex The intensifier lexicon.
+   * @param includeNeutral The INCLUDE_NEUTRAL_EXPRESSIONS setting sentimentLex
+   * has been read with.
+   * @throws IOException if the snapshot cannot be written.
+   */
+  public static void write(String file, String sentimentFile, SentimentLex sentimentLex, String shifterFile,
+          ShifterLex shifterLex, String intensifierFile, IntensifierLex intensifierLex, boolean includeNeutral)
+          throws IOException {
+    Map<String, Integer> table = new LinkedHashMap<String, Integer>();
+    for (SentimentUnit unit : sentimentLex.sentimentList) {
+      intern(table, unit.name, unit.category, unit.value, unit.pos, unit.lookupKey);
+      intern(table, unit.collocations);
+    }
+    for (ShifterUnit unit : shifterLex.shifterList) {
+      intern(table, unit.name, unit.shifter_type, unit.shifter_pos, unit.lookupKey);
+      intern(table, unit.shifter_scope);
+      intern(table, unit.collocations);
+    }
+    for (IntensifierUnit unit : intensifierLex.intensifierList) {
+      intern(table, unit.name, unit.intensifier_type, unit.intensifier_pos);
+      intern(table, unit.intensifier_scope);
+      intern(table, unit.collocations);
+    }
+
+    File target = new File(file);
+    File tmp = new File(target.getPath() + ".tmp");
+    if (target.getAbsoluteFile().getParentFile() != null) {
+      target.getAbsoluteFile().getParentFile().mkdirs();
+    }
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeBoolean(includeNeutral);
+      writeFingerprint(out, sentimentFile);
+      writeFingerprint(out, shifterFile);
+      writeFingerprint(out, intensifierFile);
+
+      out.writeInt(table.size());
+      for (String s : table.keySet()) {
+        byte[] bytes = s.getBytes(UTF8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+      }
+
+      Map<SentimentUnit, Integer> sentimentNumbers = new HashMap<SentimentUnit, Integer>();
+      out.writeInt(sentimentLex.sentimentList.size());
+      for (SentimentUnit unit : sentimentLex.sentimentList) {
+        sentimentNumbers.put(unit, sentimentNumbers.size());
+        out.writeInt(table.get(unit.name));
+        out.writeInt(table.get(unit.category));
+        out.writeInt(table.get(unit.value));
+        out.writeInt(table.get(unit.pos));
+        out.writeBoolean(unit.mwe);
+        writeStrings(out, table, unit.collocations);
+      }
+      writeIndex(out, table, sentimentLex.sentimentList, sentimentNumbers);
+
+      Map<ShifterUnit, Integer> shifterNumbers = new HashMap<ShifterUnit, Integer>();
+      out.writeInt(shifterLex.shifterList.size());
+      for (ShifterUnit unit : shifterLex.shifterList) {
+        shifterNumbers.put(unit, shifterNumbers.size());
+        out.writeInt(table.get(unit.name));
+        out.writeInt(table.get(unit.shifter_type));
+        writeStrings(out, table, unit.shifter_scope);
+        out.writeInt(table.get(unit.shifter_pos));
+        out.writeBoolean(unit.mwe);
+        writeStrings(out, table, unit.collocations);
+      }
+      writeIndex(out, table, shifterLex.shifterList, shifterNumbers);
+
+      out.writeInt(intensifierLex.intensifierList.size());
+      for (IntensifierUnit unit : intensifierLex.intensifierList) {
+        out.writeInt(table.get(unit.name));
+        out.writeInt(table.get(unit.intensifier_type));
+        writeStrings(out, table, unit.intensifier_scope);
+        out.writeInt(table.get(unit.intensifier_pos));
+        out.writeBoolean(unit.mwe);
+        writeStrings(out, table, unit.collocations);
+      }
+    }
+    Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /**
+   * Opens a snapshot for the given text lexicons.
+   *
+   * @param file The snapshot file.
+   * @param sentimentFile The configured sentiment lexicon.
+   * @param shifterFile The configured shifter lexicon.
+   * @param intensifierFile The configured intensifier lexicon, may be empty.
+   * @param includeNeutral The INCLUDE_NEUTRAL_EXPRESSIONS setting.
+   * @return The snapshot, or null if it does not exist, cannot be read or is
+   * stale. The text lexicons have to be read in that case.
+   */
+  public static LexiconSnapshot open(String file, String sentimentFile, String shifterFile, String intensifierFile,
+          boolean includeNeutral) {
+    if (file == null || file.isEmpty() || !new File(file).isFile()) {
+      return null;
+    }
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(new File(file).toPath(), StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    } catch (IOException e) {
+      log.log(Level.WARNING, "Could not map lexicon snapshot " + file, e);
+      return null;
+    }
+
+    try {
+      if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+        log.log(Level.WARNING, "Lexicon snapshot {0} has an unknown format, reading text lexicons.", file);
+        return null;
+      }
+      if ((buffer.get() != 0) != includeNeutral
+              || !readFingerprint(buffer, sentimentFile)
+              || !readFingerprint(buffer, shifterFile)
+              || !readFingerprint(buffer, intensifierFile)) {
+        log.log(Level.WARNING, "Lexicon snapshot {0} is stale, reading text lexicons.", file);
+        return null;
+      }
+      String[] strings = new String[buffer.getInt()];
+      for (int i = 0; i < strings.length; i++) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        strings[i] = SymbolTable.intern(new String(bytes, UTF8));
+      }
+      return new LexiconSnapshot(buffer, strings);
+    } catch (BufferUnderflowException e) {
+      log.log(Level.WARNING, "Lexicon snapshot {0} is truncated, reading text lexicons.", file);
+      return null;
+    }
+  }
+
+  /**
+   * Fills the lexicons from the snapshot. Must be called once, on empty
+   * lexicons. The units are decoded onto the heap; the lexicons do not refer
+   * to the mapped file afterwards.
+   *
+   * @param sentimentLex The sentiment lexicon to fill.
+   * @param shifterLex The shifter lexicon to fill.
+   * @param intensifierLex The intensifier lexicon to fill.
+   */
+  public void fill(SentimentLex sentimentLex, ShifterLex shifterLex, IntensifierLex intensifierLex) {
+    int count = buffer.getInt();
+    List<SentimentUnit> sentiments = new ArrayList<SentimentUnit>(count);
+    for (int i = 0; i < count; i++) {
+      SentimentUnit unit = new SentimentUnit(string());
+      unit.category = string();
+      unit.value = string();
+      unit.pos = string();
+      unit.lexiconPos = LexiconPos.of(unit.pos);
+      unit.mwe = buffer.get() != 0;
+      unit.collocations = strings();
+      sentiments.add(unit);
+    }
+    sentimentLex.restore(sentiments, readIndex(sentiments));
+
+    count = buffer.getInt();
+    List<ShifterUnit> shifters = new ArrayList<ShifterUnit>(count);
+    for (int i = 0; i < count; i++) {
+      ShifterUnit unit = new ShifterUnit(string(), string(), strings(), string(), false);
+      unit.mwe = buffer.get() != 0;
+      unit.collocations = strings();
+      shifters.add(unit);
+    }
+    shifterLex.restore(shifters, readIndex(shifters));
+
+    count = buffer.getInt();
+    for (int i = 0; i < count; i++) {
+      IntensifierUnit unit = new IntensifierUnit(string(), string(), strings(), string(), false);
+      unit.mwe = buffer.get() != 0;
+      unit.collocations = strings();
+      intensifierLex.addIntensifier(unit);
+    }
+  }
+
+  private String string() {
+    return strings[buffer.getInt()];
+  }
+
+  private String[] strings() {
+    String[] result = new String[buffer.getInt()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = string();
+    }
+    return result;
+  }
+
+  private <T> Map<String, List<T>> readIndex(List<T> units) {
+    int keys = buffer.getInt();
+    Map<String, List<T>> index = new LinkedHashMap<String, List<T>>(keys * 2);
+    for (int i = 0; i < keys; i++) {
+      String key = string();
+      int size = buffer.getInt();
+      List<T> entries = new ArrayList<T>(size);
+      for (int j = 0; j < size; j++) {
+        entries.add(units.get(buffer.getInt()));
+      }
+      index.put(key, entries);
+    }
+    return index;
+  }
+
+  private static void intern(Map<String, Integer> table, String... strings) {
+    for (String s : strings) {
+      if (!table.containsKey(s)) {
+        table.put(s, table.size());
+      }
+    }
+  }
+
+  private static void writeStrings(DataOutputStream out, Map<String, Integer> table, String[] strings)
+          throws IOException {
+    out.writeInt(strings.length);
+    for (String s : strings) {
+      out.writeInt(table.get(s));
+    }
+  }
+
+  /**
+   * Writes the lookup index of a lexicon: every lookup key with the numbers of
+   * its units in lexicon order.
+   */
+  private static <T> void writeIndex(DataOutputStream out, Map<String, Integer> table, List<T> units,
+          Map<T, Integer> numbers) throws IOException {
+    Map<String, List<Integer>> index = new LinkedHashMap<String, List<Integer>>();
+    for (T unit : units) {
+      String key = unit instanceof SentimentUnit ? ((SentimentUnit) unit).lookupKey : ((ShifterUnit) unit).lookupKey;
+      List<Integer> entries = index.get(key);
+      if (entries == null) {
+        entries = new ArrayList<Integer>();
+        index.put(key, entries);
+      }
+      entries.add(numbers.get(unit));
+    }
+    out.writeInt(index.size());
+    for (Map.Entry<String, List<Integer>> entry : index.entrySet()) {
+      out.writeInt(table.get(entry.getKey()));
+      out.writeInt(entry.getValue().size());
+      for (Integer number : entry.getValue()) {
+        out.writeInt(number);
+      }
+    }
+  }
+
+  private static void writeFingerprint(DataOutputStream out, String source) throws IOException {
+    File f = new File(source == null ? "" : source.trim());
+    out.writeLong(f.isFile() ? f.length() : -1);
+    out.writeLong(f.isFile() ? f.lastModified() : -1);
+  }
+
+  private static boolean readFingerprint(MappedByteBuffer buffer, String source) {
+    File f = new File(source == null ? "" : source.trim());
+    long length = buffer.getLong();
+    long lastModified = buffer.getLong();
+    return length == (f.isFile() ? f.length() : -1) && lastModified == (f.isFile() ? f.lastModified() : -1);
+  }
+}
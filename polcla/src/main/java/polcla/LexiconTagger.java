@@ -0,0 +1,386 @@
+package polcla;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Looks up the words of a sentence in the shifter, sentiment and intensifier
+ * lexicons, including the POS lookup of shifters and sentiments.
+ *
+ * Multi word expressions (MWEs) of the shifter and sentiment lexicons are
+ * matched on the dependency graph, see {@link MweTrie}. A word that evokes an
+ * MWE found in the sentence is tagged with the MWE entries instead of its
+ * single word entries, regardless of its POS. The other words of the MWE are
+ * part of it and are not tagged with their single word entries of the same
+ * lexicon.
+ *
+ * A sentence is tagged once: the hits are stored on the sentence as
+ * {@link Tags} and reused by every module whose tagger is equal, i.e. which
+ * uses the same lexicons and POS lookup options. The tags are not updated if
+ * a lexicon changes after a sentence has been tagged.
+ */
+final class LexiconTagger {
+
+  private final static Logger log = Logger.getLogger(LexiconTagger.class.getName());
+  private final SentimentLex sentimentLex;
+  private final ShifterLex shifterLex;
+  private final IntensifierLex intensifierLex;
+  private final boolean posLookupSentiment;
+  private final boolean posLookupShifter;
+
+  /**
+   * @param sentimentLex The sentiment lexicon.
+   * @param shifterLex The shifter lexicon.
+   * @param intensifierLex The intensifier lexicon, or null if intensifiers are
+   * not looked for.
+   * @param posLookupSentiment Whether the POS of a word must match the POS of
+   * its sentiment lexicon entry.
+   * @param posLookupShifter Whether the POS of a word must match the POS of its
+   * shifter lexicon entry.
+   */
+  LexiconTagger(SentimentLex sentimentLex, ShifterLex shifterLex, IntensifierLex intensifierLex,
+          boolean posLookupSentiment, boolean posLookupShifter) {
+    this.sentimentLex = sentimentLex;
+    this.shifterLex = shifterLex;
+    this.intensifierLex = intensifierLex;
+    this.posLookupSentiment = posLookupSentiment;
+    this.posLookupShifter = posLookupShifter;
+  }
+
+  /**
+   * Returns the tags of a sentence, tagging it if it has not been tagged by an
+   * equal tagger yet.
+   *
+   * @param sentence The sentence.
+   * @return The tags of the sentence.
+   */
+  Tags tag(SentenceObj sentence) {
+    Tags tags = sentence.lexiconTags;
+    if (tags != null && equals(tags.tagger)) {
+      return tags;
+    }
+    tags = new Tags(this);
+    final Map<WordObj, List<MweTrie.Hit<ShifterUnit>>> shifterMWEs = byHead(shifterLex.matchMWEs(sentence.getGraph()));
+    final Map<WordObj, List<MweTrie.Hit<SentimentUnit>>> sentimentMWEs = byHead(
+            sentimentLex.matchMWEs(sentence.getGraph()));
+    final Set<WordObj> shifterCollocations = collocations(shifterMWEs);
+    final Set<WordObj> sentimentCollocations = collocations(sentimentMWEs);
+    final List<WordObj> words = sentence.getWordList();
+    for (int i = 0; i < words.size(); i++) {
+      final WordObj word = words.get(i);
+      if (intensifierLex != null) {
+        IntensifierUnit intensifier = intensifierLex.getIntensifier(word.getLemma());
+        if (intensifier != null) {
+          tags.intensifiers.add(i, intensifier, null);
+        }
+      }
+      List<ShifterUnit> shifterLexEntries = shifterLex.getAllShifters(word.getLemma());
+      if (shifterMWEs.containsKey(word)) {
+        addMWEs(tags.shifters, i, shifterMWEs.get(word));
+      } else if (shifterLexEntries != null && !shifterCollocations.contains(word)) {
+        for (ShifterUnit shifterLexEntry : shifterLexEntries) {
+          if (shifterLexEntry != null) {
+            if (posLookupShifter) {
+              ShifterUnit match = posLookupShifter(tags, word, shifterLexEntry);
+              if (match != null) {
+                tags.shifters.add(i, match, null);
+              }
+            } else {
+              tags.shifters.add(i, shifterLexEntry, null);
+              break;
+            }
+          }
+        }
+      }
+      List<SentimentUnit> sentLexEntries = sentimentLex.getAllSentiments(word.getLemma());
+      if (sentimentMWEs.containsKey(word)) {
+        addMWEs(tags.sentiments, i, sentimentMWEs.get(word));
+      } else if (sentLexEntries != null && !sentimentCollocations.contains(word)) {
+        for (SentimentUnit sentLexEntry : sentLexEntries) {
+          if (sentLexEntry != null) {
+            if (posLookupSentiment) {
+              SentimentUnit match = posLookupSentiment(tags, word, sentLexEntry);
+              if (match != null) {
+                tags.sentiments.add(i, match, null);
+              }
+            } else {
+              tags.sentiments.add(i, sentLexEntry, null);
+              break;
+            }
+          }
+        }
+      }
+    }
+    tags.shifters.trim();
+    tags.sentiments.trim();
+    tags.intensifiers.trim();
+    sentence.lexiconTags = tags;
+    return tags;
+  }
+
+  /**
+   * Groups MWE hits by the word that evoked them. An entry that is found with
+   * several sets of words keeps the first set: hits that add no new entry for
+   * their head are dropped.
+   */
+  private static <U> Map<WordObj, List<MweTrie.Hit<U>>> byHead(List<MweTrie.Hit<U>> hits) {
+    if (hits.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    Map<WordObj, List<MweTrie.Hit<U>>> byHead = new HashMap<WordObj, List<MweTrie.Hit<U>>>();
+    Map<WordObj, List<U>> units = new HashMap<WordObj, List<U>>();
+    for (MweTrie.Hit<U> hit : hits) {
+      List<MweTrie.Hit<U>> list = byHead.get(hit.getHead());
+      if (list == null) {
+        list = new ArrayList<MweTrie.Hit<U>>(1);
+        byHead.put(hit.getHead(), list);
+        units.put(hit.getHead(), new ArrayList<U>(1));
+      }
+      boolean added = false;
+      for (U unit : hit.getUnits()) {
+        if (!units.get(hit.getHead()).contains(unit)) {
+          units.get(hit.getHead()).add(unit);
+          added = true;
+        }
+      }
+      if (added) {
+        list.add(hit);
+      }
+    }
+    return byHead;
+  }
+
+  /**
+   * @return The words of the MWE hits other than their heads.
+   */
+  private static <U> Set<WordObj> collocations(Map<WordObj, List<MweTrie.Hit<U>>> byHead) {
+    if (byHead.isEmpty()) {
+      return Collections.emptySet();
+    }
+    Set<WordObj> collocations = new HashSet<WordObj>();
+    for (List<MweTrie.Hit<U>> hits : byHead.values()) {
+      for (MweTrie.Hit<U> hit : hits) {
+        collocations.addAll(hit.getWords().subList(1, hit.getWords().size()));
+      }
+    }
+    return collocations;
+  }
+
+  /**
+   * Tags a word with the entries of the MWEs it evokes, each entry once.
+   */
+  private static <U> void addMWEs(Hits<U> hits, int position, List<MweTrie.Hit<U>> mwes) {
+    List<U> added = new ArrayList<U>();
+    for (MweTrie.Hit<U> mwe : mwes) {
+      for (U unit : mwe.getUnits()) {
+        if (!added.contains(unit)) {
+          added.add(unit);
+          hits.add(position, unit, mwe.getWords());
+        }
+      }
+    }
+  }
+
+  /**
+   * Compares the pos tag of a word with a shifter lexicon entry.
+   *
+   * @param tags The tags of the current sentence.
+   * @param word The word.
+   * @param shifterLexEntry The entry for the lemma of the word in the shifter
+   * lexicon.
+   * @return The entry that matches the pos tag, or null.
+   */
+  private ShifterUnit posLookupShifter(Tags tags, WordObj word, ShifterUnit shifterLexEntry) {
+    final PosGroup pos = word.getPosGroup();
+    final LexiconPos lexiconPos = shifterLexEntry.lexiconPos;
+    if ((pos == PosGroup.NOUN || pos == PosGroup.PIS) && lexiconPos == LexiconPos.NOMEN) {
+      return shifterLexEntry;
+    } else if (pos == PosGroup.ADJ && lexiconPos == LexiconPos.ADJ) {
+      return shifterLexEntry;
+    } else if (pos == PosGroup.ADV && lexiconPos == LexiconPos.ADV) {
+      return shifterLexEntry;
+    } else if (pos == PosGroup.VERB && lexiconPos == LexiconPos.VERB) {
+      return shifterLexEntry;
+    } else if (pos == PosGroup.PTKNEG) {
+      return shifterLexEntry;
+    } else if (pos == PosGroup.APPR && lexiconPos == LexiconPos.APPR) {
+      return shifterLexEntry;
+    }
+    ShifterUnit shifterLexEntryNew = shifterLex.getShifter(word.getName());
+    if (shifterLexEntryNew != null && shifterLexEntry != shifterLexEntryNew) {
+      return posLookupShifter(tags, word, shifterLexEntryNew);
+    }
+    tags.shifterPosMismatches++;
+    if (log.isLoggable(Level.FINE)) {
+      log.log(Level.FINE, "Shifter POS-MISMATCH! word: {0} pos: {1} shifterLex entry pos: {2}",
+              new Object[]{word.getName(), word.getPos(), shifterLexEntry.shifter_pos});
+    }
+    return null;
+  }
+
+  /**
+   * Compares the pos tag of a word with a sentiment lexicon entry.
+   *
+   * @param tags The tags of the current sentence.
+   * @param word The word.
+   * @param sentLexEntry The entry for the lemma of the word in the sentiment
+   * lexicon.
+   * @return The entry that matches the pos tag, or null.
+   */
+  private SentimentUnit posLookupSentiment(Tags tags, WordObj word, SentimentUnit sentLexEntry) {
+    final PosGroup pos = word.getPosGroup();
+    final LexiconPos lexiconPos = sentLexEntry.lexiconPos;
+    if (pos == PosGroup.NOUN && lexiconPos == LexiconPos.NOMEN) {
+      return sentLexEntry;
+    } else if (pos == PosGroup.VERB && lexiconPos == LexiconPos.VERBEN) {
+      return sentLexEntry;
+    } else if (pos.startsWithA() && lexiconPos == LexiconPos.ADJ) {
+      return sentLexEntry;
+    }
+    // Check for another possible sentLexEntry using the exact word instead of
+    // its Lemma
+    // Example: "abweisen" vs "abweisend" gets found this way.
+    SentimentUnit sentLexEntryNew = sentimentLex.getSentiment(word.getName());
+    if (sentLexEntryNew != null && sentLexEntry != sentLexEntryNew) {
+      return posLookupSentiment(tags, word, sentLexEntryNew);
+    }
+    tags.sentimentPosMismatches++;
+    if (log.isLoggable(Level.FINE)) {
+      log.log(Level.FINE, "Sentiment POS-MISMATCH! word: {0} pos: {1} sentimentLex entry pos: {2}",
+              new Object[]{word.getName(), word.getPos(), sentLexEntry.pos});
+    }
+    return null;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof LexiconTagger)) {
+      return false;
+    }
+    LexiconTagger other = (LexiconTagger) obj;
+    return sentimentLex == other.sentimentLex && shifterLex == other.shifterLex
+            && intensifierLex == other.intensifierLex && posLookupSentiment == other.posLookupSentiment
+            && posLookupShifter == other.posLookupShifter;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = System.identityHashCode(sentimentLex);
+    hash = 31 * hash + System.identityHashCode(shifterLex);
+    hash = 31 * hash + System.identityHashCode(intensifierLex);
+    hash = 31 * hash + (posLookupSentiment ? 1 : 0);
+    return 31 * hash + (posLookupShifter ? 1 : 0);
+  }
+
+  /**
+   * The lexicon hits of a sentence.
+   */
+  static final class Tags {
+
+    final LexiconTagger tagger;
+    /**
+     * The shifters, in the order of the words. A word is listed once per
+     * matching lexicon entry.
+     */
+    final Hits<ShifterUnit> shifters = new Hits<ShifterUnit>();
+    /**
+     * The sentiments, in the order of the words. A word is listed once per
+     * matching lexicon entry.
+     */
+    final Hits<SentimentUnit> sentiments = new Hits<SentimentUnit>();
+    /**
+     * The intensifiers, in the order of the words. Empty if the tagger has no
+     * intensifier lexicon.
+     */
+    final Hits<IntensifierUnit> intensifiers = new Hits<IntensifierUnit>();
+    /**
+     * The shifter lexicon entries dropped by the POS lookup.
+     */
+    int shifterPosMismatches;
+    /**
+     * The sentiment lexicon entries dropped by the POS lookup.
+     */
+    int sentimentPosMismatches;
+
+    private Tags(LexiconTagger tagger) {
+      this.tagger = tagger;
+    }
+  }
+
+  /**
+   * Lexicon hits as parallel arrays of word positions, lexicon entries and, for
+   * MWEs, the matched words.
+   *
+   * @param <U> The type of the lexicon entries.
+   */
+  static final class Hits<U> {
+
+    private int[] positions = new int[4];
+    private Object[] units = new Object[4];
+    private Object[] mweWords = new Object[4];
+    private int size = 0;
+
+    private void add(int position, U unit, List<WordObj> words) {
+      if (size == positions.length) {
+        positions = Arrays.copyOf(positions, size * 2);
+        units = Arrays.copyOf(units, size * 2);
+        mweWords = Arrays.copyOf(mweWords, size * 2);
+      }
+      positions[size] = position;
+      units[size] = unit;
+      mweWords[size] = words;
+      size++;
+    }
+
+    private void trim() {
+      positions = Arrays.copyOf(positions, size);
+      units = Arrays.copyOf(units, size);
+      mweWords = Arrays.copyOf(mweWords, size);
+    }
+
+    /**
+     * @return The number of hits.
+     */
+    int size() {
+      return size;
+    }
+
+    /**
+     * @param i The index of a hit.
+     * @return The position of the word of the hit in the sentence.
+     */
+    int position(int i) {
+      return positions[i];
+    }
+
+    /**
+     * @param i The index of a hit.
+     * @return The lexicon entry of the hit.
+     */
+    @SuppressWarnings("unchecked")
+    U unit(int i) {
+      return (U) units[i];
+    }
+
+    /**
+     * @param i The index of a hit.
+     * @return The words of the MWE of the hit, the evoking word first, or null
+     * if the hit is a single word.
+     */
+    @SuppressWarnings("unchecked")
+    List<WordObj> mweWords(int i) {
+      return (List<WordObj>) mweWords[i];
+    }
+  }
+}
@@ -4,7 +4,6 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashSet;
 import java.util.Properties;
 import java.util.Set;
 import java.util.logging.LogManager;
@@ -16,6 +15,7 @@ public class Main {
   private final static Logger log = Logger.getLogger(Main.class.getName());
 
   public static void main(String[] args) {
+    long start = System.nanoTime();
     // System.setProperty("src.main.resources", "logging.properties");
     System.setProperty("java.util.logging.config.file", "src/main/resources/logging.properties");
     try {
@@ -41,113 +41,128 @@ public class Main {
       String shifter_lexicon_input = prop.getProperty("SHIFTER_LEXICON_INPUT");
       String intensifier_lexicon_input = prop.getProperty("INTENSIFIER_LEXICON_INPUT");
       String preset_se_input = prop.getProperty("PRESET_SE_INPUT");
-      String baseline_direction = prop.getProperty("BASELINE_DIRECTION");
       Boolean use_preset_se_input = Boolean.valueOf(prop.getProperty("USE_PRESET_SE_INPUT"));
       Boolean normalize = Boolean.valueOf(prop.getProperty("NORMALIZE"));
-      Boolean window_baseline_module = Boolean.valueOf(prop.getProperty("WINDOW_BASELINE_MODULE"));
-      Boolean clause_baseline_module = Boolean.valueOf(prop.getProperty("CLAUSE_BASELINE_MODULE"));
-      Boolean pos_lookup_sentiment = Boolean.valueOf(prop.getProperty("POS_LOOKUP_SENTIMENT"));
-      Boolean pos_lookup_shifter = Boolean.valueOf(prop.getProperty("POS_LOOKUP_SHIFTER"));
-      Boolean shifter_orientation_check = Boolean.valueOf(prop.getProperty("SHIFTER_ORIENTATION_CHECK"));
+      boolean compare_modules = Boolean.valueOf(prop.getProperty("COMPARE_MODULES"));
       Boolean include_neutral_expressions = Boolean.valueOf(prop.getProperty("INCLUDE_NEUTRAL_EXPRESSIONS"));
-      int baseline_window = Integer.valueOf(prop.getProperty("BASELINE_WINDOW"));
+      boolean use_intensifiers = Boolean.valueOf(prop.getProperty("USE_INTENSIFIERS"));
+      String lexicon_snapshot = prop.getProperty("LEXICON_SNAPSHOT", "").trim();
+      int analysis_threads = Integer.valueOf(prop.getProperty("ANALYSIS_THREADS", "1").trim());
+      Boolean streaming = Boolean.valueOf(prop.getProperty("STREAMING"));
+      Boolean validate_xml = Boolean.valueOf(prop.getProperty("VALIDATE_XML", "TRUE"));
+      String metrics_output = prop.getProperty("METRICS_OUTPUT", "").trim();
+      String counters_output = prop.getProperty("COUNTERS_OUTPUT", "").trim();
+      String result_cache = prop.getProperty("RESULT_CACHE", "").trim();
+      int progress_interval = Integer.valueOf(prop.getProperty("PROGRESS_INTERVAL", "10").trim());
+      Trace.configure(prop.getProperty("TRACE_SENTENCES", ""));
 
-      // If more than one module is set to TRUE, warn the user and return.
-      if (window_baseline_module && clause_baseline_module){
-        System.err.println("Both baseline modules are set to TRUE at the same time. Please turn one module off.");
+      // Per stage timings, also visible with JMX while the program runs.
+      Metrics metrics = Metrics.get();
+      metrics.setProgressInterval(progress_interval);
+      metrics.registerMBeans();
+
+      // "compile-lexicon": write the lexicon snapshot and exit.
+      if (args.length > 0 && args[0].equals("compile-lexicon")) {
+        compileLexicon(lexicon_snapshot, sentiment_lexicon_input, shifter_lexicon_input, intensifier_lexicon_input,
+                include_neutral_expressions);
         return;
       }
-      
-      // Make sure that correct properties are set in case of baseline module.
-      if (window_baseline_module) {
-        if (baseline_window < 1) {
-          System.err.println("n must be bigger than 0 for the baseline module to work!");
-          System.err.println("Entered number: n=" + baseline_window);
-          log.severe("n must be bigger than 0 for the baseline module to work!");
-          log.log(Level.SEVERE, "Entered number: n={0}", baseline_window);
-          return;
-        }
-        if (!(baseline_direction.equals("RIGHT") || baseline_direction.equals("LEFT")
-                || baseline_direction.equals("BOTH"))) {
-          System.err.println("baseline direction must either be \"LEFT\", \"RIGHT\", or \"BOTH\".");
-          System.err.println("Given direction: " + baseline_direction);
-          log.severe("Baseline direction must either be \"LEFT\", \"RIGHT\", or \"BOTH\".");
-          log.log(Level.SEVERE, "Given direction: {0}", baseline_direction);
-          return;
+
+      // "serve": classify sentences sent to a local HTTP port until killed.
+      if (args.length > 0 && args[0].equals("serve")) {
+        try {
+          PolarityServer.create(prop).start();
+        } catch (IllegalArgumentException e) {
+          System.err.println(e.getMessage());
+          log.severe(e.getMessage());
         }
+        return;
       }
 
-      // If no other module is turned on, use the standard
-      // subjective expression module.
-      Boolean subjective_expression_module = (window_baseline_module.equals(false) && clause_baseline_module.equals(false));
+      // In comparison mode, all modules are used, each with its own output
+      // file.
+      if (compare_modules) {
+        System.out.println("Comparison mode: every module writes its results to a separate file.");
+        log.info("Comparison mode: every module writes its results to a separate file.");
+      }
 
-      // Only one module should be turned on at the same time.
-      if (window_baseline_module && clause_baseline_module) {
-        System.err.println("WARNING: Both Baseline Modules are turned on!");
-        System.err.println("Check the config file!");
-        log.warning("WARNING: Both Baseline Modules are turned on!");
-        log.warning("Check the config file!");
+      // Make sure that the module options are valid before reading the inputs.
+      try {
+        Modules.validate(prop);
+      } catch (IllegalArgumentException e) {
+        System.err.println(e.getMessage());
+        log.severe(e.getMessage());
+        return;
       }
 
-      // Read in raw input text and create SentenceList based on it.
-      System.out.println("Reading raw text from : " + text_input);
-      log.log(Level.INFO, "Reading raw text from : {0}", text_input);
       SentenceList sentences = new SentenceList();
-      sentences.rawToSentenceList(text_input);
-
-      // Read in dependency parse file and create a DependencyGraph object for
-      // each sentence.
-      System.out.println("Reading dependency data from " + dependency_input + "...");
-      System.out.println("Creating dependency graph...");
-      log.log(Level.INFO, "Reading dependency data from {0}...", dependency_input);
-      log.info("Creating dependency graph...");
-      sentences.readDependencyParse(dependency_input);
-
-      // Normalize DependencyGraph objects.
-      if (normalize) {
-        System.out.println("Normalizing dependency graph...");
-        log.info("Normalizing dependency graph...");
-        sentences.normalizeDependencyGraphs();
+      SalsaAPIConnective salsa;
+      if (streaming) {
+        // The inputs are read one sentence at a time by the
+        // StreamingSentimentChecker.
+        System.out.println("Streaming mode: sentences are read, analysed and written one at a time.");
+        log.info("Streaming mode: sentences are read, analysed and written one at a time.");
+        salsa = new SalsaAPIConnective();
       } else {
-        System.out.println("Normalizing of dependency graph set to FALSE.");
-        log.info("Normalizing of dependency graph set to FALSE.");
+        // Read in raw input text and create SentenceList based on it.
+        System.out.println("Reading raw text from : " + text_input);
+        log.log(Level.INFO, "Reading raw text from : {0}", text_input);
+        Metrics.Timer timer = metrics.start(Metrics.Stage.RAW_READ);
+        sentences.rawToSentenceList(text_input);
+        timer.stop();
+
+        // Read in dependency parse file and create a DependencyGraph object for
+        // each sentence.
+        System.out.println("Reading dependency data from " + dependency_input + "...");
+        System.out.println("Creating dependency graph...");
+        log.log(Level.INFO, "Reading dependency data from {0}...", dependency_input);
+        log.info("Creating dependency graph...");
+        timer = metrics.start(Metrics.Stage.DEPENDENCY_READ);
+        sentences.readDependencyParse(dependency_input);
+        timer.stop();
+
+        // Normalize DependencyGraph objects.
+        if (normalize) {
+          System.out.println("Normalizing dependency graph...");
+          log.info("Normalizing dependency graph...");
+          timer = metrics.start(Metrics.Stage.NORMALIZATION);
+          sentences.normalizeDependencyGraphs();
+          timer.stop();
+        } else {
+          System.out.println("Normalizing of dependency graph set to FALSE.");
+          log.info("Normalizing of dependency graph set to FALSE.");
+        }
+
+        // Read in Salsa / Tiger XML file and create a ConstituencyTree object for
+        // every sentence.
+        System.out.println("Reading constituency data from " + constituency_input + "...");
+        System.out.println("Creating constituency tree...");
+        log.log(Level.INFO, "Reading constituency data from {0}...", constituency_input);
+        log.info("Creating constituency tree...");
+        timer = metrics.start(Metrics.Stage.CONSTITUENCY_PARSE);
+        salsa = new SalsaAPIConnective(constituency_input, sentences, validate_xml);
+        timer.stop();
       }
 
-      // Read in Salsa / Tiger XML file and create a ConstituencyTree object for
-      // every sentence.
-      System.out.println("Reading constituency data from " + constituency_input + "...");
-      System.out.println("Creating constituency tree...");
-      log.log(Level.INFO, "Reading constituency data from {0}...", constituency_input);
-      log.info("Creating constituency tree...");
-      SalsaAPIConnective salsa = new SalsaAPIConnective(constituency_input, sentences);
-
-      // Read in sentiment lexicon.
-      System.out.println("Reading sentiment lexicon from " + sentiment_lexicon_input + "...");
-      log.log(Level.INFO, "Reading sentiment lexicon from {0}...", sentiment_lexicon_input);
+      // Read in lexicons, from the compiled snapshot if there is an up to date
+      // one.
       SentimentLex sentimentLex = new SentimentLex(true, include_neutral_expressions);
-      sentimentLex.fileToLex(sentiment_lexicon_input);
-
-      // Read in shifter lexicon.
-      System.out.println("Reading shifter lexicon from " + shifter_lexicon_input + "...");
-      log.log(Level.INFO, "Reading shifter lexicon from {0}...", shifter_lexicon_input);
       ShifterLex shifterLex = new ShifterLex(true);
-      shifterLex.fileToLex(shifter_lexicon_input);
-
-      // Read in intensifier lexicon.
-      if (!intensifier_lexicon_input.isEmpty()) {
-        System.out.println("Reading intensifier lexicon from " + shifter_lexicon_input + "...");
-        log.log(Level.INFO, "Reading intensifier lexicon from {0}...", shifter_lexicon_input);
-        IntensifierLex intensifierLex = new IntensifierLex(true);
-        intensifierLex.fileToLex(intensifier_lexicon_input);
-      }
+      IntensifierLex intensifierLex = new IntensifierLex(true);
+      loadLexicons(lexicon_snapshot, sentimentLex, sentiment_lexicon_input, shifterLex, shifter_lexicon_input,
+              intensifierLex, intensifier_lexicon_input, include_neutral_expressions);
 
       // Read in preset se file
       Boolean got_preset_se_file = false;
       if (!preset_se_input.isEmpty()) {
-        if (use_preset_se_input) {
+        if (use_preset_se_input && streaming) {
+          got_preset_se_file = true;
+        } else if (use_preset_se_input) {
           System.out.println("Reading preset se file from " + preset_se_input + "...");
           log.log(Level.INFO, "Reading preset se file from {0}...", preset_se_input);
-          SalsaAPIConnective salsa_preset = new SalsaAPIConnective(preset_se_input, sentences);
+          Metrics.Timer timer = metrics.start(Metrics.Stage.CONSTITUENCY_PARSE);
+          SalsaAPIConnective salsa_preset = new SalsaAPIConnective(preset_se_input, sentences, validate_xml);
+          timer.stop();
           got_preset_se_file = true;
           salsa = salsa_preset;
         } else {
@@ -164,57 +179,79 @@ public class Main {
 
       // Look for subjective expressions and shifters using the according
       // modules.
-      final Set<Module> modules = new HashSet<Module>();
-
-      // Standard Module
-      if (subjective_expression_module && got_preset_se_file && use_preset_se_input) {
-        final SubjectiveExpressionModule subjectiveExpressionModule;
-        subjectiveExpressionModule = new SubjectiveExpressionModule(salsa, sentimentLex, shifterLex,
-                pos_lookup_sentiment, pos_lookup_shifter, shifter_orientation_check);
-        modules.add(subjectiveExpressionModule);
-      } else if (subjective_expression_module) {
-        final SubjectiveExpressionModule subjectiveExpressionModule;
-        subjectiveExpressionModule = new SubjectiveExpressionModule(sentimentLex, shifterLex, pos_lookup_sentiment,
-                pos_lookup_shifter, shifter_orientation_check);
-        modules.add(subjectiveExpressionModule);
-      } else {
+      final Set<Module> modules = Modules.create(prop, got_preset_se_file && use_preset_se_input ? salsa : null,
+              sentimentLex, shifterLex, intensifierLex);
+      boolean subjective_expression_module = false;
+      for (Module module : modules) {
+        subjective_expression_module |= module instanceof SubjectiveExpressionModule;
+      }
+      if (!subjective_expression_module) {
         System.err.println("Warning! Subjective Expression Module turned off!");
         log.severe("Warning! Subjective Expression Module turned off!");
       }
 
-      // Baseline Module
-      if (window_baseline_module && got_preset_se_file && use_preset_se_input) {
-        final WindowBaseline baselineModule;
-        baselineModule = new WindowBaseline(salsa, sentimentLex, shifterLex, baseline_window, baseline_direction,
-                pos_lookup_sentiment, pos_lookup_shifter, shifter_orientation_check);
-        modules.add(baselineModule);
-      } else if (window_baseline_module) {
-        final WindowBaseline baselineModule;
-        baselineModule = new WindowBaseline(sentimentLex, shifterLex, baseline_window, baseline_direction,
-                pos_lookup_sentiment, pos_lookup_shifter, shifter_orientation_check);
-        modules.add(baselineModule);
-      }
-
-      // Baseline Rule Module
-      if (clause_baseline_module && got_preset_se_file && use_preset_se_input) {
-        final ClauseBaseline baselineRuleModule;
-        baselineRuleModule = new ClauseBaseline(salsa, sentimentLex, shifterLex,
-                pos_lookup_sentiment, pos_lookup_shifter, shifter_orientation_check);
-        modules.add(baselineRuleModule);
-      } else if (clause_baseline_module) {
-        final ClauseBaseline baselineRuleModule;
-        baselineRuleModule = new ClauseBaseline(sentimentLex, shifterLex, pos_lookup_sentiment,
-                pos_lookup_shifter, shifter_orientation_check);
-        modules.add(baselineRuleModule);
-      }
+      // Results of sentences that have not changed since an earlier run.
+      final SentenceCache cache = SentenceCache.open(result_cache, SentenceCache.settings(prop), sentimentLex,
+              shifterLex, use_intensifiers ? intensifierLex : null);
 
       // Search for sentiment expressions and write results to the output file
       // specified in the configuration file
-      final SentimentChecker sentcheck = new SentimentChecker(salsa, sentences, modules);
-      System.out.println("Looking for sentiment expressions...");
-      log.info("Looking for sentiment expressions...\n");
+      if (streaming) {
+        // In preset mode, the preset se file also provides the constituency
+        // trees and is the basis of the output.
+        String xml_input = got_preset_se_file ? preset_se_input : constituency_input;
+        final StreamingSentimentChecker sentcheck = new StreamingSentimentChecker(salsa, modules, normalize,
+                analysis_threads);
+        sentcheck.setCache(cache);
+        System.out.println("Looking for sentiment expressions...");
+        log.info("Looking for sentiment expressions...\n");
+
+        if (compare_modules) {
+          sentcheck.findSentimentsPerModule(text_input, dependency_input, xml_input, output);
+        } else {
+          sentcheck.findSentiments(text_input, dependency_input, xml_input, output);
+        }
+      } else {
+        final SentimentChecker sentcheck = new SentimentChecker(salsa, sentences, modules, analysis_threads);
+        sentcheck.setCache(cache);
+        System.out.println("Looking for sentiment expressions...");
+        log.info("Looking for sentiment expressions...\n");
+
+        if (compare_modules) {
+          sentcheck.findSentimentsPerModule(output);
+        } else {
+          sentcheck.findSentiments(output);
+        }
+      }
 
-      sentcheck.findSentiments(output);
+      if (cache != null) {
+        String cached = cache.getHits() + " results were taken from the result cache, " + cache.getMisses()
+                + " were computed.";
+        System.out.println(cached);
+        log.info(cached);
+        try {
+          cache.close();
+        } catch (IOException e) {
+          System.err.println("Could not close the result cache " + result_cache);
+          log.log(Level.SEVERE, "Could not close the result cache " + result_cache, e);
+        }
+      }
+
+      String summary = String.format(java.util.Locale.ROOT, "%d sentences in %.1f s, %.1f sentences/s.",
+              metrics.getSentences(), (System.nanoTime() - start) / 1e9,
+              metrics.getSentences() / ((System.nanoTime() - start) / 1e9));
+      System.out.println(summary);
+      log.info(summary);
+      if (!metrics_output.isEmpty()) {
+        metrics.writeSummary(metrics_output);
+        System.out.println("Metrics written to " + metrics_output);
+        log.log(Level.INFO, "Metrics written to {0}", metrics_output);
+      }
+      if (!counters_output.isEmpty()) {
+        Counters.writeJson(modules, counters_output);
+        System.out.println("Module counters written to " + counters_output);
+        log.log(Level.INFO, "Module counters written to {0}", counters_output);
+      }
     } catch (FileNotFoundException e) {
       System.out.println("No config found at this config path: " + configPath);
       log.log(Level.SEVERE, "No config found at this config path: {0}", configPath);
@@ -223,4 +260,85 @@ public class Main {
       log.log(Level.SEVERE, "Could not read config file from {0}", configPath);
     }
   }
+
+  /**
+   * Reads the lexicons from the snapshot if there is an up to date one, and
+   * from the text lexicons otherwise.
+   */
+  static void loadLexicons(String lexicon_snapshot, SentimentLex sentimentLex, String sentiment_lexicon_input,
+          ShifterLex shifterLex, String shifter_lexicon_input, IntensifierLex intensifierLex,
+          String intensifier_lexicon_input, boolean include_neutral_expressions) {
+    Metrics.Timer timer = Metrics.get().start(Metrics.Stage.LEXICON_LOAD);
+    try {
+      loadLexiconsOrSnapshot(lexicon_snapshot, sentimentLex, sentiment_lexicon_input, shifterLex,
+              shifter_lexicon_input, intensifierLex, intensifier_lexicon_input, include_neutral_expressions);
+    } finally {
+      timer.stop();
+    }
+  }
+
+  private static void loadLexiconsOrSnapshot(String lexicon_snapshot, SentimentLex sentimentLex,
+          String sentiment_lexicon_input, ShifterLex shifterLex, String shifter_lexicon_input,
+          IntensifierLex intensifierLex, String intensifier_lexicon_input, boolean include_neutral_expressions) {
+    LexiconSnapshot snapshot = LexiconSnapshot.open(lexicon_snapshot, sentiment_lexicon_input,
+            shifter_lexicon_input, intensifier_lexicon_input, include_neutral_expressions);
+    if (snapshot != null) {
+      System.out.println("Reading lexicons from snapshot " + lexicon_snapshot + "...");
+      log.log(Level.INFO, "Reading lexicons from snapshot {0}...", lexicon_snapshot);
+      snapshot.fill(sentimentLex, shifterLex, intensifierLex);
+    } else {
+      readLexicons(sentimentLex, sentiment_lexicon_input, shifterLex, shifter_lexicon_input, intensifierLex,
+              intensifier_lexicon_input);
+    }
+  }
+
+  /**
+   * Reads the text lexicons.
+   */
+  private static void readLexicons(SentimentLex sentimentLex, String sentiment_lexicon_input,
+          ShifterLex shifterLex, String shifter_lexicon_input, IntensifierLex intensifierLex,
+          String intensifier_lexicon_input) {
+    // Read in sentiment lexicon.
+    System.out.println("Reading sentiment lexicon from " + sentiment_lexicon_input + "...");
+    log.log(Level.INFO, "Reading sentiment lexicon from {0}...", sentiment_lexicon_input);
+    sentimentLex.fileToLex(sentiment_lexicon_input);
+
+    // Read in shifter lexicon.
+    System.out.println("Reading shifter lexicon from " + shifter_lexicon_input + "...");
+    log.log(Level.INFO, "Reading shifter lexicon from {0}...", shifter_lexicon_input);
+    shifterLex.fileToLex(shifter_lexicon_input);
+
+    // Read in intensifier lexicon.
+    if (!intensifier_lexicon_input.isEmpty()) {
+      System.out.println("Reading intensifier lexicon from " + intensifier_lexicon_input + "...");
+      log.log(Level.INFO, "Reading intensifier lexicon from {0}...", intensifier_lexicon_input);
+      intensifierLex.fileToLex(intensifier_lexicon_input);
+    }
+  }
+
+  /**
+   * Reads the text lexicons and writes them to a {@link LexiconSnapshot}.
+   */
+  private static void compileLexicon(String lexicon_snapshot, String sentiment_lexicon_input,
+          String shifter_lexicon_input, String intensifier_lexicon_input, boolean include_neutral_expressions) {
+    if (lexicon_snapshot.isEmpty()) {
+      System.err.println("No LEXICON_SNAPSHOT path specified in the config file.");
+      log.severe("No LEXICON_SNAPSHOT path specified in the config file.");
+      return;
+    }
+    SentimentLex sentimentLex = new SentimentLex(true, include_neutral_expressions);
+    ShifterLex shifterLex = new ShifterLex(true);
+    IntensifierLex intensifierLex = new IntensifierLex(true);
+    readLexicons(sentimentLex, sentiment_lexicon_input, shifterLex, shifter_lexicon_input, intensifierLex,
+            intensifier_lexicon_input);
+    try {
+      LexiconSnapshot.write(lexicon_snapshot, sentiment_lexicon_input, sentimentLex, shifter_lexicon_input,
+              shifterLex, intensifier_lexicon_input, intensifierLex, include_neutral_expressions);
+      System.out.println("Lexicon snapshot written to " + lexicon_snapshot);
+      log.log(Level.INFO, "Lexicon snapshot written to {0}", lexicon_snapshot);
+    } catch (IOException e) {
+      System.err.println("Could not write lexicon snapshot to " + lexicon_snapshot);
+      log.log(Level.SEVERE, "Could not write lexicon snapshot to " + lexicon_snapshot, e);
+    }
+  }
 }
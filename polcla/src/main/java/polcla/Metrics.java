@@ -0,0 +1,456 @@
+package polcla;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Records the wall time, CPU time and allocated bytes of the stages of a run,
+ * a latency histogram per stage and the number of analysed sentences.
+ *
+ * A stage is measured with
+ *
+ * <pre>
+ * Metrics.Timer timer = Metrics.get().start(Metrics.Stage.ANALYSIS);
+ * ...
+ * timer.stop();
+ * </pre>
+ *
+ * in the thread that does the work; CPU time and allocated bytes are those of
+ * that thread. Stages that run once per sentence have one measurement per
+ * sentence, so their histograms are per sentence latencies. Nested stages
+ * (preset alignment is part of the module analysis) are also counted in the
+ * enclosing stage.
+ *
+ * The metrics are shared by the whole process. They can be watched with JMX
+ * (see {@link #registerMBeans()}) and written to a JSON file at the end of a
+ * run (see {@link #writeSummary(String)}).
+ */
+public final class Metrics {
+
+  private final static Logger log = Logger.getLogger(Metrics.class.getName());
+  private static final Metrics INSTANCE = new Metrics();
+
+  /**
+   * The measured stages of a run.
+   */
+  public enum Stage {
+
+    RAW_READ("raw read"),
+    DEPENDENCY_READ("dependency read"),
+    NORMALIZATION("normalization"),
+    CONSTITUENCY_PARSE("constituency parse"),
+    LEXICON_LOAD("lexicon load"),
+    PRESET_ALIGNMENT("preset alignment"),
+    ANALYSIS("module analysis"),
+    SERIALIZATION("serialization");
+
+    private final String label;
+
+    private Stage(String label) {
+      this.label = label;
+    }
+
+    @Override
+    public String toString() {
+      return label;
+    }
+  }
+
+  /**
+   * The metrics of a stage as seen by JMX.
+   */
+  public interface StageMXBean {
+
+    long getCount();
+
+    long getWallMillis();
+
+    long getCpuMillis();
+
+    long getAllocatedBytes();
+
+    double getMeanMicros();
+
+    long getP50Micros();
+
+    long getP90Micros();
+
+    long getP99Micros();
+
+    long getMaxMicros();
+  }
+
+  /**
+   * The metrics of the run as seen by JMX.
+   */
+  public interface RunMXBean {
+
+    long getSentences();
+
+    long getUptimeMillis();
+
+    double getSentencesPerSecond();
+  }
+
+  /**
+   * A measurement that has been started with {@link Metrics#start(Stage)}.
+   */
+  public final class Timer {
+
+    private final StageMetrics stage;
+    private final long wall;
+    private final long cpu;
+    private final long allocated;
+
+    private Timer(StageMetrics stage) {
+      this.stage = stage;
+      this.allocated = allocatedBytes();
+      this.cpu = cpuTime();
+      this.wall = System.nanoTime();
+    }
+
+    /**
+     * Adds the time and the bytes since the start to the stage.
+     */
+    public void stop() {
+      long wallTime = System.nanoTime() - wall;
+      long cpuTime = cpuTime() - cpu;
+      long allocatedBytes = allocatedBytes() - allocated;
+      stage.add(wallTime, cpuTime, allocatedBytes);
+    }
+  }
+
+  /**
+   * The sums and the latency histogram of a stage.
+   */
+  private static final class StageMetrics implements StageMXBean {
+
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong wallNanos = new AtomicLong();
+    private final AtomicLong cpuNanos = new AtomicLong();
+    private final AtomicLong allocatedBytes = new AtomicLong();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    void add(long wall, long cpu, long allocated) {
+      count.incrementAndGet();
+      wallNanos.addAndGet(wall);
+      cpuNanos.addAndGet(cpu);
+      allocatedBytes.addAndGet(allocated);
+      latencies.add(wall);
+    }
+
+    @Override
+    public long getCount() {
+      return count.get();
+    }
+
+    @Override
+    public long getWallMillis() {
+      return wallNanos.get() / 1000000;
+    }
+
+    @Override
+    public long getCpuMillis() {
+      return cpuNanos.get() / 1000000;
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+      return allocatedBytes.get();
+    }
+
+    @Override
+    public double getMeanMicros() {
+      long n = count.get();
+      return n == 0 ? 0 : wallNanos.get() / 1000.0 / n;
+    }
+
+    @Override
+    public long getP50Micros() {
+      return latencies.percentile(0.5) / 1000;
+    }
+
+    @Override
+    public long getP90Micros() {
+      return latencies.percentile(0.9) / 1000;
+    }
+
+    @Override
+    public long getP99Micros() {
+      return latencies.percentile(0.99) / 1000;
+    }
+
+    @Override
+    public long getMaxMicros() {
+      return latencies.max() / 1000;
+    }
+  }
+
+  /**
+   * A histogram of durations in nanoseconds. Every power of two is split into
+   * four buckets, so a percentile is at most 25% larger than the exact value.
+   */
+  static final class LatencyHistogram {
+
+    private final AtomicLongArray buckets = new AtomicLongArray(256);
+    private final AtomicLong max = new AtomicLong();
+
+    static int bucket(long value) {
+      if (value < 4) {
+        return (int) Math.max(0, value);
+      }
+      int exponent = 63 - Long.numberOfLeadingZeros(value);
+      return exponent * 4 + (int) ((value >>> (exponent - 2)) & 3);
+    }
+
+    /**
+     * @return The largest value of a bucket.
+     */
+    static long upperBound(int bucket) {
+      if (bucket < 4) {
+        return bucket;
+      }
+      int exponent = bucket / 4;
+      return ((5L + bucket % 4) << (exponent - 2)) - 1;
+    }
+
+    void add(long value) {
+      buckets.incrementAndGet(bucket(value));
+      long current = max.get();
+      while (value > current && !max.compareAndSet(current, value)) {
+        current = max.get();
+      }
+    }
+
+    /**
+     * @param quantile The quantile, between 0 and 1.
+     * @return The upper bound of the bucket of the quantile, at most the
+     * largest value, 0 if the histogram is empty.
+     */
+    long percentile(double quantile) {
+      long total = 0;
+      for (int i = 0; i < buckets.length(); i++) {
+        total += buckets.get(i);
+      }
+      if (total == 0) {
+        return 0;
+      }
+      long rank = (long) Math.ceil(quantile * total);
+      long seen = 0;
+      for (int i = 0; i < buckets.length(); i++) {
+        seen += buckets.get(i);
+        if (seen >= Math.max(1, rank)) {
+          return Math.min(upperBound(i), max.get());
+        }
+      }
+      return max.get();
+    }
+
+    long max() {
+      return max.get();
+    }
+  }
+
+  private final Map<Stage, StageMetrics> stages = new EnumMap<Stage, StageMetrics>(Stage.class);
+  private final AtomicLong sentences = new AtomicLong();
+  private final long startNanos = System.nanoTime();
+  private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+  private final boolean cpuTime;
+  private final boolean allocatedBytes;
+  private volatile long progressIntervalNanos = 10L * 1000000000L;
+  private final AtomicLong lastProgress = new AtomicLong(System.nanoTime());
+  private boolean registered;
+
+  private Metrics() {
+    for (Stage stage : Stage.values()) {
+      stages.put(stage, new StageMetrics());
+    }
+    this.cpuTime = threads.isCurrentThreadCpuTimeSupported();
+    if (cpuTime && !threads.isThreadCpuTimeEnabled()) {
+      threads.setThreadCpuTimeEnabled(true);
+    }
+    boolean allocation = false;
+    if (threads instanceof com.sun.management.ThreadMXBean) {
+      com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+      allocation = sunThreads.isThreadAllocatedMemorySupported();
+      if (allocation && !sunThreads.isThreadAllocatedMemoryEnabled()) {
+        sunThreads.setThreadAllocatedMemoryEnabled(true);
+      }
+    }
+    this.allocatedBytes = allocation;
+  }
+
+  /**
+   * @return The metrics of this process.
+   */
+  public static Metrics get() {
+    return INSTANCE;
+  }
+
+  /**
+   * Starts a measurement of a stage in the current thread.
+   *
+   * @param stage The stage.
+   * @return The measurement, to be stopped in the same thread.
+   */
+  public Timer start(Stage stage) {
+    return new Timer(stages.get(stage));
+  }
+
+  private long cpuTime() {
+    return cpuTime ? threads.getCurrentThreadCpuTime() : 0;
+  }
+
+  private long allocatedBytes() {
+    if (!allocatedBytes) {
+      return 0;
+    }
+    return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * @param seconds The time between two progress reports of
+   * {@link #sentenceDone(int)}. 0 or less turns the reports off.
+   */
+  public void setProgressInterval(int seconds) {
+    this.progressIntervalNanos = seconds > 0 ? seconds * 1000000000L : Long.MAX_VALUE;
+  }
+
+  /**
+   * Counts an analysed sentence of a run and reports the progress if the
+   * progress interval has passed since the last report.
+   *
+   * @param total The number of sentences of the run, 0 if it is not known.
+   */
+  public void sentenceDone(int total) {
+    long done = sentences.incrementAndGet();
+    long now = System.nanoTime();
+    long last = lastProgress.get();
+    if (now - last >= progressIntervalNanos && lastProgress.compareAndSet(last, now)) {
+      String msg = (total > 0 ? done + " of " + total : String.valueOf(done)) + " sentences done, "
+              + String.format(Locale.ROOT, "%.1f", sentencesPerSecond(done, now)) + " sentences/s.";
+      System.out.println(msg);
+      log.info(msg);
+    }
+  }
+
+  private double sentencesPerSecond(long done, long now) {
+    double seconds = (now - startNanos) / 1e9;
+    return seconds > 0 ? done / seconds : 0;
+  }
+
+  /**
+   * @return The number of sentences counted by {@link #sentenceDone(int)}.
+   */
+  public long getSentences() {
+    return sentences.get();
+  }
+
+  /**
+   * @return The metrics of a stage.
+   */
+  public StageMXBean getStage(Stage stage) {
+    return stages.get(stage);
+  }
+
+  /**
+   * Registers the metrics with the platform MBean server as
+   * polcla:type=Metrics,name=run and polcla:type=Metrics,name=&lt;stage&gt;.
+   * Registering a second time has no effect.
+   */
+  public synchronized void registerMBeans() {
+    if (registered) {
+      return;
+    }
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      server.registerMBean(new RunMXBean() {
+        @Override
+        public long getSentences() {
+          return sentences.get();
+        }
+
+        @Override
+        public long getUptimeMillis() {
+          return (System.nanoTime() - startNanos) / 1000000;
+        }
+
+        @Override
+        public double getSentencesPerSecond() {
+          return sentencesPerSecond(sentences.get(), System.nanoTime());
+        }
+      }, new ObjectName("polcla:type=Metrics,name=run"));
+      for (Map.Entry<Stage, StageMetrics> entry : stages.entrySet()) {
+        server.registerMBean(entry.getValue(),
+                new ObjectName("polcla:type=Metrics,name=" + entry.getKey().name().toLowerCase(Locale.ROOT)));
+      }
+      registered = true;
+    } catch (JMException e) {
+      System.err.println("Could not register the metrics with JMX: " + e.getMessage());
+      log.log(Level.WARNING, "Could not register the metrics with JMX.", e);
+    }
+  }
+
+  /**
+   * @return The metrics as a JSON object.
+   */
+  public String toJson() {
+    long now = System.nanoTime();
+    long done = sentences.get();
+    StringBuilder json = new StringBuilder();
+    json.append("{\n  \"sentences\": ").append(done);
+    json.append(",\n  \"wallMillis\": ").append((now - startNanos) / 1000000);
+    json.append(",\n  \"sentencesPerSecond\": ")
+            .append(String.format(Locale.ROOT, "%.2f", sentencesPerSecond(done, now)));
+    json.append(",\n  \"stages\": {");
+    boolean first = true;
+    for (Map.Entry<Stage, StageMetrics> entry : stages.entrySet()) {
+      StageMetrics stage = entry.getValue();
+      json.append(first ? "\n    " : ",\n    ");
+      first = false;
+      Json.quote(json, entry.getKey().toString()).append(": {");
+      json.append("\"count\": ").append(stage.getCount());
+      json.append(", \"wallMillis\": ").append(stage.getWallMillis());
+      json.append(", \"cpuMillis\": ").append(cpuTime ? String.valueOf(stage.getCpuMillis()) : "null");
+      json.append(", \"allocatedBytes\": ")
+              .append(allocatedBytes ? String.valueOf(stage.getAllocatedBytes()) : "null");
+      json.append(", \"latencyMicros\": {\"mean\": ")
+              .append(String.format(Locale.ROOT, "%.1f", stage.getMeanMicros()));
+      json.append(", \"p50\": ").append(stage.getP50Micros());
+      json.append(", \"p90\": ").append(stage.getP90Micros());
+      json.append(", \"p99\": ").append(stage.getP99Micros());
+      json.append(", \"max\": ").append(stage.getMaxMicros()).append("}}");
+    }
+    return json.append("\n  }\n}\n").toString();
+  }
+
+  /**
+   * Writes {@link #toJson()} to a file.
+   *
+   * @param filename The path of the file.
+   */
+  public void writeSummary(String filename) {
+    try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(filename), "UTF-8"))) {
+      out.write(toJson());
+    } catch (IOException e) {
+      System.err.println("Could not write the metrics to " + filename);
+      log.log(Level.SEVERE, "Could not write the metrics to " + filename, e);
+    }
+  }
+}
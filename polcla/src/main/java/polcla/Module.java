@@ -27,4 +27,23 @@ public interface Module {
 	 *         {@link SentimentChecker}.
 	 */
 	Collection<Frame> findFrames(SentenceObj sentence);
+
+	/**
+	 * @return The event counters of this module, see {@link Counters}.
+	 */
+	Counters getCounters();
+
+	/**
+	 * Turns the intensifier stage on or off. Must be called before the first
+	 * sentence.
+	 *
+	 * @param intensifierLex The intensifier lexicon, or null to ignore
+	 * intensifiers.
+	 */
+	void setIntensifierLex(IntensifierLex intensifierLex);
+
+	/**
+	 * @return The intensifier lexicon, or null if intensifiers are ignored.
+	 */
+	IntensifierLex getIntensifierLex();
 }
@@ -1,8 +1,15 @@
 package polcla;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import polcla.ConstituencyTree;
@@ -14,11 +21,11 @@ import polcla.ShifterUnit;
 import polcla.WordObj;
 
 import salsa.corpora.elements.Fenode;
+import salsa.corpora.elements.Flag;
 import salsa.corpora.elements.Frame;
-import salsa.corpora.elements.Frames;
+import salsa.corpora.elements.FrameElement;
 import salsa.corpora.elements.Global;
-import salsa.corpora.elements.Graph;
-import salsa.corpora.elements.Sentence;
+import salsa.corpora.elements.Nonterminal;
 import salsa.corpora.elements.Target;
 import salsa.corpora.elements.Terminal;
 
@@ -34,110 +41,410 @@ public abstract class ModuleBasics {
   protected SalsaAPIConnective salsa;
   protected SentimentLex sentimentLex;
   protected ShifterLex shifterLex;
+  /**
+   * The intensifier lexicon, null if intensifiers are not looked for.
+   */
+  protected IntensifierLex intensifierLex;
   protected Boolean posLookupSentiment;
   protected Boolean posLookupShifter;
   protected Boolean shifter_orientation_check;
   protected Boolean usePresetSELocations = false;
-  protected ArrayList<String> missingInGermanLex = new ArrayList<String>();
   /**
-   * Stores each sentence's polarity
+   * The event counters of the module. Sentences may be analysed concurrently.
+   */
+  protected final Counters counters = new Counters();
+  private final LongAdder shifterPosMismatches = counters.counter("shifter.pos_mismatch");
+  private final LongAdder sentimentPosMismatches = counters.counter("sentiment.pos_mismatch");
+  private final LongAdder mweMatches = counters.counter("sentiment.mwe_matches");
+  private final LongAdder missingLexiconEntries = counters.counter("preset.missing_lexicon_entry");
+  private final LongAdder intensifiedTargets = counters.counter("intensifier.targets");
+  /**
+   * Looks up the words of the sentences, created with the first sentence.
+   */
+  private volatile LexiconTagger tagger;
+  private final ConcurrentMap<String, ScopeCounters> scopeCounters = new ConcurrentHashMap<String, ScopeCounters>();
+
+  /**
+   * Factor by which an intensifier raises the polarity value of its target,
+   * before a shifter is applied.
+   */
+  protected static final double INTENSIFIER_FACTOR = 1.5;
+
+  /**
+   * The kinds of words whose target is searched for in their scope.
+   */
+  protected enum Trigger {
+    SHIFTER, INTENSIFIER
+  }
+
+  /**
+   * The counters of a scope rule: the shifter targets it found and the time
+   * spent in it.
+   */
+  protected static final class ScopeCounters {
+
+    final LongAdder hits;
+    final LongAdder nanos;
+
+    private ScopeCounters(Counters counters, String rule) {
+      this.hits = counters.counter("scope." + rule + ".hits");
+      this.nanos = counters.counter("scope." + rule + ".nanos");
+    }
+  }
+  /**
+   * Stores each sentence's polarity. Sentences may be analysed concurrently by
+   * {@link SentimentChecker}, so every thread keeps the polarities of the
+   * sentence it analysed last.
    */
-  protected Collection<Global> globalsSentencePolarities = new ArrayList<Global>();
+  private final ThreadLocal<Collection<Global>> globalsSentencePolarities = new ThreadLocal<Collection<Global>>() {
+    @Override
+    protected Collection<Global> initialValue() {
+      return new ArrayList<Global>();
+    }
+  };
 
   public ModuleBasics() {
     super();
-    log.setLevel(Level.ALL);
+  }
+
+  public Counters getCounters() {
+    return counters;
+  }
+
+  /**
+   * Turns the intensifier stage on or off. With an intensifier lexicon, the
+   * polarity values of subjective expressions in the scope of an intensifier
+   * are raised by {@link #INTENSIFIER_FACTOR}, and their frames get an
+   * "Intensifier" frame element. Must be called before the first sentence.
+   *
+   * @param intensifierLex The intensifier lexicon, or null to ignore
+   * intensifiers.
+   */
+  public void setIntensifierLex(IntensifierLex intensifierLex) {
+    this.intensifierLex = intensifierLex;
+    this.tagger = null;
+  }
+
+  public IntensifierLex getIntensifierLex() {
+    return intensifierLex;
+  }
+
+  /**
+   * The target search of a module in one sentence. What the scopes of all
+   * shifters and intensifiers of the sentence need from the dependency graph
+   * or the constituency tree is collected in one walk when the search is
+   * created; finding a target then only checks the collected candidates
+   * against the subjective expressions that are still left.
+   */
+  protected interface TargetSearch {
+
+    /**
+     * Looks for the target of a shifter or intensifier.
+     *
+     * @param kind Whether trigger is a shifter or an intensifier.
+     * @param trigger A shifter or intensifier the search was created for.
+     * @param sentimentList The subjective expressions of the sentence, the
+     * target candidates.
+     * @return The target, or null.
+     */
+    WordObj findTarget(Trigger kind, WordObj trigger, ArrayList<WordObj> sentimentList);
+  }
+
+  /**
+   * Creates the target search of the module for a sentence.
+   *
+   * @param sentence The sentence.
+   * @param entries The lexicon entries of the words of the sentence.
+   * @param shifterList The shifters of the sentence.
+   * @param intensifierList The intensifiers of the sentence.
+   * @return The search.
+   */
+  protected abstract TargetSearch newTargetSearch(SentenceObj sentence, LexiconEntries entries,
+          List<WordObj> shifterList, List<WordObj> intensifierList);
+
+  /**
+   * The clauses of a sentence: the lowest S node dominating a word, or the
+   * true root if there is none. The words of each clause are listed once, for
+   * all triggers in it.
+   */
+  protected static final class Clauses {
+
+    private final SentenceObj sentence;
+    private final Map<Nonterminal, List<WordObj>> words = new HashMap<Nonterminal, List<WordObj>>();
+    private final Map<WordObj, List<WordObj>> clauses = new HashMap<WordObj, List<WordObj>>();
+
+    /**
+     * Lists the words of the clauses of the triggers.
+     *
+     * @param sentence The sentence.
+     * @param triggers The shifters and intensifiers of the sentence.
+     */
+    protected Clauses(SentenceObj sentence, Collection<WordObj> triggers) {
+      this.sentence = sentence;
+      final ConstituencyTree tree = sentence.getTree();
+      for (WordObj trigger : triggers) {
+        final Terminal triggerNode = tree.getTerminal(trigger);
+        Nonterminal containingClause = tree.getLowestDominatingNode(triggerNode, "S");
+        if (containingClause == null) {
+          // This shouldn't happen except in case of parsing errors
+          containingClause = tree.getTrueRoot();
+        }
+        List<WordObj> clause = words.get(containingClause);
+        if (clause == null) {
+          clause = new ArrayList<WordObj>();
+          for (Terminal childT : tree.getDominatedTerminals(containingClause)) {
+            clause.add(sentence.getWordList().get(tree.getTerminalPosition(childT)));
+          }
+          words.put(containingClause, clause);
+        }
+        clauses.put(trigger, clause);
+      }
+    }
+
+    /**
+     * Looks for the subjective expression closest to a trigger in its clause.
+     * Of two subjective expressions at the same distance, the first one wins.
+     *
+     * @param trigger One of the triggers.
+     * @param sentimentList The subjective expressions of the sentence.
+     * @param skipTrigger Whether the trigger itself is no candidate.
+     * @return The closest subjective expression, or null.
+     */
+    protected WordObj closest(WordObj trigger, ArrayList<WordObj> sentimentList, boolean skipTrigger) {
+      final boolean trace = Trace.enabled(sentence);
+      final int triggerPos = sentence.getWordPosition(trigger);
+      final List<WordObj> candidates = trace ? new ArrayList<WordObj>() : null;
+      WordObj target = null;
+      int bestDistance = Integer.MAX_VALUE;
+      for (WordObj wordObj : clauses.get(trigger)) {
+        // Check if the word is a SE in the current sentence.
+        if (sentimentList.contains(wordObj)) {
+          if (trace) {
+            candidates.add(wordObj);
+          }
+          int distance = Math.abs(triggerPos - sentence.getWordPosition(wordObj));
+          if (distance < bestDistance && (distance != 0 || !skipTrigger)) {
+            bestDistance = distance;
+            target = wordObj;
+          }
+        }
+      }
+      if (trace) {
+        Trace.event(sentence, "clause-candidates", "trigger", trigger, "candidates", candidates);
+        Trace.event(sentence, "clause-closest", "trigger", trigger, "candidate", target);
+      }
+      return target;
+    }
+  }
+
+  /**
+   * @param kind The kind of word the scope rule belongs to.
+   * @param rule The name of a scope rule, e.g. an entry of a shifter scope.
+   * @return The counters of the rule, "scope.&lt;rule&gt;" for shifters and
+   * "scope.intensifier.&lt;rule&gt;" for intensifiers.
+   */
+  protected ScopeCounters scopeCounters(Trigger kind, String rule) {
+    return scopeCounters(kind == Trigger.SHIFTER ? rule : "intensifier." + rule);
+  }
+
+  /**
+   * @param rule The name of a scope rule, e.g. an entry of a shifter scope.
+   * @return The counters of the rule.
+   */
+  protected ScopeCounters scopeCounters(String rule) {
+    ScopeCounters scope = scopeCounters.get(rule);
+    if (scope == null) {
+      scopeCounters.putIfAbsent(rule, new ScopeCounters(counters, rule));
+      scope = scopeCounters.get(rule);
+    }
+    return scope;
   }
 
   /**
    * Globals are sentence flags. Stores each sentence's polarity.
    *
-   * @return ArrayList<Global> globalsSentencePolarities
+   * @return The polarities of the sentence analysed last by the current
+   * thread.
    */
   public Collection<Global> getGlobalsSentencePolarities() {
-    return globalsSentencePolarities;
+    return globalsSentencePolarities.get();
   }
 
   /**
-   * Compares pos tags of found words in a sentence with shifter lexicon
-   * entries.
+   * Replaces the sentence polarities of the current thread with an empty
+   * collection. Called by the modules at the start of each sentence.
    *
-   * @param shifterList the list of found shifters in the current sentence.
-   * @param word the current word's WordObj.
-   * @param shifterLexEntry the entry for the shifter in the shifter lexicon.
+   * @return The new collection, to which the polarities of the sentence are
+   * added.
    */
-  public void posLookupShifter(ArrayList<WordObj> shifterList, WordObj word, ShifterUnit shifterLexEntry) {
-    if ((word.getPos().startsWith("N") || word.getPos().equals("PIS")) && shifterLexEntry.shifter_pos.equals("nomen")) {
-      shifterList.add(word);
-    } else if (word.getPos().startsWith("ADJ") && shifterLexEntry.shifter_pos.equals("adj")) {
-      shifterList.add(word);
-    } else if (word.getPos().startsWith("ADV") && shifterLexEntry.shifter_pos.equals("adv")) {
-      shifterList.add(word);
-    } else if (word.getPos().startsWith("V") && shifterLexEntry.shifter_pos.equals("verb")) {
-      shifterList.add(word);
-    } else if (word.getPos().equals("PTKNEG")) {
-      shifterList.add(word);
-    } else if (word.getPos().equals("APPR") && shifterLexEntry.shifter_pos.equals("appr")) {
-      shifterList.add(word);
-    } else {
-      ShifterUnit shifterLexEntryNew = shifterLex.getShifter(word.getName());
-      if (shifterLexEntryNew != null && shifterLexEntry != shifterLexEntryNew) {
-        posLookupShifter(shifterList, word, shifterLexEntryNew);
-      } else {
-        log.fine("Shifter POS-MISMATCH!");
-        log.log(Level.FINE, "word: {0} pos: {1}", new Object[]{word.getName(), word.getPos()});
-        log.log(Level.FINE, "shifterLex entry pos: {0}", shifterLexEntry.shifter_pos);
+  protected Collection<Global> newGlobalsSentencePolarities() {
+    Collection<Global> globals = new ArrayList<Global>();
+    globalsSentencePolarities.set(globals);
+    return globals;
+  }
+
+  /**
+   * Adds the lexicon hits of a sentence to the lists of the module and their
+   * lexicon entries to the entries of the sentence. The sentence is tagged by
+   * the first module that looks at it, see {@link LexiconTagger}. Sentiments
+   * are not added to the list if the module uses preset subjective
+   * expressions, intensifiers only if the intensifier stage is on.
+   *
+   * @param sentence The current sentence.
+   * @param entries The lexicon entries of the words of the sentence.
+   * @param shifterList The list to which the shifters are added.
+   * @param sentimentList The list to which the sentiments are added.
+   * @param intensifierList The list to which the intensifiers are added.
+   */
+  protected void lookUpWords(SentenceObj sentence, LexiconEntries entries, List<WordObj> shifterList,
+          List<WordObj> sentimentList, List<WordObj> intensifierList) {
+    LexiconTagger tagger = this.tagger;
+    if (tagger == null) {
+      tagger = new LexiconTagger(sentimentLex, shifterLex, intensifierLex, posLookupSentiment, posLookupShifter);
+      this.tagger = tagger;
+    }
+    final LexiconTagger.Tags tags = tagger.tag(sentence);
+    final List<WordObj> words = sentence.getWordList();
+    for (int i = 0; i < tags.shifters.size(); i++) {
+      WordObj shifter = words.get(tags.shifters.position(i));
+      shifterList.add(shifter);
+      entries.addShifter(shifter, tags.shifters.unit(i));
+    }
+    shifterPosMismatches.add(tags.shifterPosMismatches);
+    for (int i = 0; i < tags.sentiments.size(); i++) {
+      WordObj sentiment = words.get(tags.sentiments.position(i));
+      if (!usePresetSELocations) {
+        sentimentList.add(sentiment);
       }
+      entries.addSentiment(sentiment, tags.sentiments.unit(i), tags.sentiments.mweWords(i));
+    }
+    if (!usePresetSELocations) {
+      sentimentPosMismatches.add(tags.sentimentPosMismatches);
+    }
+    for (int i = 0; i < tags.intensifiers.size(); i++) {
+      WordObj intensifier = words.get(tags.intensifiers.position(i));
+      intensifierList.add(intensifier);
+      entries.addIntensifier(intensifier, tags.intensifiers.unit(i));
     }
   }
 
   /**
-   * Compares pos tags of found words in a sentence with sentiment lexicon
-   * entries.
+   * Looks for the targets of the intensifiers of a sentence. A subjective
+   * expression is intensified once, by the first intensifier that has it as
+   * target.
    *
-   * @param sentimentList the list to which of found sentiments in the current
-   * sentence are being added.
-   * @param word the current word's WordObj.
-   * @param sentLexEntry the entry for the sentiment word in the sentiment
-   * lexicon.
+   * @param search The target search of the sentence.
+   * @param intensifierList The intensifiers of the sentence.
+   * @param sentimentList The subjective expressions of the sentence.
+   * @param sentence The sentence.
+   * @return The intensifiers by target.
    */
-  public void posLookupSentiment(ArrayList<WordObj> sentimentList, WordObj word, SentimentUnit sentLexEntry) {
-    if (word.getPos().startsWith("N") && sentLexEntry.pos.equals("nomen")) {
-      sentimentList.add(word);
-    } else if (word.getPos().startsWith("V") && sentLexEntry.pos.equals("verben")) {
-      sentimentList.add(word);
-    } else if (word.getPos().startsWith("A") && sentLexEntry.pos.equals("adj")) {
-      sentimentList.add(word);
-    } else {
-      // Check for another possible sentLexEntry using the exact word instead of
-      // its Lemma
-      // Example: "abweisen" vs "abweisend" gets found this way.
-      SentimentUnit sentLexEntryNew = sentimentLex.getSentiment(word.getName());
-      if (sentLexEntryNew != null && sentLexEntry != sentLexEntryNew) {
-        posLookupSentiment(sentimentList, word, sentLexEntryNew);
-      } else {
-        log.fine("Sentiment POS-MISMATCH!");
-        log.log(Level.FINE, "word: {0} pos: {1}", new Object[]{word.getName(), word.getPos()});
-        log.log(Level.FINE, "sentimentLex entry pos: {0}", sentLexEntry.pos);
+  protected Map<WordObj, WordObj> findIntensifierTargets(TargetSearch search, ArrayList<WordObj> intensifierList,
+          ArrayList<WordObj> sentimentList, SentenceObj sentence) {
+    if (intensifierList.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    Map<WordObj, WordObj> intensified = new LinkedHashMap<WordObj, WordObj>();
+    for (WordObj intensifier : intensifierList) {
+      WordObj target = search.findTarget(Trigger.INTENSIFIER, intensifier, sentimentList);
+      if (target != null && !intensified.containsKey(target)) {
+        intensified.put(target, intensifier);
+        intensifiedTargets.increment();
+        if (Trace.enabled(sentence)) {
+          Trace.event(sentence, "intensifier-target", "intensifier", intensifier, "target", target);
+        }
       }
     }
+    return intensified;
+  }
+
+  /**
+   * Adds the "Intensifier" frame element and the intensified polarity flag to
+   * the frame of an intensified subjective expression.
+   *
+   * @param sentence The current sentence.
+   * @param frame The frame of the subjective expression.
+   * @param feIds The frame element ids of the frame.
+   * @param intensifier The intensifier of the subjective expression.
+   * @param unit The lexicon entry of the intensifier.
+   * @param polarityCategory The category of the subjective expression.
+   * @param polarityValue The polarity value of the subjective expression.
+   * @return The intensified polarity value.
+   */
+  protected double intensify(SentenceObj sentence, Frame frame, FrameElementIds feIds, WordObj intensifier,
+          IntensifierUnit unit, String polarityCategory, double polarityValue) {
+    final FrameElement intensifierElement = new FrameElement(feIds.next(), "Intensifier");
+    intensifierElement.addFenode(new Fenode(sentence.getTree().getTerminal(intensifier).getId()));
+    intensifierElement.addFlag(new Flag(unit.intensifier_type, "intensifier"));
+    frame.addFe(intensifierElement);
+
+    double intensified = polarityValue * INTENSIFIER_FACTOR;
+    frame.addFlag(new Flag("polarity after intensification: " + polarityCategory + " " + intensified, "subjExpr"));
+    return intensified;
+  }
+
+  /**
+   * Checks whether the orientation of a shifter or intensifier (on
+   * general/positive/negative) matches the sentiment orientation (POS/NEG).
+   * Both are checked if SHIFTER_ORIENTATION_CHECK is set.
+   *
+   * @param entries The lexicon entries of the words of the sentence.
+   * @param kind Whether trigger is a shifter or an intensifier.
+   * @param trigger The shifter or intensifier.
+   * @param target The candidate target.
+   * @return true if the orientations match or there is no lexicon entry for the
+   * sentiment expression.
+   */
+  protected Boolean orientationCheck(LexiconEntries entries, Trigger kind, WordObj trigger, WordObj target) {
+    if (!shifter_orientation_check) {
+      return true;
+    }
+    if (kind == Trigger.SHIFTER) {
+      return orientationCheck(entries.shifter(trigger), entries.sentiment(target));
+    }
+    return orientationCheck(entries.intensifier(trigger), entries.sentiment(target));
+  }
+
+  /**
+   * Checks whether the intensifier orientation (on general/positive/negative)
+   * matches the sentiment orientation (POS/NEG).
+   *
+   * @param intensifierUnit The entry of the intensifier.
+   * @param targetUnit The entry of the candidate target, or null.
+   * @return true if the orientations match or there is no lexicon entry for the
+   * sentiment expression.
+   */
+  public Boolean orientationCheck(IntensifierUnit intensifierUnit, SentimentUnit targetUnit) {
+    if (!shifter_orientation_check) {
+      return true;
+    }
+    if (targetUnit == null) {
+      return true;
+    }
+    switch (intensifierUnit.intensifier_type) {
+      case IntensifierLex.INTENSIFIER_TYPE_GENERAL:
+        return true;
+      case IntensifierLex.INTENSIFIER_TYPE_ON_NEGATIVE:
+        return targetUnit.getType().equals("NEG");
+      case IntensifierLex.INTENSIFIER_TYPE_ON_POSITIVE:
+        return targetUnit.getType().equals("POS");
+    }
+    return false;
   }
 
   /**
    * Checks whether the shifter orientation (on general/positive/negative)
    * matches the sentiment orientation (POS/NEG).
    *
-   * @param shifter
-   * @param shifterTarget
+   * @param shifterUnit The entry of the shifter.
+   * @param shifterTargetUnit The entry of the candidate target, or null.
    * @return true if the orientations match or there is no lexicon entry for the
    * sentiment expression.
    */
-  public Boolean orientationCheck(WordObj shifter, WordObj shifterTarget) {
+  public Boolean orientationCheck(ShifterUnit shifterUnit, SentimentUnit shifterTargetUnit) {
     if (!shifter_orientation_check) {
       return true;
     }
-    SentimentUnit shifterTargetUnit = sentimentLex.getSentiment(shifterTarget.getLemma());
-    ShifterUnit shifterUnit = shifterLex.getShifter(shifter.getLemma());
     String shifterType = shifterUnit.getType(); // g,n,p
 
     // Can't compare the orientation if the sentiment expression does not have a
@@ -174,21 +481,21 @@ public abstract class ModuleBasics {
    * @param sentence The relevant sentence.
    * @param frames The Frame collection to be modified.
    * @param sentiment The relevant sentiment.
+   * @param collocations The other words of the MWE evoked by the sentiment,
+   * empty if its lexicon entry is a single word.
    * @param frame The Frame to be set.
    * @param target The target to set the Frame to.
    */
-  protected void setFrames(SentenceObj sentence, final Collection<Frame> frames, WordObj sentiment, final Frame frame,
-          final Target target) {
+  protected void setFrames(SentenceObj sentence, final Collection<Frame> frames, WordObj sentiment,
+          List<WordObj> collocations, final Frame frame, final Target target) {
     target.addFenode(new Fenode(sentence.getTree().getTerminal(sentiment).getId()));
 
     // In case of mwe: add all collocations to the subjective expression
     // xml/frame
-    SentimentUnit unit = sentimentLex.getSentiment(sentiment.getLemma());
-    if (unit.mwe) {
-      ArrayList<WordObj> matches = sentence.getGraph().getMweMatches(sentiment,
-              new ArrayList<String>(Arrays.asList(unit.collocations)), true);
-      for (WordObj match : matches) {
-        target.addFenode(new Fenode(sentence.getTree().getTerminal(match).getId()));
+    if (!collocations.isEmpty()) {
+      mweMatches.increment();
+      for (WordObj collocation : collocations) {
+        target.addFenode(new Fenode(sentence.getTree().getTerminal(collocation).getId()));
       }
     }
     // add extra Fenode for particle of a verb if existent
@@ -210,66 +517,44 @@ public abstract class ModuleBasics {
    * @param sentence The current sentence.
    * @param sentimentList List of subjective expressions in the current
    * sentence.
+   * @param entries The lexicon entries of the words of the sentence, to which
+   * placeholders for preset SEs without a lexicon entry are added.
    */
-  public void usePresetSELocations(SentenceObj sentence, ArrayList<WordObj> sentimentList) {
-    ArrayList<Sentence> salsaSentences = salsa.getBody().getSentences();
-
-    Sentence presetSentence = null;
-    Graph presetGraph = null;
-    ConstituencyTree presetTree = null;
-
-    // Find the current sentence in the salsa corpus
-    for (int i = 0; i < salsaSentences.size(); i++) {
-      presetSentence = salsaSentences.get(i);
-      presetGraph = presetSentence.getGraph();
-      presetTree = new ConstituencyTree(presetGraph);
-      if (sentence.getTree().toString().equals(presetTree.toString())) {
-        break;
-      }
+  protected void usePresetSELocations(SentenceObj sentence, ArrayList<WordObj> sentimentList,
+          LexiconEntries entries) {
+    Metrics.Timer timer = Metrics.get().start(Metrics.Stage.PRESET_ALIGNMENT);
+    try {
+      alignPresetSELocations(sentence, sentimentList, entries);
+    } finally {
+      timer.stop();
     }
+  }
 
-    // Collect the preset SEs
-    ArrayList<Frames> presetFrames = presetSentence.getSem().getFrames();
-
-    // First collect Ids of SE fenodes
-    ArrayList<String> fenodeIds = new ArrayList<>();
-    ArrayList<String> fenodeIdsMWE = new ArrayList<>();
-
-    for (Frames allPresetFrames : presetFrames) {
-      for (int i = 0; i < allPresetFrames.getFrames().size(); i++) {
-        Frame presetFrame = allPresetFrames.getFrames().get(i);
-        ArrayList<Fenode> fenodes = presetFrame.getTarget().getFenodes();
-        if (fenodes.size() == 2) {
-          for (Fenode fe : fenodes) {
-            fenodeIdsMWE.add(fe.getIdref().getId());
-          }
-        } else {
-          for (Fenode fe : fenodes) {
-            fenodeIds.add(fe.getIdref().getId());
-          }
-        }
-      }
+  private void alignPresetSELocations(SentenceObj sentence, ArrayList<WordObj> sentimentList,
+          LexiconEntries entries) {
+    // Find the current sentence in the salsa corpus
+    PresetIndex.Entry preset = salsa.getPresetIndex().get(sentence);
+    if (preset == null) {
+      String msg = "Sentence " + sentenceId(sentence) + " was not found in the preset SE file, no preset SEs are used: "
+              + sentence.sentence;
+      System.err.println(msg);
+      log.log(Level.WARNING, msg);
+      return;
     }
 
-    // Compare fenodeIds with terminal Ids of the tree terminals to get to the
-    // WordObjs.
-    int wordIndex = 0;
+    // The positions of the SE fenodes have been resolved by the index.
+    List<WordObj> words = new ArrayList<WordObj>(sentence.getWordList());
     ArrayList<WordObj> particles = new ArrayList<WordObj>();
 
-    for (Terminal terminal : presetTree.getTerminals()) {
-      wordIndex += 1;
-      String terminalId = terminal.getId().getId();
-      for (String fenodeId : fenodeIds) {
-        if (terminalId.equals(fenodeId)) {
-          WordObj wordObj = sentence.getWordList().get(wordIndex - 1);
-          // System.out.println("found preset SE: " + terminal.getWord());
-          // System.out.println("with wordIndex: " + wordIndex);
-          sentimentList.add(wordObj);
-          // System.out.println("added given SE: " + wordObj);
-          if (wordObj.getIsParticleVerb()) {
-            particles.add(wordObj.getParticle());
-          }
-        }
+    for (int position : preset.positions) {
+      if (position >= words.size()) {
+        alignmentFailed(sentence, preset, position, words.size());
+        continue;
+      }
+      WordObj wordObj = words.get(position);
+      sentimentList.add(wordObj);
+      if (wordObj.getIsParticleVerb()) {
+        particles.add(wordObj.getParticle());
       }
     }
     // In case of multi word expressions, things might be added twice.
@@ -277,52 +562,51 @@ public abstract class ModuleBasics {
     sentimentList.removeAll(particles);
 
     // **************************CASE Particle MWE******************************
-    // Compare fenodeIds with terminal Ids of the tree terminals to get to the
-    // WordObjs.
-    if (fenodeIdsMWE.size() == 2) {
-      wordIndex = 0;
-      int index = 0;
-      WordObj wordObjFirst = null;
-      WordObj wordObjSecond = null;
-
-      for (Terminal terminal : presetTree.getTerminals()) {
-        wordIndex += 1;
-        String terminalId = terminal.getId().getId();
-        for (String fenodeId : fenodeIdsMWE) {
-          if (terminalId.equals(fenodeId)) {
-            index++;
-            if (fenodeIdsMWE.size() == 2) {
-              if (index == 1) {
-                wordObjFirst = sentence.getWordList().get(wordIndex - 1);
-                wordObjFirst.setIsParticleVerb(true);
-              }
-              if (index == 2) {
-                wordObjSecond = sentence.getWordList().get(wordIndex - 1);
-                wordObjSecond.setIsParticleVerb(true);
-              }
-            }
-          }
-        }
-        if (wordObjFirst != null && wordObjSecond != null && !sentimentList.contains(wordObjFirst)) {
-          // System.out.println("added " + wordObjFirst + " with particle: " +
-          // wordObjSecond);
-          wordObjFirst.setParticle(wordObjSecond);
-          sentimentList.add(wordObjFirst);
-        }
+    WordObj wordObjFirst = null;
+    WordObj wordObjSecond = null;
+    if (preset.particleVerb >= 0) {
+      if (preset.particleVerb < words.size()) {
+        wordObjFirst = words.get(preset.particleVerb);
+        wordObjFirst.setIsParticleVerb(true);
+      } else {
+        alignmentFailed(sentence, preset, preset.particleVerb, words.size());
+      }
+    }
+    if (preset.particle >= 0) {
+      if (preset.particle < words.size()) {
+        wordObjSecond = words.get(preset.particle);
+        wordObjSecond.setIsParticleVerb(true);
+      } else {
+        alignmentFailed(sentence, preset, preset.particle, words.size());
       }
     }
+    if (wordObjFirst != null && wordObjSecond != null && !sentimentList.contains(wordObjFirst)) {
+      wordObjFirst.setParticle(wordObjSecond);
+      sentimentList.add(wordObjFirst);
+    }
 
     // Preset SEs might not have an entry as SentimentUnit in the SentimentLex,
     // with lemma, pos, value, etc.
-    // Create dummy entries in those cases
+    // Create dummy entries in those cases, for this sentence only: the
+    // lexicon is shared by all sentences that are analysed concurrently.
     for (WordObj sentiment : sentimentList) {
-      if (sentimentLex.getSentiment(sentiment.getLemma()) == null) {
-        // System.out.println("no entry for: " + sentiment.getLemma());
-        missingInGermanLex.add(sentiment.getLemma());
-        SentimentUnit newUnit = new SentimentUnit(sentiment.getLemma(), "UNKNOWN", "0.0", sentiment.getPos(),
-                Boolean.FALSE);
-        sentimentLex.addSentiment(newUnit);
+      if (entries.addPlaceholder(sentiment)) {
+        missingLexiconEntries.increment();
       }
     }
   }
+
+  /**
+   * Reports a preset SE whose terminal has no counterpart in the raw text.
+   */
+  private static void alignmentFailed(SentenceObj sentence, PresetIndex.Entry preset, int position, int words) {
+    String msg = "Preset SE of sentence " + preset.id + " refers to terminal " + (position + 1) + ", but sentence "
+            + sentenceId(sentence) + " has only " + words + " words; the SE is ignored.";
+    System.err.println(msg);
+    log.log(Level.WARNING, msg);
+  }
+
+  private static String sentenceId(SentenceObj sentence) {
+    return sentence.id == null ? "?" : sentence.id.getId();
+  }
 }
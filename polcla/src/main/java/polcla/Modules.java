@@ -0,0 +1,121 @@
+package polcla;
+
+import java.util.LinkedHashSet;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Creates the modules selected by a configuration, using the keys of
+ * config/config.properties. {@link Main}, {@link PolarityClassifier} and,
+ * through the latter, {@link PolarityServer} select and validate their modules
+ * here.
+ *
+ * Without WINDOW_BASELINE_MODULE and CLAUSE_BASELINE_MODULE, the
+ * {@link SubjectiveExpressionModule} is used. With COMPARE_MODULES, all three
+ * modules are used.
+ */
+final class Modules {
+
+  private Modules() {
+  }
+
+  /**
+   * Creates the modules of a configuration.
+   *
+   * @param config The configuration.
+   * @param salsa The corpus with the preset SE locations, or null if they are
+   * not used.
+   * @param sentimentLex The sentiment lexicon.
+   * @param shifterLex The shifter lexicon.
+   * @param intensifierLex The intensifier lexicon. Only given to the modules
+   * if USE_INTENSIFIERS is set.
+   * @return The modules, in the order in which their results are written.
+   * @throws IllegalArgumentException If the configuration selects both
+   * baseline modules, or the window baseline with an invalid window or
+   * direction.
+   */
+  static Set<Module> create(Properties config, SalsaAPIConnective salsa, SentimentLex sentimentLex,
+          ShifterLex shifterLex, IntensifierLex intensifierLex) {
+    validate(config);
+    boolean compareModules = Boolean.valueOf(config.getProperty("COMPARE_MODULES"));
+    boolean windowBaseline = compareModules || Boolean.valueOf(config.getProperty("WINDOW_BASELINE_MODULE"));
+    boolean clauseBaseline = compareModules || Boolean.valueOf(config.getProperty("CLAUSE_BASELINE_MODULE"));
+    boolean posLookupSentiment = Boolean.valueOf(config.getProperty("POS_LOOKUP_SENTIMENT"));
+    boolean posLookupShifter = Boolean.valueOf(config.getProperty("POS_LOOKUP_SHIFTER"));
+    boolean shifterOrientationCheck = Boolean.valueOf(config.getProperty("SHIFTER_ORIENTATION_CHECK"));
+
+    Set<Module> modules = new LinkedHashSet<Module>();
+    if (compareModules || (!windowBaseline && !clauseBaseline)) {
+      if (salsa != null) {
+        modules.add(new SubjectiveExpressionModule(salsa, sentimentLex, shifterLex, posLookupSentiment,
+                posLookupShifter, shifterOrientationCheck));
+      } else {
+        modules.add(new SubjectiveExpressionModule(sentimentLex, shifterLex, posLookupSentiment, posLookupShifter,
+                shifterOrientationCheck));
+      }
+    }
+    if (windowBaseline) {
+      int window = window(config);
+      String direction = config.getProperty("BASELINE_DIRECTION", "");
+      if (salsa != null) {
+        modules.add(new WindowBaseline(salsa, sentimentLex, shifterLex, window, direction, posLookupSentiment,
+                posLookupShifter, shifterOrientationCheck));
+      } else {
+        modules.add(new WindowBaseline(sentimentLex, shifterLex, window, direction, posLookupSentiment,
+                posLookupShifter, shifterOrientationCheck));
+      }
+    }
+    if (clauseBaseline) {
+      if (salsa != null) {
+        modules.add(new ClauseBaseline(salsa, sentimentLex, shifterLex, posLookupSentiment, posLookupShifter,
+                shifterOrientationCheck));
+      } else {
+        modules.add(new ClauseBaseline(sentimentLex, shifterLex, posLookupSentiment, posLookupShifter,
+                shifterOrientationCheck));
+      }
+    }
+
+    if (Boolean.valueOf(config.getProperty("USE_INTENSIFIERS"))) {
+      for (Module module : modules) {
+        module.setIntensifierLex(intensifierLex);
+      }
+    }
+    return modules;
+  }
+
+  /**
+   * Checks the module options of a configuration without creating the
+   * modules, so that an invalid configuration is reported before the inputs
+   * are read.
+   *
+   * @param config The configuration.
+   * @throws IllegalArgumentException If the configuration selects both
+   * baseline modules, or the window baseline with an invalid window or
+   * direction.
+   */
+  static void validate(Properties config) {
+    boolean compareModules = Boolean.valueOf(config.getProperty("COMPARE_MODULES"));
+    boolean windowBaseline = compareModules || Boolean.valueOf(config.getProperty("WINDOW_BASELINE_MODULE"));
+    boolean clauseBaseline = compareModules || Boolean.valueOf(config.getProperty("CLAUSE_BASELINE_MODULE"));
+    if (windowBaseline && clauseBaseline && !compareModules) {
+      throw new IllegalArgumentException(
+              "Both baseline modules are set to TRUE at the same time. Please turn one module off.");
+    }
+    if (windowBaseline) {
+      int window = window(config);
+      String direction = config.getProperty("BASELINE_DIRECTION", "");
+      if (window < 1) {
+        throw new IllegalArgumentException("n must be bigger than 0 for the baseline module to work! "
+                + "Entered number: n=" + window);
+      }
+      if (!(direction.equals("RIGHT") || direction.equals("LEFT") || direction.equals("BOTH"))) {
+        throw new IllegalArgumentException("Baseline direction must either be \"LEFT\", \"RIGHT\", or \"BOTH\". "
+                + "Given direction: " + direction);
+      }
+    }
+  }
+
+  private static int window(Properties config) {
+    return Integer.valueOf(config.getProperty("BASELINE_WINDOW", "0").trim());
+  }
+}
@@ -0,0 +1,302 @@
+package polcla;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled form of the multi word expressions (MWEs) of a lexicon.
+ *
+ * Every MWE is stored as a path that starts with its last word (the word under
+ * which the lexicon lists it, e.g. "Star" for "grauer_Star") followed by its
+ * collocations. Paths with the same prefix share their nodes. Words that may be
+ * interpreted flexibly ("sich", "seinen", "den", ...) are compiled into a slot
+ * that accepts the whole alternative class, instead of one copy of the MWE per
+ * alternative.
+ *
+ * {@link #match(DependencyGraph)} reports every MWE of the trie that is found
+ * in a sentence. An MWE is found if its words form a connected subgraph
+ * (catena) of the dependency graph, where words merged into a node by
+ * normalization count as neighbours of that node.
+ *
+ * @param <T> The lexicon unit type, e.g. {@link SentimentUnit}.
+ */
+class MweTrie<T> {
+
+  /**
+   * Alternative classes for flexible MWE interpretation. 1) Reflexive pronouns:
+   * sich --> sich, mich, dich, ihn, ... etc 2) Possessive pronouns: seinen -->
+   * seinen, meine, deine, ... etc 3) Ein(en)/Kein(en): ein(en) --> ein(en),
+   * kein(en) 4) Sein/Werden: sein --> sein, werden 5) Other: den --> den,
+   * einen, dem
+   */
+  private static final Map<String, List<String>> FLEXIBLE_SLOTS = new HashMap<String, List<String>>();
+
+  static {
+    FLEXIBLE_SLOTS.put("sich", Arrays.asList("sich", "mich", "Mich", "dich", "Dich", "ihn", "Ihn", "es", "Es",
+            "euch", "Euch", "Sie"));
+    FLEXIBLE_SLOTS.put("seinen", Arrays.asList("seinen", "meine", "Meine", "deine", "Deine", "ihre", "eure", "Ihre",
+            "unsere", "Unsere"));
+    FLEXIBLE_SLOTS.put("seinem", Arrays.asList("seinem", "meine", "Meine", "deine", "Deine", "ihre", "eure", "Ihre",
+            "unsere", "Unsere"));
+    FLEXIBLE_SLOTS.put("den", Arrays.asList("den", "einen", "dem"));
+    FLEXIBLE_SLOTS.put("ein", Arrays.asList("ein", "kein"));
+    FLEXIBLE_SLOTS.put("einen", Arrays.asList("einen", "keinen"));
+    FLEXIBLE_SLOTS.put("sein", Arrays.asList("sein", "werden"));
+  }
+
+  /**
+   * A node of the trie. The slot lists the word forms accepted at this
+   * position, units the MWEs that end here.
+   */
+  private static class Node<T> {
+
+    private final List<String> slot;
+    private final Map<String, Node<T>> children = new LinkedHashMap<String, Node<T>>();
+    private List<T> units;
+
+    Node(List<String> slot) {
+      this.slot = slot;
+    }
+
+    boolean accepts(WordObj word) {
+      return (word.getLemma() != null && slot.contains(word.getLemma()))
+              || (word.getName() != null && slot.contains(word.getName()));
+    }
+  }
+
+  /**
+   * An MWE found in a sentence.
+   *
+   * @param <T> The lexicon unit type.
+   */
+  static class Hit<T> {
+
+    private final List<WordObj> words;
+    private final List<T> units;
+
+    Hit(List<WordObj> words, List<T> units) {
+      this.words = words;
+      this.units = units;
+    }
+
+    /**
+     * @return The word that evoked the MWE (its last word in the lexicon).
+     */
+    WordObj getHead() {
+      return words.get(0);
+    }
+
+    /**
+     * @return The matched words, head first, then one word per collocation in
+     * lexicon order.
+     */
+    List<WordObj> getWords() {
+      return words;
+    }
+
+    /**
+     * @return The lexicon entries of the MWE.
+     */
+    List<T> getUnits() {
+      return units;
+    }
+  }
+
+  private final Map<String, Node<T>> heads = new HashMap<String, Node<T>>();
+  private final Map<String, List<String>> slots = new HashMap<String, List<String>>();
+  private final boolean flexible;
+  private int size = 0;
+
+  /**
+   * @param flexible If true, words with alternative classes (see
+   * {@link #FLEXIBLE_SLOTS}) match every member of their class.
+   */
+  MweTrie(boolean flexible) {
+    this.flexible = flexible;
+  }
+
+  /**
+   * Returns the (shared) slot for a word of an MWE.
+   */
+  private List<String> slot(String word) {
+    List<String> slot = slots.get(word);
+    if (slot == null) {
+      if (flexible && FLEXIBLE_SLOTS.containsKey(word)) {
+        slot = FLEXIBLE_SLOTS.get(word);
+      } else {
+        slot = Collections.singletonList(word);
+      }
+      slots.put(word, slot);
+    }
+    return slot;
+  }
+
+  /**
+   * Compiles an MWE into the trie.
+   *
+   * @param name The last word of the MWE.
+   * @param collocations The preceding words of the MWE.
+   * @param unit The lexicon entry of the MWE.
+   */
+  void add(String name, String[] collocations, T unit) {
+    List<String> headSlot = slot(name);
+    for (String head : headSlot) {
+      Node<T> node = heads.get(head);
+      if (node == null) {
+        node = new Node<T>(headSlot);
+        heads.put(head, node);
+      }
+      insert(node, collocations, unit);
+    }
+    size++;
+  }
+
+  private void insert(Node<T> node, String[] collocations, T unit) {
+    for (String collocation : collocations) {
+      Node<T> child = node.children.get(collocation);
+      if (child == null) {
+        child = new Node<T>(slot(collocation));
+        node.children.put(collocation, child);
+      }
+      node = child;
+    }
+    if (node.units == null) {
+      node.units = new ArrayList<T>(1);
+    }
+    if (!node.units.contains(unit)) {
+      node.units.add(unit);
+    }
+  }
+
+  /**
+   * Removes a previously added MWE.
+   *
+   * @param name The last word of the MWE.
+   * @param collocations The preceding words of the MWE.
+   * @param unit The lexicon entry of the MWE.
+   */
+  void remove(String name, String[] collocations, T unit) {
+    boolean removed = false;
+    for (String head : slot(name)) {
+      Node<T> node = heads.get(head);
+      for (int i = 0; node != null && i < collocations.length; i++) {
+        node = node.children.get(collocations[i]);
+      }
+      if (node != null && node.units != null) {
+        removed |= node.units.remove(unit);
+      }
+    }
+    if (removed) {
+      size--;
+    }
+  }
+
+  /**
+   * @return The number of MWEs in the trie.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Finds all MWEs of the trie in a sentence.
+   *
+   * @param graph The dependency graph of the sentence.
+   * @return All hits, ordered by the position of their head word.
+   */
+  List<Hit<T>> match(DependencyGraph graph) {
+    List<Hit<T>> hits = new ArrayList<Hit<T>>();
+    if (heads.isEmpty()) {
+      return hits;
+    }
+    Map<WordObj, List<WordObj>> neighbours = null;
+    for (WordObj word : graph.getWordList()) {
+      Node<T> byLemma = word.getLemma() == null ? null : heads.get(word.getLemma());
+      Node<T> byName = word.getName() == null ? null : heads.get(word.getName());
+      if (byLemma == null && byName == null) {
+        continue;
+      }
+      if (neighbours == null) {
+        neighbours = neighbours(graph);
+      }
+      // The head is looked up like the collocations are accepted, by lemma or
+      // word form. Both may lead to the same node.
+      List<WordObj> matched = new ArrayList<WordObj>();
+      matched.add(word);
+      if (byLemma != null) {
+        extend(byLemma, matched, neighbours, hits);
+      }
+      if (byName != null && byName != byLemma) {
+        extend(byName, matched, neighbours, hits);
+      }
+    }
+    return hits;
+  }
+
+  /**
+   * Depth first walk over the trie. Each step matches the next collocation
+   * with a word adjacent to any of the words matched so far.
+   */
+  private void extend(Node<T> node, List<WordObj> matched, Map<WordObj, List<WordObj>> neighbours,
+          List<Hit<T>> hits) {
+    if (node.units != null && !node.units.isEmpty()) {
+      hits.add(new Hit<T>(new ArrayList<WordObj>(matched), Collections.unmodifiableList(node.units)));
+    }
+    for (Node<T> child : node.children.values()) {
+      List<WordObj> tried = new ArrayList<WordObj>();
+      for (int i = 0; i < matched.size(); i++) {
+        List<WordObj> adjacent = neighbours.get(matched.get(i));
+        if (adjacent == null) {
+          continue;
+        }
+        for (WordObj candidate : adjacent) {
+          if (!matched.contains(candidate) && !tried.contains(candidate) && child.accepts(candidate)) {
+            tried.add(candidate);
+            matched.add(candidate);
+            extend(child, matched, neighbours, hits);
+            matched.remove(matched.size() - 1);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Builds the undirected adjacency of a dependency graph. Words merged into a
+   * node by normalization are adjacent to that node and share its neighbours.
+   */
+  private static Map<WordObj, List<WordObj>> neighbours(DependencyGraph graph) {
+    Map<WordObj, List<WordObj>> neighbours = new HashMap<WordObj, List<WordObj>>();
+    for (Edge edge : graph.getEdges()) {
+      link(neighbours, edge.source, edge.target);
+      link(neighbours, edge.target, edge.source);
+    }
+    for (WordObj node : graph.getNodes()) {
+      for (WordObj deleted : node.getDeleted()) {
+        List<WordObj> shared = neighbours.get(node);
+        if (shared != null) {
+          for (WordObj other : shared) {
+            link(neighbours, deleted, other);
+          }
+        }
+        link(neighbours, node, deleted);
+        link(neighbours, deleted, node);
+      }
+    }
+    return neighbours;
+  }
+
+  private static void link(Map<WordObj, List<WordObj>> neighbours, WordObj from, WordObj to) {
+    List<WordObj> list = neighbours.get(from);
+    if (list == null) {
+      list = new ArrayList<WordObj>();
+      neighbours.put(from, list);
+    }
+    list.add(to);
+  }
+}
@@ -0,0 +1,226 @@
+package polcla;
+
+import salsa.corpora.elements.Graph;
+import salsa.corpora.elements.Semantics;
+import salsa.corpora.elements.Sentence;
+import salsa.corpora.noelement.Id;
+import salsa.corpora.xmlparser.CorpusReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Classifies sentences that are given in memory instead of as files. A
+ * PolarityClassifier holds the lexicons and the configured modules, so they
+ * are read once and can be used for any number of sentences.
+ *
+ * Each sentence is given as its raw text (or tokens), the rows of its ParZu
+ * dependency parse and the {@link Graph} of its Salsa / Tiger XML parse. The
+ * result is the {@link Semantics} that {@link SentimentChecker} would add to
+ * the sentence.
+ *
+ * A PolarityClassifier may be used by several threads at the same time. The
+ * modules keep no state between sentences, see {@link SentimentChecker}.
+ * Preset SE locations are not supported, they need a corpus.
+ */
+public class PolarityClassifier {
+
+  private final static Logger log = Logger.getLogger(PolarityClassifier.class.getName());
+  private final SentimentLex sentimentLex;
+  private final ShifterLex shifterLex;
+  private final IntensifierLex intensifierLex;
+  private final Set<Module> modules;
+  private final boolean normalize;
+
+  /**
+   * Reads the lexicons and creates the modules as configured, using the same
+   * keys as config/config.properties, see {@link Modules}. The input, output
+   * and preset SE options are ignored. COMPARE_MODULES is not supported, a
+   * PolarityClassifier returns the result of one module.
+   *
+   * @param config The configuration.
+   * @throws IllegalArgumentException If the configuration is invalid.
+   */
+  public PolarityClassifier(Properties config) {
+    boolean includeNeutral = Boolean.valueOf(config.getProperty("INCLUDE_NEUTRAL_EXPRESSIONS"));
+
+    if (Boolean.valueOf(config.getProperty("COMPARE_MODULES"))) {
+      throw new IllegalArgumentException("COMPARE_MODULES is not supported by the PolarityClassifier.");
+    }
+    Modules.validate(config);
+    Trace.configure(config.getProperty("TRACE_SENTENCES", ""));
+    if (Boolean.valueOf(config.getProperty("USE_PRESET_SE_INPUT"))) {
+      log.warning("USE_PRESET_SE_INPUT is ignored by the PolarityClassifier.");
+    }
+
+    this.sentimentLex = new SentimentLex(true, includeNeutral);
+    this.shifterLex = new ShifterLex(true);
+    this.intensifierLex = new IntensifierLex(true);
+    Main.loadLexicons(config.getProperty("LEXICON_SNAPSHOT", "").trim(), sentimentLex,
+            config.getProperty("SENTIMENT_LEXICON_INPUT"), shifterLex, config.getProperty("SHIFTER_LEXICON_INPUT"),
+            intensifierLex, config.getProperty("INTENSIFIER_LEXICON_INPUT", ""), includeNeutral);
+
+    this.modules = Collections.unmodifiableSet(Modules.create(config, null, sentimentLex, shifterLex, intensifierLex));
+    this.normalize = Boolean.valueOf(config.getProperty("NORMALIZE"));
+  }
+
+  /**
+   * Uses lexicons and modules that have been created by the caller.
+   *
+   * @param sentimentLex The sentiment lexicon of the modules.
+   * @param shifterLex The shifter lexicon of the modules.
+   * @param intensifierLex The intensifier lexicon of the modules.
+   * @param modules The modules that will be used to find sentiment
+   * expressions. They must not keep state between sentences.
+   * @param normalize If true, the dependency graphs are normalized.
+   */
+  public PolarityClassifier(SentimentLex sentimentLex, ShifterLex shifterLex, IntensifierLex intensifierLex,
+          Collection<Module> modules, boolean normalize) {
+    this.sentimentLex = sentimentLex;
+    this.shifterLex = shifterLex;
+    this.intensifierLex = intensifierLex;
+    this.modules = Collections.unmodifiableSet(new LinkedHashSet<Module>(modules));
+    this.normalize = normalize;
+  }
+
+  /**
+   * Classifies a sentence.
+   *
+   * @param id The id of the sentence. Frame ids are derived from it.
+   * @param tokens The words of the sentence.
+   * @param conllRows The rows of the dependency parse, one per word.
+   * @param graph The constituency parse of the sentence.
+   * @return The frames and sentence polarities that the modules have found.
+   * @throws IllegalArgumentException If the parses do not match the words.
+   */
+  public Semantics classify(String id, List<String> tokens, List<String> conllRows, Graph graph) {
+    StringBuilder text = new StringBuilder();
+    for (String token : tokens) {
+      if (text.length() > 0) {
+        text.append(' ');
+      }
+      text.append(token);
+    }
+    StringBuilder conll = new StringBuilder();
+    for (String row : conllRows) {
+      conll.append(row).append('\n');
+    }
+    return classify(id, text.toString(), conll.toString(), graph);
+  }
+
+  /**
+   * Classifies a sentence.
+   *
+   * @param id The id of the sentence. Frame ids are derived from it.
+   * @param text The raw text of the sentence, the words separated by spaces.
+   * @param conll The dependency parse of the sentence, one row per word.
+   * @param graph The constituency parse of the sentence.
+   * @return The frames and sentence polarities that the modules have found.
+   * @throws IllegalArgumentException If the parses do not match the words.
+   */
+  public Semantics classify(String id, String text, String conll, Graph graph) {
+    SentenceObj sentence = new SentenceObj(text);
+    sentence.id = new Id(id);
+    int words = sentence.getWordList().size();
+
+    int rows = 0;
+    for (String row : conll.split("\n")) {
+      if (row.isEmpty()) {
+        break;
+      }
+      rows++;
+    }
+    if (rows != words) {
+      throw new IllegalArgumentException("Sentence " + id + " has " + words + " words but " + rows
+              + " dependency rows.");
+    }
+    Scanner scanner = new Scanner(conll);
+    scanner.useLocale(Locale.GERMANY);
+    try {
+      SentenceList.readDependencyParse(scanner, sentence);
+    } catch (IndexOutOfBoundsException e) {
+      // a missing column or a head outside of the sentence
+      throw new IllegalArgumentException("Sentence " + id + " has an invalid dependency row: " + e.getMessage(), e);
+    }
+    if (normalize) {
+      SentenceList.normalizeDependencyGraph(sentence);
+    }
+
+    ConstituencyTree tree = new ConstituencyTree(graph);
+    if (tree.getTerminals().size() != words) {
+      throw new IllegalArgumentException("Sentence " + id + " has " + words + " words but "
+              + tree.getTerminals().size() + " terminals.");
+    }
+    sentence.setTree(tree);
+    return classify(sentence);
+  }
+
+  /**
+   * Classifies a sentence whose dependency graph and constituency tree have
+   * been set.
+   *
+   * @param sentence The sentence.
+   * @return The frames and sentence polarities that the modules have found.
+   */
+  public Semantics classify(SentenceObj sentence) {
+    return SentimentChecker.findSentiment(modules, sentence);
+  }
+
+  /**
+   * Reads the sentence graphs of a Salsa / Tiger XML document, e.g. to pass
+   * them to {@link #classify(String, String, String, Graph)}.
+   *
+   * @param xml The XML document. It is closed when it has been read.
+   * @return The graphs in document order.
+   * @throws IOException If the document could not be read.
+   * @throws XMLStreamException If the document could not be parsed.
+   */
+  public static List<Graph> readGraphs(InputStream xml) throws IOException, XMLStreamException {
+    List<Graph> graphs = new ArrayList<Graph>();
+    try (CorpusReader reader = new CorpusReader(xml)) {
+      Sentence sentence;
+      while ((sentence = reader.next()) != null) {
+        graphs.add(sentence.getGraph());
+      }
+    }
+    return graphs;
+  }
+
+  public SentimentLex getSentimentLex() {
+    return sentimentLex;
+  }
+
+  public ShifterLex getShifterLex() {
+    return shifterLex;
+  }
+
+  public IntensifierLex getIntensifierLex() {
+    return intensifierLex;
+  }
+
+  /**
+   * @return The modules, in the order in which they are called.
+   */
+  public Set<Module> getModules() {
+    return modules;
+  }
+
+  /**
+   * Logs the statistics of the modules.
+   */
+  public void logStatistics() {
+    SentimentChecker.logStatistics(modules);
+  }
+}
@@ -0,0 +1,484 @@
+package polcla;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import salsa.corpora.elements.Corpus;
+import salsa.corpora.elements.Fenode;
+import salsa.corpora.elements.Flag;
+import salsa.corpora.elements.Frame;
+import salsa.corpora.elements.FrameElement;
+import salsa.corpora.elements.Frames;
+import salsa.corpora.elements.Global;
+import salsa.corpora.elements.Globals;
+import salsa.corpora.elements.Semantics;
+import salsa.corpora.elements.Sentence;
+import salsa.corpora.xmlparser.CorpusReader;
+import salsa.corpora.xmlwriter.CorpusWriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Server mode: classifies preprocessed sentences sent to a local HTTP port,
+ * with the lexicons read once and the worker threads kept running.
+ *
+ * A request is a POST to /classify. Its body holds the dependency parse of
+ * the sentences (ParZu format, sentences separated by empty lines), followed
+ * by the Salsa / Tiger XML document with the constituency parses. The raw
+ * text is taken from the word forms of the dependency parse. The response is
+ * the XML document with the sentiment information, as written by
+ * {@link SentimentChecker}, or JSON with ?format=json. GET /health reports
+ * the number of queued sentences, GET /counters the {@link Counters} of the
+ * modules as JSON.
+ *
+ * The sentences of all requests are put into one bounded queue. Worker
+ * threads take up to SERVER_BATCH_SIZE sentences from the queue at a time. If
+ * the queue is full or SERVER_MAX_REQUESTS requests are already being
+ * answered, a request is rejected with 503, so that clients back off instead
+ * of piling up. A body larger than SERVER_MAX_BODY bytes is rejected with 413.
+ * The XML document is parsed without DTDs and external entities.
+ *
+ * Input that cannot be analysed is answered with 400, a failure of the
+ * analysis with 500; the sentences of the request that are still queued are
+ * then not analysed.
+ */
+public class PolarityServer {
+
+  private final static Logger log = Logger.getLogger(PolarityServer.class.getName());
+  private final PolarityClassifier classifier;
+  private final BlockingQueue<FutureTask<Semantics>> queue;
+  private final int batchSize;
+  private final Semaphore requests;
+  private final int maxBodySize;
+  private final List<Thread> workers = new ArrayList<Thread>();
+  private final HttpServer server;
+
+  /**
+   * Creates a server that listens on the loopback interface.
+   *
+   * @param classifier The classifier used for all requests.
+   * @param port The port.
+   * @param threads The number of worker threads. 0 or less uses one thread per
+   * available processor.
+   * @param batchSize The maximum number of sentences a worker takes from the
+   * queue at a time.
+   * @param queueSize The maximum number of queued sentences.
+   * @param maxRequests The maximum number of requests answered at the same
+   * time.
+   * @param maxBodySize The maximum size of a request body in bytes.
+   * @throws IOException If the port could not be bound.
+   */
+  public PolarityServer(PolarityClassifier classifier, int port, int threads, int batchSize, int queueSize,
+          int maxRequests, int maxBodySize) throws IOException {
+    this.classifier = classifier;
+    this.queue = new ArrayBlockingQueue<FutureTask<Semantics>>(queueSize);
+    this.batchSize = Math.max(1, batchSize);
+    this.requests = new Semaphore(maxRequests);
+    this.maxBodySize = maxBodySize;
+
+    int workerCount = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    for (int i = 0; i < workerCount; i++) {
+      Thread worker = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          work();
+        }
+      }, "polcla-worker-" + (i + 1));
+      worker.setDaemon(true);
+      workers.add(worker);
+    }
+
+    this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    server.createContext("/classify", new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        handleClassify(exchange);
+      }
+    });
+    server.createContext("/health", new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        respond(exchange, 200, "text/plain", "OK " + queue.size() + " queued\n");
+      }
+    });
+    server.createContext("/counters", new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        respond(exchange, 200, "application/json", Counters.toJson(classifier.getModules()));
+      }
+    });
+    // One thread per request that may be answered, the others wait for the
+    // rejection.
+    server.setExecutor(Executors.newFixedThreadPool(maxRequests + 1));
+  }
+
+  /**
+   * Creates a server as configured by the SERVER_* keys of the configuration
+   * and the classifier options, see {@link PolarityClassifier}.
+   *
+   * @param config The configuration.
+   * @return The server, not yet started.
+   * @throws IOException If the port could not be bound.
+   */
+  public static PolarityServer create(Properties config) throws IOException {
+    PolarityClassifier classifier = new PolarityClassifier(config);
+    return new PolarityServer(classifier, intProperty(config, "SERVER_PORT", 8765),
+            intProperty(config, "SERVER_THREADS", 0), intProperty(config, "SERVER_BATCH_SIZE", 16),
+            intProperty(config, "SERVER_QUEUE", 4096), intProperty(config, "SERVER_MAX_REQUESTS", 16),
+            intProperty(config, "SERVER_MAX_BODY", 16 * 1024 * 1024));
+  }
+
+  private static int intProperty(Properties config, String key, int defaultValue) {
+    String value = config.getProperty(key, "").trim();
+    return value.isEmpty() ? defaultValue : Integer.valueOf(value);
+  }
+
+  /**
+   * Starts the worker threads and the HTTP server.
+   */
+  public void start() {
+    for (Thread worker : workers) {
+      worker.start();
+    }
+    server.start();
+    String msg = "Listening on " + server.getAddress() + " with " + workers.size() + " worker threads.";
+    System.out.println(msg);
+    log.info(msg);
+  }
+
+  /**
+   * Stops the HTTP server and the worker threads. Queued sentences are not
+   * analysed.
+   */
+  public void stop() {
+    server.stop(0);
+    for (Thread worker : workers) {
+      worker.interrupt();
+    }
+  }
+
+  /**
+   * Takes micro-batches of sentences from the queue and analyses them.
+   */
+  private void work() {
+    List<FutureTask<Semantics>> batch = new ArrayList<FutureTask<Semantics>>(batchSize);
+    try {
+      while (true) {
+        batch.add(queue.take());
+        queue.drainTo(batch, batchSize - 1);
+        for (FutureTask<Semantics> task : batch) {
+          task.run();
+        }
+        batch.clear();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void handleClassify(HttpExchange exchange) throws IOException {
+    try {
+      if (!"POST".equals(exchange.getRequestMethod())) {
+        respond(exchange, 405, "text/plain", "Use POST.\n");
+        return;
+      }
+      if (!requests.tryAcquire()) {
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        respond(exchange, 503, "text/plain", "Too many requests.\n");
+        return;
+      }
+      try {
+        classify(exchange);
+      } finally {
+        requests.release();
+      }
+    } catch (RuntimeException e) {
+      log.log(Level.SEVERE, "Request failed.", e);
+      respond(exchange, 500, "text/plain", "Request failed: " + e + "\n");
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private void classify(HttpExchange exchange) throws IOException {
+    String length = exchange.getRequestHeaders().getFirst("Content-Length");
+    if (length != null && length.matches("\\d+")
+            && (length.length() > 18 || Long.parseLong(length) > maxBodySize)) {
+      respond(exchange, 413, "text/plain", "The request body is larger than " + maxBodySize + " bytes.\n");
+      return;
+    }
+    byte[] body = readAll(exchange.getRequestBody(), maxBodySize);
+    if (body == null) {
+      respond(exchange, 413, "text/plain", "The request body is larger than " + maxBodySize + " bytes.\n");
+      return;
+    }
+    int xmlStart = indexOf(body, "<?xml".getBytes("UTF-8"));
+    if (xmlStart < 0) {
+      xmlStart = indexOf(body, "<corpus".getBytes("UTF-8"));
+    }
+    if (xmlStart < 0) {
+      respond(exchange, 400, "text/plain", "No Salsa / Tiger XML document found.\n");
+      return;
+    }
+    List<List<String>> parses = splitParses(new String(body, 0, xmlStart, "UTF-8"));
+
+    Corpus corpus;
+    final List<Sentence> sentences = new ArrayList<Sentence>();
+    try (CorpusReader reader = new CorpusReader(new ByteArrayInputStream(body, xmlStart, body.length - xmlStart),
+            newXMLInputFactory())) {
+      corpus = reader.getCorpus();
+      Sentence sentence;
+      while ((sentence = reader.next()) != null) {
+        sentences.add(sentence);
+      }
+    } catch (XMLStreamException e) {
+      respond(exchange, 400, "text/plain", "Could not parse the XML document: " + e.getMessage() + "\n");
+      return;
+    }
+    if (corpus == null || corpus.getBody() == null) {
+      respond(exchange, 400, "text/plain", "The XML document has no corpus body.\n");
+      return;
+    }
+    if (parses.size() != sentences.size()) {
+      respond(exchange, 400, "text/plain", "The dependency parse has " + parses.size()
+              + " sentences, the XML document has " + sentences.size() + ".\n");
+      return;
+    }
+
+    // Queue the sentences, the ids are numbered as by SentimentChecker.
+    List<FutureTask<Semantics>> tasks = new ArrayList<FutureTask<Semantics>>(sentences.size());
+    for (int i = 0; i < sentences.size(); i++) {
+      final String id = String.valueOf(i + 1);
+      final List<String> rows = parses.get(i);
+      final Sentence sentence = sentences.get(i);
+      FutureTask<Semantics> task = new FutureTask<Semantics>(new Callable<Semantics>() {
+        @Override
+        public Semantics call() {
+          List<String> tokens = new ArrayList<String>(rows.size());
+          for (String row : rows) {
+            String[] columns = row.split("\t");
+            tokens.add(columns.length > 1 ? columns[1] : "");
+          }
+          return classifier.classify(id, tokens, rows, sentence.getGraph());
+        }
+      });
+      if (!queue.offer(task)) {
+        cancel(tasks);
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        respond(exchange, 503, "text/plain", "The queue is full.\n");
+        return;
+      }
+      tasks.add(task);
+    }
+
+    for (int i = 0; i < tasks.size(); i++) {
+      try {
+        sentences.get(i).setSem(tasks.get(i).get());
+      } catch (ExecutionException e) {
+        cancel(tasks);
+        if (e.getCause() instanceof IllegalArgumentException) {
+          respond(exchange, 400, "text/plain", "Sentence " + (i + 1) + ": " + e.getCause().getMessage() + "\n");
+        } else {
+          log.log(Level.SEVERE, "Sentence " + (i + 1) + " failed.", e.getCause());
+          respond(exchange, 500, "text/plain", "Sentence " + (i + 1) + " failed: " + e.getCause() + "\n");
+        }
+        return;
+      } catch (InterruptedException e) {
+        cancel(tasks);
+        Thread.currentThread().interrupt();
+        respond(exchange, 503, "text/plain", "Interrupted.\n");
+        return;
+      }
+    }
+
+    String query = exchange.getRequestURI().getQuery();
+    if (query != null && Arrays.asList(query.split("&")).contains("format=json")) {
+      respond(exchange, 200, "application/json; charset=UTF-8", toJson(sentences));
+    } else {
+      for (Sentence sentence : sentences) {
+        corpus.getBody().addSentence(sentence);
+      }
+      if (corpus.getHead() != null) {
+        SentimentChecker.annotateHead(corpus.getHead(), classifier.getModules());
+      }
+      exchange.getResponseHeaders().set("Content-Type", "application/xml; charset=UTF-8");
+      exchange.sendResponseHeaders(200, 0);
+      CorpusWriter writer = new CorpusWriter(exchange.getResponseBody(), false);
+      writer.writeCorpus(corpus);
+      writer.close();
+    }
+  }
+
+  /**
+   * Cancels the sentences of a request that are not analysed yet. Running
+   * sentences are not interrupted, which would stop their worker thread.
+   */
+  private static void cancel(List<FutureTask<Semantics>> tasks) {
+    for (FutureTask<Semantics> task : tasks) {
+      task.cancel(false);
+    }
+  }
+
+  /**
+   * @return A factory for parsers of request bodies, which do not read DTDs
+   * and external entities.
+   */
+  private static XMLInputFactory newXMLInputFactory() {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+    return factory;
+  }
+
+  /**
+   * Splits a dependency parse into the rows of its sentences.
+   */
+  private static List<List<String>> splitParses(String text) {
+    List<List<String>> parses = new ArrayList<List<String>>();
+    List<String> rows = new ArrayList<String>();
+    for (String line : text.split("\r?\n")) {
+      if (line.trim().isEmpty()) {
+        if (!rows.isEmpty()) {
+          parses.add(rows);
+          rows = new ArrayList<String>();
+        }
+      } else {
+        rows.add(line);
+      }
+    }
+    if (!rows.isEmpty()) {
+      parses.add(rows);
+    }
+    return parses;
+  }
+
+  /**
+   * Writes the sentence polarities and frames of the sentences as JSON.
+   */
+  static String toJson(List<Sentence> sentences) {
+    StringBuilder out = new StringBuilder("[");
+    for (int i = 0; i < sentences.size(); i++) {
+      Sentence sentence = sentences.get(i);
+      Semantics sem = sentence.getSem();
+      out.append(i == 0 ? "\n" : ",\n").append("{\"id\":");
+      Json.quote(out, sentence.getId() == null ? null : sentence.getId().getId());
+      out.append(",\"polarity\":");
+      String polarity = null;
+      for (Globals globals : sem.getGlobals()) {
+        for (Global global : globals.getGlobals()) {
+          polarity = global.getParam();
+        }
+      }
+      // The polarity is formatted in the default locale, keep it as a string.
+      Json.quote(out, polarity);
+      out.append(",\"frames\":[");
+      boolean first = true;
+      for (Frames frames : sem.getFrames()) {
+        for (Frame frame : frames.getFrames()) {
+          out.append(first ? "" : ",");
+          first = false;
+          out.append("{\"id\":");
+          Json.quote(out, frame.getId().getId());
+          out.append(",\"name\":");
+          Json.quote(out, frame.getName());
+          out.append(",\"target\":");
+          appendFenodes(out, frame.getTarget().getFenodes());
+          out.append(",\"flags\":");
+          appendFlags(out, frame.getFlags());
+          out.append(",\"elements\":[");
+          for (int j = 0; j < frame.getFes().size(); j++) {
+            FrameElement fe = frame.getFes().get(j);
+            out.append(j == 0 ? "" : ",").append("{\"name\":");
+            Json.quote(out, fe.getName());
+            out.append(",\"fenodes\":");
+            appendFenodes(out, fe.getFenodes());
+            out.append(",\"flags\":");
+            appendFlags(out, fe.getFlags());
+            out.append('}');
+          }
+          out.append("]}");
+        }
+      }
+      out.append("]}");
+    }
+    return out.append("\n]\n").toString();
+  }
+
+  private static void appendFenodes(StringBuilder out, List<Fenode> fenodes) {
+    out.append('[');
+    for (int i = 0; i < fenodes.size(); i++) {
+      Json.quote(out.append(i == 0 ? "" : ","), fenodes.get(i).getIdref().getId());
+    }
+    out.append(']');
+  }
+
+  private static void appendFlags(StringBuilder out, List<Flag> flags) {
+    out.append('[');
+    for (int i = 0; i < flags.size(); i++) {
+      Json.quote(out.append(i == 0 ? "" : ","), flags.get(i).getName());
+    }
+    out.append(']');
+  }
+
+  private static void respond(HttpExchange exchange, int status, String contentType, String text)
+          throws IOException {
+    byte[] bytes = text.getBytes("UTF-8");
+    exchange.getResponseHeaders().set("Content-Type", contentType);
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  /**
+   * @return The bytes of the stream, or null if there are more than limit.
+   */
+  private static byte[] readAll(InputStream in, int limit) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    int n;
+    while ((n = in.read(buffer)) != -1) {
+      if (out.size() + n > limit) {
+        return null;
+      }
+      out.write(buffer, 0, n);
+    }
+    return out.toByteArray();
+  }
+
+  private static int indexOf(byte[] data, byte[] pattern) {
+    outer:
+    for (int i = 0; i + pattern.length <= data.length; i++) {
+      for (int j = 0; j < pattern.length; j++) {
+        if (data[i + j] != pattern[j]) {
+          continue outer;
+        }
+      }
+      return i;
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,79 @@
+package polcla;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The groups of <a href=
+ * "http://www.ims.uni-stuttgart.de/forschung/ressourcen/lexika/TagSets/stts-table.html">
+ * STTS</a> POS tags that the POS lookup of the lexicons distinguishes, see
+ * {@link ModuleBasics#posLookupSentiment} and
+ * {@link ModuleBasics#posLookupShifter}. A {@link WordObj} determines its
+ * group once, when its POS tag is set.
+ */
+enum PosGroup {
+	/** Tags starting with N: NN, NE. */
+	NOUN,
+	/** PIS, a substituting indefinite pronoun. */
+	PIS,
+	/** Tags starting with ADJ: ADJA, ADJD. */
+	ADJ,
+	/** Tags starting with ADV: ADV. */
+	ADV,
+	/** APPR, a preposition. */
+	APPR,
+	/** The other tags starting with A: APPRART, APPO, APZR, ART. */
+	OTHER_A,
+	/** Tags starting with V: VVFIN, VAINF, VMPP, ... */
+	VERB,
+	/** PTKNEG, the negation particle. */
+	PTKNEG,
+	/** All other tags. */
+	OTHER;
+
+	private static final ConcurrentHashMap<String, PosGroup> groups = new ConcurrentHashMap<String, PosGroup>();
+
+	/**
+	 * @return true for the groups of the tags starting with A.
+	 */
+	boolean startsWithA() {
+		return this == ADJ || this == ADV || this == APPR || this == OTHER_A;
+	}
+
+	/**
+	 * @param tag
+	 *          A STTS tag, may be null.
+	 * @return The group of the tag.
+	 */
+	static PosGroup of(String tag) {
+		if (tag == null) {
+			return OTHER;
+		}
+		PosGroup group = groups.get(tag);
+		if (group == null) {
+			group = classify(tag);
+			groups.putIfAbsent(tag, group);
+		}
+		return group;
+	}
+
+	private static PosGroup classify(String tag) {
+		if (tag.startsWith("N")) {
+			return NOUN;
+		} else if (tag.equals("PIS")) {
+			return PIS;
+		} else if (tag.startsWith("ADJ")) {
+			return ADJ;
+		} else if (tag.startsWith("ADV")) {
+			return ADV;
+		} else if (tag.equals("APPR")) {
+			return APPR;
+		} else if (tag.startsWith("A")) {
+			return OTHER_A;
+		} else if (tag.startsWith("V")) {
+			return VERB;
+		} else if (tag.equals("PTKNEG")) {
+			return PTKNEG;
+		}
+		return OTHER;
+	}
+}
@@ -0,0 +1,213 @@
+package polcla;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import salsa.corpora.elements.Fenode;
+import salsa.corpora.elements.Frame;
+import salsa.corpora.elements.Frames;
+import salsa.corpora.elements.Graph;
+import salsa.corpora.elements.Sentence;
+import salsa.corpora.elements.Terminal;
+
+/**
+ * Index of the sentences of a preset SE file. Every sentence is indexed by its
+ * {@link Graph} and its id, and the fenodes of its subjective expressions are
+ * resolved to word positions once, when the sentence is added. A sentence is
+ * looked up by its graph, then by its id and only then by the rendering of
+ * its {@link ConstituencyTree}; the renderings are only computed if a lookup
+ * needs them.
+ *
+ * @see ModuleBasics#usePresetSELocations(SentenceObj, java.util.ArrayList, LexiconEntries)
+ */
+class PresetIndex {
+
+  private final Map<String, Entry> byId = new HashMap<String, Entry>();
+  private final Map<Graph, Entry> byGraph = new IdentityHashMap<Graph, Entry>();
+  private final List<Entry> entries = new ArrayList<Entry>();
+  private Map<String, Entry> byTree;
+
+  /**
+   * The preset SEs of one sentence, as positions in its word list.
+   */
+  static class Entry {
+
+    final String id;
+    /**
+     * Positions of the single word SEs in terminal order. A position occurs
+     * once for every fenode that refers to its terminal.
+     */
+    final int[] positions;
+    /**
+     * Positions of the verb and particle of a particle verb SE or -1. Only
+     * set if the sentence has exactly one such SE.
+     */
+    final int particleVerb;
+    final int particle;
+    private final ConstituencyTree tree;
+
+    Entry(String id, ConstituencyTree tree, int[] positions, int particleVerb, int particle) {
+      this.id = id;
+      this.tree = tree;
+      this.positions = positions;
+      this.particleVerb = particleVerb;
+      this.particle = particle;
+    }
+  }
+
+  /**
+   * Creates an empty index.
+   */
+  PresetIndex() {
+  }
+
+  /**
+   * Creates an index of the given sentences.
+   *
+   * @param sentences The sentences of the preset SE file.
+   */
+  PresetIndex(Collection<Sentence> sentences) {
+    for (Sentence sentence : sentences) {
+      add(sentence, new ConstituencyTree(sentence.getGraph()));
+    }
+  }
+
+  /**
+   * Adds a sentence to the index. If several sentences have the same id or
+   * tree, lookups by id or tree return the first one.
+   *
+   * @param sentence A sentence of the preset SE file.
+   * @param tree The {@link ConstituencyTree} of the sentence.
+   */
+  final void add(Sentence sentence, ConstituencyTree tree) {
+    Entry entry = resolve(sentence, tree);
+    if (entry.id != null && !byId.containsKey(entry.id)) {
+      byId.put(entry.id, entry);
+    }
+    byGraph.put(sentence.getGraph(), entry);
+    entries.add(entry);
+    byTree = null;
+  }
+
+  /**
+   * Finds the preset sentence of an analysed sentence. Trees that were built
+   * from a graph of the preset SE file are found by their graph. Otherwise the
+   * preset sentence with the same id is taken if its terminals have the same
+   * words, and all others are found by the rendering of their tree.
+   *
+   * @param sentence The sentence being analysed.
+   * @return The preset SEs of the sentence or null.
+   */
+  Entry get(SentenceObj sentence) {
+    ConstituencyTree tree = sentence.getTree();
+    Entry entry = byGraph.get(tree.getGraph());
+    if (entry == null && sentence.id != null) {
+      entry = byId.get(sentence.id.getId());
+      if (entry != null && !sameWords(entry.tree, tree)) {
+        entry = null;
+      }
+    }
+    if (entry == null) {
+      entry = byTree().get(tree.toString());
+    }
+    return entry;
+  }
+
+  private static boolean sameWords(ConstituencyTree preset, ConstituencyTree tree) {
+    List<Terminal> presetTerminals = preset.getTerminals();
+    List<Terminal> terminals = tree.getTerminals();
+    if (presetTerminals.size() != terminals.size()) {
+      return false;
+    }
+    for (int i = 0; i < terminals.size(); i++) {
+      String word = terminals.get(i).getWord();
+      if (word == null ? presetTerminals.get(i).getWord() != null : !word.equals(presetTerminals.get(i).getWord())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Renders the trees of the preset sentences on first use.
+   */
+  private synchronized Map<String, Entry> byTree() {
+    if (byTree == null) {
+      Map<String, Entry> map = new HashMap<String, Entry>();
+      for (Entry entry : entries) {
+        String key = entry.tree.toString();
+        if (!map.containsKey(key)) {
+          map.put(key, entry);
+        }
+      }
+      byTree = map;
+    }
+    return byTree;
+  }
+
+  /**
+   * Resolves the SE fenodes of a sentence to positions of its terminals.
+   */
+  private static Entry resolve(Sentence sentence, ConstituencyTree tree) {
+    // First collect Ids of SE fenodes
+    Map<String, Integer> fenodeIds = new HashMap<String, Integer>();
+    List<String> fenodeIdsMWE = new ArrayList<String>();
+
+    if (sentence.getSem() != null) {
+      for (Frames frames : sentence.getSem().getFrames()) {
+        for (Frame frame : frames.getFrames()) {
+          ArrayList<Fenode> fenodes = frame.getTarget().getFenodes();
+          if (fenodes.size() == 2) {
+            for (Fenode fe : fenodes) {
+              fenodeIdsMWE.add(fe.getIdref().getId());
+            }
+          } else {
+            for (Fenode fe : fenodes) {
+              String id = fe.getIdref().getId();
+              Integer count = fenodeIds.get(id);
+              fenodeIds.put(id, count == null ? 1 : count + 1);
+            }
+          }
+        }
+      }
+    }
+
+    // Compare fenodeIds with terminal Ids of the tree terminals.
+    List<Integer> positions = new ArrayList<Integer>();
+    int particleVerb = -1;
+    int particle = -1;
+    boolean particleVerbSE = fenodeIdsMWE.size() == 2;
+    int index = 0;
+    ArrayList<Terminal> terminals = tree.getTerminals();
+    for (int i = 0; i < terminals.size(); i++) {
+      String terminalId = terminals.get(i).getId().getId();
+      Integer count = fenodeIds.get(terminalId);
+      for (int c = 0; count != null && c < count; c++) {
+        positions.add(i);
+      }
+      if (particleVerbSE) {
+        for (String fenodeId : fenodeIdsMWE) {
+          if (terminalId.equals(fenodeId)) {
+            index++;
+            if (index == 1) {
+              particleVerb = i;
+            } else if (index == 2) {
+              particle = i;
+            }
+          }
+        }
+      }
+    }
+
+    int[] positionArray = new int[positions.size()];
+    for (int i = 0; i < positionArray.length; i++) {
+      positionArray[i] = positions.get(i);
+    }
+    String id = sentence.getId() == null ? null : sentence.getId().getId();
+    return new Entry(id, tree, positionArray, particleVerb, particle);
+  }
+}
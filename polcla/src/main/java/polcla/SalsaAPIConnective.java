@@ -1,6 +1,7 @@
 package polcla;
 
 import salsa.corpora.xmlparser.CorpusParser;
+import salsa.corpora.xmlparser.CorpusReader;
 import salsa.corpora.elements.Corpus;
 import salsa.corpora.elements.Graph;
 import salsa.corpora.elements.Sentence;
@@ -8,9 +9,10 @@ import salsa.corpora.elements.Head;
 import salsa.corpora.elements.Body;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.List;
 
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 import org.xml.sax.SAXException;
 
 /**
@@ -35,8 +37,10 @@ public class SalsaAPIConnective {
 	private Body body;
 	private Head head;
 	private ArrayList<Sentence> sentences;
-	private LinkedList<Graph> graphs;
-	private LinkedList<ConstituencyTree> trees;
+	private ArrayList<Graph> graphs;
+	private ArrayList<ConstituencyTree> trees;
+	private CorpusReader reader;
+	private PresetIndex presetIndex;
 
 	/**
 	 * Parses a Salsa XML file which represents a corpus by:
@@ -57,13 +61,31 @@ public class SalsaAPIConnective {
 	 */
 	public SalsaAPIConnective(String file, SentenceList sentenceList) {
 
-		this.graphs = new LinkedList<Graph>();
-		this.trees = new LinkedList<ConstituencyTree>();
+		this(file, sentenceList, true);
+	}
+
+	/**
+	 * Parses a Salsa XML file which represents a corpus, see
+	 * {@link #SalsaAPIConnective(String, SentenceList)}.
+	 * 
+	 * @param file
+	 *          A {@link String} of the path of the Salsa XML corpus.
+	 * @param sentenceList
+	 *          A {@link SentenceList} containing all sentences of the XML corpus
+	 *          as {@link SentenceObj}.
+	 * @param validating
+	 *          If false, the XML file is not validated against its DTD. Saves
+	 *          time for trusted inputs.
+	 */
+	public SalsaAPIConnective(String file, SentenceList sentenceList, boolean validating) {
+
+		this.graphs = new ArrayList<Graph>();
+		this.trees = new ArrayList<ConstituencyTree>();
 
 		this.parser = null;
 
 		try {
-			parser = new CorpusParser();
+			parser = new CorpusParser(validating);
 		} catch (ParserConfigurationException e) {
 			e.printStackTrace();
 		} catch (SAXException e) {
@@ -108,6 +130,72 @@ public class SalsaAPIConnective {
 
 	}
 
+	/**
+	 * Creates a connective for a corpus that is read one sentence at a time, see
+	 * {@link #open(String)} and {@link #nextSentence()}.
+	 */
+	public SalsaAPIConnective() {
+
+		this.graphs = new ArrayList<Graph>();
+		this.trees = new ArrayList<ConstituencyTree>();
+	}
+
+	/**
+	 * Opens a Salsa XML file for reading one sentence at a time with a
+	 * {@link CorpusReader}. The {@link Head} is available right away, the
+	 * {@link Body} only holds the sentence returned by the last call of
+	 * {@link #nextSentence()}. The file is not validated.
+	 * 
+	 * @param file
+	 *          A {@link String} of the path of the Salsa XML corpus.
+	 * @throws IOException
+	 *           if the file could not be read
+	 * @throws XMLStreamException
+	 *           if the head of the corpus could not be parsed
+	 */
+	public void open(String file) throws IOException, XMLStreamException {
+
+		this.reader = new CorpusReader(file);
+		this.corpus = reader.getCorpus();
+		if (null == corpus || null == corpus.getBody()) {
+			close();
+			throw new IOException("No corpus body found in " + file);
+		}
+		this.body = corpus.getBody();
+		this.head = corpus.getHead();
+		this.sentences = body.getSentences();
+	}
+
+	/**
+	 * Reads the next {@link Sentence} of a corpus opened with
+	 * {@link #open(String)}.
+	 * 
+	 * @return The next {@link Sentence}, or null at the end of the corpus.
+	 * @throws XMLStreamException
+	 *           if the sentence could not be parsed
+	 */
+	public Sentence nextSentence() throws XMLStreamException {
+
+		synchronized (this) {
+			presetIndex = null;
+		}
+		return reader.next();
+	}
+
+	/**
+	 * Closes a corpus opened with {@link #open(String)}.
+	 * 
+	 * @throws IOException
+	 *           if the file could not be closed
+	 */
+	public void close() throws IOException {
+
+		if (null != reader) {
+			reader.close();
+			reader = null;
+		}
+	}
+
 	/**
 	 * @return The {@link Head} of the {@link Corpus}, representing the 'head'
 	 *         section of a Salsa XML corpus.
@@ -140,23 +228,45 @@ public class SalsaAPIConnective {
 	}
 
 	/**
-	 * @return A {@link LinkedList} of {@link Graph} objects which represent the
+	 * @return A {@link List} of {@link Graph} objects which represent the
 	 *         tree structure of every sentence in the Salsa XML corpus.
 	 */
-	public LinkedList<Graph> getGraphs() {
+	public List<Graph> getGraphs() {
 		return graphs;
 	}
 
 	/**
-	 * @return A {@link LinkedList} of {@link ConstituencyTree} objects which
+	 * @return A {@link List} of {@link ConstituencyTree} objects which
 	 *         represent the tree structure of every sentence in the Salsa XML
 	 *         corpus and are created from the {@link Graph} objects of the Salsa
 	 *         Java API.
 	 */
-	public LinkedList<ConstituencyTree> getTrees() {
+	public List<ConstituencyTree> getTrees() {
 		return trees;
 	}
 
+	/**
+	 * Returns an index of the preset subjective expressions of the sentences.
+	 * It is built on first use. For a corpus opened with {@link #open(String)},
+	 * it only covers the sentence returned by the last call of
+	 * {@link #nextSentence()}.
+	 * 
+	 * @return A {@link PresetIndex} of the {@link Sentence}s.
+	 */
+	synchronized PresetIndex getPresetIndex() {
+		if (null == presetIndex) {
+			if (trees.size() == sentences.size()) {
+				presetIndex = new PresetIndex();
+				for (int i = 0; i < sentences.size(); i++) {
+					presetIndex.add(sentences.get(i), trees.get(i));
+				}
+			} else {
+				presetIndex = new PresetIndex(sentences);
+			}
+		}
+		return presetIndex;
+	}
+
 	/**
 	 * @return The {@link CorpusParser} object which parses the Salsa XML corpus.
 	 */
@@ -0,0 +1,538 @@
+package polcla;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLStreamException;
+
+import salsa.corpora.elements.Semantics;
+import salsa.corpora.elements.Sentence;
+import salsa.corpora.xmlparser.CorpusReader;
+
+/**
+ * Persistent cache of the analysis results of single sentences, for re-runs on
+ * corpora of which most sentences have not changed.
+ *
+ * The key of a sentence is a SHA-256 hash of everything its result depends
+ * on: the words of the sentence with the dependency parse columns that are
+ * read, its normalized dependency graph, its Tiger XML graph (in preset mode
+ * with the preset SE frames), the names of the modules, the configuration
+ * options of {@link #SETTINGS} and the lexicon entries that are found under
+ * the lemmas and word forms of the sentence, plus the multi word expressions
+ * that are matched in it. Editing a lexicon entry therefore invalidates only
+ * the sentences with a word whose lemma or form selects the entry, or in which
+ * the edited MWE is found. A sentence that is served from the cache is not
+ * passed to the modules, so it does not show up in their {@link Counters}.
+ *
+ * The cache file is an append-only segment: magic, version, the number of
+ * runs that have used the file, then one record per analysed sentence (key,
+ * the last run that used the record, length, the &lt;sem&gt; element of the
+ * result as UTF-8 XML). Only the run number of a record is updated in place. A
+ * record that was cut off, e.g. by a crash, is dropped when the file is
+ * opened. When more than half of the records have not been used by the last
+ * {@link #KEEP_RUNS} runs, {@link #close()} rewrites the file without them, so
+ * several corpora or configurations can share a file.
+ *
+ * The results depend on the code of the modules as well; {@link #VERSION} has
+ * to be increased whenever a change of the code changes the results.
+ */
+public class SentenceCache implements Closeable {
+
+  private final static Logger log = Logger.getLogger(SentenceCache.class.getName());
+
+  private static final int MAGIC = 0x504c5343; // "PLSC"
+  /**
+   * Has to be increased whenever the layout of the file or the results of the
+   * modules change.
+   */
+  static final int VERSION = 2;
+  /**
+   * The number of runs for which unused records are kept.
+   */
+  static final int KEEP_RUNS = 7;
+  private static final int HEADER = 12;
+  private static final int KEY = 32;
+  private static final int RECORD = KEY + 8;
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+  // The frames of the head tell the reader that further frames belong to a
+  // sentence.
+  private static final byte[] WRAPPER_START = "<corpus><head><frames/></head><body><s id=\"cache\">".getBytes(UTF8);
+  private static final byte[] WRAPPER_END = "</s></body></corpus>".getBytes(UTF8);
+  // The reader adds the indentation to the text of the elements.
+  private static final Pattern INDENTATION = Pattern.compile(">\\s+<");
+
+  /**
+   * The configuration options that change the results of the modules.
+   */
+  static final String[] SETTINGS = {"USE_PRESET_SE_INPUT", "NORMALIZE", "POS_LOOKUP_SENTIMENT", "POS_LOOKUP_SHIFTER",
+    "SHIFTER_ORIENTATION_CHECK", "INCLUDE_NEUTRAL_EXPRESSIONS", "USE_INTENSIFIERS", "BASELINE_WINDOW",
+    "BASELINE_DIRECTION"};
+
+  private final File file;
+  private final FileChannel channel;
+  private final String settings;
+  private final SentimentLex sentimentLex;
+  private final ShifterLex shifterLex;
+  private final IntensifierLex intensifierLex;
+  private final Map<ByteBuffer, Record> records;
+  private final int run;
+  private final int recordCount;
+  private final LongAdder appended = new LongAdder();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * The position of a result in the file.
+   */
+  private static final class Record {
+
+    final long position;
+    final int length;
+    volatile int lastRun;
+
+    Record(long position, int length, int lastRun) {
+      this.position = position;
+      this.length = length;
+      this.lastRun = lastRun;
+    }
+
+    long payload() {
+      return position + RECORD;
+    }
+  }
+
+  private SentenceCache(File file, FileChannel channel, String settings, SentimentLex sentimentLex,
+          ShifterLex shifterLex, IntensifierLex intensifierLex, Map<ByteBuffer, Record> records, int run,
+          int recordCount) {
+    this.file = file;
+    this.channel = channel;
+    this.settings = settings;
+    this.sentimentLex = sentimentLex;
+    this.shifterLex = shifterLex;
+    this.intensifierLex = intensifierLex;
+    this.records = records;
+    this.run = run;
+    this.recordCount = recordCount;
+  }
+
+  /**
+   * The values of the options of {@link #SETTINGS} in a configuration.
+   *
+   * @param config The configuration.
+   * @return The values, as part of the keys of the sentences.
+   */
+  static String settings(Properties config) {
+    StringBuilder values = new StringBuilder();
+    for (String name : SETTINGS) {
+      String value = config.getProperty(name);
+      values.append(name).append('=').append(value == null ? "" : value.trim()).append('\n');
+    }
+    return values.toString();
+  }
+
+  /**
+   * Opens a cache file, creating it if it does not exist.
+   *
+   * @param file The cache file.
+   * @param settings The configuration, see {@link #settings(Properties)}.
+   * @param sentimentLex The sentiment lexicon of the modules.
+   * @param shifterLex The shifter lexicon of the modules.
+   * @param intensifierLex The intensifier lexicon of the modules, or null if
+   * intensifiers are not looked for.
+   * @return The cache, or null if the file cannot be used. The sentences are
+   * analysed without cache in that case.
+   */
+  public static SentenceCache open(String file, String settings, SentimentLex sentimentLex, ShifterLex shifterLex,
+          IntensifierLex intensifierLex) {
+    if (file == null || file.isEmpty()) {
+      return null;
+    }
+    File f = new File(file);
+    FileChannel channel = null;
+    try {
+      channel = FileChannel.open(f.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE,
+              StandardOpenOption.CREATE);
+      Map<ByteBuffer, Record> records = new ConcurrentHashMap<ByteBuffer, Record>();
+      int count = 0;
+      int run = 1;
+      ByteBuffer header = ByteBuffer.allocate(HEADER);
+      if (channel.size() > 0) {
+        if (read(channel, header, 0) < HEADER || header.getInt(0) != MAGIC) {
+          System.err.println("Result cache " + file + " has an unknown format and is not used.");
+          log.log(Level.WARNING, "Result cache {0} has an unknown format and is not used.", file);
+          channel.close();
+          return null;
+        }
+        if (header.getInt(4) != VERSION) {
+          log.log(Level.INFO, "Result cache {0} was written by another version and is cleared.", file);
+          channel.truncate(0);
+        } else {
+          run = header.getInt(8) + 1;
+          count = readRecords(file, channel, records);
+        }
+      }
+      header.clear();
+      header.putInt(MAGIC).putInt(VERSION).putInt(run).flip();
+      write(channel, header, 0);
+      log.log(Level.INFO, "Result cache {0} holds {1} results.", new Object[]{file, records.size()});
+      return new SentenceCache(f, channel, settings, sentimentLex, shifterLex, intensifierLex, records, run, count);
+    } catch (IOException e) {
+      System.err.println("Could not open the result cache " + file + ", sentences are analysed without cache.");
+      log.log(Level.WARNING, "Could not open the result cache " + file, e);
+      if (channel != null) {
+        try {
+          channel.close();
+        } catch (IOException ignored) {
+        }
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Indexes the records of a cache file and cuts off an incomplete last
+   * record.
+   *
+   * @return The number of records in the file.
+   */
+  private static int readRecords(String file, FileChannel channel, Map<ByteBuffer, Record> records)
+          throws IOException {
+    final long size = channel.size();
+    final ByteBuffer head = ByteBuffer.allocate(RECORD);
+    long position = HEADER;
+    int count = 0;
+    while (position < size) {
+      head.clear();
+      if (read(channel, head, position) < RECORD) {
+        break;
+      }
+      int length = head.getInt(KEY + 4);
+      if (length < 0 || position + RECORD + length > size) {
+        break;
+      }
+      byte[] key = new byte[KEY];
+      head.position(0);
+      head.get(key);
+      records.put(ByteBuffer.wrap(key), new Record(position, length, head.getInt(KEY)));
+      position += RECORD + length;
+      count++;
+    }
+    if (position < size) {
+      log.log(Level.WARNING, "Result cache {0} ends with an incomplete record, which is dropped.", file);
+      channel.truncate(position);
+    }
+    return count;
+  }
+
+  /**
+   * Computes the key of a sentence. Must be called before the result is set on
+   * the Tiger XML sentence.
+   *
+   * @param sentence The sentence, with its normalized dependency graph.
+   * @param input The Tiger XML sentence as read, in preset mode with the
+   * preset SE frames.
+   * @param modules The modules that analyse the sentence.
+   * @return The key.
+   */
+  byte[] key(SentenceObj sentence, Sentence input, Collection<Module> modules) {
+    final MessageDigest digest = sha256();
+    update(digest, settings);
+    for (Module module : modules) {
+      update(digest, module.getClass().getName());
+    }
+    update(digest, input == null ? null : input.toString());
+
+    final List<WordObj> words = sentence.getWordList();
+    digest.update(intBytes(words.size()));
+    for (WordObj word : words) {
+      update(digest, word.getName());
+      update(digest, word.getLemma());
+      update(digest, word.getPos());
+      update(digest, word.getRelation());
+      digest.update(intBytes(word.getEdge()));
+      digest.update(intBytes(word.getIsParticleVerb() ? position(sentence, word.getParticle()) : -2));
+      for (WordObj deleted : word.getDeleted()) {
+        update(digest, deleted.getName());
+      }
+      updateLexicon(digest, word.getLemma());
+      updateLexicon(digest, word.getName());
+    }
+    DependencyGraph graph = sentence.getGraph();
+    if (graph != null) {
+      for (Edge edge : graph.getEdges()) {
+        digest.update(intBytes(position(sentence, edge.source)));
+        digest.update(intBytes(position(sentence, edge.target)));
+        update(digest, edge.depRel);
+      }
+      for (MweTrie.Hit<SentimentUnit> hit : sentimentLex.matchMWEs(graph)) {
+        updatePositions(digest, sentence, hit.getWords());
+        for (SentimentUnit unit : hit.getUnits()) {
+          update(digest, unit);
+        }
+      }
+      for (MweTrie.Hit<ShifterUnit> hit : shifterLex.matchMWEs(graph)) {
+        updatePositions(digest, sentence, hit.getWords());
+        for (ShifterUnit unit : hit.getUnits()) {
+          update(digest, unit);
+        }
+      }
+    }
+    return digest.digest();
+  }
+
+  /**
+   * Returns the cached result of a sentence.
+   *
+   * @param key The key of the sentence, see {@link #key}.
+   * @return The result, or null if it is not cached.
+   */
+  Semantics get(byte[] key) {
+    Record record = records.get(ByteBuffer.wrap(key));
+    if (record == null) {
+      misses.increment();
+      return null;
+    }
+    try {
+      ByteBuffer xml = ByteBuffer.allocate(WRAPPER_START.length + record.length + WRAPPER_END.length);
+      xml.put(WRAPPER_START);
+      xml.limit(WRAPPER_START.length + record.length);
+      if (read(channel, xml, record.payload()) < record.length) {
+        throw new IOException("Result cache " + file + " is shorter than its index.");
+      }
+      xml.limit(xml.capacity());
+      xml.put(WRAPPER_END);
+      try (CorpusReader reader = new CorpusReader(new ByteArrayInputStream(xml.array()))) {
+        Sentence sentence = reader.next();
+        if (sentence != null && sentence.getSem() != null) {
+          if (record.lastRun != run) {
+            record.lastRun = run;
+            ByteBuffer lastRun = ByteBuffer.allocate(4);
+            lastRun.putInt(run).flip();
+            write(channel, lastRun, record.position + KEY);
+          }
+          hits.increment();
+          return sentence.getSem();
+        }
+      }
+    } catch (IOException | XMLStreamException e) {
+      log.log(Level.WARNING, "Could not read a result from the result cache " + file, e);
+    }
+    misses.increment();
+    return null;
+  }
+
+  /**
+   * Appends the result of a sentence to the cache.
+   *
+   * @param key The key of the sentence, see {@link #key}.
+   * @param sem The result.
+   */
+  void put(byte[] key, Semantics sem) {
+    byte[] xml = INDENTATION.matcher(sem.toString().trim()).replaceAll("><").getBytes(UTF8);
+    ByteBuffer record = ByteBuffer.allocate(RECORD + xml.length);
+    record.put(key).putInt(run).putInt(xml.length).put(xml).flip();
+    synchronized (this) {
+      try {
+        long position = channel.size();
+        write(channel, record, position);
+        records.put(ByteBuffer.wrap(key.clone()), new Record(position, xml.length, run));
+        appended.increment();
+      } catch (IOException e) {
+        log.log(Level.WARNING, "Could not write a result to the result cache " + file, e);
+      }
+    }
+  }
+
+  /**
+   * @return The number of sentences served from the cache.
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * @return The number of sentences that were not in the cache.
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * Closes the cache file, rewriting it first if more than half of its records
+   * have not been used by the last {@link #KEEP_RUNS} runs.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    try {
+      List<Map.Entry<ByteBuffer, Record>> used = new ArrayList<Map.Entry<ByteBuffer, Record>>();
+      for (Map.Entry<ByteBuffer, Record> entry : records.entrySet()) {
+        if (entry.getValue().lastRun > run - KEEP_RUNS) {
+          used.add(entry);
+        }
+      }
+      if (recordCount + appended.sum() > 2 * used.size()) {
+        compact(used);
+      }
+    } finally {
+      channel.close();
+    }
+  }
+
+  private void compact(List<Map.Entry<ByteBuffer, Record>> used) throws IOException {
+    File tmp = new File(file.getPath() + ".tmp");
+    try (FileChannel out = FileChannel.open(tmp.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER);
+      header.putInt(MAGIC).putInt(VERSION).putInt(run).flip();
+      long position = write(out, header, 0);
+      for (Map.Entry<ByteBuffer, Record> entry : used) {
+        Record record = entry.getValue();
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD + record.length);
+        buffer.put(entry.getKey().duplicate()).putInt(record.lastRun).putInt(record.length);
+        if (read(channel, buffer, record.payload()) < record.length) {
+          throw new IOException("Result cache " + file + " is shorter than its index.");
+        }
+        buffer.flip();
+        position = write(out, buffer, position);
+      }
+    }
+    Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    log.log(Level.INFO, "Result cache {0} was compacted to {1} results.", new Object[]{file, used.size()});
+  }
+
+  /**
+   * Adds the lexicon entries that are found under a lemma or word form.
+   */
+  private void updateLexicon(MessageDigest digest, String key) {
+    List<SentimentUnit> sentiments = sentimentLex.getAllSentiments(key);
+    if (sentiments != null) {
+      for (SentimentUnit unit : sentiments) {
+        update(digest, unit);
+      }
+    }
+    List<ShifterUnit> shifters = shifterLex.getAllShifters(key);
+    if (shifters != null) {
+      for (ShifterUnit unit : shifters) {
+        update(digest, unit);
+      }
+    }
+    if (intensifierLex != null) {
+      List<IntensifierUnit> intensifiers = intensifierLex.getAllIntensifiers(key);
+      if (intensifiers != null) {
+        for (IntensifierUnit unit : intensifiers) {
+          update(digest, "intensifier");
+          update(digest, unit.name);
+          update(digest, unit.intensifier_type);
+          update(digest, unit.intensifier_scope);
+          update(digest, unit.intensifier_pos);
+          update(digest, String.valueOf(unit.mwe));
+          update(digest, unit.collocations);
+        }
+      }
+    }
+  }
+
+  private static void update(MessageDigest digest, SentimentUnit unit) {
+    update(digest, "sentiment");
+    update(digest, unit.name);
+    update(digest, unit.category);
+    update(digest, unit.value);
+    update(digest, unit.pos);
+    update(digest, String.valueOf(unit.mwe));
+    update(digest, unit.collocations);
+  }
+
+  private static void update(MessageDigest digest, ShifterUnit unit) {
+    update(digest, "shifter");
+    update(digest, unit.name);
+    update(digest, unit.shifter_type);
+    update(digest, unit.shifter_scope);
+    update(digest, unit.shifter_pos);
+    update(digest, String.valueOf(unit.mwe));
+    update(digest, unit.collocations);
+  }
+
+  private static void updatePositions(MessageDigest digest, SentenceObj sentence, List<WordObj> words) {
+    digest.update(intBytes(words.size()));
+    for (WordObj word : words) {
+      digest.update(intBytes(position(sentence, word)));
+    }
+  }
+
+  private static int position(SentenceObj sentence, WordObj word) {
+    return word == null ? -1 : sentence.getWordPosition(word);
+  }
+
+  private static void update(MessageDigest digest, String s) {
+    if (s == null) {
+      digest.update(intBytes(-1));
+    } else {
+      byte[] bytes = s.getBytes(UTF8);
+      digest.update(intBytes(bytes.length));
+      digest.update(bytes);
+    }
+  }
+
+  private static void update(MessageDigest digest, String[] strings) {
+    if (strings == null) {
+      digest.update(intBytes(-1));
+    } else {
+      digest.update(intBytes(strings.length));
+      for (String s : strings) {
+        update(digest, s);
+      }
+    }
+  }
+
+  private static byte[] intBytes(int i) {
+    return new byte[]{(byte) (i >>> 24), (byte) (i >>> 16), (byte) (i >>> 8), (byte) i};
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // every Java platform supports SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static int read(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    int total = 0;
+    while (buffer.hasRemaining()) {
+      int n = channel.read(buffer, position + total);
+      if (n < 0) {
+        break;
+      }
+      total += n;
+    }
+    return total;
+  }
+
+  private static long write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      position += channel.write(buffer, position);
+    }
+    return position;
+  }
+}
@@ -1,25 +1,27 @@
 package polcla;
 
 import salsa.corpora.noelement.Id;
+import salsa.corpora.noelement.SymbolTable;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import java.util.Scanner;
 
 /**
  * @author Katja König (conjunction normalization)
  *
- *         An instance of {@link SentenceList} contains a {@link LinkedList} of
+ *         An instance of {@link SentenceList} contains a {@link List} of
  *         {@link SentenceObj} and represents a text corpus.
  */
 public class SentenceList {
 
-	LinkedList<SentenceObj> sentenceList = new LinkedList<SentenceObj>();
+	ArrayList<SentenceObj> sentenceList = new ArrayList<SentenceObj>();
 	// LinkedList<NamedEntityList> namedEntityLists = new
 	// LinkedList<NamedEntityList>();
 
-	public LinkedList<SentenceObj> getSentenceList() {
+	public List<SentenceObj> getSentenceList() {
 		return sentenceList;
 	}
 
@@ -40,17 +42,29 @@ public class SentenceList {
 			while (scanner.hasNext()) {
 				line = scanner.nextLine();
 				idcount++;
-				SentenceObj sentence = new SentenceObj(line);
-				Integer tmp = new Integer(idcount);
-				sentence.id = new Id(tmp.toString());
-
-				this.sentenceList.add(sentence);
+				this.sentenceList.add(createSentence(line, idcount));
 			}
 		} catch (FileNotFoundException e) {
 			e.printStackTrace();
 		}
 	}
 
+	/**
+	 * Creates the {@link SentenceObj} for a line of the raw text file.
+	 * 
+	 * @param line
+	 *          The line of the raw text file.
+	 * @param idcount
+	 *          The number of the line, starting with 1.
+	 * @return The {@link SentenceObj} with id idcount.
+	 */
+	static SentenceObj createSentence(String line, int idcount) {
+		SentenceObj sentence = new SentenceObj(line);
+		Integer tmp = new Integer(idcount);
+		sentence.id = new Id(tmp.toString());
+		return sentence;
+	}
+
 	/**
 	 * Read in a ParZu dependency parse file. Save the following information for
 	 * all {@link WordObj}s of a {@link SentenceObj}: - part of speech tag - lemma
@@ -70,100 +84,128 @@ public class SentenceList {
 
 			scanner = new Scanner(new File(filename), "UTF-8");
 			scanner.useLocale(Locale.GERMANY);
-			String line;
 
-			int sentCounter = 0;
-			int wordCounter = 0;
+			for (SentenceObj sentence : sentenceList) {
+				if (!scanner.hasNext()) {
+					break;
+				}
+				readDependencyParse(scanner, sentence);
+			}
+		} catch (FileNotFoundException e) {
+			e.printStackTrace();
+		}
 
-			SentenceObj sentence = sentenceList.get(sentCounter);
+	}
 
-			while (scanner.hasNext()) {
+	/**
+	 * Reads the dependency parse of a single sentence, i.e. the lines up to the
+	 * next empty line or the end of the file, and creates the
+	 * {@link DependencyGraph} of the sentence.
+	 * 
+	 * @param scanner
+	 *          A {@link Scanner} positioned at the first line of the sentence in
+	 *          a ParZu dependency parse file.
+	 * @param sentence
+	 *          The {@link SentenceObj} the lines belong to.
+	 */
+	static void readDependencyParse(Scanner scanner, SentenceObj sentence) {
 
-				line = scanner.nextLine();
+		String line;
+		List<WordObj> words = sentence.wordList;
+		int[] tabs = new int[8];
 
-				if (!line.isEmpty()) {
+		int wordCounter = 0;
 
-					String[] splitResult = line.split("\t");
+		while (scanner.hasNext()) {
 
-					WordObj word = sentence.wordList.get(wordCounter);
+			line = scanner.nextLine();
 
-					String lemma = splitResult[2];
-					String pos = splitResult[4];
-					String stringEdge = splitResult[6];
-					int edge = Integer.parseInt(stringEdge);
-					String relation = splitResult[7];
+			if (line.isEmpty()) {
+				break;
+			}
 
-					word.setLemma(lemma);
-					word.setPos(pos);
-					word.setEdge(edge);
-					word.setRelation(relation);
+			// Only the columns 2, 4, 6 and 7 are used, so the line is not split
+			// into all of its columns.
+			findTabs(line, tabs);
 
-					wordCounter++;
+			WordObj word = words.get(wordCounter);
 
-				}
+			String lemma = SymbolTable.intern(column(line, tabs, 2));
+			String pos = SymbolTable.intern(column(line, tabs, 4));
+			int edge = Integer.parseInt(column(line, tabs, 6));
+			String relation = SymbolTable.intern(column(line, tabs, 7));
 
-				else {
-
-					DependencyGraph graph = new DependencyGraph(sentence.wordList);
-					sentence.setGraph(graph);
-					sentence.setRawGraph(graph);
-					// add node for every wordobj of the sentence
-					for (WordObj wordobj : sentence.wordList) {
-						graph.addNode(wordobj);
-					}
-					for (WordObj target : sentence.wordList) {
-						/*
-						 * wordobj is already target find out source by identifying the
-						 * origin of the target's incoming edge
-						 */
-						int sourceNum = target.getEdge();
-						// check if root or a "normal" node is source
-						if (sourceNum == 0) {
-							WordObj source = graph.getRoot();
-							graph.addEdge(source, target, target.getRelation());
-						} else {
-							WordObj source = sentence.wordList.get(sourceNum - 1);
-							graph.addEdge(source, target, target.getRelation());
-
-						}
-					}
-
-					wordCounter = 0;
-					sentCounter++;
-					sentence = sentenceList.get(sentCounter);
+			word.setLemma(lemma);
+			word.setPos(pos);
+			word.setEdge(edge);
+			word.setRelation(relation);
 
-				}
+			wordCounter++;
 
-			}
+		}
 
-			// create a dependency graph for the last sentence.
-			DependencyGraph graph = new DependencyGraph(sentence.wordList);
-			sentence.setGraph(graph);
-			sentence.setRawGraph(graph);
-			// add node for every wordobj of the sentence
-			for (WordObj wordobj : sentence.wordList) {
-				graph.addNode(wordobj);
-			}
-			for (WordObj target : sentence.wordList) {
-				/*
-				 * wordobj is already target find out source by identifying the origin
-				 * of the target's incoming edge
-				 */
-				int sourceNum = target.getEdge();
-				// check if root or a "normal" node is source
-				if (sourceNum == 0) {
-					WordObj source = graph.getRoot();
-					graph.addEdge(source, target, target.getRelation());
-				} else {
-					WordObj source = sentence.wordList.get(sourceNum - 1);
-					graph.addEdge(source, target, target.getRelation());
+		DependencyGraph graph = new DependencyGraph(words);
+		sentence.setGraph(graph);
+		sentence.setRawGraph(graph);
+		// add node for every wordobj of the sentence
+		for (WordObj wordobj : words) {
+			graph.addNode(wordobj);
+		}
+		for (WordObj target : words) {
+			/*
+			 * wordobj is already target find out source by identifying the origin
+			 * of the target's incoming edge
+			 */
+			int sourceNum = target.getEdge();
+			// check if root or a "normal" node is source
+			if (sourceNum == 0) {
+				WordObj source = graph.getRoot();
+				graph.addEdge(source, target, target.getRelation());
+			} else {
+				WordObj source = words.get(sourceNum - 1);
+				graph.addEdge(source, target, target.getRelation());
 
-				}
 			}
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
 		}
+	}
+
+	/**
+	 * Finds the first tabs of a line of a ParZu dependency parse.
+	 * 
+	 * @param line
+	 *          A line of the parse.
+	 * @param tabs
+	 *          Is set to the offsets of the first tabs.length tabs, missing tabs
+	 *          are set to the length of the line.
+	 */
+	private static void findTabs(String line, int[] tabs) {
+		int from = 0;
+		for (int i = 0; i < tabs.length; i++) {
+			int tab = from < 0 ? -1 : line.indexOf('\t', from);
+			tabs[i] = tab < 0 ? line.length() : tab;
+			from = tab < 0 ? -1 : tab + 1;
+		}
+	}
 
+	/**
+	 * @param line
+	 *          A line of the parse.
+	 * @param tabs
+	 *          The offsets of the tabs of the line, see
+	 *          {@link #findTabs(String, int[])}.
+	 * @param column
+	 *          The column, starting at 0.
+	 * @return The column of the line.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *           If the line has less columns.
+	 */
+	private static String column(String line, int[] tabs, int column) {
+		if (column > 0 && tabs[column - 1] >= line.length()) {
+			throw new ArrayIndexOutOfBoundsException(column);
+		}
+		int start = column == 0 ? 0 : tabs[column - 1] + 1;
+		int end = column < tabs.length ? tabs[column] : line.length();
+		return line.substring(start, end);
 	}
 
 	/**
@@ -175,17 +217,29 @@ public class SentenceList {
 	 */
 	public void normalizeDependencyGraphs() {
 
-		for (int j = 0; j <= this.sentenceList.size() - 1; j++) {
+		for (SentenceObj sentence : this.sentenceList) {
+			normalizeDependencyGraph(sentence);
+		}
+	}
 
-			DependencyGraph graph = this.sentenceList.get(j).getGraph();
+	/**
+	 * Normalize the {@link DependencyGraph} of a single sentence.
+	 * 
+	 * @param sentence
+	 *          The {@link SentenceObj} whose graph is normalized.
+	 * @see #normalizeDependencyGraphs()
+	 */
+	static void normalizeDependencyGraph(SentenceObj sentence) {
 
-			SentenceObj sentence = this.sentenceList.get(j);
-			DependencyGraph normalized = graph.normalize(graph);
-			DependencyGraph normalizedready = graph.normalizeActivePassive(normalized);
-			DependencyGraph normalizedcon = graph.normalizeConjunctions(normalizedready);
+		// normalize a copy in place; the raw graph keeps the parser's edges and
+		// shares the nodes and edge objects with the normalized graph
+		DependencyGraph graph = new DependencyGraph(sentence.getGraph());
 
-			sentence.setGraph(normalizedcon);
-		}
+		graph.normalize(graph);
+		graph.normalizeActivePassive(graph);
+		graph.normalizeConjunctions(graph);
+
+		sentence.setGraph(graph);
 	}
 
 	public String toString() {
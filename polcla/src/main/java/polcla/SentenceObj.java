@@ -1,7 +1,8 @@
 package polcla;
 
 import salsa.corpora.noelement.Id;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.List;
 import polcla.ConstituencyTree;
 import polcla.DependencyGraph;
 import polcla.NamedEntityList;
@@ -14,15 +15,24 @@ import polcla.WordObj;
 public class SentenceObj {
 
 	String sentence;
-	LinkedList<WordObj> wordList = new LinkedList<WordObj>();
+	ArrayList<WordObj> wordList = new ArrayList<WordObj>();
 	DependencyGraph graph;
 	ConstituencyTree tree;
 	Id id;
 	NamedEntityList namedEntityList;
 	private DependencyGraph rawGraph;
 	boolean sourceIsAuthor = false;
+	/**
+	 * The lexicon hits of the sentence, set by the first module that looks at
+	 * it.
+	 */
+	volatile LexiconTagger.Tags lexiconTags;
 
-	public LinkedList<WordObj> getWordList() {
+	/**
+	 * @return The words of the sentence, {@link #getWordPosition(WordObj)} is
+	 *         their index.
+	 */
+	public List<WordObj> getWordList() {
 		return wordList;
 	}
 
@@ -59,6 +69,7 @@ public class SentenceObj {
 				wordList.add(word);
 			}
 		}
+		wordList.trimToSize();
 	}
 
 	/**
@@ -67,6 +78,11 @@ public class SentenceObj {
 	 *         if the sentence doesn't contain the Word Object
 	 */
 	public int getWordPosition(WordObj word) {
+		// The index is position - 1 unless the sentence contains double spaces.
+		int index = word.getPosition() - 1;
+		if (index >= 0 && index < this.wordList.size() && this.wordList.get(index) == word) {
+			return index;
+		}
 		for (int i = 0; i < this.wordList.size(); i++) {
 			if (this.wordList.get(i).equals(word)) {
 				return i;
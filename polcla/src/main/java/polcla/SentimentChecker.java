@@ -10,9 +10,22 @@ import salsa.corpora.elements.Globals;
 import salsa.corpora.elements.CorpusId;
 import salsa.corpora.elements.Global;
 import salsa.corpora.elements.Element;
+import salsa.corpora.elements.Head;
+import salsa.corpora.elements.Sentence;
+import salsa.corpora.xmlwriter.CorpusWriter;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -20,6 +33,15 @@ import java.util.logging.Logger;
  * Looks for sentiment expressions in every {@link SentenceObj} and adds the
  * sentiment information to the Tiger XML document.
  *
+ * Sentences are independent of each other and may be analysed by several
+ * threads. The results are added to the document in sentence order, so the
+ * output does not depend on the number of threads.
+ *
+ * With {@link #findSentimentsPerModule(String)}, the frames of each module are
+ * written to a separate output file instead, see
+ * {@link #moduleOutput(String, Module)}. The modules share the parsed inputs
+ * and the lexicon hits of each sentence and analyse it concurrently.
+ *
  */
 public class SentimentChecker {
 
@@ -27,6 +49,8 @@ public class SentimentChecker {
   private final SalsaAPIConnective salsaCon;
   private final SentenceList list;
   private final Set<Module> modules;
+  private final int threads;
+  private SentenceCache cache;
 
   /**
    *
@@ -37,20 +61,85 @@ public class SentimentChecker {
    * <!--TODO-->
    */
   public SentimentChecker(SalsaAPIConnective salsaCon, SentenceList list, Set<Module> modules) {
-    log.setLevel(Level.ALL);
+    this(salsaCon, list, modules, 1);
+  }
+
+  /**
+   *
+   * @param salsaCon A {@link SalsaAPIConnective} object used to add the
+   * sentiment information to the Tiger XML corpus.
+   * @param list The sentences to analyse.
+   * @param modules The modules that will be used to find sentiment expressions
+   * @param threads The number of threads that analyse sentences concurrently.
+   * 1 analyses all sentences in the calling thread, 0 or less uses one thread
+   * per available processor.
+   */
+  public SentimentChecker(SalsaAPIConnective salsaCon, SentenceList list, Set<Module> modules, int threads) {
     this.salsaCon = salsaCon;
     this.list = list;
     this.modules = modules;
+    this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * Sets the cache from which unchanged sentences are served, see
+   * {@link SentenceCache}.
+   *
+   * @param cache The cache, or null to analyse every sentence.
+   */
+  public void setCache(SentenceCache cache) {
+    this.cache = cache;
+  }
+
+  /**
+   * Analyses a sentence with some modules, or takes the result from the cache.
+   *
+   * @param modules The modules that look for sentiment expressions.
+   * @param i The index of the sentence.
+   * @return A {@link Semantics} object
+   */
+  private Semantics findSentiment(Collection<Module> modules, int i) {
+    return findSentiment(modules, list.sentenceList.get(i), this.salsaCon.getSentences().get(i), cache);
   }
 
   /**
-   * Calls the <code>findFrames</code> method of each enabled {@link Module} and
+   * Like {@link #findSentiment(Collection, SentenceObj)}, but takes the result
+   * from a cache if the sentence has been analysed before, and adds it to the
+   * cache otherwise.
+   *
+   * @param modules The modules that look for sentiment expressions.
+   * @param sentence The {@link SentenceObj} that will be passed to each module
+   * @param input The Tiger XML sentence of sentence, before its result is set.
+   * @param cache The cache, or null to analyse the sentence.
+   * @return A {@link Semantics} object
+   */
+  static Semantics findSentiment(Collection<Module> modules, SentenceObj sentence, Sentence input,
+          SentenceCache cache) {
+    if (cache == null) {
+      return findSentiment(modules, sentence);
+    }
+    final byte[] key = cache.key(sentence, input, modules);
+    Semantics sem = cache.get(key);
+    if (sem != null) {
+      if (Trace.enabled(sentence)) {
+        Trace.event(sentence, "cache-hit");
+      }
+      return sem;
+    }
+    sem = findSentiment(modules, sentence);
+    cache.put(key, sem);
+    return sem;
+  }
+
+  /**
+   * Calls the <code>findFrames</code> method of each given {@link Module} and
    * combines their output into a single {@link Semantics} object.
    *
+   * @param modules The modules that look for sentiment expressions.
    * @param sentence The {@link SentenceObj} that will be passed to each module
    * @return A {@link Semantics} object
    */
-  private Semantics findSentiment(SentenceObj sentence) {
+  static Semantics findSentiment(Collection<Module> modules, SentenceObj sentence) {
     /*
      * The SALSA API and SALTO can handle multiple Frames objects in one
      * sentence but evaltool can't. Thus we merge all frames into a single
@@ -58,14 +147,19 @@ public class SentimentChecker {
      */
     final Frames frames = new Frames();
     final Globals globals = new Globals();
-    for (Module module : modules) {
+    Metrics.Timer timer = Metrics.get().start(Metrics.Stage.ANALYSIS);
+    try {
+      for (Module module : modules) {
 
-      for (Frame frame : module.findFrames(sentence)) {
-        frames.addFrame(frame);
-      }
-      for (Global global : module.getGlobalsSentencePolarities()) {
-        globals.addGlobal(global);
+        for (Frame frame : module.findFrames(sentence)) {
+          frames.addFrame(frame);
+        }
+        for (Global global : module.getGlobalsSentencePolarities()) {
+          globals.addGlobal(global);
+        }
       }
+    } finally {
+      timer.stop();
     }
     final Semantics sem = new Semantics();
     sem.addFrames(frames);
@@ -74,7 +168,7 @@ public class SentimentChecker {
   }
 
   /**
-   * Calls {@link #findSentiment(SentenceObj)} for every {@link SentenceObj} in
+   * Calls {@link #findSentiment(Collection, SentenceObj)} for every {@link SentenceObj} in
    * {@link SentenceList} and exports the Salsa XML structure to filename. Also
    * adds general specification of frames to the Salsa XML structure.
    *
@@ -82,10 +176,145 @@ public class SentimentChecker {
    */
   public void findSentiments(String filename) {
 
+    annotateHead(this.salsaCon.getHead(), modules);
+
+    final List<SentenceObj> sentences = list.sentenceList;
+    int listSize = sentences.size();
+
+    if (threads == 1 || listSize < 2) {
+      for (int i = 0; i < listSize; i++) {
+        SentenceObj sentence = sentences.get(i);
+        if (Trace.enabled(sentence)) {
+          Trace.event(sentence, "sentence", "text", sentence);
+        }
+        Semantics sem = findSentiment(modules, i);
+        setSem(i, listSize, sem);
+      }
+    } else {
+      findSentimentsConcurrently(sentences);
+    }
+
+    System.out.println(listSize + " sentences have been analysed successfully.");
+    logStatistics(modules);
+
+    writeCorpus(filename);
+  }
+
+  /**
+   * Like {@link #findSentiments(String)}, but the frames and sentence
+   * polarities of each module are written to a separate file, named by
+   * {@link #moduleOutput(String, Module)}. Each module analyses each sentence
+   * in a separate task, so with more than one thread the modules analyse a
+   * sentence concurrently.
+   *
+   * @param filename The path of the output file, to which the names of the
+   * modules are added.
+   */
+  public void findSentimentsPerModule(String filename) {
+
+    annotateHead(this.salsaCon.getHead(), modules);
+
+    final List<SentenceObj> sentences = list.sentenceList;
+    final List<Module> moduleList = new ArrayList<Module>(modules);
+    final int listSize = sentences.size();
+    final Semantics[][] sems = new Semantics[moduleList.size()][listSize];
+
+    if (threads == 1) {
+      for (int i = 0; i < listSize; i++) {
+        SentenceObj sentence = sentences.get(i);
+        if (Trace.enabled(sentence)) {
+          Trace.event(sentence, "sentence", "text", sentence);
+        }
+        for (int k = 0; k < moduleList.size(); k++) {
+          sems[k][i] = findSentiment(Collections.singleton(moduleList.get(k)), i);
+        }
+        Metrics.get().sentenceDone(listSize);
+      }
+    } else {
+      findSentimentsConcurrently(sentences, moduleList, sems);
+    }
+
+    System.out.println(listSize + " sentences have been analysed successfully by " + moduleList.size()
+            + " modules.");
+    logStatistics(modules);
+
+    for (int k = 0; k < moduleList.size(); k++) {
+      for (int i = 0; i < listSize; i++) {
+        this.salsaCon.getSentences().get(i).setSem(sems[k][i]);
+      }
+      String output = moduleOutput(filename, moduleList.get(k));
+      System.out.println("Writing the results of " + moduleList.get(k).getClass().getSimpleName() + " to "
+              + output);
+      log.log(Level.INFO, "Writing the results of {0} to {1}",
+              new Object[]{moduleList.get(k).getClass().getSimpleName(), output});
+      writeCorpus(output);
+    }
+  }
+
+  /**
+   * Writes the Salsa XML structure to a file.
+   *
+   * @param filename The path of the output file.
+   */
+  private void writeCorpus(String filename) {
+    Metrics.Timer timer = Metrics.get().start(Metrics.Stage.SERIALIZATION);
+    try (CorpusWriter writer = new CorpusWriter(filename, false)) {
+      writer.writeCorpus(this.salsaCon.getCorpus());
+    } catch (IOException e) {
+
+      e.printStackTrace();
+    } finally {
+      timer.stop();
+    }
+  }
+
+  /**
+   * The output file of a module when the modules are written to separate
+   * files: the simple class name of the module is inserted before the
+   * extension of filename, e.g. output/salsaResult.WindowBaseline.xml or
+   * output/salsaResult.WindowBaseline.xml.gz.
+   *
+   * @param filename The path of the output file.
+   * @param module The module.
+   * @return The path of the output file of the module.
+   */
+  static String moduleOutput(String filename, Module module) {
+    String base = filename;
+    String extension = "";
+    if (base.endsWith(".gz")) {
+      base = base.substring(0, base.length() - 3);
+      extension = ".gz";
+    }
+    int dot = base.lastIndexOf('.');
+    if (dot > base.lastIndexOf('/') && dot > base.lastIndexOf(File.separatorChar)) {
+      extension = base.substring(dot) + extension;
+      base = base.substring(0, dot);
+    }
+    return base + "." + module.getClass().getSimpleName() + extension;
+  }
+
+  /**
+   * Adds the general specification of frames, flags and the corpus id to the
+   * head of the output corpus. If a module uses intensifiers, the
+   * "Intensifier" frame element and its flags are specified as well.
+   *
+   * @param head The {@link Head} of the Salsa XML structure.
+   * @param modules The modules whose results are written to the corpus.
+   */
+  static void annotateHead(Head head, Collection<Module> modules) {
+
+    boolean intensifiers = false;
+    for (Module module : modules) {
+      intensifiers |= module.getIntensifierLex() != null;
+    }
+
     Frames hframes = new Frames();
     Frame f1 = new Frame("SubjectiveExpression");
     Element e1 = new Element("Shifter", "true");
     f1.addElement(e1);
+    if (intensifiers) {
+      f1.addElement(new Element("Intensifier", "true"));
+    }
     hframes.addFrame(f1);
     Global global = new Global("Polarity");
     Flags hflags = new Flags();
@@ -96,47 +325,136 @@ public class SentimentChecker {
     hflags.addFlag(hflag1);
     hflags.addFlag(hflag2);
     hflags.addFlag(hflag3);
+    if (intensifiers) {
+      hflags.addFlag(new Flag("Polarity after intensification", "subjExpr"));
+      hflags.addFlag(new Flag("Type", "intensifier"));
+    }
     hflags.addFlag(polarityFlag);
-    this.salsaCon.getHead().setFlags(hflags);
-    this.salsaCon.getHead().setFrames(hframes);
+    head.setFlags(hflags);
+    head.setFrames(hframes);
 
     // Set meta: corpusId is necessary for the evaluation tool
     CorpusId corpusId = new CorpusId();
     corpusId.setId("1");
     Meta meta = new Meta();
     meta.setCorpus_id(corpusId);
-    this.salsaCon.getHead().setMeta(meta);
-
-    int listSize = list.sentenceList.size();
+    head.setMeta(meta);
+  }
 
-    for (int i = 0; i < listSize; i++) {
-      SentenceObj sentence = list.sentenceList.get(i);
-      log.log(Level.INFO, sentence.toString());
-      Semantics sem = findSentiment(sentence);
-      this.salsaCon.getSentences().get(i).setSem(sem);
-      String msg = "Sentence " + (i + 1) + " of " + list.sentenceList.size() + " done.";
-      System.out.println(msg);
-      log.log(Level.INFO, "{0}\n", msg);
+  /**
+   * Logs the {@link Counters} of the modules.
+   *
+   * @param modules The modules that have analysed the corpus.
+   */
+  static void logStatistics(Collection<Module> modules) {
+    if (log.isLoggable(Level.FINE)) {
+      log.log(Level.FINE, "Module counters: {0}", Counters.toJson(modules));
     }
+  }
 
-    System.out.println((list.sentenceList.size()) + " sentences have been analysed successfully.");
-    // Statistics for logging.
+  /**
+   * Analyses the sentences with {@link #threads} threads. Each sentence is a
+   * separate task, the modules keep no state between sentences.
+   *
+   * @param sentences The sentences in corpus order.
+   */
+  private void findSentimentsConcurrently(List<SentenceObj> sentences) {
+    final int listSize = sentences.size();
+    log.log(Level.INFO, "Analysing sentences with {0} threads.\n", threads);
+    final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, listSize));
     try {
-      SubjectiveExpressionModule m = ((SubjectiveExpressionModule) modules.toArray()[0]);
-      String result = String.format(
-              "obja: %d, objp: %d, subj: %d, gmod: %d, governor: %d, objd: %d, clause: %d, ohne: %d, attr-rev: %d, objg: %d, obji: %d, dependent: %d",
-              m.obja, m.objp, m.subj, m.gmod, m.governor, m.objd, m.clause, m.ohne, m.attr_rev, m.objg, m.obji, m.dependent);
-      log.fine(result);
-    } catch (ClassCastException e) {
-
+      final List<Future<Semantics>> results = new ArrayList<Future<Semantics>>(listSize);
+      for (int i = 0; i < listSize; i++) {
+        final int index = i;
+        final SentenceObj sentence = sentences.get(i);
+        results.add(executor.submit(new Callable<Semantics>() {
+          @Override
+          public Semantics call() {
+            if (Trace.enabled(sentence)) {
+              Trace.event(sentence, "sentence", "text", sentence);
+            }
+            return findSentiment(modules, index);
+          }
+        }));
+      }
+      for (int i = 0; i < listSize; i++) {
+        try {
+          setSem(i, listSize, results.get(i).get());
+        } catch (ExecutionException e) {
+          throw new RuntimeException("Analysis of sentence " + (i + 1) + " failed.", e.getCause());
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while analysing sentences.", e);
+    } finally {
+      executor.shutdownNow();
     }
+  }
 
-    MyFileWriter writer = new MyFileWriter(filename);
+  /**
+   * Analyses the sentences with {@link #threads} threads, one task per
+   * sentence and module.
+   *
+   * @param sentences The sentences in corpus order.
+   * @param moduleList The modules.
+   * @param sems The results, by module and sentence.
+   */
+  private void findSentimentsConcurrently(List<SentenceObj> sentences, List<Module> moduleList,
+          Semantics[][] sems) {
+    final int listSize = sentences.size();
+    final int tasks = listSize * moduleList.size();
+    log.log(Level.INFO, "Analysing sentences with {0} threads, one task per module.\n", threads);
+    final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, tasks)));
     try {
-      writer.writeToFile(this.salsaCon.getCorpus().toString());
-    } catch (IOException e) {
+      final List<Future<Semantics>> results = new ArrayList<Future<Semantics>>(tasks);
+      for (int i = 0; i < listSize; i++) {
+        final int index = i;
+        final SentenceObj sentence = sentences.get(i);
+        if (Trace.enabled(sentence)) {
+          Trace.event(sentence, "sentence", "text", sentence);
+        }
+        for (final Module module : moduleList) {
+          results.add(executor.submit(new Callable<Semantics>() {
+            @Override
+            public Semantics call() {
+              return findSentiment(Collections.<Module>singleton(module), index);
+            }
+          }));
+        }
+      }
+      for (int i = 0; i < listSize; i++) {
+        for (int k = 0; k < moduleList.size(); k++) {
+          try {
+            sems[k][i] = results.get(i * moduleList.size() + k).get();
+          } catch (ExecutionException e) {
+            throw new RuntimeException("Analysis of sentence " + (i + 1) + " by "
+                    + moduleList.get(k).getClass().getSimpleName() + " failed.", e.getCause());
+          }
+        }
+        Metrics.get().sentenceDone(listSize);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while analysing sentences.", e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
 
-      e.printStackTrace();
+  /**
+   * Adds the sentiment information of a sentence to the Salsa XML structure
+   * and counts the sentence for the progress reports of {@link Metrics}.
+   *
+   * @param i The index of the sentence.
+   * @param listSize The number of sentences.
+   * @param sem The sentiment information.
+   */
+  private void setSem(int i, int listSize, Semantics sem) {
+    this.salsaCon.getSentences().get(i).setSem(sem);
+    Metrics.get().sentenceDone(listSize);
+    if (log.isLoggable(Level.FINER)) {
+      log.log(Level.FINER, "Sentence {0} of {1} done.", new Object[]{i + 1, listSize});
     }
   }
 }
@@ -1,16 +1,18 @@
 package polcla;
 
-import java.io.File;
+import java.io.BufferedReader;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
-import java.util.Scanner;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
 
 /**
  * SentimentLex object contains all informations from a given sentiment lexicon
@@ -20,9 +22,27 @@ public class SentimentLex {
 
   private final static Logger log = Logger.getLogger(SentimentLex.class.getName());
 
+  /**
+   * Form of a lexicon line, e.g. "fehlschlagen NEG=0.7 verben".
+   */
+  private static final Pattern LINE_FORMAT = Pattern.compile("[\\w+[-_äöüÄÖÜß]*\\w*]+\\s\\w\\w\\w=\\d.?\\d?\\s\\w+");
+
   List<SentimentUnit> sentimentList = new ArrayList<SentimentUnit>();
 
   Map<String, SentimentUnit> sentimentMap = new HashMap<String, SentimentUnit>();
+
+  /**
+   * Index of {@link #sentimentList} by lemma (or underscore-joined MWE). Kept
+   * in sync by {@link #addSentiment(SentimentUnit)} and
+   * {@link #removeSentiment(SentimentUnit)}.
+   */
+  private final LexiconIndex<SentimentUnit> sentimentIndex = new LexiconIndex<SentimentUnit>();
+
+  /**
+   * The multi word expressions of the lexicon, compiled for matching against
+   * dependency graphs.
+   */
+  private final MweTrie<SentimentUnit> mweTrie;
   boolean flexibleMWEs = false;
   String[] collectSubjectiveExpressions = {""};
   private final boolean include_neutral;
@@ -31,59 +51,16 @@ public class SentimentLex {
    * Constructs a new SentimentLex
    *
    * @param flexMWE indicates if the multi word expressions in the lexicon
-   * should be interpreted in a flexible way (more info see
-   * {@link #mweFlexibility(SentimentUnit)}).
+   * should be interpreted in a flexible way (more info see {@link MweTrie}).
    * @param include_neutral If true, neutral expressions of german lex will be
    * taken into account too.
    */
   public SentimentLex(boolean flexMWE, boolean include_neutral) {
-    log.setLevel(Level.FINE);
     this.flexibleMWEs = flexMWE;
+    this.mweTrie = new MweTrie<SentimentUnit>(flexMWE);
     this.include_neutral = include_neutral;
   }
 
-  // Lists containing words for flexible mwe interpretations.
-  // Used in the method mweFlexibility of this class.
-  /**
-   * List containing reflexive nominatives for flexible interpretations. If mwe
-   * contains "sich". "mich", "Mich", "dich", "Dich", "ihn", "Ihn", "es", "Es",
-   * "euch", "Euch", "Sie"
-   */
-  private final List<String> sichAlternatives = Arrays.asList("mich", "Mich", "dich", "Dich", "ihn", "Ihn", "es", "Es",
-          "euch", "Euch", "Sie");
-
-  /**
-   * List containing seinenAlternatives for flexible interpretations. If mwe
-   * contains "seinen" or "seinem". "meine", "Meine", "deine", "Deine", "ihre",
-   * "eure", "Ihre", "unsere", "Unsere"
-   */
-  private final List<String> seinenAlternatives = Arrays.asList("meine", "Meine", "deine", "Deine", "ihre", "eure", "Ihre",
-          "unsere", "Unsere");
-
-  /**
-   * List containing words for flexible interpretations. If mwe contains "den".
-   * "einen", "dem"
-   */
-  private final List<String> denAlternatives = Arrays.asList("einen", "dem");
-
-  /**
-   * List containing words for flexible interpretations. If mwe contains "ein".
-   * "kein"
-   */
-  private final List<String> einAlternatives = Arrays.asList("kein");
-
-  /**
-   * List containing words for flexible interpretations. If mwe contains
-   * "einen". "keinen"
-   */
-  private final List<String> einenAlternatives = Arrays.asList("keinen");
-
-  /**
-   * List containing words for flexible interpretations. If mwe contains "sein".
-   * "werden"
-   */
-  private final List<String> seinAlternatives = Arrays.asList("werden");
-
   /**
    * Returns the SentimentUnit corresponding to the given name or null.
    *
@@ -92,78 +69,50 @@ public class SentimentLex {
    * given name exists
    */
   public SentimentUnit getSentiment(String name) {
-    for (int i = 0; i < sentimentList.size(); i++) {
-      SentimentUnit tmp = (SentimentUnit) sentimentList.get(i);
-      if (tmp.mwe) {
-        String mweParts = new String();
-        for (String mwePart : tmp.collocations) {
-          mweParts += mwePart + "_";
-        }
-        mweParts += tmp.name;
-        if (mweParts.equals(name)) {
-          return tmp;
-        }
-      } else {
-        if (tmp.name.equals(name)) {
-          return tmp;
-        }
-      }
-    }
-    return null;
+    return sentimentIndex.getFirst(name);
   }
 
   /**
    * Returns the SentimentUnits (more than one if there is more than one lexicon
    * entry) corresponding to the given name or null. Up to 50 entries possible
-   * for one sentiment.
+   * for one sentiment. The entries are returned in lexicon order.
    *
    * @param name The name of the sentiment to look for.
-   * @return SentimentUnit for a given name or null if no SentimentUnit with the
-   * given name exists
+   * @return Unmodifiable list of SentimentUnits for a given name or null if no
+   * SentimentUnit with the given name exists
    */
-  public ArrayList<SentimentUnit> getAllSentiments(String name) {
-    ArrayList<SentimentUnit> sentiments = new ArrayList<SentimentUnit>();
-    for (SentimentUnit sentimentList1 : sentimentList) {
-      SentimentUnit tmp = (SentimentUnit) sentimentList1;
-      if (tmp.mwe) {
-        String mweParts = new String();
-        for (String mwePart : tmp.collocations) {
-          mweParts += mwePart + "_";
-        }
-        mweParts += tmp.name;
-        if (mweParts.equals(name)) {
-          sentiments.add(tmp);
-        }
-      } else {
-        if (tmp.name.equals(name)) {
-          sentiments.add(tmp);
-        }
-      }
-    }
-    if (!sentiments.isEmpty()) {
-      return sentiments;
-    } else {
-      return null;
-    }
+  public List<SentimentUnit> getAllSentiments(String name) {
+    return sentimentIndex.get(name);
+  }
+
+  /**
+   * Returns all multi word expressions of the lexicon that are found in a
+   * sentence, including their flexible interpretations.
+   *
+   * @param graph The dependency graph of the sentence.
+   * @return The MWE hits, ordered by the position of their last word.
+   */
+  List<MweTrie.Hit<SentimentUnit>> matchMWEs(DependencyGraph graph) {
+    return mweTrie.match(graph);
   }
 
   /**
-   * Adds a sentiment expression to the internal lexicon, possibly interpreting
-   * the with some flexibility (for MWEs).
+   * Adds a sentiment expression to the internal lexicon. MWEs are also
+   * compiled into the {@link MweTrie}, possibly interpreting them with some
+   * flexibility.
    *
    * @param sentiment is added to SentimentLex
    */
   public void addSentiment(SentimentUnit sentiment) {
-    if (!sentimentList.contains(sentiment)) {
+    String key = LexiconIndex.key(sentiment.name, sentiment.collocations, sentiment.mwe);
+    if (!sentimentIndex.contains(key, sentiment)) {
+      sentiment.lookupKey = key;
       sentimentList.add(sentiment);
+      sentimentIndex.add(key, sentiment);
       addToMap(sentiment.name, sentiment);
 
-      if (sentiment.mwe && this.flexibleMWEs) {
-        for (SentimentUnit flex : mweFlexibility(sentiment)) {
-          sentimentList.add(flex);
-          addToMap(flex.name, flex);
-
-        }
+      if (sentiment.mwe) {
+        mweTrie.add(sentiment.name, sentiment.collocations, sentiment);
       }
     } else {
       System.err.println("Double entry in sentiment lexicon!: " + sentiment.name);
@@ -172,148 +121,38 @@ public class SentimentLex {
   }
 
   /**
-   * Returns an ArrayList of SenimentUnits that are the result of flexible
-   * interpretation of the given MWE SentimentUnit. Flexibility is applied
-   * w.r.t. the following words that are found in the MWE: 1) Reflexive
-   * pronouns: sich --> sich, mich, dich, ihn, ... etc 2) Possessive pronouns:
-   * seinen --> seinen, meinen, deinen, ... etc 3) Ein(en)/Kein(en): ein(en) -->
-   * ein(en), kein(en) 4) Sein/Werden: sein --> sein, werden 5) Other: den -->
-   * den, einen, dem
+   * Fills the lexicon with units read from a {@link LexiconSnapshot}, without
+   * the checks of {@link #addSentiment(SentimentUnit)}.
    *
-   * @param sentiment given a MWE SentimentUnit
-   * @return ArrayList of SentimentUnits that are created by flexibility
+   * @param units All units in lexicon order.
+   * @param index The units by lookup key.
    */
-  public ArrayList<SentimentUnit> mweFlexibility(SentimentUnit sentiment) {
-    boolean containsSich = false; // sich > mich, dich, ...
-    int sichIndex = -1;
-    boolean containsSeinen = false; // seinen > meinen, deinen, ...
-    int seinenIndex = -1;
-    boolean containsDen = false; // den > einen, dem
-    int denIndex = -1;
-    boolean containsEin = false; // ein > kein
-    int einIndex = -1;
-    boolean containsEinen = false; // einen > keinen
-    int einenIndex = -1;
-    boolean containsSein = false; // sein > werden
-    int seinIndex = -1;
-
-    for (int j = 0; j < sentiment.collocations.length; j++) {
-      if (sentiment.collocations[j].equals("sich")) {
-        containsSich = true;
-        sichIndex = j;
-      }
-      if (sentiment.collocations[j].equals("seinen") || sentiment.collocations[j].equals("seinem")) {
-        containsSeinen = true;
-        seinenIndex = j;
-      }
-      if (sentiment.collocations[j].equals("ein")) {
-        containsEin = true;
-        einIndex = j;
-      }
-      if (sentiment.collocations[j].equals("einen")) {
-        containsEinen = true;
-        einenIndex = j;
-      }
-      if (sentiment.collocations[j].equals("den")) {
-        containsDen = true;
-        denIndex = j;
-      }
-      if (sentiment.collocations[j].equals("sein")) {
-        containsSein = true;
-        seinIndex = j;
+  void restore(List<SentimentUnit> units, Map<String, List<SentimentUnit>> index) {
+    for (Map.Entry<String, List<SentimentUnit>> entry : index.entrySet()) {
+      for (SentimentUnit unit : entry.getValue()) {
+        unit.lookupKey = entry.getKey();
       }
+      sentimentIndex.put(entry.getKey(), entry.getValue());
     }
-
-    ArrayList<SentimentUnit> alternativeSUnits = new ArrayList<SentimentUnit>();
-    if (containsSich) {
-      String[] alternativeCollocations;
-      SentimentUnit alternativeSentiment;
-
-      for (String reflexive : sichAlternatives) {
-        alternativeSentiment = new SentimentUnit(sentiment.name, sentiment.category, sentiment.value, sentiment.pos,
-                sentiment.mwe);
-        alternativeCollocations = sentiment.collocations.clone();
-        alternativeCollocations[sichIndex] = reflexive;
-        alternativeSentiment.collocations = alternativeCollocations;
-        alternativeSUnits.add(alternativeSentiment);
-      }
-    }
-    if (containsSeinen) {
-      String[] alternativeCollocations;
-      SentimentUnit alternativeSentiment;
-      for (String reflexive : seinenAlternatives) {
-        alternativeSentiment = new SentimentUnit(sentiment.name, sentiment.category, sentiment.value, sentiment.pos,
-                sentiment.mwe);
-        alternativeCollocations = sentiment.collocations.clone();
-        alternativeCollocations[seinenIndex] = reflexive;
-        alternativeSentiment.collocations = alternativeCollocations;
-        alternativeSUnits.add(alternativeSentiment);
-      }
-    }
-
-    if (containsDen) {
-      SentimentUnit alternativeSentiment;
-      String[] alternativeCollocations;
-      for (String denOption : denAlternatives) {
-        alternativeSentiment = new SentimentUnit(sentiment.name, sentiment.category, sentiment.value, sentiment.pos,
-                sentiment.mwe);
-        alternativeCollocations = sentiment.collocations.clone();
-        alternativeCollocations[denIndex] = denOption;
-        alternativeSentiment.collocations = alternativeCollocations;
-        alternativeSUnits.add(alternativeSentiment);
-      }
-    }
-    if (containsEin) {
-      SentimentUnit alternativeSentiment;
-      String[] alternativeCollocations;
-      for (String einOption : einAlternatives) {
-        alternativeSentiment = new SentimentUnit(sentiment.name, sentiment.category, sentiment.value, sentiment.pos,
-                sentiment.mwe);
-        alternativeCollocations = sentiment.collocations.clone();
-        alternativeCollocations[einIndex] = einOption;
-        alternativeSentiment.collocations = alternativeCollocations;
-        alternativeSUnits.add(alternativeSentiment);
-      }
-    }
-    if (containsEinen) {
-      SentimentUnit alternativeSentiment;
-      String[] alternativeCollocations;
-      for (String einenOption : einenAlternatives) {
-        alternativeSentiment = new SentimentUnit(sentiment.name, sentiment.category, sentiment.value, sentiment.pos,
-                sentiment.mwe);
-        alternativeCollocations = sentiment.collocations.clone();
-        alternativeCollocations[einenIndex] = einenOption;
-        alternativeSentiment.collocations = alternativeCollocations;
-        alternativeSUnits.add(alternativeSentiment);
-      }
-    }
-    if (containsSein) {
-      SentimentUnit alternativeSentiment;
-      String[] alternativeCollocations;
-      for (String seinOption : seinAlternatives) {
-        alternativeSentiment = new SentimentUnit(sentiment.name, sentiment.category, sentiment.value, sentiment.pos,
-                sentiment.mwe);
-        alternativeCollocations = sentiment.collocations.clone();
-        alternativeCollocations[seinIndex] = seinOption;
-        alternativeSentiment.collocations = alternativeCollocations;
-        alternativeSUnits.add(alternativeSentiment);
+    for (SentimentUnit unit : units) {
+      sentimentList.add(unit);
+      addToMap(unit.name, unit);
+      if (unit.mwe) {
+        mweTrie.add(unit.name, unit.collocations, unit);
       }
     }
-    if (sentiment.name.equals("sein")) {
-      SentimentUnit alternativeSentiment = new SentimentUnit("werden", sentiment.category, sentiment.value,
-              sentiment.pos, sentiment.mwe);
-      alternativeSentiment.collocations = sentiment.collocations.clone();
-      alternativeSUnits.add(alternativeSentiment);
-    }
-
-    return alternativeSUnits;
   }
 
   /**
    * @param sentiment is removed from SentimentLex
    */
   public void removeSentiment(SentimentUnit sentiment) {
-    sentimentList.remove(sentiment);
+    if (sentimentList.remove(sentiment) && sentiment.lookupKey != null) {
+      sentimentIndex.remove(sentiment.lookupKey, sentiment);
+      if (sentiment.mwe) {
+        mweTrie.remove(sentiment.name, sentiment.collocations, sentiment);
+      }
+    }
   }
 
   /**
@@ -356,24 +195,20 @@ public class SentimentLex {
     Double value = 0.0;
     String pos = new String();
     Boolean mwe = Boolean.FALSE;
-    Scanner scanner;
-    List<String> checkForMultiEntry = new ArrayList<>();
-    List<String> neutralWords = new ArrayList<>();
+    Set<String> checkForMultiEntry = new HashSet<>();
+    Set<String> neutralWords = new HashSet<>();
 
-    try {
-      scanner = new Scanner(new File(filename), "UTF-8");
-      scanner.useLocale(Locale.GERMANY);
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(filename), "UTF-8"))) {
       String inputLine;
 
-      while (scanner.hasNext()) {
-        inputLine = scanner.nextLine();
+      while ((inputLine = reader.readLine()) != null) {
 
         // Ignore lines starting with "%%" (comments).
         if (!(inputLine.startsWith("%%"))) {
 
           // Ignore lines without the correct form.
           // Correct form example: fehlschlagen NEG=0.7 verben
-          if (inputLine.matches("[\\w+[-_äöüÄÖÜß]*\\w*]+\\s\\w\\w\\w=\\d.?\\d?\\s\\w+")) {
+          if (LINE_FORMAT.matcher(inputLine).matches()) {
 
             wordFromInput = inputLine.substring(0, inputLine.indexOf(" "));
             if (checkForMultiEntry.contains(wordFromInput)) {
@@ -394,16 +229,17 @@ public class SentimentLex {
 
             category = inputLine.substring(inputLine.indexOf(" ") + 1, inputLine.indexOf("="));
 
-            Locale original = Locale.getDefault();
-            Locale.setDefault(new Locale("de", "DE"));
-            try (Scanner doubleScanner = new Scanner(inputLine.substring(inputLine.indexOf("=") + 1).replace('.', ','))) {
-              if (doubleScanner.hasNextDouble()) {
-                value = doubleScanner.nextDouble();
-              } else {
-                log.log(Level.FINE, "no valueToSetFeatureTo has been found for: {0}", wordFromInput);
-              }
-            } finally {
-              Locale.setDefault(original);
+            // Values are written with a decimal point or a decimal comma.
+            int valueStart = inputLine.indexOf("=") + 1;
+            int valueEnd = valueStart;
+            while (valueEnd < inputLine.length() && !Character.isWhitespace(inputLine.charAt(valueEnd))) {
+              valueEnd++;
+            }
+            String valueStr = inputLine.substring(valueStart, valueEnd);
+            try {
+              value = Double.parseDouble(valueStr.replace(',', '.'));
+            } catch (NumberFormatException e) {
+              log.log(Level.FINE, "no valueToSetFeatureTo has been found for: {0}", wordFromInput);
             }
 
             pos = inputLine.substring(inputLine.lastIndexOf(" ") + 1, inputLine.length());
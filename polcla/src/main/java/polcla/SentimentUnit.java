@@ -2,6 +2,8 @@ package polcla;
 
 import java.util.Arrays;
 
+import salsa.corpora.noelement.SymbolTable;
+
 /**
  * SentimentUnit object contains the informations of one sentiment expression
  * 
@@ -19,8 +21,14 @@ public class SentimentUnit {
 	String category;
 	String value;
 	String pos;
+	LexiconPos lexiconPos;
 	Boolean mwe;
 	String[] collocations;
+	/**
+	 * Key under which the unit is indexed in its {@link SentimentLex}, e.g.
+	 * "froh_gestimmt". Set when the unit is added to the lexicon.
+	 */
+	String lookupKey;
 
 	/**
 	 * 
@@ -32,15 +40,16 @@ public class SentimentUnit {
 	 */
 	public SentimentUnit(String name, String category, String value, String pos, Boolean mwe) {
 		if (mwe) {
-			String[] parts = name.split("_");
+			String[] parts = SymbolTable.intern(name.split("_"));
 			this.name = parts[parts.length - 1];
 			this.collocations = Arrays.copyOfRange(parts, 0, parts.length - 1);
 		} else {
-			this.name = name;
+			this.name = SymbolTable.intern(name);
 			this.collocations = new String[0];
 		}
-		this.category = category;
-		this.pos = pos;
+		this.category = SymbolTable.intern(category);
+		this.pos = SymbolTable.intern(pos);
+		this.lexiconPos = LexiconPos.of(pos);
 		this.mwe = mwe;
 		this.value = value;
 	}
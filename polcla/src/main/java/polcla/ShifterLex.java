@@ -1,15 +1,15 @@
 package polcla;
 
-import java.io.File;
+import java.io.BufferedReader;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
-import java.util.Scanner;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
 
 
 /**
@@ -18,6 +18,12 @@ import java.util.logging.Logger;
  */
 public class ShifterLex {
 	private final static Logger log = Logger.getLogger(ShifterLex.class.getName());
+
+	/**
+	 * Form of a lexicon line, e.g. "Fehlschlag p [subj,attr-rev] nomen".
+	 */
+	private static final Pattern LINE_FORMAT = Pattern.compile("[\\w+[-_äöüÄÖÜß]*\\w*]+\\s\\w\\s\\[[\\w+[-\\*,\"]*\\s*]+\\]\\s\\w+");
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
 	
 	// Constants
 	public static final String SHIFTER_TYPE_GENERAL = "general";
@@ -26,6 +32,19 @@ public class ShifterLex {
 
 	List<ShifterUnit> shifterList = new ArrayList<ShifterUnit>();
 	Map<String, ShifterUnit> shifterMap = new HashMap<String, ShifterUnit>();
+
+	/**
+	 * Index of {@link #shifterList} by lemma (or underscore-joined MWE). Kept in
+	 * sync by {@link #addShifter(ShifterUnit)} and
+	 * {@link #removeShifter(ShifterUnit)}.
+	 */
+	private final LexiconIndex<ShifterUnit> shifterIndex = new LexiconIndex<ShifterUnit>();
+
+	/**
+	 * The multi word expressions of the lexicon, compiled for matching against
+	 * dependency graphs.
+	 */
+	private final MweTrie<ShifterUnit> mweTrie;
 	boolean flexibleMWEs = false;
 	String[] collectSubjectiveExpressions = { "" };
 
@@ -34,55 +53,13 @@ public class ShifterLex {
 	 *
 	 * @param flexMWE
 	 *          indicates if the multi word expressions in the lexicon should be
-	 *          interpreted in a flexible way (more info see
-	 *          {@link #mweFlexibility(ShifterUnit)}).
+	 *          interpreted in a flexible way (more info see {@link MweTrie}).
 	 */
 	public ShifterLex(boolean flexMWE) {
 		this.flexibleMWEs = flexMWE;
+		this.mweTrie = new MweTrie<ShifterUnit>(flexMWE);
 	}
 
-	// Lists containing words for flexible mwe interpretations.
-	// Used in the method mweFlexibility of this class.
-	/**
-	 * List containing reflexive nominatives for flexible interpretations. If mwe
-	 * contains "sich". "mich", "Mich", "dich", "Dich", "ihn", "Ihn", "es", "Es",
-	 * "euch", "Euch", "Sie"
-	 */
-	private List<String> sichAlternatives = Arrays.asList("mich", "Mich", "dich", "Dich", "ihn", "Ihn", "es", "Es",
-			"euch", "Euch", "Sie");
-
-	/**
-	 * List containing seinenAlternatives for flexible interpretations. If mwe
-	 * contains "seinen" or "seinem". "meine", "Meine", "deine", "Deine", "ihre",
-	 * "eure", "Ihre", "unsere", "Unsere"
-	 */
-	private List<String> seinenAlternatives = Arrays.asList("meine", "Meine", "deine", "Deine", "ihre", "eure", "Ihre",
-			"unsere", "Unsere");
-
-	/**
-	 * List containing words for flexible interpretations. If mwe contains "den".
-	 * "einen", "dem"
-	 */
-	private List<String> denAlternatives = Arrays.asList("einen", "dem");
-
-	/**
-	 * List containing words for flexible interpretations. If mwe contains "ein".
-	 * "kein"
-	 */
-	private List<String> einAlternatives = Arrays.asList("kein");
-
-	/**
-	 * List containing words for flexible interpretations. If mwe contains
-	 * "einen". "keinen"
-	 */
-	private List<String> einenAlternatives = Arrays.asList("keinen");
-
-	/**
-	 * List containing words for flexible interpretations. If mwe contains "sein".
-	 * "werden"
-	 */
-	private List<String> seinAlternatives = Arrays.asList("werden");
-
 	/**
 	 * Returns the ShifterUnit corresponding to the given name or null.
 	 *
@@ -92,219 +69,77 @@ public class ShifterLex {
 	 *         given name exists
 	 */
 	public ShifterUnit getShifter(String name) {
-		for (int i = 0; i < shifterList.size(); i++) {
-			ShifterUnit tmp = (ShifterUnit) shifterList.get(i);
-			if (tmp.mwe) {
-				String mweParts = new String();
-				for (String mwePart : tmp.collocations) {
-					mweParts += mwePart + "_";
-				}
-				mweParts += tmp.name;
-				if (mweParts.equals(name)) {
-					return tmp;
-				}
-			} else {
-				if (tmp.name.equals(name)) {
-					return tmp;
-				}
-			}
-		}
-		return null;
+		return shifterIndex.getFirst(name);
 	}
 
 	/**
 	 * Returns the ShifterUnits (more than one if there is more than one lexicon
 	 * entry) corresponding to the given name or null. Up to 50 entries possible
-	 * for one shifter.
+	 * for one shifter. The entries are returned in lexicon order.
 	 *
 	 * @param name
 	 *          The name of the shifter to look for.
-	 * @return ShifterUnit for a given name or null if no ShifterUnit with the
-	 *         given name exists
+	 * @return Unmodifiable list of ShifterUnits for a given name or null if no
+	 *         ShifterUnit with the given name exists
 	 */
-	public ArrayList<ShifterUnit> getAllShifters(String name) {
-		ArrayList<ShifterUnit> shifters = new ArrayList<ShifterUnit>();
-		for (int i = 0; i < shifterList.size(); i++) {
-			ShifterUnit tmp = (ShifterUnit) shifterList.get(i);
-			if (tmp.mwe) {
-				String mweParts = new String();
-				for (String mwePart : tmp.collocations) {
-					mweParts += mwePart + "_";
-				}
-				mweParts += tmp.name;
-				if (mweParts.equals(name)) {
-					shifters.add(tmp);
-				}
-			} else {
-				if (tmp.name.equals(name)) {
-					shifters.add(tmp);
-				}
-			}
-		}
-		if (!shifters.isEmpty()) {
-			return shifters;
-		} else {
-			return null;
-		}
+	public List<ShifterUnit> getAllShifters(String name) {
+		return shifterIndex.get(name);
+	}
+
+	/**
+	 * Returns all multi word expressions of the lexicon that are found in a
+	 * sentence, including their flexible interpretations.
+	 *
+	 * @param graph
+	 *          The dependency graph of the sentence.
+	 * @return The MWE hits, ordered by the position of their last word.
+	 */
+	List<MweTrie.Hit<ShifterUnit>> matchMWEs(DependencyGraph graph) {
+		return mweTrie.match(graph);
 	}
 
 	/**
-	 * Adds a shifter expression to the internal lexicon, possibly interpreting
-	 * the with some flexibility (for MWEs).
+	 * Adds a shifter expression to the internal lexicon. MWEs are also compiled
+	 * into the {@link MweTrie}, possibly interpreting them with some
+	 * flexibility.
 	 *
 	 * @param shifter
 	 *          is added to ShifterLex
 	 * @return nothing (void)
 	 */
 	public void addShifter(ShifterUnit shifter) {
+		shifter.lookupKey = LexiconIndex.key(shifter.name, shifter.collocations, shifter.mwe);
 		shifterList.add(shifter);
+		shifterIndex.add(shifter.lookupKey, shifter);
 		addToMap(shifter.name, shifter);
 
-		if (shifter.mwe && this.flexibleMWEs) {
-			for (ShifterUnit flex : mweFlexibility(shifter)) {
-				shifterList.add(flex);
-				addToMap(flex.name, flex);
-			}
+		if (shifter.mwe) {
+			mweTrie.add(shifter.name, shifter.collocations, shifter);
 		}
 	}
 
 	/**
-	 * Returns an ArrayList of SenimentUnits that are the result of flexible
-	 * interpretation of the given MWE ShifterUnit. Flexibility is applied w.r.t.
-	 * the following words that are found in the MWE: 1) Reflexive pronouns: sich
-	 * --> sich, mich, dich, ihn, ... etc 2) Possessive pronouns: seinen -->
-	 * seinen, meinen, deinen, ... etc 3) Ein(en)/Kein(en): ein(en) --> ein(en),
-	 * kein(en) 4) Sein/Werden: sein --> sein, werden 5) Other: den --> den,
-	 * einen, dem
+	 * Fills the lexicon with units read from a {@link LexiconSnapshot}.
 	 *
-	 * @param shifter
-	 *          given a MWE ShifterUnit
-	 * @return ArrayList of ShifterUnits that are created by flexibility
+	 * @param units
+	 *          All units in lexicon order.
+	 * @param index
+	 *          The units by lookup key.
 	 */
-	public ArrayList<ShifterUnit> mweFlexibility(ShifterUnit shifter) {
-		boolean containsSich = false; // sich > mich, dich, ...
-		int sichIndex = -1;
-		boolean containsSeinen = false; // seinen > meinen, deinen, ...
-		int seinenIndex = -1;
-		boolean containsDen = false; // den > einen, dem
-		int denIndex = -1;
-		boolean containsEin = false; // ein > kein
-		int einIndex = -1;
-		boolean containsEinen = false; // einen > keinen
-		int einenIndex = -1;
-		boolean containsSein = false; // sein > werden
-		int seinIndex = -1;
-
-		for (int j = 0; j < shifter.collocations.length; j++) {
-			if (shifter.collocations[j].equals("sich")) {
-				containsSich = true;
-				sichIndex = j;
-			}
-			if (shifter.collocations[j].equals("seinen") || shifter.collocations[j].equals("seinem")) {
-				containsSeinen = true;
-				seinenIndex = j;
-			}
-			if (shifter.collocations[j].equals("ein")) {
-				containsEin = true;
-				einIndex = j;
-			}
-			if (shifter.collocations[j].equals("einen")) {
-				containsEinen = true;
-				einenIndex = j;
-			}
-			if (shifter.collocations[j].equals("den")) {
-				containsDen = true;
-				denIndex = j;
-			}
-			if (shifter.collocations[j].equals("sein")) {
-				containsSein = true;
-				seinIndex = j;
-			}
-		}
-
-		ArrayList<ShifterUnit> alternativeSUnits = new ArrayList<ShifterUnit>();
-		if (containsSich) {
-			String[] alternativeCollocations;
-			ShifterUnit alternativeShifter;
-
-			for (String reflexive : sichAlternatives) {
-				alternativeShifter = new ShifterUnit(shifter.name, shifter.shifter_type, shifter.shifter_scope,
-						shifter.shifter_pos, shifter.mwe);
-				alternativeCollocations = shifter.collocations.clone();
-				alternativeCollocations[sichIndex] = reflexive;
-				alternativeShifter.collocations = alternativeCollocations;
-				alternativeSUnits.add(alternativeShifter);
-			}
-		}
-		if (containsSeinen) {
-			String[] alternativeCollocations;
-			ShifterUnit alternativeShifter;
-			for (String reflexive : seinenAlternatives) {
-				alternativeShifter = new ShifterUnit(shifter.name, shifter.shifter_type, shifter.shifter_scope,
-						shifter.shifter_pos, shifter.mwe);
-				alternativeCollocations = shifter.collocations.clone();
-				alternativeCollocations[seinenIndex] = reflexive;
-				alternativeShifter.collocations = alternativeCollocations;
-				alternativeSUnits.add(alternativeShifter);
-			}
-		}
-
-		if (containsDen) {
-			ShifterUnit alternativeShifter;
-			String[] alternativeCollocations;
-			for (String denOption : denAlternatives) {
-				alternativeShifter = new ShifterUnit(shifter.name, shifter.shifter_type, shifter.shifter_scope,
-						shifter.shifter_pos, shifter.mwe);
-				alternativeCollocations = shifter.collocations.clone();
-				alternativeCollocations[denIndex] = denOption;
-				alternativeShifter.collocations = alternativeCollocations;
-				alternativeSUnits.add(alternativeShifter);
-			}
-		}
-		if (containsEin) {
-			ShifterUnit alternativeShifter;
-			String[] alternativeCollocations;
-			for (String einOption : einAlternatives) {
-				alternativeShifter = new ShifterUnit(shifter.name, shifter.shifter_type, shifter.shifter_scope,
-						shifter.shifter_pos, shifter.mwe);
-				alternativeCollocations = shifter.collocations.clone();
-				alternativeCollocations[einIndex] = einOption;
-				alternativeShifter.collocations = alternativeCollocations;
-				alternativeSUnits.add(alternativeShifter);
-			}
-		}
-		if (containsEinen) {
-			ShifterUnit alternativeShifter;
-			String[] alternativeCollocations;
-			for (String einenOption : einenAlternatives) {
-				alternativeShifter = new ShifterUnit(shifter.name, shifter.shifter_type, shifter.shifter_scope,
-						shifter.shifter_pos, shifter.mwe);
-				alternativeCollocations = shifter.collocations.clone();
-				alternativeCollocations[einenIndex] = einenOption;
-				alternativeShifter.collocations = alternativeCollocations;
-				alternativeSUnits.add(alternativeShifter);
+	void restore(List<ShifterUnit> units, Map<String, List<ShifterUnit>> index) {
+		for (Map.Entry<String, List<ShifterUnit>> entry : index.entrySet()) {
+			for (ShifterUnit unit : entry.getValue()) {
+				unit.lookupKey = entry.getKey();
 			}
+			shifterIndex.put(entry.getKey(), entry.getValue());
 		}
-		if (containsSein) {
-			ShifterUnit alternativeShifter;
-			String[] alternativeCollocations;
-			for (String seinOption : seinAlternatives) {
-				alternativeShifter = new ShifterUnit(shifter.name, shifter.shifter_type, shifter.shifter_scope,
-						shifter.shifter_pos, shifter.mwe);
-				alternativeCollocations = shifter.collocations.clone();
-				alternativeCollocations[seinIndex] = seinOption;
-				alternativeShifter.collocations = alternativeCollocations;
-				alternativeSUnits.add(alternativeShifter);
+		for (ShifterUnit unit : units) {
+			shifterList.add(unit);
+			addToMap(unit.name, unit);
+			if (unit.mwe) {
+				mweTrie.add(unit.name, unit.collocations, unit);
 			}
 		}
-		if (shifter.name.equals("sein")) {
-			ShifterUnit alternativeShifter = new ShifterUnit(shifter.name, shifter.shifter_type, shifter.shifter_scope,
-					shifter.shifter_pos, shifter.mwe);
-			alternativeShifter.collocations = shifter.collocations.clone();
-			alternativeSUnits.add(alternativeShifter);
-		}
-
-		return alternativeSUnits;
 	}
 
 	/**
@@ -312,7 +147,12 @@ public class ShifterLex {
 	 *          is removed from ShifterLex
 	 */
 	public void removeShifter(ShifterUnit shifter) {
-		shifterList.remove(shifter);
+		if (shifterList.remove(shifter) && shifter.lookupKey != null) {
+			shifterIndex.remove(shifter.lookupKey, shifter);
+			if (shifter.mwe) {
+				mweTrie.remove(shifter.name, shifter.collocations, shifter);
+			}
+		}
 	}
 
 	/*
@@ -342,22 +182,18 @@ public class ShifterLex {
 		String[] shifter_scope;
 		String shifter_pos = new String();
 		Boolean mwe = Boolean.FALSE;
-		Scanner scanner;
 
-		try {
-			scanner = new Scanner(new File(filename), "UTF-8");
-			scanner.useLocale(Locale.GERMANY);
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(filename), "UTF-8"))) {
 			String inputLine;
 
-			while (scanner.hasNext()) {
-				inputLine = scanner.nextLine();
+			while ((inputLine = reader.readLine()) != null) {
 
 				// Ignore lines starting with "%%" (comments).
 				if (!(inputLine.startsWith("%%"))) {
 
 					// Ignore lines without the correct form.
 					// Correct form example: Fehlschlag p [subj,attr-rev] nomen
-					if (inputLine.matches("[\\w+[-_äöüÄÖÜß]*\\w*]+\\s\\w\\s\\[[\\w+[-\\*,\"]*\\s*]+\\]\\s\\w+")) {
+					if (LINE_FORMAT.matcher(inputLine).matches()) {
 
 						shifterStr = inputLine.substring(0, inputLine.indexOf(" "));
 						// System.out.println("shifter: " + shifterStr);
@@ -381,7 +217,8 @@ public class ShifterLex {
 							shifter_type_written_out = shifter_type;
 						}
 
-						shifter_scope_str = inputLine.substring(inputLine.lastIndexOf("[") + 1, inputLine.lastIndexOf("]")).replaceAll("\\s+", "");
+						shifter_scope_str = inputLine.substring(inputLine.lastIndexOf("[") + 1, inputLine.lastIndexOf("]"));
+						shifter_scope_str = WHITESPACE.matcher(shifter_scope_str).replaceAll("");
 						shifter_scope = shifter_scope_str.split(",");
 						// System.out.println("shifter-scope: " +
 						// Arrays.toString(shifter_scope));
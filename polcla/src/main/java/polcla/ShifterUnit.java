@@ -2,6 +2,8 @@ package polcla;
 
 import java.util.Arrays;
 
+import salsa.corpora.noelement.SymbolTable;
+
 /**
  * ShifterUnit object contains the informations of one shifter expression
  * 
@@ -15,8 +17,14 @@ public class ShifterUnit {
 	String shifter_type;
 	String[] shifter_scope;
 	String shifter_pos;
+	LexiconPos lexiconPos;
 	Boolean mwe;
 	String[] collocations;
+	/**
+	 * Key under which the unit is indexed in its {@link ShifterLex}, e.g.
+	 * "sich_enthalten". Set when the unit is added to the lexicon.
+	 */
+	String lookupKey;
 
 	/**
 	 * 
@@ -34,16 +42,17 @@ public class ShifterUnit {
 	 */
 	public ShifterUnit(String name, String shifter_type, String[] shifter_scope, String shifter_pos, Boolean mwe) {
 		if (mwe) {
-			String[] parts = name.split("_");
+			String[] parts = SymbolTable.intern(name.split("_"));
 			this.name = parts[parts.length - 1];
 			this.collocations = Arrays.copyOfRange(parts, 0, parts.length - 1);
 		} else {
-			this.name = name;
+			this.name = SymbolTable.intern(name);
 			this.collocations = new String[0];
 		}
-		this.shifter_type = shifter_type;
-		this.shifter_scope = shifter_scope;
-		this.shifter_pos = shifter_pos;
+		this.shifter_type = SymbolTable.intern(shifter_type);
+		this.shifter_scope = SymbolTable.intern(shifter_scope);
+		this.shifter_pos = SymbolTable.intern(shifter_pos);
+		this.lexiconPos = LexiconPos.of(shifter_pos);
 		this.mwe = mwe;
 	}
 
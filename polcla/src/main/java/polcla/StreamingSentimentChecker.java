@@ -0,0 +1,286 @@
+package polcla;
+
+import salsa.corpora.elements.Corpus;
+import salsa.corpora.elements.Semantics;
+import salsa.corpora.elements.Sentence;
+import salsa.corpora.xmlwriter.CorpusWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Streaming variant of {@link SentimentChecker} for corpora that do not fit
+ * into memory.
+ *
+ * The raw text, the dependency parse and the Salsa / Tiger XML file are read
+ * in lockstep: for every &lt;s&gt; element of the XML file, the next line of
+ * the raw text and the next sentence of the dependency parse are read, the
+ * sentence is analysed and its &lt;s&gt; element is written to the output file
+ * right away. Only the sentence that is currently analysed is kept in memory.
+ * The output is the same as that of {@link SentimentChecker}; it is flushed
+ * after every sentence.
+ *
+ * The XML file is read with a {@link salsa.corpora.xmlparser.CorpusReader}
+ * and is not validated. Sentences are analysed one after the other.
+ *
+ * With {@link #findSentimentsPerModule}, the frames of each module are written
+ * to a separate output file, and the modules may analyse a sentence
+ * concurrently.
+ */
+public class StreamingSentimentChecker {
+
+  private final static Logger log = Logger.getLogger(StreamingSentimentChecker.class.getName());
+  private final SalsaAPIConnective salsaCon;
+  private final Set<Module> modules;
+  private final boolean normalize;
+  private final int threads;
+  private SentenceCache cache;
+
+  /**
+   *
+   * @param salsaCon A {@link SalsaAPIConnective} created with
+   * {@link SalsaAPIConnective#SalsaAPIConnective()}. It reads the XML file and
+   * the modules use it to look up preset subjective expressions.
+   * @param modules The modules that will be used to find sentiment expressions
+   * @param normalize If true, the dependency graphs are normalized.
+   */
+  public StreamingSentimentChecker(SalsaAPIConnective salsaCon, Set<Module> modules, boolean normalize) {
+    this(salsaCon, modules, normalize, 1);
+  }
+
+  /**
+   *
+   * @param salsaCon A {@link SalsaAPIConnective} created with
+   * {@link SalsaAPIConnective#SalsaAPIConnective()}. It reads the XML file and
+   * the modules use it to look up preset subjective expressions.
+   * @param modules The modules that will be used to find sentiment expressions
+   * @param normalize If true, the dependency graphs are normalized.
+   * @param threads The number of threads with which the modules analyse a
+   * sentence in {@link #findSentimentsPerModule}. 1 analyses in the calling
+   * thread, 0 or less uses one thread per available processor.
+   */
+  public StreamingSentimentChecker(SalsaAPIConnective salsaCon, Set<Module> modules, boolean normalize,
+          int threads) {
+    this.salsaCon = salsaCon;
+    this.modules = modules;
+    this.normalize = normalize;
+    this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * Sets the cache from which unchanged sentences are served, see
+   * {@link SentenceCache}.
+   *
+   * @param cache The cache, or null to analyse every sentence.
+   */
+  public void setCache(SentenceCache cache) {
+    this.cache = cache;
+  }
+
+  /**
+   * Analyses all sentences and writes the Salsa XML structure to filename.
+   *
+   * @param textInput The path of the raw text file, one sentence per line.
+   * @param dependencyInput The path of the ParZu dependency parse file.
+   * @param constituencyInput The path of the Salsa / Tiger XML file. In
+   * preset mode, this is the preset SE file.
+   * @param filename The path of the output file.
+   */
+  public void findSentiments(String textInput, String dependencyInput, String constituencyInput, String filename) {
+    findSentiments(textInput, dependencyInput, constituencyInput, Collections.singletonList(filename), false);
+  }
+
+  /**
+   * Like {@link #findSentiments(String, String, String, String)}, but the
+   * frames and sentence polarities of each module are written to a separate
+   * file, named by {@link SentimentChecker#moduleOutput(String, Module)}.
+   *
+   * @param textInput The path of the raw text file, one sentence per line.
+   * @param dependencyInput The path of the ParZu dependency parse file.
+   * @param constituencyInput The path of the Salsa / Tiger XML file. In
+   * preset mode, this is the preset SE file.
+   * @param filename The path of the output file, to which the names of the
+   * modules are added.
+   */
+  public void findSentimentsPerModule(String textInput, String dependencyInput, String constituencyInput,
+          String filename) {
+    List<String> outputs = new ArrayList<String>();
+    for (Module module : modules) {
+      outputs.add(SentimentChecker.moduleOutput(filename, module));
+    }
+    findSentiments(textInput, dependencyInput, constituencyInput, outputs, true);
+  }
+
+  private void findSentiments(String textInput, String dependencyInput, String constituencyInput,
+          List<String> filenames, boolean perModule) {
+    int idcount = 0;
+    final List<Module> moduleList = new ArrayList<Module>(modules);
+    final List<CorpusWriter> outs = new ArrayList<CorpusWriter>();
+    final ExecutorService executor = perModule && threads > 1 && moduleList.size() > 1
+            ? Executors.newFixedThreadPool(Math.min(threads, moduleList.size())) : null;
+    try (Scanner text = new Scanner(new File(textInput), "UTF-8");
+            Scanner dependencies = new Scanner(new File(dependencyInput), "UTF-8")) {
+      text.useLocale(Locale.GERMANY);
+      dependencies.useLocale(Locale.GERMANY);
+
+      Metrics metrics = Metrics.get();
+      Metrics.Timer timer = metrics.start(Metrics.Stage.CONSTITUENCY_PARSE);
+      salsaCon.open(constituencyInput);
+      timer.stop();
+      Corpus corpus = salsaCon.getCorpus();
+      SentimentChecker.annotateHead(corpus.getHead(), modules);
+
+      timer = metrics.start(Metrics.Stage.SERIALIZATION);
+      for (String filename : filenames) {
+        CorpusWriter out = new CorpusWriter(filename, true);
+        outs.add(out);
+        out.writeStart(corpus);
+      }
+      timer.stop();
+
+      while (true) {
+        timer = metrics.start(Metrics.Stage.CONSTITUENCY_PARSE);
+        Sentence salsaSentence = salsaCon.nextSentence();
+        ConstituencyTree tree = salsaSentence == null ? null : new ConstituencyTree(salsaSentence.getGraph());
+        timer.stop();
+        if (salsaSentence == null) {
+          break;
+        }
+        if (!text.hasNext()) {
+          System.err.println("The raw text has fewer sentences than " + constituencyInput + ".");
+          log.log(Level.SEVERE, "The raw text has fewer sentences than {0}.", constituencyInput);
+          break;
+        }
+        idcount++;
+        timer = metrics.start(Metrics.Stage.RAW_READ);
+        SentenceObj sentence = SentenceList.createSentence(text.nextLine(), idcount);
+        timer.stop();
+        if (dependencies.hasNext()) {
+          timer = metrics.start(Metrics.Stage.DEPENDENCY_READ);
+          SentenceList.readDependencyParse(dependencies, sentence);
+          timer.stop();
+        }
+        if (normalize) {
+          timer = metrics.start(Metrics.Stage.NORMALIZATION);
+          SentenceList.normalizeDependencyGraph(sentence);
+          timer.stop();
+        }
+        sentence.setTree(tree);
+
+        if (Trace.enabled(sentence)) {
+          Trace.event(sentence, "sentence", "text", sentence);
+        }
+        if (perModule) {
+          List<Semantics> sems = findSentimentPerModule(moduleList, sentence, salsaSentence, executor);
+          timer = metrics.start(Metrics.Stage.SERIALIZATION);
+          for (int k = 0; k < sems.size(); k++) {
+            salsaSentence.setSem(sems.get(k));
+            outs.get(k).writeSentence(salsaSentence);
+          }
+          timer.stop();
+        } else {
+          Semantics sem = SentimentChecker.findSentiment(modules, sentence, salsaSentence, cache);
+          salsaSentence.setSem(sem);
+          timer = metrics.start(Metrics.Stage.SERIALIZATION);
+          outs.get(0).writeSentence(salsaSentence);
+          timer.stop();
+        }
+
+        metrics.sentenceDone(0);
+        if (log.isLoggable(Level.FINER)) {
+          log.log(Level.FINER, "Sentence {0} done.", idcount);
+        }
+      }
+
+      timer = metrics.start(Metrics.Stage.SERIALIZATION);
+      for (CorpusWriter out : outs) {
+        out.writeEnd();
+      }
+      timer.stop();
+
+      if (text.hasNext()) {
+        System.err.println("The raw text has more sentences than " + constituencyInput + ".");
+        log.log(Level.WARNING, "The raw text has more sentences than {0}.", constituencyInput);
+      }
+    } catch (IOException | XMLStreamException e) {
+      e.printStackTrace();
+    } finally {
+      if (executor != null) {
+        executor.shutdownNow();
+      }
+      for (CorpusWriter out : outs) {
+        try {
+          out.close();
+        } catch (IOException e) {
+          e.printStackTrace();
+        }
+      }
+      try {
+        salsaCon.close();
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    }
+
+    System.out.println(idcount + " sentences have been analysed successfully.");
+    SentimentChecker.logStatistics(modules);
+  }
+
+  /**
+   * Analyses a sentence with each module separately.
+   *
+   * @param moduleList The modules.
+   * @param sentence The sentence.
+   * @param input The Tiger XML sentence of sentence, before its results are
+   * set.
+   * @param executor The threads on which the modules analyse the sentence
+   * concurrently, or null to analyse it in the calling thread.
+   * @return The results of the modules, in the order of moduleList.
+   */
+  private List<Semantics> findSentimentPerModule(List<Module> moduleList, final SentenceObj sentence,
+          final Sentence input, ExecutorService executor) {
+    final List<Semantics> sems = new ArrayList<Semantics>(moduleList.size());
+    if (executor == null) {
+      for (Module module : moduleList) {
+        sems.add(SentimentChecker.findSentiment(Collections.singleton(module), sentence, input, cache));
+      }
+      return sems;
+    }
+    final List<Future<Semantics>> results = new ArrayList<Future<Semantics>>(moduleList.size());
+    for (final Module module : moduleList) {
+      results.add(executor.submit(new Callable<Semantics>() {
+        @Override
+        public Semantics call() {
+          return SentimentChecker.findSentiment(Collections.<Module>singleton(module), sentence, input, cache);
+        }
+      }));
+    }
+    for (int k = 0; k < moduleList.size(); k++) {
+      try {
+        sems.add(results.get(k).get());
+      } catch (ExecutionException e) {
+        throw new RuntimeException("Analysis of sentence " + sentence.id.getId() + " by "
+                + moduleList.get(k).getClass().getSimpleName() + " failed.", e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Interrupted while analysing sentences.", e);
+      }
+    }
+    return sems;
+  }
+}
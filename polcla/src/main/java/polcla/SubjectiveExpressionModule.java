@@ -1,9 +1,15 @@
 package polcla;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import salsa.corpora.elements.Fenode;
@@ -11,10 +17,7 @@ import salsa.corpora.elements.Flag;
 import salsa.corpora.elements.Frame;
 import salsa.corpora.elements.FrameElement;
 import salsa.corpora.elements.Global;
-import salsa.corpora.elements.Nonterminal;
 import salsa.corpora.elements.Target;
-import salsa.corpora.elements.Terminal;
-import java.util.Iterator;
 
 /**
  * Find subjective expressions (SE) and shifter and their targets. Optionally
@@ -26,20 +29,9 @@ import java.util.Iterator;
 public class SubjectiveExpressionModule extends ModuleBasics implements Module {
 
   private final static Logger log = Logger.getLogger(SubjectiveExpressionModule.class.getName());
-  // For logging purposes
-  int clause = 0;
-  int governor = 0;
-  int dependent = 0;
-  int subj = 0;
-  int obja = 0;
-  int objp = 0;
-  int attr_rev = 0;
-  int ohne = 0;
-  int gmod = 0;
-  int objd = 0;
-  int obji = 0;
-  int objg = 0;
-  String scopeEntryHit = new String();
+  // Targets found by the special case for "nicht", whatever its scope entry.
+  private final LongAdder nichtHits = counters.counter("scope.nicht.hits");
+  private final LongAdder walkNanos = counters.counter("scope.walk.nanos");
 
   /**
    * Constructs a new SubjectiveExpressionModule.
@@ -57,7 +49,6 @@ public class SubjectiveExpressionModule extends ModuleBasics implements Module {
    */
   public SubjectiveExpressionModule(SentimentLex sentimentLex, ShifterLex shifterLex, Boolean pos_lookup_sentiment,
           Boolean pos_lookup_shifter, Boolean shifter_orientation_check) {
-    log.setLevel(Level.ALL);
     this.sentimentLex = sentimentLex;
     this.shifterLex = shifterLex;
     this.posLookupSentiment = pos_lookup_sentiment;
@@ -83,7 +74,6 @@ public class SubjectiveExpressionModule extends ModuleBasics implements Module {
    */
   public SubjectiveExpressionModule(SalsaAPIConnective salsa, SentimentLex sentimentLex, ShifterLex shifterLex,
           Boolean pos_lookup_sentiment, Boolean pos_lookup_shifter, Boolean shifter_orientation_check) {
-    log.setLevel(Level.ALL);
     this.salsa = salsa;
     this.sentimentLex = sentimentLex;
     this.shifterLex = shifterLex;
@@ -109,56 +99,36 @@ public class SubjectiveExpressionModule extends ModuleBasics implements Module {
      */
     final Collection<Frame> frames = new ArrayList<Frame>();
     final FrameIds frameIds = new FrameIds(sentence, "se");
-    globalsSentencePolarities.removeAll(globalsSentencePolarities);
+    final Collection<Global> globalsSentencePolarities = newGlobalsSentencePolarities();
+    final boolean trace = Trace.enabled(sentence);
 
     ArrayList<WordObj> sentimentList = new ArrayList<WordObj>();
     ArrayList<WordObj> shifterList = new ArrayList<WordObj>();
+    ArrayList<WordObj> intensifierList = new ArrayList<WordObj>();
+    final LexiconEntries entries = new LexiconEntries(sentimentLex);
+
+    // The shifters, intensifiers and sentiments of the sentence, looked up in
+    // the lexicons once per sentence for all modules. Preset subjective
+    // expressions are aligned afterwards, so they use their tagged entries.
+    lookUpWords(sentence, entries, shifterList, sentimentList, intensifierList);
 
     if (usePresetSELocations) {
-      usePresetSELocations(sentence, sentimentList);
+      usePresetSELocations(sentence, sentimentList, entries);
     }
 
     Double polaritySum = 0.0;
     Double polarityOfWord = 0.0;
 
-    // Look up every word of the sentence in the shifterLex and sentimentLex
-    // lexicons and add them to the shifterList or sentimentList.
-    for (WordObj word : sentence.getWordList()) {
-      ArrayList<ShifterUnit> shifterLexEntries = shifterLex.getAllShifters(word.getLemma());
-      if (shifterLexEntries != null) {
-        for (ShifterUnit shifterLexEntry : shifterLexEntries) {
-          if (shifterLexEntry != null) {
-            if (posLookupShifter) {
-              posLookupShifter(shifterList, word, shifterLexEntry);
-            } else {
-              shifterList.add(word);
-              break;
-            }
-          }
-        }
-      }
+    // Intensifiers are resolved first: a shifter applies to the intensified
+    // polarity value.
+    final TargetSearch search = newTargetSearch(sentence, entries, shifterList, intensifierList);
+    final Map<WordObj, WordObj> intensified = findIntensifierTargets(search, intensifierList, sentimentList, sentence);
 
-      if (!usePresetSELocations) {
-        ArrayList<SentimentUnit> sentLexEntries = sentimentLex.getAllSentiments(word.getLemma());
-        if (sentLexEntries != null) {
-          for (SentimentUnit sentLexEntry : sentLexEntries) {
-            if (sentLexEntry != null) {
-              if (posLookupSentiment) {
-                posLookupSentiment(sentimentList, word, sentLexEntry);
-              } else {
-                sentimentList.add(word);
-                break;
-              }
-            }
-          }
-        }
-      }
-    }
     // Iterate over every found shifter and search for targets in their scope.
     // Also set frames.
     for (WordObj shifter : shifterList) {
       // Look for the shifterTarget
-      WordObj shifterTarget = findShifterTarget(shifter, sentimentList, sentence);
+      WordObj shifterTarget = search.findTarget(Trigger.SHIFTER, shifter, sentimentList);
 
       // if (shifterTarget == null) {
       // No shifter target could be found. Look once more, but this time
@@ -176,14 +146,14 @@ public class SubjectiveExpressionModule extends ModuleBasics implements Module {
         // Create Frame object for Salsa XML output
         final Frame frame = new Frame("SubjectiveExpression", frameIds.next());
         final FrameElementIds feIds = new FrameElementIds(frame);
-        if (sentimentLex.getSentiment(shifterTarget.getLemma()).category.equals("NEU")) {
-          log.log(Level.FINE, "Shifting of a neutral polar expression: {}", shifterTarget.toString());
+        if (trace) {
+          Trace.event(sentence, "shifter-target", "shifter", shifter, "target", shifterTarget, "category",
+                  entries.sentiment(shifterTarget).category);
         }
 
         // Set Frames for the sentiment word
         final Target target = new Target();
-        log.log(Level.FINE, "found shifterTarget: {0}, with ScopeEntry: {1}", new String[]{shifterTarget.toString(), scopeEntryHit});
-        setFrames(sentence, frames, shifterTarget, frame, target);
+        setFrames(sentence, frames, shifterTarget, entries.collocations(shifterTarget), frame, target);
 
         // Set FrameElement for the shifter
         // EVAL call "Shifter" "Target" for use with the evaluation tool.
@@ -191,13 +161,13 @@ public class SubjectiveExpressionModule extends ModuleBasics implements Module {
         shifterElement.addFenode(new Fenode(sentence.getTree().getTerminal(shifter).getId()));
 
         // Set Frame element flag for the shifter
-        String shifterType = shifterLex.getShifter(shifter.getLemma()).shifter_type;
+        String shifterType = entries.shifter(shifter).shifter_type;
         final Flag shifterFlag = new Flag(shifterType, "shifter");
         shifterElement.addFlag(shifterFlag);
 
         // Set Flag for the Frame stating the starting polarity value
-        String polarityValueStr = sentimentLex.getSentiment(shifterTarget.getLemma()).value;
-        String polarityCategory = sentimentLex.getSentiment(shifterTarget.getLemma()).category;
+        String polarityValueStr = entries.sentiment(shifterTarget).value;
+        String polarityCategory = entries.sentiment(shifterTarget).category;
         String valueAndCat = polarityCategory + " " + polarityValueStr;
         final Flag polarityWithoutShift = new Flag("polarity without shift: " + valueAndCat, "subjExpr");
         frame.addFlag(polarityWithoutShift);
@@ -209,6 +179,11 @@ public class SubjectiveExpressionModule extends ModuleBasics implements Module {
 
         // Compute the polarity value after a shift and invert the category.
         polarityOfWord = Double.valueOf(polarityValueStr);
+        final WordObj intensifier = intensified.get(shifterTarget);
+        if (intensifier != null) {
+          polarityOfWord = intensify(sentence, frame, feIds, intensifier, entries.intensifier(intensifier),
+                  polarityCategory, polarityOfWord);
+        }
         if (!polarityCategory.equals("UNKNOWN") && !polarityCategory.equals("NEU")) {
           switch (shifterType) {
             case ShifterLex.SHIFTER_TYPE_ON_NEGATIVE:
@@ -256,19 +231,24 @@ public class SubjectiveExpressionModule extends ModuleBasics implements Module {
 
       // Set Target for the sentiment word
       final Target target = new Target();
-      setFrames(sentence, frames, sentiment, frame, target);
+      setFrames(sentence, frames, sentiment, entries.collocations(sentiment), frame, target);
 
       // Set Flag for the Frame stating the starting polarity value
-      String polarityValueStr = sentimentLex.getSentiment(sentiment.getLemma()).value;
-      String polarityCategory = sentimentLex.getSentiment(sentiment.getLemma()).category;
+      String polarityValueStr = entries.sentiment(sentiment).value;
+      String polarityCategory = entries.sentiment(sentiment).category;
       String valueAndCat = polarityCategory + " " + polarityValueStr;
+      final Flag polarityWithoutShift = new Flag("polarity without shift: " + valueAndCat, "subjExpr");
+      frame.addFlag(polarityWithoutShift);
       polarityOfWord = Double.valueOf(polarityValueStr);
+      final WordObj intensifier = intensified.get(sentiment);
+      if (intensifier != null) {
+        polarityOfWord = intensify(sentence, frame, new FrameElementIds(frame), intensifier,
+                entries.intensifier(intensifier), polarityCategory, polarityOfWord);
+      }
       if (polarityCategory.equals("NEG")) {
         polarityOfWord = polarityOfWord * -1.0;
       }
       polaritySum += polarityOfWord;
-      final Flag polarityWithoutShift = new Flag("polarity without shift: " + valueAndCat, "subjExpr");
-      frame.addFlag(polarityWithoutShift);
     }
     // final Frame sentenceFrame = new Frame("Sentence");
     // final Flag polaritySumFlag = new Flag("Sentence polarity: " +
@@ -289,294 +269,218 @@ public class SubjectiveExpressionModule extends ModuleBasics implements Module {
   }
 
   /**
-   * Look for the target of a shifter using dependency relations. The found
-   * shifter target must be contained in the sentimentList in order to be
-   * returned by this method.
+   * Collects the edges the scopes of the shifters and intensifiers of a
+   * sentence look at, and the words of their clauses, in one walk over the
+   * dependency graph and the constituency tree.
    *
-   * @param shifter The shifter for which a target is searched for.
-   * @param sentimentList A list of found sentiments in the current sentence.
-   * These are the potential shifter target candidates.
-   * @param sentence The sentence the shifter is in.
-   * @return The WordObj corresponding to the found shifter target, or null.
+   * @param sentence The sentence.
+   * @param entries The lexicon entries of the words of the sentence.
+   * @param shifterList The shifters of the sentence.
+   * @param intensifierList The intensifiers of the sentence.
+   * @return The search.
    */
-  private WordObj findShifterTarget(WordObj shifter, ArrayList<WordObj> sentimentList, SentenceObj sentence) {
-    scopeEntryHit = new String();
-    log.log(Level.FINE, "Shifter: {0}", shifter.getLemma());
-    WordObj shifterTarget = null;
-    ShifterUnit shifterUnit = shifterLex.getShifter(shifter.getLemma());
-
-    HashSet<Edge> edges = sentence.getGraph().getEdges();
-    log.log(Level.FINE, "Edges: {0}", edges);
-
-    for (String scopeEntry : shifterUnit.shifter_scope) {
-      scopeEntryHit = scopeEntry;
-      // "Clause" case
-      if (scopeEntry.equals("clause")) {
-        final ConstituencyTree tree = sentence.getTree();
-        final Terminal shifterNode = tree.getTerminal(shifter);
-        final Nonterminal containingClause;
-
-        int shifterPos = sentence.getWordPosition(shifter);
-
-        if (tree.hasDominatingNode(shifterNode, "S")) {
-          containingClause = tree.getLowestDominatingNode(shifterNode, "S");
-        } else {
-          // This shouldn't happen except in case of parsing errors
-          containingClause = tree.getTrueRoot();
-        }
+  @Override
+  protected TargetSearch newTargetSearch(SentenceObj sentence, LexiconEntries entries,
+          List<WordObj> shifterList, List<WordObj> intensifierList) {
+    final long start = System.nanoTime();
+    try {
+      return new ScopeSearch(sentence, entries, shifterList, intensifierList);
+    } finally {
+      walkNanos.add(System.nanoTime() - start);
+    }
+  }
 
-        // First collect all terminals in the containing clause (childrenT)
-        ArrayList<Object> children = tree.getChildren(containingClause);
-        ArrayList<Object> childrenT = new ArrayList<>();
-        for (int i = 0; i < children.size(); i++) {
-          Object child = children.get(i);
-          // System.out.println("child: " + child.toString());
-          if (child instanceof Terminal) {
-            childrenT.add(child);
-          } else if (child instanceof Nonterminal) {
-            children.add(tree.getChildren((Nonterminal) child));
-          } else {
-            for (Object part : (ArrayList<Object>) child) {
-              children.add(part);
-            }
-          }
+  /**
+   * Looks for the target of a shifter or intensifier using the dependency
+   * relations of its lexicon scope. The found target must be contained in the
+   * sentimentList in order to be returned.
+   */
+  private final class ScopeSearch implements TargetSearch {
+
+    private final SentenceObj sentence;
+    private final LexiconEntries entries;
+    // the edges starting at each trigger
+    private final Map<WordObj, List<Edge>> outgoing = new HashMap<WordObj, List<Edge>>();
+    // the "attr" edges pointing to each trigger
+    private final Map<WordObj, List<Edge>> attrIncoming = new HashMap<WordObj, List<Edge>>();
+    private final List<Edge> objpOhne = new ArrayList<Edge>();
+    // the edges mentioning "nicht", only collected if "nicht" is a shifter
+    private final List<Edge> nicht = new ArrayList<Edge>();
+    private final Clauses clauses;
+
+    private ScopeSearch(SentenceObj sentence, LexiconEntries entries, List<WordObj> shifterList,
+            List<WordObj> intensifierList) {
+      this.sentence = sentence;
+      this.entries = entries;
+      final Set<WordObj> triggers = new LinkedHashSet<WordObj>(shifterList);
+      triggers.addAll(intensifierList);
+      final Set<WordObj> clauseTriggers = new LinkedHashSet<WordObj>();
+      boolean nichtShifter = false;
+      for (WordObj shifter : shifterList) {
+        nichtShifter |= shifter.getLemma().equals("nicht");
+        if (Arrays.asList(entries.shifter(shifter).shifter_scope).contains("clause")) {
+          clauseTriggers.add(shifter);
         }
-        // System.err.println("Children expanded: " + childrenNT);
-
-        // Now consider all SE-terminals to be potential shifterTargets.
-        HashMap<WordObj, Integer> shifterTargets = new HashMap<>();
-        for (Object c : childrenT) {
-          Terminal childT = null;
-          if (c instanceof Terminal) {
-            childT = (Terminal) c;
-            // Compare Id with terminal Ids of the tree terminals to get to the
-            // WordObjs.
-            int wordIndex = 0;
-            for (Terminal terminal : tree.getTerminals()) {
-              wordIndex += 1;
-              String terminalId = terminal.getId().getId();
-              if (terminalId.equals(childT.getId().getId())) {
-                WordObj wordObj = sentence.getWordList().get(wordIndex - 1);
-                // Check if the word is a SE in the current sentence.
-                if (sentimentList != null && sentimentList.contains(wordObj)) {
-                  shifterTargets.put(wordObj, wordIndex - 1);
-                }
-              }
-            }
-          } else {
-            log.log(Level.SEVERE, "Terminal expected for: {0}", c.toString());
-          }
+      }
+      for (WordObj intensifier : intensifierList) {
+        if (Arrays.asList(entries.intensifier(intensifier).intensifier_scope).contains("clause")) {
+          clauseTriggers.add(intensifier);
         }
-        // Find the closest shifterTarget from the list
-        log.log(Level.FINE, "Potential targets in clause case: {0}", shifterTargets.keySet().toString());
-        int bestDistance = Integer.MAX_VALUE;
-        if (!shifterTargets.isEmpty()) {
-          for (WordObj shifterCandidate : shifterTargets.keySet()) {
-            int distance = Math.abs(shifterPos - shifterTargets.get(shifterCandidate));
-            if (distance < bestDistance) {
-              bestDistance = distance;
-              shifterTarget = shifterCandidate;
-              log.log(Level.FINE, "current candidate: {0}", shifterTarget);
-            }
+      }
+      if (!triggers.isEmpty()) {
+        for (Edge edge : sentence.getGraph().getEdges()) {
+          if (triggers.contains(edge.source)) {
+            add(outgoing, edge.source, edge);
           }
-        }
-        log.log(Level.FINE, "closest candidate: {0}", shifterTarget);
-
-        if (sentimentList != null && shifterTarget != null
-                && sentimentList.contains(shifterTarget)
-                && !shifterTarget.equals(shifter)) {
-          if (orientationCheck(shifter, shifterTarget)) {
-            clause += 1;
-            return shifterTarget;
+          if (edge.depRel.equals("attr") && triggers.contains(edge.target)) {
+            add(attrIncoming, edge.target, edge);
+          }
+          if (edge.depRel.equals("objp-ohne")) {
+            objpOhne.add(edge);
+          }
+          if (nichtShifter && edge.toString().contains("nicht")) {
+            nicht.add(edge);
           }
         }
       }
-      // Other cases than "clause"
-      Iterator<Edge> it = edges.iterator();
-      while (it.hasNext()) {
-        Edge edge = it.next();
-//        Edge edge_plus_one = it.hasNext() ? it.next() : null;
-//        Edge edge_plus_two = it.hasNext() ? it.next() : null;
-        // Special case for "nicht"
-        if (shifter.getLemma().equals("nicht")) {
-          if (edge.toString().contains("nicht")) {
-            // System.out.println("edge: " + edge);
-            shifterTarget = edge.source;
-            if (shifterTarget != null && sentimentList != null
-                    && sentimentList.contains(shifterTarget)
-                    && !shifterTarget.equals(shifter)) {
-              if (orientationCheck(shifter, shifterTarget)) {
-                governor += 1;
-                return shifterTarget;
-              }
-            } else {
-              shifterTarget = sentence.getGraph().getChild(shifterTarget, "attr");
-              if (shifterTarget != null && sentimentList != null
-                      && sentimentList.contains(shifterTarget)
-                      && !shifterTarget.equals(shifter)) {
-                if (orientationCheck(shifter, shifterTarget)) {
-                  governor += 1;
-                  return shifterTarget;
-                }
-              }
+      this.clauses = new Clauses(sentence, clauseTriggers);
+    }
+
+    private void add(Map<WordObj, List<Edge>> index, WordObj trigger, Edge edge) {
+      List<Edge> edges = index.get(trigger);
+      if (edges == null) {
+        edges = new ArrayList<Edge>();
+        index.put(trigger, edges);
+      }
+      edges.add(edge);
+    }
+
+    private List<Edge> edgesOf(Map<WordObj, List<Edge>> index, WordObj trigger) {
+      List<Edge> edges = index.get(trigger);
+      return edges == null ? Collections.<Edge>emptyList() : edges;
+    }
+
+    /**
+     * Look for the target of a shifter or intensifier using the dependency
+     * relations of its lexicon scope.
+     *
+     * @param kind Whether trigger is a shifter or an intensifier.
+     * @param trigger The shifter or intensifier for which a target is searched
+     * for.
+     * @param sentimentList A list of found sentiments in the current sentence.
+     * These are the potential target candidates.
+     * @return The WordObj corresponding to the found target, or null.
+     */
+    @Override
+    public WordObj findTarget(Trigger kind, WordObj trigger, ArrayList<WordObj> sentimentList) {
+      final String[] triggerScope = kind == Trigger.SHIFTER
+              ? entries.shifter(trigger).shifter_scope
+              : entries.intensifier(trigger).intensifier_scope;
+      if (Trace.enabled(sentence)) {
+        Trace.event(sentence, kind == Trigger.SHIFTER ? "shifter" : "intensifier", "trigger", trigger, "scope",
+                Arrays.toString(triggerScope), "edges", sentence.getGraph().getEdges());
+      }
+
+      for (String scopeEntry : triggerScope) {
+        final ScopeCounters scope = scopeCounters(kind, scopeEntry);
+        final long start = System.nanoTime();
+        try {
+          // "Clause" case
+          if (scopeEntry.equals("clause")) {
+            // Consider all SE-terminals in the containing clause to be
+            // potential candidates.
+            WordObj target = clauses.closest(trigger, sentimentList, false);
+            if (target != null && !target.equals(trigger) && orientationCheck(entries, kind, trigger, target)) {
+              scope.hits.increment();
+              return target;
             }
           }
-          continue;
-        }
-        switch (scopeEntry) {
-          case "objp-*":
-            if (edge.depRel.contains("objp") && edge.source.equals(shifter)) {
-              shifterTarget = edge.target;
-              if (shifterTarget != null && sentimentList != null
-                      && sentimentList.contains(shifterTarget)
-                      && !shifterTarget.equals(shifter)) {
-                if (orientationCheck(shifter, shifterTarget)) {
-                  objp += 1;
-                  return shifterTarget;
-                }
-              } else {
-//                log.log(Level.FINE, "nodes: {0}", sentence.getGraph().getChildren(shifterTarget).toString());
-                shifterTarget = sentence.getGraph().getChild(shifterTarget, "attr");
-                if (shifterTarget != null) {
-//                  log.log(Level.FINE, "Expansion: attr: {0}", shifterTarget);
-                }
-                if (shifterTarget != null && sentimentList != null
-                        && sentimentList.contains(shifterTarget)
-                        && !shifterTarget.equals(shifter)) {
-                  if (orientationCheck(shifter, shifterTarget)) {
-                    objp += 1;
-                    return shifterTarget;
-                  }
-                }
-                // new case get all edges not just attr
-                /**
-                 * List<WordObj> shifterTargets =
-                 * sentence.getGraph().getChildren(edge.target); for (WordObj
-                 * shi : shifterTargets) { if (shi != null && sentimentList !=
-                 * null && sentimentList.contains(shi) && !shi.equals(shifter))
-                 * { if (orientationCheck(shifter, shi)) { objp += 1;
-                 * System.out.println("MIRACLE!: " + shi.toString()); return
-                 * shi; } } }
-                 *
-                 */
+          // Special case for "nicht", whatever the scope entry
+          if (kind == Trigger.SHIFTER && trigger.getLemma().equals("nicht")) {
+            for (Edge edge : nicht) {
+              WordObj target = check(kind, trigger, edge.source, sentimentList, true);
+              if (target != null) {
+                nichtHits.increment();
+                return target;
               }
             }
-            break;
-
-          case "attr-rev":
-            if (edge.depRel.equals("attr") && edge.target.equals(shifter)) {
-              shifterTarget = edge.source;
-              if (shifterTarget != null && sentimentList != null
-                      && sentimentList.contains(shifterTarget)
-                      && !shifterTarget.equals(shifter)) {
-                if (orientationCheck(shifter, shifterTarget)) {
-                  attr_rev += 1;
-                  return shifterTarget;
-                }
-              } else {
-                shifterTarget = sentence.getGraph().getChild(shifterTarget, "attr");
-                if (shifterTarget != null && sentimentList != null
-                        && sentimentList.contains(shifterTarget)
-                        && !shifterTarget.equals(shifter)) {
-                  if (orientationCheck(shifter, shifterTarget)) {
-                    attr_rev += 1;
-                    return shifterTarget;
-                  }
+            continue;
+          }
+          // Other cases than "clause"
+          WordObj target = null;
+          switch (scopeEntry) {
+            case "objp-*":
+              for (Edge edge : edgesOf(outgoing, trigger)) {
+                if (target == null && edge.depRel.contains("objp")) {
+                  target = check(kind, trigger, edge.target, sentimentList, true);
                 }
               }
-            }
-            break;
-          case "det":
-            log.severe("det case!");
-            if (edge.depRel.equals(scopeEntry) && edge.source.equals(shifter)) {
-              if (edge.target.getPos().equals("PPOSAT")) {
-                shifterTarget = edge.target;
-                if (shifterTarget != null && sentimentList != null
-                        && sentimentList.contains(shifterTarget)
-                        && !shifterTarget.equals(shifter)) {
-                  if (orientationCheck(shifter, shifterTarget)) {
-                    return shifterTarget;
-                  }
-                } else {
-                  shifterTarget = sentence.getGraph().getChild(shifterTarget, "attr");
-                  if (shifterTarget != null && sentimentList != null
-                          && sentimentList.contains(shifterTarget)
-                          && !shifterTarget.equals(shifter)) {
-                    if (orientationCheck(shifter, shifterTarget)) {
-                      return shifterTarget;
-                    }
-                  }
+              break;
+            case "attr-rev":
+              for (Edge edge : edgesOf(attrIncoming, trigger)) {
+                if (target == null) {
+                  target = check(kind, trigger, edge.source, sentimentList, true);
                 }
               }
-            }
-            break;
-          case "objp-ohne":
-            if (edge.depRel.equals("objp-ohne")) {
-              shifterTarget = edge.target;
-              if (shifterTarget != null && sentimentList != null
-                      && sentimentList.contains(shifterTarget)
-                      && !shifterTarget.equals(shifter)) {
-                if (orientationCheck(shifter, shifterTarget)) {
-                  ohne += 1;
-                  return shifterTarget;
+              break;
+            case "det":
+              log.severe("det case!");
+              for (Edge edge : edgesOf(outgoing, trigger)) {
+                if (target == null && edge.depRel.equals(scopeEntry) && edge.target.getPos().equals("PPOSAT")) {
+                  target = check(kind, trigger, edge.target, sentimentList, true);
                 }
               }
-            }
-          default:
-            if (edge.depRel.equals(scopeEntry) && edge.source.equals(shifter)) {
-              shifterTarget = edge.target;
-              if (shifterTarget != null && sentimentList != null
-                      && sentimentList.contains(shifterTarget)
-                      && !shifterTarget.equals(shifter)) {
-                if (orientationCheck(shifter, shifterTarget)) {
-                  countDepRels(scopeEntry);
-                  return shifterTarget;
+              break;
+            case "objp-ohne":
+              // Any "objp-ohne" edge; the "attr" child of the target is only
+              // looked at for edges starting at the trigger.
+              for (Edge edge : objpOhne) {
+                if (target == null) {
+                  target = check(kind, trigger, edge.target, sentimentList, edge.source.equals(trigger));
                 }
-              } else {
-                shifterTarget = sentence.getGraph().getChild(shifterTarget, "attr");
-                if (shifterTarget != null && sentimentList != null
-                        && sentimentList.contains(shifterTarget)
-                        && !shifterTarget.equals(shifter)) {
-                  if (orientationCheck(shifter, shifterTarget)) {
-                    countDepRels(scopeEntry);
-                    return shifterTarget;
-                  }
+              }
+              break;
+            default:
+              for (Edge edge : edgesOf(outgoing, trigger)) {
+                if (target == null && edge.depRel.equals(scopeEntry)) {
+                  target = check(kind, trigger, edge.target, sentimentList, true);
                 }
               }
-            }
+          }
+          if (target != null) {
+            scope.hits.increment();
+            return target;
+          }
+        } finally {
+          scope.nanos.add(System.nanoTime() - start);
         }
       }
+      return null;
     }
-    return null;
-  }
 
-  /**
-   * Makes a count of dependency relation occurences for the log file.
-   *
-   * @param scopeEntry
-   */
-  private void countDepRels(String scopeEntry) {
-    switch (scopeEntry) {
-      case "obja":
-        obja += 1;
-        break;
-      case "subj":
-        subj += 1;
-        break;
-      case "gmod":
-        gmod += 1;
-        break;
-      case "objd":
-        objd += 1;
-        break;
-      case "obji":
-        obji += 1;
-        break;
-      case "objg":
-        objg += 1;
-        break;
-      default:
-        log.log(Level.SEVERE, "DepRel not counted: {0}", scopeEntry);
+    /**
+     * Checks a target candidate of a trigger. If the candidate is no
+     * subjective expression, its "attr" child is checked instead, e.g. the
+     * adjective of a noun.
+     *
+     * @return The candidate or its "attr" child if it is a subjective
+     * expression other than the trigger that passes the orientation check, or
+     * null.
+     */
+    private WordObj check(Trigger kind, WordObj trigger, WordObj candidate, ArrayList<WordObj> sentimentList,
+            boolean attrChild) {
+      if (candidate != null && sentimentList.contains(candidate) && !candidate.equals(trigger)) {
+        return orientationCheck(entries, kind, trigger, candidate) ? candidate : null;
+      }
+      if (!attrChild) {
+        return null;
+      }
+      final WordObj child = sentence.getGraph().getChild(candidate, "attr");
+      if (child != null && sentimentList.contains(child) && !child.equals(trigger)
+              && orientationCheck(entries, kind, trigger, child)) {
+        return child;
+      }
+      return null;
     }
   }
 }
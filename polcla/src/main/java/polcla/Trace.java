@@ -0,0 +1,85 @@
+package polcla;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Diagnostic trace events of single sentences, e.g. the candidates a shifter
+ * scope rule has considered.
+ *
+ * Tracing is switched on per sentence id with TRACE_SENTENCES in the
+ * configuration ("*" for all sentences) and is off by default. The events are
+ * logged at INFO by the logger polcla.Trace, one line per event:
+ *
+ * <pre>
+ * sentence=17 event=shifter-target shifter=nicht target=gut
+ * </pre>
+ *
+ * Callers check {@link #enabled(SentenceObj)} before building an event, so a
+ * run without tracing pays one volatile read per check and allocates nothing.
+ */
+final class Trace {
+
+  private final static Logger log = Logger.getLogger(Trace.class.getName());
+  private static volatile boolean any = false;
+  private static volatile boolean all = false;
+  private static volatile Set<String> ids = Collections.emptySet();
+
+  private Trace() {
+  }
+
+  /**
+   * Sets the traced sentences.
+   *
+   * @param sentenceIds The ids of the traced sentences, separated by commas,
+   * "*" for all sentences, or empty or null for none.
+   */
+  static void configure(String sentenceIds) {
+    Set<String> traced = new HashSet<String>();
+    boolean everything = false;
+    if (sentenceIds != null) {
+      for (String id : sentenceIds.split(",")) {
+        id = id.trim();
+        if (id.equals("*")) {
+          everything = true;
+        } else if (!id.isEmpty()) {
+          traced.add(id);
+        }
+      }
+    }
+    ids = Collections.unmodifiableSet(traced);
+    all = everything;
+    any = everything || !traced.isEmpty();
+  }
+
+  /**
+   * @param sentence A sentence.
+   * @return true if the events of the sentence are traced.
+   */
+  static boolean enabled(SentenceObj sentence) {
+    if (!any) {
+      return false;
+    }
+    return all || (sentence.id != null && ids.contains(sentence.id.getId()));
+  }
+
+  /**
+   * Logs an event of a traced sentence. Only call it if
+   * {@link #enabled(SentenceObj)} is true.
+   *
+   * @param sentence The sentence.
+   * @param event The name of the event.
+   * @param keyValues Alternating keys and values of the event.
+   */
+  static void event(SentenceObj sentence, String event, Object... keyValues) {
+    StringBuilder line = new StringBuilder("sentence=");
+    line.append(sentence.id == null ? "?" : sentence.id.getId());
+    line.append(" event=").append(event);
+    for (int i = 0; i + 1 < keyValues.length; i += 2) {
+      line.append(' ').append(keyValues[i]).append('=').append(keyValues[i + 1]);
+    }
+    log.info(line.toString());
+  }
+}
@@ -2,7 +2,8 @@ package polcla;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 
 import salsa.corpora.elements.Fenode;
 import salsa.corpora.elements.Flag;
@@ -26,21 +27,6 @@ public class WindowBaseline extends ModuleBasics implements Module {
   private static final String RIGHT = "RIGHT";
   private static final String BOTH = "BOTH";
 
-  /**
-   * Stores each sentence's polarity
-   */
-  private final Collection<Global> globalsSentencePolarities = new ArrayList<Global>();
-
-  /**
-   * Globals are sentence flags. Stores each sentence's polarity.
-   *
-   * @return ArrayList<Global> globalsSentencePolarities
-   */
-  @Override
-  public Collection<Global> getGlobalsSentencePolarities() {
-    return globalsSentencePolarities;
-  }
-
   /**
    * Constructs a new BaselineModule. Looks for shifter targets within the
    * specified window to the right of the shifter. Does not use dependency
@@ -118,65 +104,45 @@ public class WindowBaseline extends ModuleBasics implements Module {
      */
     final Collection<Frame> frames = new ArrayList<Frame>();
     final FrameIds frameIds = new FrameIds(sentence, "se");
-    globalsSentencePolarities.removeAll(globalsSentencePolarities);
+    final Collection<Global> globalsSentencePolarities = newGlobalsSentencePolarities();
 
     ArrayList<WordObj> sentimentList = new ArrayList<WordObj>();
     ArrayList<WordObj> shifterList = new ArrayList<WordObj>();
+    ArrayList<WordObj> intensifierList = new ArrayList<WordObj>();
+    final LexiconEntries entries = new LexiconEntries(sentimentLex);
+
+    // The shifters, intensifiers and sentiments of the sentence, looked up in
+    // the lexicons once per sentence for all modules. Preset subjective
+    // expressions are aligned afterwards, so they use their tagged entries.
+    lookUpWords(sentence, entries, shifterList, sentimentList, intensifierList);
 
     if (usePresetSELocations) {
-      usePresetSELocations(sentence, sentimentList);
+      usePresetSELocations(sentence, sentimentList, entries);
     }
 
     Double polaritySum = 0.0;
     Double polarityOfWord = 0.0;
 
-    // Look up every word of the sentence in the shifterLex and sentimentLex
-    // lexicons and add them to the shifterList or sentimentList.
-    for (WordObj word : sentence.getWordList()) {
-      ArrayList<ShifterUnit> shifterLexEntries = shifterLex.getAllShifters(word.getLemma());
-      if (shifterLexEntries != null) {
-        for (ShifterUnit shifterLexEntry : shifterLexEntries) {
-          if (shifterLexEntry != null) {
-            if (posLookupShifter) {
-              posLookupShifter(shifterList, word, shifterLexEntry);
-            } else {
-              shifterList.add(word);
-              break;
-            }
-          }
-        }
-      }
-
-      if (!usePresetSELocations) {
-        ArrayList<SentimentUnit> sentLexEntries = sentimentLex.getAllSentiments(word.getLemma());
-        if (sentLexEntries != null) {
-          for (SentimentUnit sentLexEntry : sentLexEntries) {
-            if (sentLexEntry != null) {
-              if (posLookupSentiment) {
-                posLookupSentiment(sentimentList, word, sentLexEntry);
-              } else {
-                sentimentList.add(word);
-                break;
-              }
-            }
-          }
-        }
-      }
-    }
+    // Intensifiers are resolved first: a shifter applies to the intensified
+    // polarity value.
+    final Map<WordObj, WordObj> intensified = findIntensifierTargets(newTargetSearch(sentence, entries, shifterList,
+            intensifierList), intensifierList, sentimentList, sentence);
 
     OUTER:
     for (WordObj shifter : shifterList) {
       WordObj shifterTarget = null;
+      ScopeCounters scope = scopeCounters("window");
+      long start = System.nanoTime();
       // Look for the shifterTarget
       switch (direction) {
         case RIGHT:
-          shifterTarget = findShifterTargetBaselineRight(shifter, sentimentList, sentence, window);
+          shifterTarget = findTargetRight(Trigger.SHIFTER, shifter, sentimentList, sentence, entries, window);
           break;
         case LEFT:
-          shifterTarget = findShifterTargetBaselineLeft(shifter, sentimentList, sentence, window);
+          shifterTarget = findTargetLeft(Trigger.SHIFTER, shifter, sentimentList, sentence, entries, window);
           break;
         case BOTH:
-          shifterTarget = findShifterTargetBaselineBoth(shifter, sentimentList, sentence, window);
+          shifterTarget = findTargetBoth(Trigger.SHIFTER, shifter, sentimentList, sentence, entries, window);
           break;
         default:
           System.err.println("False direction input for Baseline given!");
@@ -184,7 +150,9 @@ public class WindowBaseline extends ModuleBasics implements Module {
           System.err.println("Check the config properties!");
           break OUTER;
       }
+      scope.nanos.add(System.nanoTime() - start);
       if (shifterTarget != null) {
+        scope.hits.increment();
 
         // Create Frame object for Salsa XML output
         final Frame frame = new Frame("SubjectiveExpression", frameIds.next());
@@ -192,7 +160,7 @@ public class WindowBaseline extends ModuleBasics implements Module {
 
         // Set Frames for the sentiment word
         final Target target = new Target();
-        setFrames(sentence, frames, shifterTarget, frame, target);
+        setFrames(sentence, frames, shifterTarget, entries.collocations(shifterTarget), frame, target);
 
         // Set FrameElement for the shifter
         // EVAL call "Shifter" "Target" for use with the evaluation tool.
@@ -200,13 +168,13 @@ public class WindowBaseline extends ModuleBasics implements Module {
         shifterElement.addFenode(new Fenode(sentence.getTree().getTerminal(shifter).getId()));
 
         // Set Frame element flag for the shifter
-        String shifterType = shifterLex.getShifter(shifter.getLemma()).shifter_type;
+        String shifterType = entries.shifter(shifter).shifter_type;
         final Flag shifterFlag = new Flag(shifterType, "shifter");
         shifterElement.addFlag(shifterFlag);
 
         // Set Flag for the Frame stating the starting polarity value
-        String polarityValueStr = sentimentLex.getSentiment(shifterTarget.getLemma()).value;
-        String polarityCategory = sentimentLex.getSentiment(shifterTarget.getLemma()).category;
+        String polarityValueStr = entries.sentiment(shifterTarget).value;
+        String polarityCategory = entries.sentiment(shifterTarget).category;
         String valueAndCat = polarityCategory + " " + polarityValueStr;
         final Flag polarityWithoutShift = new Flag("polarity without shift: " + valueAndCat, "subjExpr");
         frame.addFlag(polarityWithoutShift);
@@ -215,6 +183,11 @@ public class WindowBaseline extends ModuleBasics implements Module {
 
         // Compute the polarity value after a shift and invert the category.
         polarityOfWord = Double.valueOf(polarityValueStr);
+        final WordObj intensifier = intensified.get(shifterTarget);
+        if (intensifier != null) {
+          polarityOfWord = intensify(sentence, frame, feIds, intensifier, entries.intensifier(intensifier),
+                  polarityCategory, polarityOfWord);
+        }
         if (!polarityCategory.equals("UNKNOWN")) {
           switch (shifterType) {
             case ShifterLex.SHIFTER_TYPE_ON_NEGATIVE:
@@ -260,19 +233,24 @@ public class WindowBaseline extends ModuleBasics implements Module {
 
       // Set Target for the sentiment word
       final Target target = new Target();
-      setFrames(sentence, frames, sentiment, frame, target);
+      setFrames(sentence, frames, sentiment, entries.collocations(sentiment), frame, target);
 
       // Set Flag for the Frame stating the starting polarity value
-      String polarityValueStr = sentimentLex.getSentiment(sentiment.getLemma()).value;
-      String polarityCategory = sentimentLex.getSentiment(sentiment.getLemma()).category;
+      String polarityValueStr = entries.sentiment(sentiment).value;
+      String polarityCategory = entries.sentiment(sentiment).category;
       String valueAndCat = polarityCategory + " " + polarityValueStr;
+      final Flag polarityWithoutShift = new Flag("polarity without shift: " + valueAndCat, "subjExpr");
+      frame.addFlag(polarityWithoutShift);
       polarityOfWord = Double.valueOf(polarityValueStr);
+      final WordObj intensifier = intensified.get(sentiment);
+      if (intensifier != null) {
+        polarityOfWord = intensify(sentence, frame, new FrameElementIds(frame), intensifier,
+                entries.intensifier(intensifier), polarityCategory, polarityOfWord);
+      }
       if (polarityCategory.equals("NEG")) {
         polarityOfWord = polarityOfWord * -1.0;
       }
       polaritySum += polarityOfWord;
-      final Flag polarityWithoutShift = new Flag("polarity without shift: " + valueAndCat, "subjExpr");
-      frame.addFlag(polarityWithoutShift);
     }
 
     final Global sentencePolarity = new Global("INTERESTING");
@@ -284,33 +262,67 @@ public class WindowBaseline extends ModuleBasics implements Module {
   }
 
   /**
-   * This method is used to look for the target of a shifter using a given
-   * window and lexicon look-up. The found shifter target must be contained in
-   * the sentimentList in order to be returned by this method. Looks to the
-   * right of the shifter.
+   * The search looks for the target of a shifter or intensifier in the window
+   * of the module, or returns null for an unknown direction. It only reads the
+   * words in the window, so there is nothing to collect beforehand.
+   *
+   * @param sentence The sentence.
+   * @param entries The lexicon entries of the words of the sentence.
+   * @param shifterList The shifters of the sentence.
+   * @param intensifierList The intensifiers of the sentence.
+   * @return The search.
+   */
+  @Override
+  protected TargetSearch newTargetSearch(final SentenceObj sentence, final LexiconEntries entries,
+          List<WordObj> shifterList, List<WordObj> intensifierList) {
+    return new TargetSearch() {
+      @Override
+      public WordObj findTarget(Trigger kind, WordObj trigger, ArrayList<WordObj> sentimentList) {
+        switch (direction) {
+          case RIGHT:
+            return findTargetRight(kind, trigger, sentimentList, sentence, entries, window);
+          case LEFT:
+            return findTargetLeft(kind, trigger, sentimentList, sentence, entries, window);
+          case BOTH:
+            return findTargetBoth(kind, trigger, sentimentList, sentence, entries, window);
+          default:
+            return null;
+        }
+      }
+    };
+  }
+
+  /**
+   * This method is used to look for the target of a shifter or intensifier
+   * using a given window and lexicon look-up. The found target must be
+   * contained in the sentimentList in order to be returned by this method. Looks to the
+   * right of the trigger.
    *
-   * @param shifter The shifter for which a target is searched for.
+   * @param kind Whether trigger is a shifter or an intensifier.
+   * @param trigger The shifter or intensifier for which a target is searched
+   * for.
    * @param sentimentList A list of found sentiments in the current sentence.
-   * These are the potential shifter target candidates.
-   * @param sentence The sentence the shifter is in.
-   * @return The WordObj corresponding to the found shifter target, or null.
+   * These are the potential target candidates.
+   * @param sentence The sentence the trigger is in.
+   * @param entries The lexicon entries of the words of the sentence.
+   * @return The WordObj corresponding to the found target, or null.
    */
-  private WordObj findShifterTargetBaselineRight(WordObj shifter, ArrayList<WordObj> sentimentList,
-          SentenceObj sentence, int window) {
-    WordObj shifterTarget = null;
-    LinkedList<WordObj> wordList = sentence.getWordList();
-    int shifterPos = sentence.getWordPosition(shifter);
+  private WordObj findTargetRight(Trigger kind, WordObj trigger, ArrayList<WordObj> sentimentList,
+          SentenceObj sentence, LexiconEntries entries, int window) {
+    WordObj target = null;
+    List<WordObj> wordList = sentence.getWordList();
+    int triggerPos = sentence.getWordPosition(trigger);
 
     for (int i = 1; i <= window; i++) {
-      if (wordList.size() > shifterPos + i) {
-        shifterTarget = wordList.get(shifterPos + i);
-        if (sentimentList.contains(shifterTarget)) {
+      if (wordList.size() > triggerPos + i) {
+        target = wordList.get(triggerPos + i);
+        if (sentimentList.contains(target)) {
           if (shifter_orientation_check) {
-            if (orientationCheck(shifter, shifterTarget)) {
-              return shifterTarget;
+            if (orientationCheck(entries, kind, trigger, target)) {
+              return target;
             }
           } else {
-            return shifterTarget;
+            return target;
           }
         }
       }
@@ -319,33 +331,36 @@ public class WindowBaseline extends ModuleBasics implements Module {
   }
 
   /**
-   * This method is used to look for the target of a shifter using a given
-   * window and lexicon look-up. The found shifter target must be contained in
-   * the sentimentList in order to be returned by this method. Looks to the left
-   * of the shifter.
+   * This method is used to look for the target of a shifter or intensifier
+   * using a given window and lexicon look-up. The found target must be
+   * contained in the sentimentList in order to be returned by this method. Looks to the left
+   * of the trigger.
    *
-   * @param shifter The shifter for which a target is searched for.
+   * @param kind Whether trigger is a shifter or an intensifier.
+   * @param trigger The shifter or intensifier for which a target is searched
+   * for.
    * @param sentimentList A list of found sentiments in the current sentence.
-   * These are the potential shifter target candidates.
-   * @param sentence The sentence the shifter is in.
-   * @return The WordObj corresponding to the found shifter target, or null.
+   * These are the potential target candidates.
+   * @param sentence The sentence the trigger is in.
+   * @param entries The lexicon entries of the words of the sentence.
+   * @return The WordObj corresponding to the found target, or null.
    */
-  private WordObj findShifterTargetBaselineLeft(WordObj shifter, ArrayList<WordObj> sentimentList, SentenceObj sentence,
-          int window) {
-    WordObj shifterTarget = null;
-    LinkedList<WordObj> wordList = sentence.getWordList();
-    int shifterPos = sentence.getWordPosition(shifter);
+  private WordObj findTargetLeft(Trigger kind, WordObj trigger, ArrayList<WordObj> sentimentList, SentenceObj sentence,
+          LexiconEntries entries, int window) {
+    WordObj target = null;
+    List<WordObj> wordList = sentence.getWordList();
+    int triggerPos = sentence.getWordPosition(trigger);
 
     for (int i = 1; i <= window; i++) {
-      if (shifterPos - i >= 0) {
-        shifterTarget = wordList.get(shifterPos - i);
-        if (sentimentList.contains(shifterTarget)) {
+      if (triggerPos - i >= 0) {
+        target = wordList.get(triggerPos - i);
+        if (sentimentList.contains(target)) {
           if (shifter_orientation_check) {
-            if (orientationCheck(shifter, shifterTarget)) {
-              return shifterTarget;
+            if (orientationCheck(entries, kind, trigger, target)) {
+              return target;
             }
           } else {
-            return shifterTarget;
+            return target;
           }
         }
       }
@@ -354,45 +369,48 @@ public class WindowBaseline extends ModuleBasics implements Module {
   }
 
   /**
-   * This method is used to look for the target of a shifter using a given
-   * window and lexicon look-up. The found shifter target must be contained in
-   * the sentimentList in order to be returned by this method. Looks to both
-   * sides of the shifter in alternating fashion, starting right.
+   * This method is used to look for the target of a shifter or intensifier
+   * using a given window and lexicon look-up. The found target must be
+   * contained in the sentimentList in order to be returned by this method. Looks to both
+   * sides of the trigger in alternating fashion, starting right.
    *
-   * @param shifter The shifter for which a target is searched for.
+   * @param kind Whether trigger is a shifter or an intensifier.
+   * @param trigger The shifter or intensifier for which a target is searched
+   * for.
    * @param sentimentList A list of found sentiments in the current sentence.
-   * These are the potential shifter target candidates.
-   * @param sentence The sentence the shifter is in.
-   * @return The WordObj corresponding to the found shifter target, or null.
+   * These are the potential target candidates.
+   * @param sentence The sentence the trigger is in.
+   * @param entries The lexicon entries of the words of the sentence.
+   * @return The WordObj corresponding to the found target, or null.
    */
-  private WordObj findShifterTargetBaselineBoth(WordObj shifter, ArrayList<WordObj> sentimentList, SentenceObj sentence,
-          int window) {
-    WordObj shifterTarget = null;
-    LinkedList<WordObj> wordList = sentence.getWordList();
-    int shifterPos = sentence.getWordPosition(shifter);
+  private WordObj findTargetBoth(Trigger kind, WordObj trigger, ArrayList<WordObj> sentimentList, SentenceObj sentence,
+          LexiconEntries entries, int window) {
+    WordObj target = null;
+    List<WordObj> wordList = sentence.getWordList();
+    int triggerPos = sentence.getWordPosition(trigger);
 
     for (int i = 1; i <= window; i++) {
-      if (wordList.size() > shifterPos + i) {
-        shifterTarget = wordList.get(shifterPos + i);
-        if (sentimentList.contains(shifterTarget)) {
+      if (wordList.size() > triggerPos + i) {
+        target = wordList.get(triggerPos + i);
+        if (sentimentList.contains(target)) {
           if (shifter_orientation_check) {
-            if (orientationCheck(shifter, shifterTarget)) {
-              return shifterTarget;
+            if (orientationCheck(entries, kind, trigger, target)) {
+              return target;
             }
           } else {
-            return shifterTarget;
+            return target;
           }
         }
       }
-      if (shifterPos - i >= 0) {
-        shifterTarget = wordList.get(shifterPos - i);
-        if (sentimentList.contains(shifterTarget)) {
+      if (triggerPos - i >= 0) {
+        target = wordList.get(triggerPos - i);
+        if (sentimentList.contains(target)) {
           if (shifter_orientation_check) {
-            if (orientationCheck(shifter, shifterTarget)) {
-              return shifterTarget;
+            if (orientationCheck(entries, kind, trigger, target)) {
+              return target;
             }
           } else {
-            return shifterTarget;
+            return target;
           }
         }
       }
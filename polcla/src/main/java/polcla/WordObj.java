@@ -1,6 +1,8 @@
 package polcla;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * WordObj object contains all information about a specific word
@@ -10,12 +12,14 @@ public class WordObj{
 	
 	private String name;
 	private String pos;
+	private PosGroup posGroup = PosGroup.OTHER;
 	private String lemma;
 	private String relation;
 	private boolean isParticleVerb;
 	private WordObj particle;
 	private int edge; 
-	private LinkedList<WordObj> deletedWords = new LinkedList<WordObj> ();
+	// Created by the first addDeleted, most words never get one.
+	private List<WordObj> deletedWords = null;
 	private int position;
 	private boolean markedAsSource=false;
 	private boolean markedAsTarget=false;
@@ -66,6 +70,14 @@ public class WordObj{
 	 */
 	public void setPos(String pos) {
 		this.pos = pos;
+		this.posGroup = PosGroup.of(pos);
+	}
+
+	/**
+	 * @return The {@link PosGroup} of {@link #pos}
+	 */
+	PosGroup getPosGroup() {
+		return posGroup;
 	}
 
 	/**
@@ -142,14 +154,18 @@ public class WordObj{
 	 * @param deleted is added to {@link #deletedWords}
 	 */
 	public void addDeleted(WordObj deleted){
+		if (deletedWords == null) {
+			deletedWords = new ArrayList<WordObj>(2);
+		}
 		deletedWords.add(deleted);
 	}
 	
 	/**
-	 * @return {@link #deletedWords} of WordObj
+	 * @return {@link #deletedWords} of WordObj, an unmodifiable empty list if
+	 * there are none
 	 */
-	public LinkedList<WordObj> getDeleted(){
-		return deletedWords;
+	public List<WordObj> getDeleted(){
+		return deletedWords == null ? Collections.<WordObj>emptyList() : deletedWords;
 	}
 
 	/* (non-Javadoc)
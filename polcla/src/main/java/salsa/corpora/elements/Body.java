@@ -1,11 +1,15 @@
 package salsa.corpora.elements;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 
+import salsa.corpora.xmlwriter.CorpusWriter;
+
 /**
  * Represents the 'body' section of a SalsaXML corpus.
  */
-public class Body {
+public class Body implements CorpusWriter.Writable {
 	
 	ArrayList<Sentence> sentences;
 
@@ -49,21 +53,74 @@ public class Body {
 	
 
 	/**
-	 * Returns a recursively created XML representation of this <code>Body</code>.
+	 * Writes the opening 'body' tag to a <code>Writer</code>.
+	 * 
+	 * @param out
+	 *          the <code>Writer</code> to write to
+	 * @throws IOException
+	 *           if the XML could not be written
 	 */
-	public String toString() {
+	public void writeStart(Writer out) throws IOException {
+
+		out.append("<").append(xmltag).append(">").append(newline);
+	}
+
+	/**
+	 * Writes a <code>Sentence</code> of this <code>Body</code> to a
+	 * <code>Writer</code>.
+	 * 
+	 * @param out
+	 *          the <code>Writer</code> to write to
+	 * @param sentence
+	 *          the <code>Sentence</code> to write
+	 * @throws IOException
+	 *           if the XML could not be written
+	 */
+	public void writeSentence(Writer out, Sentence sentence) throws IOException {
+
+		out.append("\t\t");
+		sentence.write(out);
+	}
+
+	/**
+	 * Writes the closing 'body' tag to a <code>Writer</code>.
+	 * 
+	 * @param out
+	 *          the <code>Writer</code> to write to
+	 * @throws IOException
+	 *           if the XML could not be written
+	 */
+	public void writeEnd(Writer out) throws IOException {
+
+		out.append("\t</").append(xmltag).append(">").append(newline);
+	}
 
-		StringBuilder buffer = new StringBuilder();
+	/**
+	 * Writes the XML representation of this <code>Body</code> to a
+	 * <code>Writer</code>, without building it as a <code>String</code> first.
+	 * 
+	 * @param out
+	 *          the <code>Writer</code> to write to
+	 * @throws IOException
+	 *           if the XML could not be written
+	 */
+	public void write(Writer out) throws IOException {
 
-		buffer.append("<" + xmltag + ">" + newline);
+		writeStart(out);
 
 		for (Sentence currentSentence : sentences) {
-			buffer.append("\t\t" + currentSentence.toString());
+			writeSentence(out, currentSentence);
 		}
-		
-		buffer.append("\t</" + xmltag + ">" + newline);
 
-		return buffer.toString();
+		writeEnd(out);
+	}
+
+	/**
+	 * Returns a recursively created XML representation of this <code>Body</code>.
+	 */
+	public String toString() {
+
+		return CorpusWriter.toString(this);
 	}
 
 
@@ -1,12 +1,17 @@
 package salsa.corpora.elements;
 
+import java.io.IOException;
+import java.io.Writer;
+
+import salsa.corpora.xmlwriter.CorpusWriter;
+
 /**
  * Represents a corpus in the SalsaXML format.
  * 
  * @author Fabian Shirokov
  * 
  */
-public class Corpus {
+public class Corpus implements CorpusWriter.Writable {
 
 	private String corpusname;
 
@@ -122,27 +127,65 @@ public class Corpus {
 	}
 
 	/**
-	 * Returns a recursively created XML representation of a SALSA corpus,
-	 * including the header &lt;?xml version="1.0" encoding="UTF-8"?&gt;
+	 * Writes the opening 'corpus' tag and the <code>Head</code> to a
+	 * <code>Writer</code>.
+	 * 
+	 * @param out
+	 *          the <code>Writer</code> to write to
+	 * @throws IOException
+	 *           if the XML could not be written
 	 */
-	public String toString() {
-
-		StringBuilder buffer = new StringBuilder();
+	public void writeStart(Writer out) throws IOException {
 
-		buffer.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + newline);
-
-		buffer.append("<" + xmltag + " corpusname=\"" + corpusname + "\" target=\"" + target + "\">" + newline);
+		out.append("<").append(xmltag).append(" corpusname=\"").append(corpusname).append("\" target=\"")
+				.append(target).append("\">").append(newline);
 
 		if (null != head) {
-			buffer.append("\t" + head.toString());
+			out.append("\t").append(head.toString());
 		}
+	}
+
+	/**
+	 * Writes the closing 'corpus' tag to a <code>Writer</code>.
+	 * 
+	 * @param out
+	 *          the <code>Writer</code> to write to
+	 * @throws IOException
+	 *           if the XML could not be written
+	 */
+	public void writeEnd(Writer out) throws IOException {
+
+		out.append("</").append(xmltag).append(">").append(newline);
+	}
+
+	/**
+	 * Writes the XML representation of this <code>Corpus</code> to a
+	 * <code>Writer</code>, without building it as a <code>String</code> first.
+	 * 
+	 * @param out
+	 *          the <code>Writer</code> to write to
+	 * @throws IOException
+	 *           if the XML could not be written
+	 */
+	public void write(Writer out) throws IOException {
+
+		out.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>").append(newline);
+
+		writeStart(out);
 		if (null != body) {
-			buffer.append("\t" + body.toString());
+			out.append("\t");
+			body.write(out);
 		}
+		writeEnd(out);
+	}
 
-		buffer.append("</" + xmltag + ">" + newline);
+	/**
+	 * Returns a recursively created XML representation of a SALSA corpus,
+	 * including the header &lt;?xml version="1.0" encoding="UTF-8"?&gt;
+	 */
+	public String toString() {
 
-		return buffer.toString();
+		return CorpusWriter.toString(this);
 	}
 
 }
\ No newline at end of file
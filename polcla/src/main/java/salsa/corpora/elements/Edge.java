@@ -1,6 +1,10 @@
 package salsa.corpora.elements;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import salsa.corpora.noelement.Id;
+import salsa.corpora.xmlwriter.CorpusWriter;
 
 /**
  * Represents the 'edge' section in the SalsaXML corpora.
@@ -8,7 +12,7 @@ import salsa.corpora.noelement.Id;
  * @author Fabian Shirokov
  * 
  */
-public class Edge {
+public class Edge implements CorpusWriter.Writable {
 
 	private Id idref;
 
@@ -61,17 +65,28 @@ public class Edge {
 		return xmltag;
 	}
 
+	/**
+	 * Writes the XML representation of this <code>Edge</code> to a
+	 * <code>Writer</code>, without building it as a <code>String</code> first.
+	 * 
+	 * @param out
+	 *          the <code>Writer</code> to write to
+	 * @throws IOException
+	 *           if the XML could not be written
+	 */
+	public void write(Writer out) throws IOException {
+
+		out.append("<").append(xmltag).append(" idref=\"").append(idref.getId()).append("\" label=\"")
+				.append(label).append("\"/>").append(newline);
+	}
+
 	/**
 	 * Returns a recursively created XML representation of this
 	 * <code>Edge</code>.
 	 */
 	public String toString() {
-		StringBuilder buffer = new StringBuilder();
-
-		buffer.append("<" + xmltag + " idref=\"" + idref.getId()
-				+ "\" label=\"" + label + "\"/>" + newline);
 
-		return buffer.toString();
+		return CorpusWriter.toString(this);
 	}
 
 }
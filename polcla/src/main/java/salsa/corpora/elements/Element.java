@@ -1,12 +1,17 @@
 package salsa.corpora.elements;
 
+import java.io.IOException;
+import java.io.Writer;
+
+import salsa.corpora.xmlwriter.CorpusWriter;
+
 /**
  * Represents the 'element' section in SalsaXML corpora.
  * 
  * @author Fabian Shirokov
  * 
  */
-public class Element {
+public class Element implements CorpusWriter.Writable {
 
 	private String name;
 
@@ -75,16 +80,28 @@ public class Element {
 		return xmltag;
 	}
 
+	/**
+	 * Writes the XML representation of this <code>Element</code> to a
+	 * <code>Writer</code>, without building it as a <code>String</code> first.
+	 * 
+	 * @param out
+	 *          the <code>Writer</code> to write to
+	 * @throws IOException
+	 *           if the XML could not be written
+	 */
+	public void write(Writer out) throws IOException {
+
+		out.append("<").append(xmltag).append(" name=\"").append(name).append("\" optional=\"").append(optional)
+				.append("\"/>").append(newline);
+	}
+
 	/**
 	 * Returns a recursively created XML representation of this
 	 * <code>Element</code>.
 	 */
 	public String toString() {
 
-		StringBuilder buffer = new StringBuilder();
-		buffer.append("<" + xmltag + " name=\"" + name + "\" optional=\"" + optional + "\"/>" + newline);
-
-		return buffer.toString();
+		return CorpusWriter.toString(this);
 	}
 
 }
@@ -1,13 +1,17 @@
 package salsa.corpora.elements;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import salsa.corpora.noelement.Id;
+import salsa.corpora.xmlwriter.CorpusWriter;
 
 /**
  * Represents a 'fenode' section in a SalsaXML corpus.
  * @author Fabian Shirokov
  *
  */
-public class Fenode {
+public class Fenode implements CorpusWriter.Writable {
 	
 	private Id idref;
 	
@@ -80,21 +84,30 @@ public class Fenode {
 	}
 	
 	/**
-	 * Returns a recursively created XML representation of <code>Fenode</code>.
+	 * Writes the XML representation of this <code>Fenode</code> to a
+	 * <code>Writer</code>, without building it as a <code>String</code> first.
+	 * 
+	 * @param out
+	 *          the <code>Writer</code> to write to
+	 * @throws IOException
+	 *           if the XML could not be written
 	 */
-	public String toString() {
+	public void write(Writer out) throws IOException {
 
-		StringBuilder buffer = new StringBuilder();
+		out.append("<").append(xmltag).append(" idref=\"").append(idref.getId()).append("\"");
 
-		buffer.append("<" + xmltag + " idref=\"" + idref.getId()
-				+ "\"");
-		
-		if (null != is_split){
-			buffer.append(" is_split=\"" + is_split + "\"");
+		if (null != is_split) {
+			out.append(" is_split=\"").append(is_split).append("\"");
 		}
-		buffer.append("/>" + newline);
+		out.append("/>").append(newline);
+	}
+
+	/**
+	 * Returns a recursively created XML representation of <code>Fenode</code>.
+	 */
+	public String toString() {
 
-		return buffer.toString();
+		return CorpusWriter.toString(this);
 	}
 
 	
@@ -1,12 +1,17 @@
 package salsa.corpora.elements;
 
+import java.io.IOException;
+import java.io.Writer;
+
+import salsa.corpora.xmlwriter.CorpusWriter;
+
 /**
  * Represents a 'flag' section in a SalsaXML corpus.
  * 
  * @author Fabian Shirokov
  * 
  */
-public class Flag {
+public class Flag implements CorpusWriter.Writable {
 
 	private String forWhat;
 
@@ -131,32 +136,41 @@ public class Flag {
 	}
 
 	/**
-	 * Returns a recursively created XML representation of a <code>Flag</code>.
+	 * Writes the XML representation of this <code>Flag</code> to a
+	 * <code>Writer</code>, without building it as a <code>String</code> first.
+	 * 
+	 * @param out
+	 *          the <code>Writer</code> to write to
+	 * @throws IOException
+	 *           if the XML could not be written
 	 */
-	public String toString() {
-
-		StringBuilder buffer = new StringBuilder();
+	public void write(Writer out) throws IOException {
 
-		buffer.append("<" + xmltag);
+		out.append("<").append(xmltag);
 		if (null != forWhat) {
-			buffer.append(" for=\"" + forWhat + "\"");
+			out.append(" for=\"").append(forWhat).append("\"");
 		}
-		buffer.append(" name=\"" + name + "\"");
+		out.append(" name=\"").append(name).append("\"");
 		if (null != source) {
-			buffer.append(" pos=\"" + source + "\"");
+			out.append(" pos=\"").append(source).append("\"");
 		}
 
 		if (null != text) {
-			buffer.append(">" + newline);
-			buffer.append("\t\t\t\t" + text.trim());
-			buffer.append("\t\t\t</" + xmltag + ">" + newline);
+			out.append(">").append(newline);
+			out.append("\t\t\t\t").append(text.trim());
+			out.append("\t\t\t</").append(xmltag).append(">").append(newline);
 
 		} else {
-			buffer.append("/>" + newline);
+			out.append("/>").append(newline);
 		}
+	}
 
+	/**
+	 * Returns a recursively created XML representation of a <code>Flag</code>.
+	 */
+	public String toString() {
 
-		return buffer.toString();
+		return CorpusWriter.toString(this);
 	}
 
 }
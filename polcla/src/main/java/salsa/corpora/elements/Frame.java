@@ -1,8 +1,11 @@
 package salsa.corpora.elements;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 
 import salsa.corpora.noelement.Id;
+import salsa.corpora.xmlwriter.CorpusWriter;
 
 /**
  * Represents a 'frame' section in a SalsaXML corpus.
@@ -10,7 +13,7 @@ import salsa.corpora.noelement.Id;
  * @author Fabian Shirokov
  * 
  */
-public class Frame {
+public class Frame implements CorpusWriter.Writable {
 
 	private Id id;
 
@@ -216,50 +219,64 @@ public class Frame {
 	}
 
 	/**
-	 * Returns a recursively created XML representation of this <code>Frame</code>
-	 * .
+	 * Writes the XML representation of this <code>Frame</code> to a
+	 * <code>Writer</code>, without building it as a <code>String</code> first.
+	 * 
+	 * @param out
+	 *          the <code>Writer</code> to write to
+	 * @throws IOException
+	 *           if the XML could not be written
 	 */
-	public String toString() {
-
-		StringBuilder buffer = new StringBuilder();
+	public void write(Writer out) throws IOException {
 
-		buffer.append("<" + xmltag);
+		out.append("<").append(xmltag);
 
-		buffer.append(" name=\"" + name + "\"");
+		out.append(" name=\"").append(name).append("\"");
 
 		if (null != id) {
-			buffer.append(" id=\"" + id.getId() + "\"");
+			out.append(" id=\"").append(id.getId()).append("\"");
 		}
 
 		if (null != source) {
-			buffer.append(" source=\"" + source + "\"");
+			out.append(" source=\"").append(source).append("\"");
 		}
 
 		if (null != usp) {
-			buffer.append(" usp=\"" + usp + "\"");
+			out.append(" usp=\"").append(usp).append("\"");
 		}
 
-		buffer.append(">" + newline);
+		out.append(">").append(newline);
 
 		for (Element currentElement : elements) {
-			buffer.append("\t\t\t\t" + currentElement.toString());
+			out.append("\t\t\t\t");
+			currentElement.write(out);
 		}
 
 		if (null != target) {
-			buffer.append("\t\t\t\t\t\t" + target.toString());
+			out.append("\t\t\t\t\t\t");
+			target.write(out);
 		}
 
 		for (FrameElement currentFe : fes) {
-			buffer.append("\t\t\t\t" + currentFe.toString());
+			out.append("\t\t\t\t");
+			currentFe.write(out);
 		}
 
 		for (Flag currentFlag : flags) {
-			buffer.append("\t\t\t\t" + currentFlag.toString());
+			out.append("\t\t\t\t");
+			currentFlag.write(out);
 		}
 
-		buffer.append("\t\t\t</" + xmltag + ">" + newline);
+		out.append("\t\t\t</").append(xmltag).append(">").append(newline);
+	}
+
+	/**
+	 * Returns a recursively created XML representation of this <code>Frame</code>
+	 * .
+	 */
+	public String toString() {
 
-		return buffer.toString();
+		return CorpusWriter.toString(this);
 	}
 
 }
@@ -1,8 +1,11 @@
 package salsa.corpora.elements;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 
 import salsa.corpora.noelement.Id;
+import salsa.corpora.xmlwriter.CorpusWriter;
 
 /**
  * Represents a frame element 'fe' in a SalsaXML corpus.
@@ -10,7 +13,7 @@ import salsa.corpora.noelement.Id;
  * @author Fabian Shirokov
  * 
  */
-public class FrameElement {
+public class FrameElement implements CorpusWriter.Writable {
 
 	private Id id;
 
@@ -182,36 +185,48 @@ public class FrameElement {
 	}
 
 	/**
-	 * Returns a recursively created XML representation of
-	 * <code>FrameElement</code>.
+	 * Writes the XML representation of this <code>FrameElement</code> to a
+	 * <code>Writer</code>, without building it as a <code>String</code> first.
+	 * 
+	 * @param out
+	 *          the <code>Writer</code> to write to
+	 * @throws IOException
+	 *           if the XML could not be written
 	 */
-	public String toString() {
+	public void write(Writer out) throws IOException {
 
-		StringBuilder buffer = new StringBuilder();
-
-		buffer.append("<" + xmltag + " id=\"" + id.getId() + "\" name=\""
-				+ name + "\"");
+		out.append("<").append(xmltag).append(" id=\"").append(id.getId()).append("\" name=\"").append(name)
+				.append("\"");
 
 		if (null != source) {
-			buffer.append(" pos=\"" + source + "\"");
+			out.append(" pos=\"").append(source).append("\"");
 		}
 		if (null != usp) {
-			buffer.append(" usp=\"" + usp + "\"");
+			out.append(" usp=\"").append(usp).append("\"");
 		}
-		
-		buffer.append(">" + newline);
+
+		out.append(">").append(newline);
 
 		for (Fenode currentFenode : fenodes) {
-			buffer.append("\t\t\t\t\t\t\t" + currentFenode.toString());
+			out.append("\t\t\t\t\t\t\t");
+			currentFenode.write(out);
 		}
 
 		for (Flag currentFlag : flags) {
-			buffer.append("\t\t\t\t\t\t\t" + currentFlag.toString());
+			out.append("\t\t\t\t\t\t\t");
+			currentFlag.write(out);
 		}
 
-		buffer.append("\t\t\t\t\t\t</" + xmltag + ">" + newline);
+		out.append("\t\t\t\t\t\t</").append(xmltag).append(">").append(newline);
+	}
+
+	/**
+	 * Returns a recursively created XML representation of
+	 * <code>FrameElement</code>.
+	 */
+	public String toString() {
 
-		return buffer.toString();
+		return CorpusWriter.toString(this);
 	}
 
 }
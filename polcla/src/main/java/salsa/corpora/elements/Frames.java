@@ -1,14 +1,18 @@
 package salsa.corpora.elements;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 
+import salsa.corpora.xmlwriter.CorpusWriter;
+
 /**
  * Represents the 'frames' section in a SalsaXML corpus.
  * 
  * @author Fabian Shirokov
  * 
  */
-public class Frames {
+public class Frames implements CorpusWriter.Writable {
 
 	private String xmlns;
 
@@ -81,27 +85,38 @@ public class Frames {
 	
 
 	/**
-	 * Returns a recursively created XML representation of <code>Frames</code>.
+	 * Writes the XML representation of this <code>Frames</code> to a
+	 * <code>Writer</code>, without building it as a <code>String</code> first.
+	 * 
+	 * @param out
+	 *          the <code>Writer</code> to write to
+	 * @throws IOException
+	 *           if the XML could not be written
 	 */
-	public String toString() {
+	public void write(Writer out) throws IOException {
 
-		StringBuilder buffer = new StringBuilder();
+		out.append("<").append(xmltag);
 
-		buffer.append("<" + xmltag);
-		
 		if (null != xmlns) {
-			buffer.append(" xmlns=\"" + xmlns + "\"");
+			out.append(" xmlns=\"").append(xmlns).append("\"");
 		}
-		
-		buffer.append(">" + newline);
-		
+
+		out.append(">").append(newline);
+
 		for (Frame currentFrame : frames) {
-			buffer.append("\t\t\t" + currentFrame.toString());
+			out.append("\t\t\t");
+			currentFrame.write(out);
 		}
-		
-		buffer.append("\t\t</" + xmltag + ">" + newline);
 
-		return buffer.toString();
+		out.append("\t\t</").append(xmltag).append(">").append(newline);
+	}
+
+	/**
+	 * Returns a recursively created XML representation of <code>Frames</code>.
+	 */
+	public String toString() {
+
+		return CorpusWriter.toString(this);
 	}
 
 	
@@ -1,11 +1,16 @@
 package salsa.corpora.elements;
 
+import java.io.IOException;
+import java.io.Writer;
+
+import salsa.corpora.xmlwriter.CorpusWriter;
+
 /**
  * Represents the 'global' section in a SalsaXML corpus.
  * @author Fabian Shirokov
  *
  */
-public class Global {
+public class Global implements CorpusWriter.Writable {
 	
 	private String param;
 	
@@ -84,28 +89,37 @@ public class Global {
 	}
 	
 	/**
-	 * Returns a recursively created XML representation of <code>Global</code>.
+	 * Writes the XML representation of this <code>Global</code> to a
+	 * <code>Writer</code>, without building it as a <code>String</code> first.
+	 * 
+	 * @param out
+	 *          the <code>Writer</code> to write to
+	 * @throws IOException
+	 *           if the XML could not be written
 	 */
-	public String toString() {
+	public void write(Writer out) throws IOException {
 
-		StringBuilder buffer = new StringBuilder();
+		out.append("<").append(xmltag).append(" type=\"").append(type).append("\"");
 
-		buffer.append("<" + xmltag + " type=\"" + type
-				+ "\"");
-		
 		if (null != param) {
-			buffer.append(" param=\"" + param + "\"");
+			out.append(" param=\"").append(param).append("\"");
 		}
-		
-		buffer.append(">");
-		
+
+		out.append(">");
+
 		if (null != text) {
-			buffer.append(text);
+			out.append(text);
 		}
-		
-		buffer.append("</" + xmltag + ">" + newline);
 
-		return buffer.toString();
+		out.append("</").append(xmltag).append(">").append(newline);
+	}
+
+	/**
+	 * Returns a recursively created XML representation of <code>Global</code>.
+	 */
+	public String toString() {
+
+		return CorpusWriter.toString(this);
 	}
 
 
@@ -1,13 +1,17 @@
 package salsa.corpora.elements;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 
+import salsa.corpora.xmlwriter.CorpusWriter;
+
 /**
  * Represents the 'globals' section in a SalsaXML corpus.
  * @author Fabian Shirokov
  *
  */
-public class Globals {
+public class Globals implements CorpusWriter.Writable {
 	
 	private ArrayList<Global> globals;
 	
@@ -48,21 +52,32 @@ public class Globals {
 	}
 	
 	/**
-	 * Returns a recursively created XML representation of <code>Globals</code>.
+	 * Writes the XML representation of this <code>Globals</code> to a
+	 * <code>Writer</code>, without building it as a <code>String</code> first.
+	 * 
+	 * @param out
+	 *          the <code>Writer</code> to write to
+	 * @throws IOException
+	 *           if the XML could not be written
 	 */
-	public String toString() {
+	public void write(Writer out) throws IOException {
 
-		StringBuilder buffer = new StringBuilder();
-
-		buffer.append("<" + xmltag + ">" + newline);
+		out.append("<").append(xmltag).append(">").append(newline);
 
 		for (Global currentGlobal : globals) {
-			buffer.append("\t\t\t\t\t" + currentGlobal.toString());
+			out.append("\t\t\t\t\t");
+			currentGlobal.write(out);
 		}
-		
-		buffer.append("\t\t\t\t</" + xmltag + ">" + newline);
 
-		return buffer.toString();
+		out.append("\t\t\t\t</").append(xmltag).append(">").append(newline);
+	}
+
+	/**
+	 * Returns a recursively created XML representation of <code>Globals</code>.
+	 */
+	public String toString() {
+
+		return CorpusWriter.toString(this);
 	}
 
 	
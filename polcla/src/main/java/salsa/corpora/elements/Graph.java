@@ -1,6 +1,10 @@
 package salsa.corpora.elements;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import salsa.corpora.noelement.Id;
+import salsa.corpora.xmlwriter.CorpusWriter;
 
 /**
  * Represents the 'graph' section in a SalsaXML corpus.
@@ -8,7 +12,7 @@ import salsa.corpora.noelement.Id;
  * @author Fabian Shirokov
  * 
  */
-public class Graph {
+public class Graph implements CorpusWriter.Writable {
 
 	private Id root;
 
@@ -99,24 +103,37 @@ public class Graph {
 	}
 
 	/**
-	 * Returns a recursively created XML representation of this
-	 * <code>Graph</code>.
+	 * Writes the XML representation of this <code>Graph</code> to a
+	 * <code>Writer</code>, without building it as a <code>String</code> first.
+	 * 
+	 * @param out
+	 *          the <code>Writer</code> to write to
+	 * @throws IOException
+	 *           if the XML could not be written
 	 */
-	public String toString() {
-		StringBuilder buffer = new StringBuilder();
+	public void write(Writer out) throws IOException {
 
-		buffer.append("<" + xmltag + " root=\"" + root.getId() + "\">" + newline);
+		out.append("<").append(xmltag).append(" root=\"").append(root.getId()).append("\">").append(newline);
 
 		if (null != terminals) {
-			buffer.append("\t\t\t\t" + terminals.toString());
+			out.append("\t\t\t\t");
+			terminals.write(out);
 		}
 
 		if (null != nonterminals) {
-			buffer.append("\t\t\t\t" + nonterminals.toString());
+			out.append("\t\t\t\t");
+			nonterminals.write(out);
 		}
-		buffer.append("\t\t\t</" + xmltag + ">" + newline);
+		out.append("\t\t\t</").append(xmltag).append(">").append(newline);
+	}
+
+	/**
+	 * Returns a recursively created XML representation of this
+	 * <code>Graph</code>.
+	 */
+	public String toString() {
 
-		return buffer.toString();
+		return CorpusWriter.toString(this);
 	}
 
 }
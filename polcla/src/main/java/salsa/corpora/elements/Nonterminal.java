@@ -1,8 +1,11 @@
 package salsa.corpora.elements;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 
 import salsa.corpora.noelement.Id;
+import salsa.corpora.xmlwriter.CorpusWriter;
 
 /**
  * Represents the 'nonterminal' section of a SalsaXML corpus.
@@ -10,7 +13,7 @@ import salsa.corpora.noelement.Id;
  * @author Fabian Shirokov
  * 
  */
-public class Nonterminal {
+public class Nonterminal implements CorpusWriter.Writable {
 
 	private String cat;
 
@@ -123,22 +126,34 @@ public class Nonterminal {
 	}
 
 	/**
-	 * Returns a recursively created XML representation of this
-	 * <code>Nonterminal</code>.
+	 * Writes the XML representation of this <code>Nonterminal</code> to a
+	 * <code>Writer</code>, without building it as a <code>String</code> first.
+	 * 
+	 * @param out
+	 *          the <code>Writer</code> to write to
+	 * @throws IOException
+	 *           if the XML could not be written
 	 */
-	public String toString() {
+	public void write(Writer out) throws IOException {
+
+		out.append("<").append(xmltag).append(" cat=\"").append(cat).append("\" id=\"").append(id.getId())
+				.append("\">").append(newline);
 
-		StringBuilder buffer = new StringBuilder();
-		buffer.append("<" + xmltag + " cat=\"" + cat + "\" id=\"" + id.getId()
-				+ "\">" + newline);
-		
 		for (Edge currentEdge : edges) {
-			buffer.append("\t\t\t\t\t\t" + currentEdge.toString());
+			out.append("\t\t\t\t\t\t");
+			currentEdge.write(out);
 		}
-		
-		buffer.append("\t\t\t\t\t</" + xmltag + ">" + newline);
 
-		return buffer.toString();
+		out.append("\t\t\t\t\t</").append(xmltag).append(">").append(newline);
+	}
+
+	/**
+	 * Returns a recursively created XML representation of this
+	 * <code>Nonterminal</code>.
+	 */
+	public String toString() {
+
+		return CorpusWriter.toString(this);
 	}
 
 }
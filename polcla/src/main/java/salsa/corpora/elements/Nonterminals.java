@@ -1,13 +1,17 @@
 package salsa.corpora.elements;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 
+import salsa.corpora.xmlwriter.CorpusWriter;
+
 /**
  * Represents the 'nonterminals' section of a SalsaXML corpus.
  * @author Fabian Shirokov
  *
  */
-public class Nonterminals {
+public class Nonterminals implements CorpusWriter.Writable {
 	
 	ArrayList<Nonterminal> nonterminals;
 	
@@ -48,19 +52,31 @@ public class Nonterminals {
 	}
 	
 	/**
-	 * Returns a recursively created XML representation of this <code>Nonterminals</code>.
+	 * Writes the XML representation of this <code>Nonterminals</code> to a
+	 * <code>Writer</code>, without building it as a <code>String</code> first.
+	 * 
+	 * @param out
+	 *          the <code>Writer</code> to write to
+	 * @throws IOException
+	 *           if the XML could not be written
 	 */
-	public String toString() {
+	public void write(Writer out) throws IOException {
 
-		StringBuilder buffer = new StringBuilder();
-		buffer.append("<" + xmltag + ">" + newline);
-		
-		for (Nonterminal currentNonterminal : nonterminals){
-			buffer.append("\t\t\t\t\t" + currentNonterminal.toString());
+		out.append("<").append(xmltag).append(">").append(newline);
+
+		for (Nonterminal currentNonterminal : nonterminals) {
+			out.append("\t\t\t\t\t");
+			currentNonterminal.write(out);
 		}
-		
-		buffer.append("\t\t\t\t</" + xmltag + ">" + newline);
 
-		return buffer.toString();
+		out.append("\t\t\t\t</").append(xmltag).append(">").append(newline);
+	}
+
+	/**
+	 * Returns a recursively created XML representation of this <code>Nonterminals</code>.
+	 */
+	public String toString() {
+
+		return CorpusWriter.toString(this);
 	}
 }
@@ -1,6 +1,10 @@
 package salsa.corpora.elements;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import salsa.corpora.noelement.Id;
+import salsa.corpora.xmlwriter.CorpusWriter;
 
 /**
  * Represents the 'secedge' section of a SalsaXML corpus.
@@ -8,7 +12,7 @@ import salsa.corpora.noelement.Id;
  * @author Fabian Shirokov
  * 
  */
-public class Secedge {
+public class Secedge implements CorpusWriter.Writable {
 
 	private Id id;
 
@@ -79,18 +83,28 @@ public class Secedge {
 		return xmltag;
 	}
 
+	/**
+	 * Writes the XML representation of this <code>Secedge</code> to a
+	 * <code>Writer</code>, without building it as a <code>String</code> first.
+	 * 
+	 * @param out
+	 *          the <code>Writer</code> to write to
+	 * @throws IOException
+	 *           if the XML could not be written
+	 */
+	public void write(Writer out) throws IOException {
+
+		out.append("<").append(xmltag).append(" idref=\"").append(id.getId()).append("\" label=\"")
+				.append(label).append("\"/>").append(newline);
+	}
+
 	/**
 	 * Returns a recursively created XML representation of this
 	 * <code>Secedge</code>.
 	 */
 	public String toString() {
 
-		StringBuilder buffer = new StringBuilder();
-		buffer.append("<" + xmltag + " idref=\"" + id.getId() + "\" label=\""
-				+ label + "\"/>" + newline);
-		
-
-		return buffer.toString();
+		return CorpusWriter.toString(this);
 	}
 
 }
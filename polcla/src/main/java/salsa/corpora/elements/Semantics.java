@@ -1,13 +1,17 @@
 package salsa.corpora.elements;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 
+import salsa.corpora.xmlwriter.CorpusWriter;
+
 /**
  * Represents the 'sem' section of a SalsaXML corpus.
  * 
  * @author Fabian Shirokov
  */
-public class Semantics {
+public class Semantics implements CorpusWriter.Writable {
 
 	private ArrayList<Frames> frames;
 
@@ -129,33 +133,46 @@ public class Semantics {
 	}
 
 	/**
-	 * Returns a recursively created XML representation of this
-	 * <code>Wordtags</code>.
+	 * Writes the XML representation of this <code>Semantics</code> to a
+	 * <code>Writer</code>, without building it as a <code>String</code> first.
+	 * 
+	 * @param out
+	 *          the <code>Writer</code> to write to
+	 * @throws IOException
+	 *           if the XML could not be written
 	 */
-	public String toString() {
+	public void write(Writer out) throws IOException {
 
-		StringBuilder buffer = new StringBuilder();
-		buffer.append("<" + xmltag + ">" + newline);
+		out.append("<").append(xmltag).append(">").append(newline);
 		for (Globals currentGlobals : globals) {
-			buffer.append("\t\t\t\t" + currentGlobals.toString());
+			out.append("\t\t\t\t");
+			currentGlobals.write(out);
 		}
 		for (Frames currentFrames : frames) {
-			buffer.append("\t\t\t\t" + currentFrames.toString());
+			out.append("\t\t\t\t");
+			currentFrames.write(out);
 		}
 
 		for (Splitwords currentSplitwords : splitwords) {
-			buffer.append("\t\t\t\t" + currentSplitwords.toString());
+			out.append("\t\t\t\t").append(currentSplitwords.toString());
 		}
 		for (Underspecification currentUnderspecification : usps) {
-			buffer.append("\t\t\t\t" + currentUnderspecification.toString());
+			out.append("\t\t\t\t").append(currentUnderspecification.toString());
 		}
 		for (Wordtags currentWordtags : wordtags) {
-			buffer.append("\t\t\t\t" + currentWordtags.toString());
+			out.append("\t\t\t\t").append(currentWordtags.toString());
 		}
 
-		buffer.append("\t\t\t</" + xmltag + ">" + newline);
+		out.append("\t\t\t</").append(xmltag).append(">").append(newline);
+	}
+
+	/**
+	 * Returns a recursively created XML representation of this
+	 * <code>Wordtags</code>.
+	 */
+	public String toString() {
 
-		return buffer.toString();
+		return CorpusWriter.toString(this);
 	}
 
 }
@@ -1,6 +1,10 @@
 package salsa.corpora.elements;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import salsa.corpora.noelement.Id;
+import salsa.corpora.xmlwriter.CorpusWriter;
 
 /**
  * Represents the 's' section in a SalsaXML corpus.
@@ -8,7 +12,7 @@ import salsa.corpora.noelement.Id;
  * @author Fabian Shirokov
  * 
  */
-public class Sentence {
+public class Sentence implements CorpusWriter.Writable {
 
 	private Id id;
 
@@ -139,32 +143,44 @@ public class Sentence {
 	}
 
 	/**
-	 * Returns a recursively created XML representation of this
-	 * <code>Sentence</code>.
+	 * Writes the XML representation of this <code>Sentence</code> to a
+	 * <code>Writer</code>, without building it as a <code>String</code> first.
+	 * 
+	 * @param out
+	 *          the <code>Writer</code> to write to
+	 * @throws IOException
+	 *           if the XML could not be written
 	 */
-	public String toString() {
+	public void write(Writer out) throws IOException {
 
-		StringBuilder buffer = new StringBuilder();
-		buffer.append("<" + xmltag + " id=\"" + id.getId() + "\"");
+		out.append("<").append(xmltag).append(" id=\"").append(id.getId()).append("\"");
 		if (null != source) {
-			buffer.append(" pos=\"" + source);
+			out.append(" pos=\"").append(source);
 		}
-		buffer.append(">" + newline);
+		out.append(">").append(newline);
 
 		if (null != graph) {
-			buffer.append("\t\t\t" + graph.toString());
+			out.append("\t\t\t");
+			graph.write(out);
 		}
 		if (null != matches) {
-			buffer.append("\t\t\t" + matches.toString());
+			out.append("\t\t\t").append(matches.toString());
 		}
 		if (null != sem) {
-			buffer.append("\t\t\t" + sem.toString());
+			out.append("\t\t\t");
+			sem.write(out);
 		}
-		
 
-		buffer.append("\t\t</" + xmltag + ">" + newline);
+		out.append("\t\t</").append(xmltag).append(">").append(newline);
+	}
+
+	/**
+	 * Returns a recursively created XML representation of this
+	 * <code>Sentence</code>.
+	 */
+	public String toString() {
 
-		return buffer.toString();
+		return CorpusWriter.toString(this);
 	}
 
 }
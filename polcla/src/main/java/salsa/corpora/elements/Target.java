@@ -1,8 +1,11 @@
 package salsa.corpora.elements;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 
 import salsa.corpora.noelement.Id;
+import salsa.corpora.xmlwriter.CorpusWriter;
 
 /**
  * Represents the 'target' section in a SalsaXML corpus.
@@ -10,7 +13,7 @@ import salsa.corpora.noelement.Id;
  * @author Fabian Shirokov
  * 
  */
-public class Target {
+public class Target implements CorpusWriter.Writable {
 
 	private Id id;
 
@@ -130,33 +133,44 @@ public class Target {
 	}
 
 	/**
-	 * Returns a recursively created XML representation of this
-	 * <code>Target</code>.
+	 * Writes the XML representation of this <code>Target</code> to a
+	 * <code>Writer</code>, without building it as a <code>String</code> first.
+	 * 
+	 * @param out
+	 *          the <code>Writer</code> to write to
+	 * @throws IOException
+	 *           if the XML could not be written
 	 */
-	public String toString() {
-
-		StringBuilder buffer = new StringBuilder();
+	public void write(Writer out) throws IOException {
 
-		buffer.append("<" + xmltag);
+		out.append("<").append(xmltag);
 
 		if (null != id) {
-			buffer.append(" id=\"" + id.getId() + "\"");
+			out.append(" id=\"").append(id.getId()).append("\"");
 		}
 		if (null != lemma) {
-			buffer.append(" lemma=\"" + lemma + "\"");
+			out.append(" lemma=\"").append(lemma).append("\"");
 		}
 		if (null != headlemma) {
-			buffer.append(" headlemma=\"" + headlemma + "\"");
+			out.append(" headlemma=\"").append(headlemma).append("\"");
 		}
-		buffer.append(">" + newline);
+		out.append(">").append(newline);
 
 		for (Fenode currentFenode : fenodes) {
-			buffer.append("\t\t\t\t\t\t\t" + currentFenode.toString());
+			out.append("\t\t\t\t\t\t\t");
+			currentFenode.write(out);
 		}
 
-		buffer.append("\t\t\t\t\t\t</" + xmltag + ">" + newline);
+		out.append("\t\t\t\t\t\t</").append(xmltag).append(">").append(newline);
+	}
+
+	/**
+	 * Returns a recursively created XML representation of this
+	 * <code>Target</code>.
+	 */
+	public String toString() {
 
-		return buffer.toString();
+		return CorpusWriter.toString(this);
 	}
 
 }
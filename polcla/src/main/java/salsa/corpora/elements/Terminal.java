@@ -1,6 +1,10 @@
 package salsa.corpora.elements;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import salsa.corpora.noelement.Id;
+import salsa.corpora.xmlwriter.CorpusWriter;
 
 /**
  * Represents a 't' section in a SalsaXML corpus.
@@ -8,7 +12,7 @@ import salsa.corpora.noelement.Id;
  * @author Fabian Shirokov
  * 
  */
-public class Terminal {
+public class Terminal implements CorpusWriter.Writable {
 
 	private Id id;
 
@@ -193,43 +197,54 @@ public class Terminal {
 	}
 
 	/**
-	 * Returns a recursively created XML representation of this
-	 * <code>Terminal</code>.
+	 * Writes the XML representation of this <code>Terminal</code> to a
+	 * <code>Writer</code>, without building it as a <code>String</code> first.
+	 * 
+	 * @param out
+	 *          the <code>Writer</code> to write to
+	 * @throws IOException
+	 *           if the XML could not be written
 	 */
-	public String toString() {
-
-		StringBuilder buffer = new StringBuilder();
+	public void write(Writer out) throws IOException {
 
-		buffer.append("<" + xmltag);
+		out.append("<").append(xmltag);
 
 		if (null != word) {
-			buffer.append(" word=\"" + word + "\"");
+			out.append(" word=\"").append(word).append("\"");
 		}
 		if (null != id) {
-			buffer.append(" id=\"" + id.getId() + "\"");
+			out.append(" id=\"").append(id.getId()).append("\"");
 		}
 		if (null != morph) {
-			buffer.append(" morph=\"" + morph + "\"");
+			out.append(" morph=\"").append(morph).append("\"");
 		}
 		if (null != pos) {
-			buffer.append(" pos=\"" + pos + "\"");
+			out.append(" pos=\"").append(pos).append("\"");
 		}
 		if (null != lemma) {
-			buffer.append(" lemma=\"" + lemma + "\"");
+			out.append(" lemma=\"").append(lemma).append("\"");
 		}
 
 		if (null != secedge) {
-			
-			buffer.append(">" + newline);
-			
-			buffer.append("\t\t\t\t\t\t" + secedge.toString());
 
-			buffer.append("\t\t\t\t\t</" + xmltag + ">" + newline);
+			out.append(">").append(newline);
+
+			out.append("\t\t\t\t\t\t");
+			secedge.write(out);
+
+			out.append("\t\t\t\t\t</").append(xmltag).append(">").append(newline);
 		} else {
-			buffer.append("/>" + newline);
+			out.append("/>").append(newline);
 		}
+	}
+
+	/**
+	 * Returns a recursively created XML representation of this
+	 * <code>Terminal</code>.
+	 */
+	public String toString() {
 
-		return buffer.toString();
+		return CorpusWriter.toString(this);
 	}
 
 }
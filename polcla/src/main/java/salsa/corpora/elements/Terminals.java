@@ -1,14 +1,18 @@
 package salsa.corpora.elements;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 
+import salsa.corpora.xmlwriter.CorpusWriter;
+
 /**
  * Represents the 'terminals' section in a SalsaXML corpus.
  * 
  * @author Fabian Shirokov
  * 
  */
-public class Terminals {
+public class Terminals implements CorpusWriter.Writable {
 
 	private ArrayList<Terminal> terminals;
 
@@ -51,21 +55,33 @@ public class Terminals {
 	}
 
 	/**
-	 * Returns a recursively created XML representation of this
-	 * <code>Terminals</code>.
+	 * Writes the XML representation of this <code>Terminals</code> to a
+	 * <code>Writer</code>, without building it as a <code>String</code> first.
+	 * 
+	 * @param out
+	 *          the <code>Writer</code> to write to
+	 * @throws IOException
+	 *           if the XML could not be written
 	 */
-	public String toString() {
+	public void write(Writer out) throws IOException {
 
-		StringBuilder buffer = new StringBuilder();
-		buffer.append("<" + xmltag + ">" + newline);
+		out.append("<").append(xmltag).append(">").append(newline);
 
 		for (Terminal currentTerminal : terminals) {
-			buffer.append("\t\t\t\t\t" + currentTerminal.toString());
+			out.append("\t\t\t\t\t");
+			currentTerminal.write(out);
 		}
 
-		buffer.append("\t\t\t\t</" + xmltag + ">" + newline);
+		out.append("\t\t\t\t</").append(xmltag).append(">").append(newline);
+	}
+
+	/**
+	 * Returns a recursively created XML representation of this
+	 * <code>Terminals</code>.
+	 */
+	public String toString() {
 
-		return buffer.toString();
+		return CorpusWriter.toString(this);
 	}
 
 }
@@ -0,0 +1,76 @@
+package salsa.corpora.noelement;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A process wide table of the strings that are repeated throughout a corpus:
+ * lemmas, POS tags, morphological tags, categories and edge labels. The
+ * readers of the corpora and the lexicons pass these strings through
+ * {@link #intern(String)}, so that every distinct string is held once instead
+ * of once per token.
+ *
+ * The table is bounded by {@link #MAX_SIZE}; once it is full, new strings are
+ * returned as they are.
+ *
+ * Two interned strings are equal if and only if they are identical, but
+ * callers should still compare them with <code>equals</code>, which checks
+ * identity first: not every string reaches the table.
+ */
+public final class SymbolTable {
+
+	/**
+	 * The maximum number of strings in the table.
+	 */
+	public static final int MAX_SIZE = 1 << 20;
+
+	private static final ConcurrentHashMap<String, String> symbols = new ConcurrentHashMap<String, String>(4096);
+
+	private SymbolTable() {
+	}
+
+	/**
+	 * Returns the canonical instance of a string.
+	 *
+	 * @param s
+	 *          A string, may be null.
+	 * @return The string of the table that is equal to s, or s itself if it is
+	 *         null, new to the table, or the table is full.
+	 */
+	public static String intern(String s) {
+		if (s == null) {
+			return null;
+		}
+		String symbol = symbols.get(s);
+		if (symbol != null) {
+			return symbol;
+		}
+		if (symbols.size() >= MAX_SIZE) {
+			return s;
+		}
+		symbol = symbols.putIfAbsent(s, s);
+		return symbol == null ? s : symbol;
+	}
+
+	/**
+	 * Replaces the strings of an array by their canonical instances.
+	 *
+	 * @param strings
+	 *          An array of strings, may be null.
+	 * @return strings
+	 */
+	public static String[] intern(String[] strings) {
+		if (strings != null) {
+			for (int i = 0; i < strings.length; i++) {
+				strings[i] = intern(strings[i]);
+			}
+		}
+		return strings;
+	}
+
+	/**
+	 * @return The number of strings in the table.
+	 */
+	public static int size() {
+		return symbols.size();
+	}
+}
@@ -1,6 +1,7 @@
 package salsa.corpora.processing;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
@@ -49,6 +50,12 @@ public class CorpusProcessor {
 	
 	private ArrayList<Nonterminal> allNonterminalsInCorpus;
 	
+	private HashMap<String, Terminal> terminalIndex;
+	
+	private HashMap<String, Nonterminal> nonterminalIndex;
+	
+	private HashMap<Nonterminal, Set<Terminal>> terminalYields;
+	
 	
 
 	/**
@@ -260,95 +267,145 @@ public class CorpusProcessor {
 	 * covers a complex node (e. g. an NP or VP node), then this method resolves
 	 * all <code>Terminal</code> elements that belong to this NP or VP node.
 	 * 
+	 * Idrefs that match no node of the corpus are ignored.
+	 * 
 	 * @param allFenodes
 	 * @return allTerminals
 	 */
 	public Set<Terminal> getAllTerminals(ArrayList<Fenode> allFenodes) {
 
-
 		Set<Terminal> allTerminals = new HashSet<Terminal>();
 
-		// gehe durch das Corpus und fuege alle entsprechenden Terminals zu
-		// 'allTerminals' hinzu
-
-		Set<String> unresolvedIds = new HashSet<String>();
-
-		//System.out.print("fe-nodes ");
 		for (Fenode fenode : allFenodes) {
-			unresolvedIds.add(fenode.getIdref().getId());
-			//System.out.print(fenode.getIdref().getId() + ",");
-		}
-		//System.out.println(" are initially unresolved");
-
-		
-		while (!unresolvedIds.isEmpty()) {
-			
-			// versuche zuerst, die Terminals zu resolven
-			for (Terminal currentTerminal : getAllTerminalsInCorpus()) {
-				
-				HashSet<String> idsToRemove = new HashSet<String>();
-
-				for (String unresolvedId : unresolvedIds) {
-					
-					
-
-					if (currentTerminal.getId().getId().equals(unresolvedId)) {
-
-						allTerminals.add(currentTerminal);
-
-						idsToRemove.add(unresolvedId);
-						//System.out.println(unresolvedId
-						//		+ " has now been resolved to terminal node.");
-					}
-				}
-				for (String id : idsToRemove) {
-					unresolvedIds.remove(id);
+			String idref = fenode.getIdref().getId();
+			Terminal terminal = getTerminalIndex().get(idref);
+			if (null != terminal) {
+				allTerminals.add(terminal);
+			} else {
+				Nonterminal nonterminal = getNonterminalIndex().get(idref);
+				if (null != nonterminal) {
+					allTerminals.addAll(getTerminalYield(nonterminal));
 				}
 			}
+		}
 
-			// wenn dadurch immernoch nicht alles resolvt wurde, durchsuche die
-			// passenden Nonterminals
-			if (!unresolvedIds.isEmpty()) {
+		return allTerminals;
+	}
 
-				for (Nonterminal currentNonterminal : getAllNonterminalsInCorpus()) {
-					
-					HashSet<String> idsToRemove = new HashSet<String>();
-					
-					HashSet<String> idsToAdd = new HashSet<String>();
+	/**
+	 * Returns the <code>Terminal</code> with the given id.
+	 * 
+	 * @param id
+	 * @return The <code>Terminal</code>, or null if there is none.
+	 */
+	public Terminal getTerminal(Id id) {
+		return getTerminalIndex().get(id.getId());
+	}
 
-					for (String unresolvedId : unresolvedIds) {
+	/**
+	 * Returns the <code>Nonterminal</code> with the given id.
+	 * 
+	 * @param id
+	 * @return The <code>Nonterminal</code>, or null if there is none.
+	 */
+	public Nonterminal getNonterminal(Id id) {
+		return getNonterminalIndex().get(id.getId());
+	}
 
-						if (currentNonterminal.getId().getId().equals(
-								unresolvedId)) {
+	/**
+	 * Returns all <code>Terminal</code> elements a <code>Nonterminal</code>
+	 * dominates, directly or through other <code>Nonterminal</code>s. The
+	 * yields are computed once per <code>Nonterminal</code> and cached.
+	 * 
+	 * @param nonterminal
+	 * @return The terminal yield, must not be changed.
+	 */
+	public Set<Terminal> getTerminalYield(Nonterminal nonterminal) {
 
-							for (Edge edge : currentNonterminal.getEdges()) {
+		if (null == terminalYields) {
+			terminalYields = new HashMap<Nonterminal, Set<Terminal>>();
+		}
 
-								idsToAdd.add(edge.getId().getId());
-								
+		Set<Terminal> yield = terminalYields.get(nonterminal);
+		if (null != yield) {
+			return yield;
+		}
 
-							}
-							idsToRemove.add(unresolvedId);
-							
-						}
-					}
-					for (String id : idsToRemove) {
-						
-						unresolvedIds.remove(id);
-					}
-					for (String id : idsToAdd) {
-						unresolvedIds.add(id);
-					}
+		// Guards against cyclic edges, which a well-formed graph does not have.
+		terminalYields.put(nonterminal, Collections.<Terminal> emptySet());
+
+		yield = new HashSet<Terminal>();
+		for (Edge edge : nonterminal.getEdges()) {
+			String idref = edge.getId().getId();
+			Terminal terminal = getTerminalIndex().get(idref);
+			if (null != terminal) {
+				yield.add(terminal);
+			} else {
+				Nonterminal child = getNonterminalIndex().get(idref);
+				if (null != child) {
+					yield.addAll(getTerminalYield(child));
 				}
 			}
 		}
+		yield = Collections.unmodifiableSet(yield);
+		terminalYields.put(nonterminal, yield);
+		return yield;
+	}
+
+	/**
+	 * Forgets the cached nodes, indexes and yields. Call it after the
+	 * <code>Corpus</code> has been changed.
+	 */
+	public void invalidate() {
+		allTerminalsInCorpus = null;
+		allNonterminalsInCorpus = null;
+		terminalIndex = null;
+		nonterminalIndex = null;
+		terminalYields = null;
+	}
 
+	/**
+	 * The terminals by id, built on first use. Of several terminals with the
+	 * same id, the first one is kept.
+	 */
+	private HashMap<String, Terminal> getTerminalIndex() {
+
+		if (null == terminalIndex) {
+			ArrayList<Terminal> terminals = getAllTerminalsInCorpus();
+			terminalIndex = new HashMap<String, Terminal>(terminals.size() * 2);
+			for (Terminal terminal : terminals) {
+				String id = terminal.getId().getId();
+				if (!terminalIndex.containsKey(id)) {
+					terminalIndex.put(id, terminal);
+				}
+			}
+		}
+		return terminalIndex;
+	}
 
-		return allTerminals;
+	/**
+	 * The nonterminals by id, built on first use. Of several nonterminals with
+	 * the same id, the first one is kept.
+	 */
+	private HashMap<String, Nonterminal> getNonterminalIndex() {
+
+		if (null == nonterminalIndex) {
+			ArrayList<Nonterminal> nonterminals = getAllNonterminalsInCorpus();
+			nonterminalIndex = new HashMap<String, Nonterminal>(nonterminals.size() * 2);
+			for (Nonterminal nonterminal : nonterminals) {
+				String id = nonterminal.getId().getId();
+				if (!nonterminalIndex.containsKey(id)) {
+					nonterminalIndex.put(id, nonterminal);
+				}
+			}
+		}
+		return nonterminalIndex;
 	}
 
 	/**
 	 * Returns a list of all <code>Terminal</code> elements that are contained
-	 * in any <code>Sentence</code> in the <code>Corpus</code>.
+	 * in any <code>Sentence</code> in the <code>Corpus</code>. The list is built
+	 * once and cached, see {@link #invalidate()}.
 	 * 
 	 * @return
 	 */
@@ -390,12 +447,14 @@ public class CorpusProcessor {
 				allTerminals.add(currentTerminal);
 			}
 		}
+		allTerminalsInCorpus = allTerminals;
 		return allTerminals;
 	}
 
 	/**
 	 * Returns a list of all <code>Nonterminal</code> elements that are
-	 * contained in any <code>Sentence</code> in the <code>Corpus</code>.
+	 * contained in any <code>Sentence</code> in the <code>Corpus</code>. The
+	 * list is built once and cached, see {@link #invalidate()}.
 	 * 
 	 * @return
 	 */
@@ -421,6 +480,7 @@ public class CorpusProcessor {
 				allNonterminals.add(currentNonterminal);
 			}
 		}
+		allNonterminalsInCorpus = allNonterminals;
 		return allNonterminals;
 	}
 }
@@ -56,6 +56,7 @@ import salsa.corpora.elements.Variable;
 import salsa.corpora.elements.Wordtag;
 import salsa.corpora.elements.Wordtags;
 import salsa.corpora.noelement.Id;
+import salsa.corpora.noelement.SymbolTable;
 
 /**
  * This handles events of the <code>CorpusParser</code>. It tells the parser how
@@ -191,6 +192,9 @@ public class CorpusHandler extends DefaultHandler {
 
 	private Wordtags currentWordtags;
 
+	// if set, receives the head and every sentence as soon as they are read.
+	private CorpusListener listener;
+
 	/**
 	 * Zero-argumented default constructor.
 	 */
@@ -198,6 +202,18 @@ public class CorpusHandler extends DefaultHandler {
 
 	}
 
+	/**
+	 * Constructor for reading a corpus one sentence at a time. The head and each
+	 * sentence are passed to the listener as soon as they have been read, and
+	 * sentences are not kept in the <code>Body</code> of the corpus.
+	 * 
+	 * @param listener
+	 *          the <code>CorpusListener</code> that processes the corpus
+	 */
+	public CorpusHandler(CorpusListener listener) {
+		this.listener = listener;
+	}
+
 	/**
 	 * This method is called when the XML document starts. By now, nothing happens
 	 * in this method.
@@ -260,6 +276,10 @@ public class CorpusHandler extends DefaultHandler {
 
 			corpus.setBody(currentBody);
 
+			if (null != listener) {
+				listener.headRead(corpus);
+			}
+
 		} else if (qualName.equalsIgnoreCase("corpus")) {
 
 			corpus = new Corpus(atts.getValue("corpusname"), atts.getValue("target"));
@@ -284,7 +304,7 @@ public class CorpusHandler extends DefaultHandler {
 
 		} else if (qualName.equalsIgnoreCase("edge")) {
 
-			currentEdge = new Edge(new Id(atts.getValue("idref")), atts.getValue("label"));
+			currentEdge = new Edge(new Id(atts.getValue("idref")), SymbolTable.intern(atts.getValue("label")));
 
 			currentNonterminal.addEdge(currentEdge);
 
@@ -499,7 +519,7 @@ public class CorpusHandler extends DefaultHandler {
 
 		} else if (qualName.equalsIgnoreCase("nt")) {
 
-			currentNonterminal = new Nonterminal(atts.getValue("cat"), new Id(atts.getValue("id")));
+			currentNonterminal = new Nonterminal(SymbolTable.intern(atts.getValue("cat")), new Id(atts.getValue("id")));
 
 			currentNonterminals.addNonterminal(currentNonterminal);
 
@@ -523,7 +543,7 @@ public class CorpusHandler extends DefaultHandler {
 
 		} else if (qualName.equalsIgnoreCase("secedge")) {
 
-			currentSecedge = new Secedge(new Id(atts.getValue("id")), atts.getValue("label"));
+			currentSecedge = new Secedge(new Id(atts.getValue("id")), SymbolTable.intern(atts.getValue("label")));
 
 			currentTerminal.setSecedge(currentSecedge);
 
@@ -561,8 +581,9 @@ public class CorpusHandler extends DefaultHandler {
 
 		} else if (qualName.equalsIgnoreCase("t")) {
 
-			currentTerminal = new Terminal(new Id(atts.getValue("id")), atts.getValue("lemma"), atts.getValue("morph"),
-					atts.getValue("pos"), atts.getValue("word"));
+			// Lemmas and tags repeat throughout a corpus, see SymbolTable.
+			currentTerminal = new Terminal(new Id(atts.getValue("id")), SymbolTable.intern(atts.getValue("lemma")),
+					SymbolTable.intern(atts.getValue("morph")), SymbolTable.intern(atts.getValue("pos")), atts.getValue("word"));
 
 			currentTerminals.addTerminal(currentTerminal);
 
@@ -766,6 +787,11 @@ public class CorpusHandler extends DefaultHandler {
 
 		} else if (qualName.equalsIgnoreCase("s")) {
 
+			if (null != listener) {
+				listener.sentenceRead(currentSentence);
+				currentBody.getSentences().remove(currentBody.getSentences().size() - 1);
+			}
+
 		} else if (qualName.equalsIgnoreCase("secedge")) {
 
 		} else if (qualName.equalsIgnoreCase("secedgelabel")) {
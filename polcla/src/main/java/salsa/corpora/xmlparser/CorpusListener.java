@@ -0,0 +1,39 @@
+package salsa.corpora.xmlparser;
+
+import org.xml.sax.SAXException;
+
+import salsa.corpora.elements.Corpus;
+import salsa.corpora.elements.Sentence;
+
+/**
+ * Receives the parts of a SalsaXML corpus from the <code>CorpusHandler</code>
+ * as soon as they have been read. This allows to process a corpus one
+ * sentence at a time, without keeping the whole corpus in memory.
+ * 
+ */
+public interface CorpusListener {
+
+	/**
+	 * Called when the 'body' section starts, i. e. after the 'head' section has
+	 * been read completely.
+	 * 
+	 * @param corpus
+	 *            the <code>Corpus</code> with its <code>Head</code> and an
+	 *            empty <code>Body</code>
+	 * @throws SAXException
+	 *             to stop parsing
+	 */
+	public void headRead(Corpus corpus) throws SAXException;
+
+	/**
+	 * Called for every 's' element as soon as it has been read. During the call,
+	 * the <code>Sentence</code> is the only one in the <code>Body</code> of the
+	 * corpus. It is removed from the <code>Body</code> afterwards.
+	 * 
+	 * @param sentence
+	 *            the <code>Sentence</code> that has been read
+	 * @throws SAXException
+	 *             to stop parsing
+	 */
+	public void sentenceRead(Sentence sentence) throws SAXException;
+}
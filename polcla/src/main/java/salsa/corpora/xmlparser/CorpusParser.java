@@ -13,6 +13,7 @@ import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 import salsa.corpora.elements.Corpus;
+import salsa.corpora.elements.Sentence;
 
 public class CorpusParser {
 
@@ -31,10 +32,28 @@ public class CorpusParser {
 	 */
 	public CorpusParser() throws ParserConfigurationException, SAXException {
 
+		this(true);
+	}
+
+	/**
+	 * Constructor that allows to switch off DTD validation for trusted inputs.
+	 * Validation errors are not reported by the <code>CorpusHandler</code>, so
+	 * the resulting <code>Corpus</code> is the same, but validation takes a
+	 * large part of the parse time.
+	 * 
+	 * @param validating
+	 *            <code>true</code> to validate the XML document
+	 * @throws ParserConfigurationException
+	 *             if there is a problem with the parser factory
+	 * @throws SAXException
+	 *             if there is a problem when creating the parser
+	 */
+	public CorpusParser(boolean validating) throws ParserConfigurationException, SAXException {
+
 		// init parser factory
 		SAXParserFactory parserFactory = SAXParserFactory.newInstance();
 
-		parserFactory.setValidating(true);
+		parserFactory.setValidating(validating);
 
 		parserFactory.setNamespaceAware(false);
 		// create parser
@@ -68,4 +87,38 @@ public class CorpusParser {
 
 	}
 
+	/**
+	 * Parses the XML document one sentence at a time. The head and every
+	 * <code>Sentence</code> are passed to the listener as soon as they have been
+	 * read, so the memory needed does not depend on the size of the corpus. It
+	 * reads only files in the 'utf-8' format.
+	 * 
+	 * @param aFileName
+	 *            a <code>String</code> with the file name to read the XML
+	 *            document from
+	 * @param listener
+	 *            the <code>CorpusListener</code> that processes the corpus
+	 * @return the <code>Corpus</code> with its <code>Head</code> and an empty
+	 *         <code>Body</code>
+	 * @throws IOException
+	 *             if there is a problem when reading the file
+	 * @throws SAXException
+	 *             if there is a problem when parsing the XML document, or the
+	 *             listener stopped parsing
+	 * @see CorpusListener#sentenceRead(Sentence)
+	 */
+	public Corpus parseCorpusFromFile(String aFileName, CorpusListener listener) throws IOException,
+			SAXException {
+
+		CorpusHandler streamHandler = new CorpusHandler(listener);
+
+		try (FileInputStream is = new FileInputStream(new File(aFileName))) {
+			this.parser.parse(new InputSource(new InputStreamReader(is, "UTF-8")),
+					streamHandler);
+		}
+
+		return streamHandler.getCorpus();
+
+	}
+
 }
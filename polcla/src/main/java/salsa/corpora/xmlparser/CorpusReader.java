@@ -0,0 +1,253 @@
+package salsa.corpora.xmlparser;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+import salsa.corpora.elements.Corpus;
+import salsa.corpora.elements.Head;
+import salsa.corpora.elements.Sentence;
+
+/**
+ * Pull-based reader for SalsaXML files. In contrast to the
+ * <code>CorpusParser</code>, which reads the whole file into a
+ * <code>Corpus</code>, the <code>CorpusReader</code> returns one
+ * <code>Sentence</code> at a time. The <code>Head</code> is read when the
+ * reader is created.
+ *
+ * The file is read with a StAX parser whose events are passed to a
+ * <code>CorpusHandler</code>, so the elements are built exactly as by the
+ * <code>CorpusParser</code>. The document is not validated against its DTD.
+ * The <code>CorpusHandler</code> ignores validation errors anyway, so this
+ * only saves time; it is meant for trusted inputs.
+ *
+ */
+public class CorpusReader implements Closeable {
+
+	private final InputStream input;
+
+	private final XMLStreamReader reader;
+
+	private final CorpusHandler handler;
+
+	private final AttributesImpl attributes = new AttributesImpl();
+
+	// the corpus with its head; its body holds the current sentence only.
+	private Corpus corpus;
+
+	// the sentence completed by the last call of advance(), if any.
+	private Sentence sentence;
+
+	// the depth of the current element, 0 outside of the root element.
+	private int depth;
+
+	/**
+	 * Opens a SalsaXML file and reads its head. It reads only files in the
+	 * 'utf-8' format.
+	 *
+	 * @param aFileName
+	 *            a <code>String</code> with the file name to read the XML
+	 *            document from
+	 * @throws IOException
+	 *             if there is a problem when reading the file
+	 * @throws XMLStreamException
+	 *             if there is a problem when parsing the XML document
+	 */
+	public CorpusReader(String aFileName) throws IOException, XMLStreamException {
+
+		this(new BufferedInputStream(new FileInputStream(new File(aFileName))));
+	}
+
+	/**
+	 * Reads a SalsaXML document from an <code>InputStream</code> in the 'utf-8'
+	 * format and reads its head. The stream is closed by {@link #close()}.
+	 *
+	 * @param anInput
+	 *            the <code>InputStream</code> to read the XML document from
+	 * @throws IOException
+	 *             if there is a problem when reading the stream
+	 * @throws XMLStreamException
+	 *             if there is a problem when parsing the XML document
+	 */
+	public CorpusReader(InputStream anInput) throws IOException, XMLStreamException {
+
+		this(anInput, XMLInputFactory.newInstance());
+	}
+
+	/**
+	 * Reads a SalsaXML document from an <code>InputStream</code> in the 'utf-8'
+	 * format with the parser of a given factory and reads its head. The stream
+	 * is closed by {@link #close()}. Documents from untrusted sources should be
+	 * read with a factory that does not support DTDs and external entities.
+	 *
+	 * @param anInput
+	 *            the <code>InputStream</code> to read the XML document from
+	 * @param factory
+	 *            the factory of the StAX parser; it is made not namespace
+	 *            aware
+	 * @throws IOException
+	 *             if there is a problem when reading the stream
+	 * @throws XMLStreamException
+	 *             if there is a problem when parsing the XML document
+	 */
+	public CorpusReader(InputStream anInput, XMLInputFactory factory) throws IOException, XMLStreamException {
+
+		factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+
+		this.input = anInput;
+		try {
+			this.reader = factory.createXMLStreamReader(new InputStreamReader(input, "UTF-8"));
+		} catch (XMLStreamException e) {
+			input.close();
+			throw e;
+		}
+
+		this.handler = new CorpusHandler(new CorpusListener() {
+
+			@Override
+			public void headRead(Corpus headCorpus) {
+				corpus = headCorpus;
+			}
+
+			@Override
+			public void sentenceRead(Sentence readSentence) {
+				sentence = readSentence;
+			}
+		});
+
+		// read up to the start of the body
+		while (null == corpus && advance()) {
+		}
+		if (null == corpus) {
+			corpus = handler.getCorpus();
+		}
+	}
+
+	/**
+	 * Returns the <code>Corpus</code> that is being read. Its <code>Head</code>
+	 * is complete; its <code>Body</code> only contains the
+	 * <code>Sentence</code> returned by the last call of {@link #next()}.
+	 *
+	 * @return the corpus, or <code>null</code> if the file has no 'corpus'
+	 *         element
+	 */
+	public Corpus getCorpus() {
+		return corpus;
+	}
+
+	/**
+	 * Returns the <code>Head</code> of the corpus.
+	 *
+	 * @return the head, or <code>null</code> if the corpus has none
+	 */
+	public Head getHead() {
+		return null == corpus ? null : corpus.getHead();
+	}
+
+	/**
+	 * Reads the next 's' element.
+	 *
+	 * @return the next <code>Sentence</code> with its graph and semantics, or
+	 *         <code>null</code> at the end of the corpus
+	 * @throws XMLStreamException
+	 *             if there is a problem when parsing the XML document
+	 */
+	public Sentence next() throws XMLStreamException {
+
+		if (null == corpus || null == corpus.getBody()) {
+			return null;
+		}
+		corpus.getBody().getSentences().clear();
+
+		sentence = null;
+		while (null == sentence && advance()) {
+		}
+		if (null != sentence) {
+			corpus.getBody().addSentence(sentence);
+		}
+		return sentence;
+	}
+
+	/**
+	 * Passes the next event of the XML document to the handler.
+	 *
+	 * @return <code>false</code> at the end of the document
+	 */
+	private boolean advance() throws XMLStreamException {
+
+		if (!reader.hasNext()) {
+			return false;
+		}
+
+		try {
+			switch (reader.next()) {
+
+			case XMLStreamConstants.START_ELEMENT:
+
+				attributes.clear();
+				for (int i = 0; i < reader.getAttributeCount(); i++) {
+					String name = qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i));
+					attributes.addAttribute("", "", name, "CDATA", reader.getAttributeValue(i));
+				}
+				depth++;
+				handler.startElement("", "", qualifiedName(reader.getPrefix(), reader.getLocalName()), attributes);
+				break;
+
+			case XMLStreamConstants.END_ELEMENT:
+
+				depth--;
+				handler.endElement("", "", qualifiedName(reader.getPrefix(), reader.getLocalName()));
+				break;
+
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.CDATA:
+			case XMLStreamConstants.SPACE:
+
+				// like SAX, report text inside of the root element only
+				if (depth > 0) {
+					handler.characters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+				}
+				break;
+
+			default:
+				break;
+			}
+		} catch (SAXException e) {
+			throw new XMLStreamException(e);
+		}
+		return true;
+	}
+
+	private static String qualifiedName(String prefix, String localName) {
+		if (null == prefix || prefix.isEmpty()) {
+			return localName;
+		}
+		return prefix + ":" + localName;
+	}
+
+	/**
+	 * Closes the XML document.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			reader.close();
+		} catch (XMLStreamException e) {
+			throw new IOException(e);
+		} finally {
+			input.close();
+		}
+	}
+}
@@ -0,0 +1,210 @@
+package salsa.corpora.xmlwriter;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.zip.GZIPOutputStream;
+
+import salsa.corpora.elements.Body;
+import salsa.corpora.elements.Corpus;
+import salsa.corpora.elements.Sentence;
+
+/**
+ * Writes SalsaXML files. The elements are serialized directly to a buffered
+ * <code>Writer</code>, without building the XML document as a
+ * <code>String</code> first. The output is the same as that of
+ * <code>Corpus.toString()</code>.
+ *
+ * A whole <code>Corpus</code> can be written with
+ * {@link #writeCorpus(Corpus)}. For streaming, the header is written with
+ * {@link #writeStart(Corpus)}, then every <code>Sentence</code> with
+ * {@link #writeSentence(Sentence)} and finally the end of the document with
+ * {@link #writeEnd()}.
+ *
+ */
+public class CorpusWriter implements Closeable {
+
+	/**
+	 * An element of a SalsaXML document that can serialize itself.
+	 */
+	public interface Writable {
+
+		/**
+		 * Writes the XML representation of this element to a
+		 * <code>Writer</code>. The text is the same as that of
+		 * {@link CorpusWriter#toString(Writable)}.
+		 *
+		 * @param out
+		 *          the <code>Writer</code> to write to
+		 * @throws IOException
+		 *           if the XML could not be written
+		 */
+		void write(Writer out) throws IOException;
+	}
+
+	private final Writer out;
+
+	private final boolean flushEachSentence;
+
+	// the corpus whose header has been written by writeStart(Corpus).
+	private Corpus corpus;
+
+	/**
+	 * Opens a file for writing in the 'utf-8' format. If the file name ends with
+	 * ".gz", the file is compressed with gzip.
+	 *
+	 * @param aFileName
+	 *          a <code>String</code> with the file name to write the XML
+	 *          document to
+	 * @param flushEachSentence
+	 *          if <code>true</code>, the output is flushed after every
+	 *          <code>Sentence</code>, so that the file can be read while it is
+	 *          written
+	 * @throws IOException
+	 *           if the file could not be opened
+	 */
+	public CorpusWriter(String aFileName, boolean flushEachSentence) throws IOException {
+		this(open(aFileName), flushEachSentence);
+	}
+
+	/**
+	 * Writes to an <code>OutputStream</code> in the 'utf-8' format. The stream
+	 * is buffered by the <code>CorpusWriter</code> and closed by
+	 * {@link #close()}.
+	 *
+	 * @param output
+	 *          the <code>OutputStream</code> to write the XML document to
+	 * @param flushEachSentence
+	 *          if <code>true</code>, the output is flushed after every
+	 *          <code>Sentence</code>
+	 * @throws IOException
+	 *           if the stream could not be opened for writing
+	 */
+	public CorpusWriter(OutputStream output, boolean flushEachSentence) throws IOException {
+		this.out = new BufferedWriter(new OutputStreamWriter(output, "UTF-8"));
+		this.flushEachSentence = flushEachSentence;
+	}
+
+	private static OutputStream open(String aFileName) throws IOException {
+
+		OutputStream output = new FileOutputStream(aFileName);
+		if (aFileName.endsWith(".gz")) {
+			try {
+				// sync flush, so that flushing makes every sentence readable
+				return new GZIPOutputStream(output, 8192, true);
+			} catch (IOException e) {
+				output.close();
+				throw e;
+			}
+		}
+		return new BufferedOutputStream(output);
+	}
+
+	/**
+	 * Writes a whole <code>Corpus</code>.
+	 *
+	 * @param aCorpus
+	 *          the <code>Corpus</code> to write
+	 * @throws IOException
+	 *           if the XML could not be written
+	 */
+	public void writeCorpus(Corpus aCorpus) throws IOException {
+
+		writeStart(aCorpus);
+		if (null != aCorpus.getBody()) {
+			for (Sentence sentence : aCorpus.getBody().getSentences()) {
+				writeSentence(sentence);
+			}
+		}
+		writeEnd();
+	}
+
+	/**
+	 * Writes the XML declaration, the opening 'corpus' tag, the
+	 * <code>Head</code> and, if the <code>Corpus</code> has a
+	 * <code>Body</code>, the opening 'body' tag.
+	 *
+	 * @param aCorpus
+	 *          the <code>Corpus</code> whose header is written
+	 * @throws IOException
+	 *           if the XML could not be written
+	 */
+	public void writeStart(Corpus aCorpus) throws IOException {
+
+		this.corpus = aCorpus;
+		out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+		out.write(System.getProperty("line.separator"));
+		corpus.writeStart(out);
+
+		Body body = corpus.getBody();
+		if (null != body) {
+			out.write("\t");
+			body.writeStart(out);
+		}
+	}
+
+	/**
+	 * Writes a <code>Sentence</code> of the <code>Body</code>.
+	 *
+	 * @param sentence
+	 *          the <code>Sentence</code> to write
+	 * @throws IOException
+	 *           if the XML could not be written
+	 */
+	public void writeSentence(Sentence sentence) throws IOException {
+
+		corpus.getBody().writeSentence(out, sentence);
+		if (flushEachSentence) {
+			out.flush();
+		}
+	}
+
+	/**
+	 * Writes the closing 'body' and 'corpus' tags and flushes the output.
+	 *
+	 * @throws IOException
+	 *           if the XML could not be written
+	 */
+	public void writeEnd() throws IOException {
+
+		if (null != corpus.getBody()) {
+			corpus.getBody().writeEnd(out);
+		}
+		corpus.writeEnd(out);
+		out.flush();
+	}
+
+	/**
+	 * Returns the XML representation of an element as a <code>String</code>.
+	 * The elements use this for their <code>toString()</code> method.
+	 *
+	 * @param element
+	 *          the element to serialize
+	 * @return the text written by {@link Writable#write(Writer)}
+	 */
+	public static String toString(Writable element) {
+
+		StringWriter buffer = new StringWriter();
+		try {
+			element.write(buffer);
+		} catch (IOException e) {
+			// a StringWriter does not throw IOExceptions
+			throw new IllegalStateException(e);
+		}
+		return buffer.toString();
+	}
+
+	/**
+	 * Closes the XML document.
+	 */
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+}